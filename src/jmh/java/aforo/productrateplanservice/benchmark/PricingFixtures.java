@@ -0,0 +1,250 @@
+package aforo.productrateplanservice.benchmark;
+
+import aforo.productrateplanservice.discount.Discount;
+import aforo.productrateplanservice.discount.DiscountType;
+import aforo.productrateplanservice.enums.RatePlanType;
+import aforo.productrateplanservice.estimator.EstimateRequest;
+import aforo.productrateplanservice.flatfee.FlatFee;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.setupfee.SetupFee;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricing;
+import aforo.productrateplanservice.stairsteppricing.StairStepTier;
+import aforo.productrateplanservice.tieredpricing.TieredPricing;
+import aforo.productrateplanservice.tieredpricing.TieredTier;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricing;
+import aforo.productrateplanservice.volumepricing.VolumePricing;
+import aforo.productrateplanservice.volumepricing.VolumeTier;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic fixtures for the benchmarks: contiguous tier ladders with falling prices,
+ * and a tenant's rate plans cycling through every pricing model with some extras.
+ */
+final class PricingFixtures {
+
+    static final long UNITS_PER_TIER = 1_000;
+    static final long ORGANIZATION_ID = 1L;
+
+    private PricingFixtures() {
+    }
+
+    /** Tier ladder 1-1000, 1001-2000, ... with the last tier open-ended. */
+    static List<EstimateRequest.Tier> estimateTiers(int tierCount) {
+        List<EstimateRequest.Tier> tiers = new ArrayList<>(tierCount);
+        for (int i = 0; i < tierCount; i++) {
+            long start = i * UNITS_PER_TIER + 1;
+            Long end = i == tierCount - 1 ? null : (i + 1) * UNITS_PER_TIER;
+            tiers.add(new EstimateRequest.Tier(start, end, unitPrice(i)));
+        }
+        return tiers;
+    }
+
+    static List<EstimateRequest.Step> estimateSteps(int stepCount) {
+        List<EstimateRequest.Step> steps = new ArrayList<>(stepCount);
+        for (int i = 0; i < stepCount; i++) {
+            long start = i * UNITS_PER_TIER + 1;
+            Long end = i == stepCount - 1 ? null : (i + 1) * UNITS_PER_TIER;
+            steps.add(new EstimateRequest.Step(start, end, BigDecimal.valueOf(10L * (i + 1))));
+        }
+        return steps;
+    }
+
+    static EstimateRequest estimateRequest(RatePlanType model, int tierCount, boolean withExtras) {
+        EstimateRequest.EstimateRequestBuilder builder = EstimateRequest.builder()
+                .pricingModel(model)
+                .flatFeeAmount(new BigDecimal("49.99"))
+                .numberOfApiCalls(10_000L)
+                .overageUnitRate(new BigDecimal("0.0125"))
+                .perUnitAmount(new BigDecimal("0.0042"))
+                .tiers(estimateTiers(tierCount))
+                .steps(estimateSteps(tierCount));
+        if (withExtras) {
+            builder.includeSetup(true).setupFee(new BigDecimal("99"))
+                    .includeDiscount(true).discountPct(new BigDecimal("12.5"))
+                    .includeFreemium(true).freeUnits(500L)
+                    .includeCommitment(true).minCommitmentAmount(new BigDecimal("25"));
+        }
+        return builder.build();
+    }
+
+    /** Usage values spread over the whole ladder so every lookup depth is exercised. */
+    static long[] usageSamples(int tierCount, int samples) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] usages = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            usages[i] = random.nextLong(tierCount * UNITS_PER_TIER + UNITS_PER_TIER);
+        }
+        return usages;
+    }
+
+    static TieredPricing tieredPricing(RatePlan ratePlan, long id, int tierCount) {
+        TieredPricing pricing = new TieredPricing();
+        pricing.setTieredPricingId(id);
+        pricing.setRatePlan(ratePlan);
+        pricing.setOverageUnitRate(new BigDecimal("0.01"));
+        pricing.setGraceBuffer(0);
+        List<TieredTier> tiers = new ArrayList<>(tierCount);
+        for (int i = 0; i < tierCount; i++) {
+            tiers.add(TieredTier.builder()
+                    .tieredTierId(id * 10_000 + i)
+                    .startRange(i * UNITS_PER_TIER + 1)
+                    .endRange(i == tierCount - 1 ? null : (i + 1) * UNITS_PER_TIER)
+                    .unitPrice(unitPrice(i))
+                    .tieredPricing(pricing)
+                    .build());
+        }
+        pricing.setTiers(tiers);
+        return pricing;
+    }
+
+    /**
+     * A tenant's rate plans and every pricing/extra row keyed by rate plan id, cycling through
+     * flat fee, tiered, volume, usage-based and stair-step pricing.
+     */
+    static Tenant tenant(int ratePlanCount, int tiersPerPlan) {
+        Tenant tenant = new Tenant();
+        for (int p = 0; p < ratePlanCount; p++) {
+            long ratePlanId = p + 1L;
+            RatePlan ratePlan = new RatePlan();
+            ratePlan.setRatePlanId(ratePlanId);
+            ratePlan.setRatePlanCode("RP-" + ratePlanId);
+            ratePlan.setRatePlanName("Rate plan " + ratePlanId);
+            ratePlan.setOrganizationId(ORGANIZATION_ID);
+            ratePlan.setDescription("Generated benchmark plan");
+            ratePlan.setCreatedOn(LocalDateTime.of(2025, 1, 1, 0, 0));
+            ratePlan.setLastUpdated(LocalDateTime.of(2025, 1, 1, 0, 0));
+            tenant.ratePlans.add(ratePlan);
+
+            switch (p % 5) {
+                case 0 -> {
+                    FlatFee flatFee = new FlatFee();
+                    flatFee.setFlatFeeId(ratePlanId);
+                    flatFee.setRatePlanId(ratePlanId);
+                    flatFee.setFlatFeeAmount(50);
+                    flatFee.setNumberOfApiCalls(10_000L);
+                    flatFee.setOverageUnitRate(new BigDecimal("0.01"));
+                    tenant.add(FlatFee.class, ratePlanId, flatFee);
+                }
+                case 1 -> tenant.add(TieredPricing.class, ratePlanId, tieredPricing(ratePlan, ratePlanId, tiersPerPlan));
+                case 2 -> {
+                    VolumePricing pricing = new VolumePricing();
+                    pricing.setVolumePricingId(ratePlanId);
+                    pricing.setRatePlan(ratePlan);
+                    List<VolumeTier> tiers = new ArrayList<>(tiersPerPlan);
+                    for (int i = 0; i < tiersPerPlan; i++) {
+                        tiers.add(VolumeTier.builder()
+                                .volumeTierId(ratePlanId * 10_000 + i)
+                                .usageStart(i * UNITS_PER_TIER + 1)
+                                .usageEnd(i == tiersPerPlan - 1 ? null : (i + 1) * UNITS_PER_TIER)
+                                .unitPrice(unitPrice(i))
+                                .volumePricing(pricing)
+                                .build());
+                    }
+                    pricing.setTiers(tiers);
+                    tenant.add(VolumePricing.class, ratePlanId, pricing);
+                }
+                case 3 -> {
+                    UsageBasedPricing pricing = new UsageBasedPricing();
+                    pricing.setUsageBasedPricingId(ratePlanId);
+                    pricing.setRatePlan(ratePlan);
+                    pricing.setPerUnitAmount(new BigDecimal("0.004"));
+                    tenant.add(UsageBasedPricing.class, ratePlanId, pricing);
+                }
+                default -> {
+                    StairStepPricing pricing = new StairStepPricing();
+                    pricing.setStairStepPricingId(ratePlanId);
+                    pricing.setRatePlan(ratePlan);
+                    List<StairStepTier> tiers = new ArrayList<>(tiersPerPlan);
+                    for (int i = 0; i < tiersPerPlan; i++) {
+                        tiers.add(StairStepTier.builder()
+                                .stairStepTierId(ratePlanId * 10_000 + i)
+                                .usageStart(i * UNITS_PER_TIER + 1)
+                                .usageEnd(i == tiersPerPlan - 1 ? null : (i + 1) * UNITS_PER_TIER)
+                                .flatCost(BigDecimal.valueOf(10L * (i + 1)))
+                                .stairStepPricing(pricing)
+                                .build());
+                    }
+                    pricing.setTiers(tiers);
+                    tenant.add(StairStepPricing.class, ratePlanId, pricing);
+                }
+            }
+
+            if (p % 3 == 0) {
+                SetupFee setupFee = new SetupFee();
+                setupFee.setId(ratePlanId);
+                setupFee.setRatePlan(ratePlan);
+                setupFee.setSetupFee(new BigDecimal("99"));
+                setupFee.setApplicationTiming(0);
+                setupFee.setInvoiceDescription("Onboarding");
+                tenant.add(SetupFee.class, ratePlanId, setupFee);
+            }
+            if (p % 4 == 0) {
+                Discount discount = new Discount();
+                discount.setId(ratePlanId);
+                discount.setRatePlan(ratePlan);
+                discount.setDiscountType(DiscountType.PERCENTAGE);
+                discount.setPercentageDiscount(10.0);
+                tenant.add(Discount.class, ratePlanId, discount);
+            }
+        }
+        return tenant;
+    }
+
+    private static BigDecimal unitPrice(int tierIndex) {
+        // 0.100000, 0.099000, ... never below 0.000100
+        return BigDecimal.valueOf(Math.max(100, 100_000 - 1_000L * tierIndex), 6);
+    }
+
+    /**
+     * In-memory stand-in for the pricing repositories: any {@code find...} method called with a
+     * rate plan id (or a collection of ids) answers from the fixture rows, so the benchmark measures
+     * DTO assembly rather than the database.
+     */
+    static final class Tenant {
+        final List<RatePlan> ratePlans = new ArrayList<>();
+        private final Map<Class<?>, Map<Long, List<Object>>> rows = new HashMap<>();
+
+        private void add(Class<?> type, Long ratePlanId, Object row) {
+            rows.computeIfAbsent(type, t -> new HashMap<>())
+                    .computeIfAbsent(ratePlanId, id -> new ArrayList<>())
+                    .add(row);
+        }
+
+        @SuppressWarnings("unchecked")
+        <R> R repository(Class<R> repositoryType, Class<?> entityType) {
+            Map<Long, List<Object>> byPlan = rows.getOrDefault(entityType, Map.of());
+            return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                    (proxy, method, args) -> {
+                        if (method.getDeclaringClass() == Object.class) {
+                            return switch (method.getName()) {
+                                case "hashCode" -> System.identityHashCode(proxy);
+                                case "equals" -> proxy == args[0];
+                                default -> repositoryType.getSimpleName() + "[in-memory]";
+                            };
+                        }
+                        if (!method.getName().startsWith("find") || args == null || args.length != 1)
+                            throw new UnsupportedOperationException(method.toString());
+                        List<Object> result;
+                        if (args[0] instanceof Collection<?> ids) {
+                            result = new ArrayList<>();
+                            for (Object id : ids) result.addAll(byPlan.getOrDefault((Long) id, List.of()));
+                        } else {
+                            result = byPlan.getOrDefault((Long) args[0], List.of());
+                        }
+                        if (method.getReturnType() == Optional.class)
+                            return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+                        return result;
+                    });
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package aforo.productrateplanservice.benchmark;
+
+import aforo.productrateplanservice.discount.Discount;
+import aforo.productrateplanservice.discount.DiscountMapper;
+import aforo.productrateplanservice.discount.DiscountRepository;
+import aforo.productrateplanservice.flatfee.FlatFee;
+import aforo.productrateplanservice.flatfee.FlatFeeMapper;
+import aforo.productrateplanservice.flatfee.FlatFeeRepository;
+import aforo.productrateplanservice.freemium.Freemium;
+import aforo.productrateplanservice.freemium.FreemiumMapper;
+import aforo.productrateplanservice.freemium.FreemiumRepository;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitment;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentMapper;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentRepository;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.service.ParallelPricingLoader;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.setupfee.SetupFee;
+import aforo.productrateplanservice.setupfee.SetupFeeMapper;
+import aforo.productrateplanservice.setupfee.SetupFeeRepository;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricing;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricingMapper;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricingRepository;
+import aforo.productrateplanservice.tieredpricing.TieredPricing;
+import aforo.productrateplanservice.tieredpricing.TieredPricingMapper;
+import aforo.productrateplanservice.tieredpricing.TieredPricingRepository;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricing;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingMapper;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingRepository;
+import aforo.productrateplanservice.volumepricing.VolumePricing;
+import aforo.productrateplanservice.volumepricing.VolumePricingMapper;
+import aforo.productrateplanservice.volumepricing.VolumePricingRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detailed DTO assembly for a tenant with up to 10k rate plans. Repositories answer from memory,
+ * so this measures the service's own lookup and mapping work per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RatePlanAggregationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int ratePlanCount;
+
+    @Param({"10"})
+    public int tiersPerPlan;
+
+    private RatePlanPricingAggregationService service;
+    private PricingFixtures.Tenant tenant;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tenant = PricingFixtures.tenant(ratePlanCount, tiersPerPlan);
+        service = new RatePlanPricingAggregationService(
+                tenant.repository(FlatFeeRepository.class, FlatFee.class), new FlatFeeMapper(),
+                tenant.repository(TieredPricingRepository.class, TieredPricing.class), new TieredPricingMapper(),
+                tenant.repository(VolumePricingRepository.class, VolumePricing.class), new VolumePricingMapper(),
+                tenant.repository(UsageBasedPricingRepository.class, UsageBasedPricing.class), new UsageBasedPricingMapper(),
+                tenant.repository(StairStepPricingRepository.class, StairStepPricing.class), new StairStepPricingMapper(),
+                tenant.repository(SetupFeeRepository.class, SetupFee.class), new SetupFeeMapper(),
+                tenant.repository(DiscountRepository.class, Discount.class), new DiscountMapper(),
+                tenant.repository(FreemiumRepository.class, Freemium.class), new FreemiumMapper(),
+                tenant.repository(MinimumCommitmentRepository.class, MinimumCommitment.class), new MinimumCommitmentMapper(),
+                ParallelPricingLoader.sequential());
+    }
+
+    @Benchmark
+    public List<RatePlanDTO> toDetailedDTOsBatch() {
+        return service.toDetailedDTOsBatch(tenant.ratePlans);
+    }
+}
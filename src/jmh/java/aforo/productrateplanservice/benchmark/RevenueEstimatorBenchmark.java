@@ -0,0 +1,82 @@
+package aforo.productrateplanservice.benchmark;
+
+import aforo.productrateplanservice.enums.RatePlanType;
+import aforo.productrateplanservice.estimator.CompiledPricingProgram;
+import aforo.productrateplanservice.estimator.CompiledPricingProgramCache;
+import aforo.productrateplanservice.estimator.EstimateRequest;
+import aforo.productrateplanservice.estimator.EstimateResponse;
+import aforo.productrateplanservice.estimator.RevenueEstimatorServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimator hot path: full estimate (cache lookup + breakdown), breakdown-free totals,
+ * and the one-off compile cost, for 1 to 1,000 tiers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevenueEstimatorBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"TIERED", "VOLUME_BASED", "STAIRSTEP"})
+    public RatePlanType model;
+
+    @Param({"1", "10", "100", "1000"})
+    public int tierCount;
+
+    @Param({"false", "true"})
+    public boolean withExtras;
+
+    private RevenueEstimatorServiceImpl service;
+    private EstimateRequest request;
+    private CompiledPricingProgram program;
+    private long[] usages;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new RevenueEstimatorServiceImpl(new CompiledPricingProgramCache(16));
+        request = PricingFixtures.estimateRequest(model, tierCount, withExtras);
+        program = CompiledPricingProgram.compile(request);
+        usages = PricingFixtures.usageSamples(tierCount, SAMPLES);
+    }
+
+    private long nextUsage() {
+        cursor = (cursor + 1) & (SAMPLES - 1);
+        return usages[cursor];
+    }
+
+    @Benchmark
+    public EstimateResponse estimate() {
+        request.setUsage(nextUsage());
+        return service.estimate(request);
+    }
+
+    @Benchmark
+    public BigDecimal total() {
+        return program.total(nextUsage());
+    }
+
+    @Benchmark
+    public CompiledPricingProgram compile() {
+        return CompiledPricingProgram.compile(request);
+    }
+}
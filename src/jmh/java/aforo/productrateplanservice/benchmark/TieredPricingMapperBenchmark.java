@@ -0,0 +1,51 @@
+package aforo.productrateplanservice.benchmark;
+
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.tieredpricing.TieredPricing;
+import aforo.productrateplanservice.tieredpricing.TieredPricingDTO;
+import aforo.productrateplanservice.tieredpricing.TieredPricingMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping of one tiered pricing with 1 to 1,000 tiers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TieredPricingMapperBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int tierCount;
+
+    private TieredPricingMapper mapper;
+    private TieredPricing pricing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = new TieredPricingMapper();
+        RatePlan ratePlan = new RatePlan();
+        ratePlan.setRatePlanId(1L);
+        pricing = PricingFixtures.tieredPricing(ratePlan, 1L, tierCount);
+    }
+
+    @Benchmark
+    public TieredPricingDTO toDTO() {
+        return mapper.toDTO(pricing);
+    }
+}
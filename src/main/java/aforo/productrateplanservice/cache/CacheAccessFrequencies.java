@@ -0,0 +1,209 @@
+package aforo.productrateplanservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 📊 How often each tenant's cache keys are read, for the {@link CacheWarmUpService}.
+ *
+ * Frequencies live in a count-min sketch (4 rows of counters, a few hundred KB whatever the traffic)
+ * that is halved every {@code 10 × width} reads, so keys that were hot a while ago fade out. Which keys
+ * are candidates is remembered in a bounded Caffeine map, whose own frequency-based admission keeps the
+ * popular ones. The hottest keys are periodically saved to a {@link Store} (Redis, else a local file) so a
+ * restarted node knows what to warm.
+ */
+@Component
+@Slf4j
+public class CacheAccessFrequencies {
+
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x97cb3127, 0x61c88647, 0x3b9aca07, 0x2545f491};
+    private static final ThreadLocal<Boolean> UNTRACKED = new ThreadLocal<>();
+
+    private final Store store;
+    private final int width;
+    private final AtomicIntegerArray counters;
+    private final long sampleSize;
+    private final AtomicLong additions = new AtomicLong();
+    private final ReentrantLock aging = new ReentrantLock();
+    private final com.github.benmanes.caffeine.cache.Cache<HotKey, Boolean> candidates;
+
+    public CacheAccessFrequencies(int trackedKeys) {
+        this(trackedKeys, new LocalStore());
+    }
+
+    @Autowired
+    public CacheAccessFrequencies(@Value("${aforo.cache.warmup.tracked-keys:10000}") int trackedKeys,
+                                  ObjectProvider<Store> store) {
+        this(trackedKeys, store.getIfAvailable(() -> {
+            log.info("📊 Hot cache keys are kept in memory only: the startup warm-up has nothing to restore after a "
+                    + "restart (set aforo.cache.warmup.snapshot-file, or use Redis)");
+            return new LocalStore();
+        }));
+    }
+
+    CacheAccessFrequencies(int trackedKeys, Store store) {
+        this.store = store;
+        this.width = Integer.highestOneBit(Math.max(16, trackedKeys) * 2 - 1);
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+        this.sampleSize = 10L * width;
+        this.candidates = Caffeine.newBuilder().maximumSize(Math.max(1, trackedKeys)).build();
+    }
+
+    /** Count a read of {@code key} by the tenant; reads made inside {@link #untracked} are ignored. */
+    public void record(String region, Long organizationId, Object key) {
+        if (organizationId == null || UNTRACKED.get() != null) {
+            return;
+        }
+        HotKey hotKey = new HotKey(region, organizationId, String.valueOf(key));
+        candidates.get(hotKey, k -> Boolean.TRUE);
+        add(hotKey, 1);
+    }
+
+    /** @return the estimated number of recent reads */
+    public int frequency(HotKey key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters.get(index(hash, row)));
+        }
+        return frequency;
+    }
+
+    /** @return the tenant's most-read keys, hottest first */
+    public List<HotKey> hottest(Long organizationId, int limit) {
+        return candidates.asMap().keySet().stream()
+                .filter(key -> key.organizationId().equals(organizationId))
+                .sorted(Comparator.comparingInt(this::frequency).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /** Save the hottest keys of every tenant for the next start of this or another node. */
+    public void save(int limit) {
+        Map<HotKey, Integer> hottest = new LinkedHashMap<>();
+        candidates.asMap().keySet().stream()
+                .sorted(Comparator.comparingInt(this::frequency).reversed())
+                .limit(limit)
+                .forEach(key -> hottest.put(key, frequency(key)));
+        if (!hottest.isEmpty()) {
+            store.save(hottest);
+        }
+    }
+
+    /** Resume from the saved keys: they become candidates with their saved frequencies. */
+    public List<HotKey> restore(int limit) {
+        Map<HotKey, Integer> saved = store.load(limit);
+        saved.forEach((key, frequency) -> {
+            candidates.get(key, k -> Boolean.TRUE);
+            add(key, frequency);
+        });
+        return List.copyOf(saved.keySet());
+    }
+
+    /** Run without counting reads, e.g. the warm-up's own */
+    public static <T> T untracked(Supplier<T> action) {
+        if (UNTRACKED.get() != null) {
+            return action.get();
+        }
+        UNTRACKED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            UNTRACKED.remove();
+        }
+    }
+
+    private void add(HotKey key, int amount) {
+        int hash = spread(key.hashCode());
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(hash, row);
+            counters.getAndUpdate(index, count -> (int) Math.min(Integer.MAX_VALUE, (long) count + amount));
+        }
+        if (additions.addAndGet(amount) >= sampleSize && aging.tryLock()) {
+            try {
+                if (additions.get() >= sampleSize) {
+                    for (int i = 0; i < counters.length(); i++) {
+                        counters.getAndUpdate(i, count -> count >>> 1);
+                    }
+                    additions.set(additions.get() / 2);
+                }
+            } finally {
+                aging.unlock();
+            }
+        }
+    }
+
+    private int index(int hash, int row) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 17;
+        return row * width + (h & (width - 1));
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+
+    /** A tenant's key in a cache region */
+    public record HotKey(String region, Long organizationId, String key) {
+
+        /** Tab-separated form kept by the stores; the key itself may contain tabs */
+        String encode() {
+            return region + '\t' + organizationId + '\t' + key;
+        }
+
+        /** @return the key, or null if the value was not written by {@link #encode} */
+        static HotKey decode(String value) {
+            String[] parts = value != null ? value.split("\t", 3) : new String[0];
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                return new HotKey(parts[0], Long.valueOf(parts[1]), parts[2]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /** Where the hottest keys are kept between restarts */
+    public interface Store {
+        /** @return the saved keys with their frequencies, hottest first */
+        Map<HotKey, Integer> load(int limit);
+
+        void save(Map<HotKey, Integer> hottest);
+    }
+
+    /** In process: survives tenant invalidations, not restarts, so the startup warm-up has nothing to restore */
+    static final class LocalStore implements Store {
+
+        private volatile Map<HotKey, Integer> saved = Map.of();
+
+        @Override
+        public Map<HotKey, Integer> load(int limit) {
+            Map<HotKey, Integer> hottest = new LinkedHashMap<>();
+            saved.entrySet().stream().limit(limit).forEach(e -> hottest.put(e.getKey(), e.getValue()));
+            return hottest;
+        }
+
+        @Override
+        public void save(Map<HotKey, Integer> hottest) {
+            saved = new LinkedHashMap<>(hottest);
+        }
+    }
+}
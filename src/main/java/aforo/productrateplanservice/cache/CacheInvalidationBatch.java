@@ -0,0 +1,11 @@
+package aforo.productrateplanservice.cache;
+
+import java.util.List;
+
+/**
+ * The evictions one node made within a batching window.
+ *
+ * @param origin node that made them; it ignores its own batches
+ */
+public record CacheInvalidationBatch(String origin, List<CacheInvalidationEvent> events) {
+}
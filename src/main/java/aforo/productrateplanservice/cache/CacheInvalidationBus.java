@@ -0,0 +1,158 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.estimator.RatePlanProgramCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚌 Replays the evictions of {@link CacheInvalidationService} on the other nodes.
+ *
+ * Events are published once the writing transaction has committed (so a peer cannot reload the old
+ * rows), collected for {@code batch-window-ms} and sent as one deduplicated batch: repeated events are
+ * sent once and key evictions covered by a tenant-wide eviction are dropped, so bulk writes do not turn
+ * into invalidation storms. Received batches are applied to this node's in-process caches only.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final CacheInvalidationTransport transport;
+    private final CacheManager cacheManager;
+    private final RatePlanProgramCache ratePlanProgramCache;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long batchWindowMs;
+    private final int maxBatchSize;
+
+    private Set<CacheInvalidationEvent> pending = new LinkedHashSet<>();
+
+    public CacheInvalidationBus(CacheInvalidationTransport transport, CacheManager cacheManager,
+                                RatePlanProgramCache ratePlanProgramCache,
+                                @Value("${aforo.cache.invalidation.batch-window-ms:50}") long batchWindowMs,
+                                @Value("${aforo.cache.invalidation.max-batch-size:500}") int maxBatchSize) {
+        this.transport = transport;
+        this.cacheManager = cacheManager;
+        this.ratePlanProgramCache = ratePlanProgramCache;
+        this.batchWindowMs = batchWindowMs;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        transport.subscribe(this::receive);
+    }
+
+    /** Send to the other nodes once the current transaction (if any) has committed. */
+    public void publish(CacheInvalidationEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(CacheInvalidationEvent event) {
+        boolean full;
+        synchronized (this) {
+            if (pending.isEmpty() && batchWindowMs > 0) {
+                scheduler.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+            pending.add(event);
+            full = pending.size() >= maxBatchSize || batchWindowMs <= 0;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /** Send what is pending now. */
+    public void flush() {
+        Set<CacheInvalidationEvent> events;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            events = pending;
+            pending = new LinkedHashSet<>();
+        }
+        List<CacheInvalidationEvent> batch = deduplicate(events);
+        try {
+            transport.publish(new CacheInvalidationBatch(nodeId, batch));
+            log.debug("📣 Published {} cache invalidations ({} before deduplication)", batch.size(), events.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} cache invalidations: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    static List<CacheInvalidationEvent> deduplicate(Set<CacheInvalidationEvent> events) {
+        List<CacheInvalidationEvent> wide = events.stream()
+                .filter(e -> e.type() == CacheInvalidationEvent.Type.TENANT
+                        || e.type() == CacheInvalidationEvent.Type.TENANT_PROGRAMS)
+                .toList();
+        List<CacheInvalidationEvent> batch = new ArrayList<>(events.size());
+        for (CacheInvalidationEvent event : events) {
+            if (wide.stream().noneMatch(w -> w.covers(event))) {
+                batch.add(event);
+            }
+        }
+        return batch;
+    }
+
+    private void receive(CacheInvalidationBatch batch) {
+        if (nodeId.equals(batch.origin())) {
+            return;
+        }
+        for (CacheInvalidationEvent event : batch.events()) {
+            try {
+                apply(event);
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply cache invalidation {}: {}", event, e.getMessage());
+            }
+        }
+        log.debug("Applied {} cache invalidations from node {}", batch.events().size(), batch.origin());
+    }
+
+    private void apply(CacheInvalidationEvent event) {
+        switch (event.type()) {
+            case KEY -> localCache(event.region()).evictLocal(event.organizationId(), event.key());
+            case TENANT -> localCache(event.region()).evictTenantLocal(event.organizationId());
+            case PROGRAM -> ratePlanProgramCache.evict(event.organizationId(), Long.valueOf(event.key()));
+            case TENANT_PROGRAMS -> ratePlanProgramCache.evictTenant(event.organizationId());
+        }
+    }
+
+    private TenantGenerationCache localCache(String region) {
+        Cache cache = cacheManager.getCache(region);
+        if (cache instanceof TenantGenerationCache tenantCache) {
+            return tenantCache;
+        }
+        throw new IllegalStateException("Cache '" + region + "' is not tenant scoped");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        scheduler.shutdown();
+    }
+}
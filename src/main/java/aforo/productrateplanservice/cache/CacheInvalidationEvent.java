@@ -0,0 +1,51 @@
+package aforo.productrateplanservice.cache;
+
+/**
+ * One eviction made by {@link CacheInvalidationService}, as sent to the other nodes.
+ *
+ * @param type           what was evicted
+ * @param region         cache region ({@code null} for compiled programs)
+ * @param organizationId tenant
+ * @param key            cache key or rate plan id ({@code null} for tenant-wide evictions)
+ */
+public record CacheInvalidationEvent(Type type, String region, Long organizationId, String key) {
+
+    public enum Type {
+        /** One key of a region */
+        KEY,
+        /** All of a tenant's entries in a region (new generation) */
+        TENANT,
+        /** One compiled estimator program */
+        PROGRAM,
+        /** All of a tenant's compiled estimator programs */
+        TENANT_PROGRAMS
+    }
+
+    public static CacheInvalidationEvent key(String region, Long organizationId, Object key) {
+        return new CacheInvalidationEvent(Type.KEY, region, organizationId, String.valueOf(key));
+    }
+
+    public static CacheInvalidationEvent tenant(String region, Long organizationId) {
+        return new CacheInvalidationEvent(Type.TENANT, region, organizationId, null);
+    }
+
+    public static CacheInvalidationEvent program(Long organizationId, Long ratePlanId) {
+        return new CacheInvalidationEvent(Type.PROGRAM, null, organizationId, String.valueOf(ratePlanId));
+    }
+
+    public static CacheInvalidationEvent tenantPrograms(Long organizationId) {
+        return new CacheInvalidationEvent(Type.TENANT_PROGRAMS, null, organizationId, null);
+    }
+
+    /** @return whether {@code other} is implied by this event (same tenant, wider scope) */
+    boolean covers(CacheInvalidationEvent other) {
+        if (!organizationId.equals(other.organizationId)) {
+            return false;
+        }
+        return switch (type) {
+            case TENANT -> other.type == Type.KEY && region.equals(other.region);
+            case TENANT_PROGRAMS -> other.type == Type.PROGRAM;
+            default -> false;
+        };
+    }
+}
@@ -1,8 +1,11 @@
 package aforo.productrateplanservice.cache;
 
+import aforo.productrateplanservice.estimator.RatePlanProgramCache;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanSnapshotService;
 import aforo.productrateplanservice.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
@@ -11,6 +14,7 @@ import java.util.Objects;
 /**
  * ⚡ Centralized cache invalidation service for related entities
  * Handles complex cache dependencies and tenant-aware invalidation
+ * Every eviction is replayed on the other nodes through the {@link CacheInvalidationBus}
  */
 @Service
 @RequiredArgsConstructor
@@ -18,6 +22,10 @@ import java.util.Objects;
 public class CacheInvalidationService {
 
     private final CacheManager cacheManager;
+    private final RatePlanProgramCache ratePlanProgramCache;
+    private final RatePlanSnapshotService ratePlanSnapshotService;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheWarmUpService cacheWarmUpService;
 
     /**
      * Invalidate all product-related caches for a specific product
@@ -29,16 +37,19 @@ public class CacheInvalidationService {
         log.debug("Invalidating product caches for productId: {}, orgId: {}", productId, orgId);
         
         // Invalidate specific product cache
-        evictFromCache("products", productId + "_" + orgId);
+        evictFromCache("products", productId + "_" + orgId, orgId);
         
         // Invalidate billable metrics for this product
-        evictFromCache("billableMetrics", productId);
+        evictFromCache("billableMetrics", productId, orgId);
         
         // Invalidate all rate plans for this product (they contain product info)
-        evictCacheByPattern("ratePlans", "product_" + productId + "_");
+        evictCacheByPattern("ratePlans", "product_" + productId + "_", orgId);
         
         // Invalidate tenant-wide product lists
-        evictFromCache("products", "all_" + tenantKey);
+        evictFromCache("products", "all_" + tenantKey, orgId);
+
+        // Rate plan snapshots embed product details
+        ratePlanSnapshotService.markProductStale(productId);
         
         log.info("✅ Product caches invalidated for productId: {}", productId);
     }
@@ -53,15 +64,21 @@ public class CacheInvalidationService {
         log.debug("Invalidating rate plan caches for ratePlanId: {}, orgId: {}", ratePlanId, orgId);
         
         // Invalidate specific rate plan cache
-        evictFromCache("ratePlans", ratePlanId + "_" + orgId);
+        evictFromCache("ratePlans", ratePlanId + "_" + orgId, orgId);
         
         // Invalidate detailed rate plan cache (includes pricing configurations)
-        evictFromCache("ratePlans", "detailed_" + ratePlanId + "_" + orgId);
+        evictFromCache("ratePlans", "detailed_" + ratePlanId + "_" + orgId, orgId);
         
         // Invalidate tenant-wide rate plan lists
-        evictFromCache("ratePlans", "all_" + tenantKey);
-        evictFromCache("ratePlans", "all_detailed_" + tenantKey);
-        evictFromCache("ratePlans", "list_" + tenantKey);
+        evictFromCache("ratePlans", "all_" + tenantKey, orgId);
+        evictFromCache("ratePlans", "all_detailed_" + tenantKey, orgId);
+        evictFromCache("ratePlans", "list_" + tenantKey, orgId);
+
+        // Invalidate the compiled estimator program for this rate plan
+        evictProgram(orgId, ratePlanId);
+
+        // Refresh the rate plan snapshot with the writing transaction
+        ratePlanSnapshotService.refreshOnCommit(ratePlanId);
         
         log.info("✅ Rate plan caches invalidated for ratePlanId: {}", ratePlanId);
     }
@@ -76,13 +93,19 @@ public class CacheInvalidationService {
                  ratePlanId, pricingType, orgId);
         
         // Invalidate the detailed rate plan cache (contains pricing configs)
-        evictFromCache("ratePlans", "detailed_" + ratePlanId + "_" + orgId);
+        evictFromCache("ratePlans", "detailed_" + ratePlanId + "_" + orgId, orgId);
         
         // Invalidate specific pricing type cache
-        evictFromCache("pricingConfigurations", pricingType + "_" + ratePlanId + "_" + orgId);
+        evictFromCache("pricingConfigurations", pricingType + "_" + ratePlanId + "_" + orgId, orgId);
         
         // Invalidate batch queries cache
-        evictFromCache("ratePlans", "batch_" + orgId);
+        evictFromCache("ratePlans", "batch_" + orgId, orgId);
+
+        // Invalidate the compiled estimator program for this rate plan
+        evictProgram(orgId, ratePlanId);
+
+        // Refresh the rate plan snapshot with the writing transaction
+        ratePlanSnapshotService.refreshOnCommit(ratePlanId);
         
         log.info("✅ Rate plan pricing caches invalidated for ratePlanId: {}, type: {}", ratePlanId, pricingType);
     }
@@ -99,26 +122,28 @@ public class CacheInvalidationService {
         clearCacheByTenant("billableMetrics", organizationId);
         clearCacheByTenant("pricingConfigurations", organizationId);
         clearCacheByTenant("validations", organizationId);
+        evictTenantPrograms(organizationId);
+        ratePlanSnapshotService.markTenantStale(organizationId);
         
         log.warn("🧹 ALL tenant caches cleared for orgId: {}", organizationId);
+
+        // Reload the tenant's hottest keys in the background
+        warmUpCriticalCaches(organizationId);
     }
 
     /**
-     * Warm up critical caches after major operations
+     * Warm up critical caches after major operations: the tenant's most-read keys are reloaded
+     * asynchronously once the current transaction commits, at a bounded DB load
      */
     public void warmUpCriticalCaches(Long organizationId) {
         log.debug("Warming up critical caches for orgId: {}", organizationId);
-        
-        // Note: Actual cache warming would be implemented by calling the cached methods
-        // This is a placeholder for the warming strategy
-        
-        log.info("🔥 Critical caches warmed for orgId: {}", organizationId);
+        cacheWarmUpService.warmUpTenant(organizationId);
     }
 
     /**
      * Evict a specific key from a cache
      */
-    private void evictFromCache(String cacheName, Object key) {
+    private void evictFromCache(String cacheName, Object key, Long organizationId) {
         try {
             var cache = cacheManager.getCache(cacheName);
             if (cache != null) {
@@ -128,39 +153,58 @@ public class CacheInvalidationService {
         } catch (Exception e) {
             log.warn("Failed to evict key '{}' from cache '{}': {}", key, cacheName, e.getMessage());
         }
+        invalidationBus.publish(CacheInvalidationEvent.key(cacheName, organizationId, key));
+    }
+
+    private void evictProgram(Long organizationId, Long ratePlanId) {
+        ratePlanProgramCache.evict(organizationId, ratePlanId);
+        invalidationBus.publish(CacheInvalidationEvent.program(organizationId, ratePlanId));
+    }
+
+    private void evictTenantPrograms(Long organizationId) {
+        ratePlanProgramCache.evictTenant(organizationId);
+        invalidationBus.publish(CacheInvalidationEvent.tenantPrograms(organizationId));
     }
 
     /**
-     * Evict cache entries by pattern (simplified implementation)
+     * Evict cache entries by pattern: keys are not enumerable across stores, so the tenant's
+     * entries in the region are retired together (other tenants are unaffected)
      */
-    private void evictCacheByPattern(String cacheName, String keyPattern) {
+    private void evictCacheByPattern(String cacheName, String keyPattern, Long organizationId) {
         try {
             var cache = cacheManager.getCache(cacheName);
             if (cache != null) {
-                // For Redis cache, we would use pattern matching
-                // For now, we'll clear the entire cache region as a safe fallback
-                cache.clear();
-                log.trace("Cleared cache '{}' due to pattern '{}'", cacheName, keyPattern);
+                evictTenant(cache, organizationId);
+                log.trace("Retired tenant {} entries of cache '{}' due to pattern '{}'", organizationId, cacheName, keyPattern);
             }
         } catch (Exception e) {
             log.warn("Failed to clear cache '{}' by pattern '{}': {}", cacheName, keyPattern, e.getMessage());
         }
+        invalidationBus.publish(CacheInvalidationEvent.tenant(cacheName, organizationId));
     }
 
     /**
-     * Clear all cache entries for a specific tenant
+     * Clear all cache entries for a specific tenant by moving it to a new cache generation
      */
     private void clearCacheByTenant(String cacheName, Long organizationId) {
         try {
             var cache = cacheManager.getCache(cacheName);
             if (cache != null) {
-                // In a production environment, we would implement tenant-specific clearing
-                // For now, we'll clear the entire cache as a safe approach
-                cache.clear();
+                evictTenant(cache, organizationId);
                 log.trace("Cleared cache '{}' for tenant {}", cacheName, organizationId);
             }
         } catch (Exception e) {
             log.warn("Failed to clear cache '{}' for tenant {}: {}", cacheName, organizationId, e.getMessage());
         }
+        invalidationBus.publish(CacheInvalidationEvent.tenant(cacheName, organizationId));
+    }
+
+    private static void evictTenant(Cache cache, Long organizationId) {
+        if (cache instanceof TenantGenerationCache tenantCache) {
+            tenantCache.evictTenant(organizationId);
+        } else {
+            // A cache manager without tenant generations: clearing the region is the only safe option
+            cache.clear();
+        }
     }
 }
@@ -0,0 +1,15 @@
+package aforo.productrateplanservice.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation batches between the nodes of the service.
+ */
+public interface CacheInvalidationTransport {
+
+    /** Send to every node, this one included */
+    void publish(CacheInvalidationBatch batch);
+
+    /** Receive every node's batches */
+    void subscribe(Consumer<CacheInvalidationBatch> receiver);
+}
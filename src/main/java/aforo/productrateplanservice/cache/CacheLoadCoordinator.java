@@ -0,0 +1,209 @@
+package aforo.productrateplanservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🛡️ Stampede protection for {@code @Cacheable(sync = true)} reads.
+ *
+ * <ul>
+ *   <li><b>Single flight</b>: concurrent misses for a key on this node wait for one load.</li>
+ *   <li><b>Across nodes</b>: the loading node holds a short {@link CacheLoadLock}; other nodes poll the
+ *       shared cache for its result, and load themselves only if it does not arrive within the lock TTL.</li>
+ *   <li><b>Early refresh</b>: a hit close to expiry is recomputed by one caller with a probability that
+ *       grows as the entry ages (probabilistic early expiration, weighted by how long the last load took),
+ *       so hot keys are refreshed before they go cold.</li>
+ * </ul>
+ *
+ * Coalesced waiters are counted as {@code cache.load.coalesced} (tagged {@code cache} and {@code scope}
+ * {@code local}/{@code remote}) and currently waiting ones as {@code cache.load.waiters}; early refreshes
+ * as {@code cache.load.early.refreshes}.
+ */
+@Slf4j
+public class CacheLoadCoordinator {
+
+    private static final Object NOT_LOADED = new Object();
+
+    private final CacheLoadLock lock;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Duration> ttls;
+    private final Duration defaultTtl;
+    private final double earlyRefreshBeta;
+    private final Duration lockTtl;
+    private final long lockPollMillis;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    /** When and how long the last load of each key took, for the early refresh */
+    private final com.github.benmanes.caffeine.cache.Cache<String, Load> loads;
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /**
+     * @param earlyRefreshBeta how eagerly entries are refreshed ahead of their TTL; 0 disables it
+     */
+    public CacheLoadCoordinator(CacheLoadLock lock, MeterRegistry meterRegistry, Map<String, Duration> ttls,
+                                Duration defaultTtl, double earlyRefreshBeta, Duration lockTtl, long lockPollMillis) {
+        this.lock = lock;
+        this.meterRegistry = meterRegistry;
+        this.ttls = Map.copyOf(ttls);
+        this.defaultTtl = defaultTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.lockTtl = lockTtl;
+        this.lockPollMillis = Math.max(1, lockPollMillis);
+        this.loads = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(this.ttls.values().stream().max(Duration::compareTo).orElse(defaultTtl).plus(defaultTtl))
+                .build();
+        Gauge.builder("cache.load.waiters", waiters, AtomicInteger::get)
+                .description("Callers currently waiting for another caller's cache load")
+                .register(meterRegistry);
+    }
+
+    /** Single node, single flight only */
+    public static CacheLoadCoordinator local() {
+        return new CacheLoadCoordinator(CacheLoadLock.NONE, Metrics.globalRegistry, Map.of(), Duration.ofMinutes(10),
+                0, Duration.ofSeconds(5), 25);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Cache cache, Object key, Callable<T> loader) {
+        String flightKey = cache.getName() + "::" + key;
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached == null) {
+            return (T) load(cache, key, flightKey, loader, false);
+        }
+        if (dueForEarlyRefresh(cache.getName(), flightKey)) {
+            try {
+                Object refreshed = load(cache, key, flightKey, loader, true);
+                if (refreshed != NOT_LOADED) {
+                    meterRegistry.counter("cache.load.early.refreshes", "cache", cache.getName()).increment();
+                    return (T) refreshed;
+                }
+            } catch (RuntimeException e) {
+                // The cached value is still valid until its TTL
+                log.warn("Early refresh of '{}' in cache '{}' failed: {}", key, cache.getName(), e.getMessage());
+            }
+        }
+        return (T) cached.get();
+    }
+
+    private Object load(Cache cache, Object key, String flightKey, Callable<?> loader, boolean refresh) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            // A refresh is already running: keep serving the cached value
+            return refresh ? NOT_LOADED : await(cache.getName(), leader);
+        }
+        try {
+            // The previous flight may have landed between our miss and now
+            Cache.ValueWrapper landed = refresh ? null : cache.get(key);
+            Object value = landed != null ? landed.get() : loadOnce(cache, key, flightKey, loader, refresh);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private Object await(String cacheName, CompletableFuture<Object> leader) {
+        meterRegistry.counter("cache.load.coalesced", "cache", cacheName, "scope", "local").increment();
+        waiters.incrementAndGet();
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private Object loadOnce(Cache cache, Object key, String flightKey, Callable<?> loader, boolean refresh) {
+        String token = lock.tryAcquire(flightKey, lockTtl);
+        if (token == null) {
+            if (refresh) {
+                return NOT_LOADED; // another node is refreshing it
+            }
+            Cache.ValueWrapper loadedByPeer = awaitPeer(cache, key);
+            if (loadedByPeer != null) {
+                return loadedByPeer.get();
+            }
+            log.debug("Loading '{}' in cache '{}' after waiting {} for another node", key, cache.getName(), lockTtl);
+            return compute(cache, key, flightKey, loader);
+        }
+        try {
+            return compute(cache, key, flightKey, loader);
+        } finally {
+            lock.release(flightKey, token);
+        }
+    }
+
+    private Cache.ValueWrapper awaitPeer(Cache cache, Object key) {
+        meterRegistry.counter("cache.load.coalesced", "cache", cache.getName(), "scope", "remote").increment();
+        waiters.incrementAndGet();
+        long deadline = System.nanoTime() + lockTtl.toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(lockPollMillis);
+                Cache.ValueWrapper value = cache.get(key);
+                if (value != null) {
+                    return value;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiters.decrementAndGet();
+        }
+        return null;
+    }
+
+    private Object compute(Cache cache, Object key, String flightKey, Callable<?> loader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = loader.call();
+        } catch (Exception e) {
+            throw new Cache.ValueRetrievalException(key, loader, e);
+        }
+        cache.put(key, value);
+        loads.put(flightKey, new Load(System.currentTimeMillis(), Duration.ofNanos(System.nanoTime() - start).toMillis()));
+        return value;
+    }
+
+    /**
+     * Refresh when {@code now + loadTime * beta * -ln(random)} reaches the expiry: rarely while the entry
+     * is fresh, more often as it ages, and earlier for entries that are slow to compute.
+     */
+    private boolean dueForEarlyRefresh(String cacheName, String flightKey) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+        Load last = loads.getIfPresent(flightKey);
+        if (last == null || inFlight.containsKey(flightKey)) {
+            return false;
+        }
+        long expiresAt = last.loadedAtMillis() + ttls.getOrDefault(cacheName, defaultTtl).toMillis();
+        double gap = last.durationMillis() * earlyRefreshBeta * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= expiresAt;
+    }
+
+    private record Load(long loadedAtMillis, long durationMillis) {}
+}
@@ -0,0 +1,26 @@
+package aforo.productrateplanservice.cache;
+
+import java.time.Duration;
+
+/**
+ * Lets one node at a time compute a missing cache entry.
+ */
+public interface CacheLoadLock {
+
+    /** Single node: every load may proceed */
+    CacheLoadLock NONE = new CacheLoadLock() {
+        @Override
+        public String tryAcquire(String key, Duration ttl) {
+            return "";
+        }
+
+        @Override
+        public void release(String key, String token) {
+        }
+    };
+
+    /** @return a token to release the lock with, or {@code null} when another node holds it */
+    String tryAcquire(String key, Duration ttl);
+
+    void release(String key, String token);
+}
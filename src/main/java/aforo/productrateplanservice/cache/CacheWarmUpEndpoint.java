@@ -0,0 +1,24 @@
+package aforo.productrateplanservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/cachewarmup}: queued, running and last cache warm-up with their key counts.
+ */
+@Component
+@Endpoint(id = "cachewarmup")
+@RequiredArgsConstructor
+public class CacheWarmUpEndpoint {
+
+    private final CacheWarmUpService cacheWarmUpService;
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return cacheWarmUpService.progress();
+    }
+}
@@ -0,0 +1,272 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.cache.CacheAccessFrequencies.HotKey;
+import aforo.productrateplanservice.tenant.TenantContext;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 🔥 Repopulates the most-read cache keys after a start or a tenant-wide invalidation, so the first
+ * requests do not all pay the full DB cost.
+ *
+ * Keys are ranked by {@link CacheAccessFrequencies} and reloaded by the {@link CacheWarmer} that owns
+ * them, one at a time on a background thread and at most {@code max-loads-per-second}; keys that are
+ * already cached cost nothing. Progress is reported by the {@code cachewarmup} actuator endpoint.
+ */
+@Service
+@Slf4j
+public class CacheWarmUpService {
+
+    private static final String STARTUP = "startup";
+    private static final String TENANT = "tenant";
+
+    private final CacheAccessFrequencies frequencies;
+    private final CacheManager cacheManager;
+    private final ObjectProvider<CacheWarmer> warmers;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxKeysPerTenant;
+    private final int maxStartupKeys;
+    private final Bucket dbLoads;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-warm-up");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private volatile Run current;
+    private volatile Run last;
+
+    @Autowired
+    public CacheWarmUpService(CacheAccessFrequencies frequencies, CacheManager cacheManager,
+                              ObjectProvider<CacheWarmer> warmers, MeterRegistry meterRegistry,
+                              @Value("${aforo.cache.warmup.enabled:true}") boolean enabled,
+                              @Value("${aforo.cache.warmup.max-keys-per-tenant:50}") int maxKeysPerTenant,
+                              @Value("${aforo.cache.warmup.max-startup-keys:500}") int maxStartupKeys,
+                              @Value("${aforo.cache.warmup.max-loads-per-second:20}") int maxLoadsPerSecond,
+                              @Value("${aforo.cache.warmup.snapshot-interval-ms:60000}") long snapshotIntervalMs) {
+        this.frequencies = frequencies;
+        this.cacheManager = cacheManager;
+        this.warmers = warmers;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxKeysPerTenant = maxKeysPerTenant;
+        this.maxStartupKeys = maxStartupKeys;
+        this.dbLoads = Bucket.builder()
+                .addLimit(Bandwidth.simple(Math.max(1, maxLoadsPerSecond), Duration.ofSeconds(1)))
+                .build();
+        if (enabled && snapshotIntervalMs > 0) {
+            worker.scheduleWithFixedDelay(this::saveHottest, snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Warm what this node or the cluster served most before it started. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (enabled) {
+            submit(STARTUP, () -> frequencies.restore(maxStartupKeys), null);
+        }
+    }
+
+    /**
+     * Warm the tenant's most-read keys once the current transaction (if any) has committed, so the
+     * warm-up reads what was just written.
+     */
+    public void warmUpTenant(Long organizationId) {
+        if (!enabled) {
+            return;
+        }
+        String jwt = TenantContext.getJwt(); // for warmers that call other services
+        Runnable enqueue = () -> submit(TENANT + " " + organizationId,
+                () -> frequencies.hottest(organizationId, maxKeysPerTenant), jwt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue.run();
+                }
+            });
+        } else {
+            enqueue.run();
+        }
+    }
+
+    private void submit(String trigger, Supplier<List<HotKey>> keys, String jwt) {
+        if (!queued.add(trigger)) {
+            return; // the queued run will pick up the latest ranking
+        }
+        try {
+            worker.execute(() -> {
+                queued.remove(trigger);
+                run(trigger, keys.get(), jwt);
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(trigger);
+            log.debug("Cache warm-up '{}' not started: shutting down", trigger);
+        }
+    }
+
+    private void run(String trigger, List<HotKey> keys, String jwt) {
+        Run run = new Run(trigger, keys.size());
+        current = run;
+        try {
+            for (HotKey key : keys) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                Result result = warm(key, jwt);
+                run.count(result);
+                meterRegistry.counter("cache.warmup.keys", "cache", key.region(), "result", result.label).increment();
+            }
+        } finally {
+            run.finishedAt = Instant.now();
+            last = run;
+            current = null;
+        }
+        log.info("🔥 Cache warm-up '{}' done: {} warmed, {} already cached or unsupported, {} failed in {} ms",
+                trigger, run.warmed, run.skipped, run.failed,
+                Duration.between(run.startedAt, run.finishedAt).toMillis());
+    }
+
+    private Result warm(HotKey key, String jwt) {
+        CacheWarmer warmer = warmers.orderedStream()
+                .filter(w -> w.supports(key.region(), key.key()))
+                .findFirst()
+                .orElse(null);
+        Cache cache = cacheManager.getCache(key.region());
+        if (warmer == null || cache == null) {
+            return Result.SKIPPED;
+        }
+        TenantContext.set(key.organizationId());
+        if (jwt != null) {
+            TenantContext.setJwt(jwt);
+        }
+        try {
+            return CacheAccessFrequencies.untracked(() -> {
+                if (cache.get(key.key()) != null) {
+                    return Result.SKIPPED;
+                }
+                dbLoads.asBlocking().consumeUninterruptibly(1);
+                warmer.warm(key.region(), key.key());
+                return Result.WARMED;
+            });
+        } catch (RuntimeException e) {
+            log.debug("Failed to warm '{}' of cache '{}' for orgId {}: {}",
+                    key.key(), key.region(), key.organizationId(), e.getMessage());
+            return Result.FAILED;
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private void saveHottest() {
+        try {
+            frequencies.save(maxStartupKeys);
+        } catch (RuntimeException e) {
+            log.warn("Failed to save the hottest cache keys: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queued, running and last warm-up, for the actuator endpoint. Runs are reported by kind only
+     * ({@code startup} or {@code tenant}): the endpoint is readable by any tenant, so no organization IDs.
+     */
+    public Map<String, Object> progress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("enabled", enabled);
+        progress.put("queued", queued.stream()
+                .collect(Collectors.groupingBy(CacheWarmUpService::kind, TreeMap::new, Collectors.counting())));
+        Run running = current;
+        Run finished = last;
+        progress.put("current", running != null ? running.describe() : null);
+        progress.put("last", finished != null ? finished.describe() : null);
+        return progress;
+    }
+
+    private static String kind(String trigger) {
+        return trigger.startsWith(TENANT + " ") ? TENANT : trigger;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+        if (enabled) {
+            saveHottest();
+        }
+    }
+
+    private enum Result {
+        WARMED("warmed"), SKIPPED("skipped"), FAILED("failed");
+
+        private final String label;
+
+        Result(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Run {
+        private final String trigger;
+        private final int planned;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger warmed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile Instant finishedAt;
+
+        Run(String trigger, int planned) {
+            this.trigger = trigger;
+            this.planned = planned;
+        }
+
+        void count(Result result) {
+            switch (result) {
+                case WARMED -> warmed.incrementAndGet();
+                case SKIPPED -> skipped.incrementAndGet();
+                case FAILED -> failed.incrementAndGet();
+            }
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("trigger", kind(trigger));
+            run.put("planned", planned);
+            run.put("warmed", warmed.get());
+            run.put("skipped", skipped.get());
+            run.put("failed", failed.get());
+            run.put("startedAt", startedAt.toString());
+            run.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+            return run;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package aforo.productrateplanservice.cache;
+
+/**
+ * Reloads cache keys it recognises by calling the cached method that owns them, so the value is
+ * built and stored exactly as a request would. Called by the {@link CacheWarmUpService} with the
+ * key's tenant bound.
+ */
+public interface CacheWarmer {
+
+    /** Whether this warmer owns {@code key} of {@code region} */
+    boolean supports(String region, String key);
+
+    void warm(String region, String key);
+}
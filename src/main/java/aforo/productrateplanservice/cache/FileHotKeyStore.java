@@ -0,0 +1,99 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.cache.CacheAccessFrequencies.HotKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The hottest cache keys of a node without Redis in a local file, one {@code frequency, region,
+ * organization, key} line each, hottest first, so the node warms what it served before a restart. The
+ * file is replaced whole on each save; keep it on a volume for the warm-up to survive redeploys.
+ */
+@Slf4j
+public class FileHotKeyStore implements CacheAccessFrequencies.Store {
+
+    private final Path file;
+    private final int maximumSize;
+
+    public FileHotKeyStore(Path file, int maximumSize) {
+        this.file = file;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public Map<HotKey, Integer> load(int limit) {
+        Map<HotKey, Integer> hottest = new LinkedHashMap<>();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return hottest; // first start
+        } catch (IOException e) {
+            log.warn("Could not read the hot cache keys from {}: {}", file, e.getMessage());
+            return hottest;
+        }
+        for (String line : lines) {
+            if (hottest.size() >= limit) {
+                break;
+            }
+            int tab = line.indexOf('\t');
+            HotKey key = tab > 0 ? HotKey.decode(line.substring(tab + 1)) : null;
+            if (key != null) {
+                try {
+                    hottest.put(key, Integer.parseInt(line.substring(0, tab)));
+                } catch (NumberFormatException e) {
+                    // skip a damaged line
+                }
+            }
+        }
+        return hottest;
+    }
+
+    @Override
+    public void save(Map<HotKey, Integer> hottest) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // written aside and moved over, so a crash mid-save leaves the previous snapshot readable
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                    int written = 0;
+                    for (Map.Entry<HotKey, Integer> entry : hottest.entrySet()) {
+                        if (written == maximumSize) {
+                            break;
+                        }
+                        String key = entry.getKey().key();
+                        if (key.indexOf('\n') >= 0 || key.indexOf('\r') >= 0) {
+                            continue; // one key per line
+                        }
+                        written++;
+                        writer.write(entry.getValue() + "\t" + entry.getKey().encode());
+                        writer.newLine();
+                    }
+                }
+                try {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save the hot cache keys to " + file, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package aforo.productrateplanservice.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers batches synchronously to the subscribers of this instance: a single node, or several
+ * in-process nodes (tests) sharing one instance.
+ */
+public class InMemoryCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Consumer<CacheInvalidationBatch>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidationBatch batch) {
+        receivers.forEach(receiver -> receiver.accept(batch));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationBatch> receiver) {
+        receivers.add(receiver);
+    }
+}
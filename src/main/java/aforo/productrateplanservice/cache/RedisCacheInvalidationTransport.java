@@ -0,0 +1,52 @@
+package aforo.productrateplanservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * 📣 Invalidation batches as JSON on a Redis pub/sub channel.
+ */
+@Slf4j
+public class RedisCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    public static final String CHANNEL = "aforo:cache:invalidation";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    public RedisCacheInvalidationTransport(StringRedisTemplate redisTemplate,
+                                           RedisMessageListenerContainer listenerContainer,
+                                           ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(CacheInvalidationBatch batch) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(batch));
+        } catch (Exception e) {
+            // Peers fall back to the region TTL
+            log.warn("Failed to publish {} cache invalidations: {}", batch.events().size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationBatch> receiver) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                receiver.accept(objectMapper.readValue(message.getBody(), CacheInvalidationBatch.class));
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable cache invalidation message: {}", e.getMessage());
+            }
+        }, new ChannelTopic(CHANNEL));
+    }
+}
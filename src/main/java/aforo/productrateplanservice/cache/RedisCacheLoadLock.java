@@ -0,0 +1,51 @@
+package aforo.productrateplanservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 🔒 Short-lived load lock in Redis ({@code SET NX PX}). It expires on its own if the holder dies, and is
+ * only released by its holder.
+ */
+@Slf4j
+public class RedisCacheLoadLock implements CacheLoadLock {
+
+    private static final String KEY_PREFIX = "aforo:cache:load-lock:";
+
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheLoadLock(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String tryAcquire(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, token, ttl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            // Without Redis, fall back to loading on every node
+            log.warn("Failed to acquire cache load lock for '{}': {}", key, e.getMessage());
+            return token;
+        }
+    }
+
+    @Override
+    public void release(String key, String token) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(KEY_PREFIX + key), token);
+        } catch (Exception e) {
+            log.warn("Failed to release cache load lock for '{}': {}", key, e.getMessage());
+        }
+    }
+}
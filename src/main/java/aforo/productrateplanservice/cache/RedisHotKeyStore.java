@@ -0,0 +1,52 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.cache.CacheAccessFrequencies.HotKey;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The hottest cache keys of all nodes in one Redis sorted set scored by read frequency, so a node
+ * that starts (or restarts after a deploy) warms what the cluster was serving.
+ */
+public class RedisHotKeyStore implements CacheAccessFrequencies.Store {
+
+    static final String KEY = "aforo:cache:hot-keys";
+    private static final Duration RETENTION = Duration.ofDays(1);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maximumSize;
+
+    public RedisHotKeyStore(StringRedisTemplate redisTemplate, int maximumSize) {
+        this.redisTemplate = redisTemplate;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public Map<HotKey, Integer> load(int limit) {
+        Map<HotKey, Integer> hottest = new LinkedHashMap<>();
+        Set<ZSetOperations.TypedTuple<String>> saved = redisTemplate.opsForZSet().reverseRangeWithScores(KEY, 0, limit - 1);
+        if (saved != null) {
+            for (ZSetOperations.TypedTuple<String> entry : saved) {
+                HotKey key = HotKey.decode(entry.getValue());
+                if (key != null) {
+                    hottest.put(key, entry.getScore() != null ? entry.getScore().intValue() : 1);
+                }
+            }
+        }
+        return hottest;
+    }
+
+    @Override
+    public void save(Map<HotKey, Integer> hottest) {
+        ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+        hottest.forEach((key, frequency) -> zSet.add(KEY, key.encode(), frequency));
+        // keep the cluster-wide top entries only
+        zSet.removeRange(KEY, 0, -maximumSize - 1L);
+        redisTemplate.expire(KEY, RETENTION);
+    }
+}
@@ -0,0 +1,38 @@
+package aforo.productrateplanservice.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Tenant cache generations shared through Redis, so every node builds the same keys for the shared L2.
+ */
+public class RedisTenantGenerationStore implements TenantCacheGenerations.Store {
+
+    private static final String KEY_PREFIX = "aforo:cache:generation:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisTenantGenerationStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long get(String region, Long organizationId) {
+        String generation = redisTemplate.opsForValue().get(key(region, organizationId));
+        return generation != null ? Long.parseLong(generation) : 0L;
+    }
+
+    @Override
+    public long increment(String region, Long organizationId) {
+        Long generation = redisTemplate.opsForValue().increment(key(region, organizationId));
+        return generation != null ? generation : 0L;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    private static String key(String region, Long organizationId) {
+        return KEY_PREFIX + region + ":" + organizationId;
+    }
+}
@@ -0,0 +1,102 @@
+package aforo.productrateplanservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🔢 Per-tenant, per-region cache generations. Every key a tenant reads or writes embeds its current
+ * generation (see {@link TenantGenerationCache}), so invalidating one tenant's region is a single
+ * increment: its old entries become unreachable while every other tenant keeps its hits.
+ *
+ * Generations are kept by a {@link Store}: in process by default, in Redis when the cache is shared
+ * between nodes. The current values are remembered locally; see {@link #incrementedByPeer}. A shared
+ * generation is only remembered for {@code shared-refresh-ms}, since the peer message that would
+ * refresh it is at-most-once: a node that missed one is back on the current generation within that time.
+ */
+@Component
+public class TenantCacheGenerations {
+
+    private final Store store;
+    private final Cache<RegionTenant, Long> known;
+
+    public TenantCacheGenerations() {
+        this(new LocalStore(), Duration.ZERO, Ticker.systemTicker());
+    }
+
+    @Autowired
+    public TenantCacheGenerations(ObjectProvider<Store> store,
+                                  @Value("${aforo.cache.generations.shared-refresh-ms:5000}") long sharedRefreshMs) {
+        this(store.getIfAvailable(LocalStore::new), Duration.ofMillis(sharedRefreshMs), Ticker.systemTicker());
+    }
+
+    TenantCacheGenerations(Store store, Duration sharedRefresh, Ticker ticker) {
+        this.store = store;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().ticker(ticker);
+        if (store.isShared() && sharedRefresh.isPositive()) {
+            builder.expireAfterWrite(sharedRefresh);
+        }
+        this.known = builder.build();
+    }
+
+    public long current(String region, Long organizationId) {
+        return known.get(new RegionTenant(region, organizationId), key -> store.get(region, organizationId));
+    }
+
+    /** @return the new generation */
+    public long increment(String region, Long organizationId) {
+        long generation = store.increment(region, organizationId);
+        known.asMap().merge(new RegionTenant(region, organizationId), generation, Math::max);
+        return generation;
+    }
+
+    /**
+     * Another node moved the generation: reload a shared one on next use, or move this node's own.
+     */
+    public void incrementedByPeer(String region, Long organizationId) {
+        if (store.isShared()) {
+            known.invalidate(new RegionTenant(region, organizationId));
+        } else {
+            increment(region, organizationId);
+        }
+    }
+
+    /** Where generations live */
+    public interface Store {
+        long get(String region, Long organizationId);
+
+        long increment(String region, Long organizationId);
+
+        /** Whether every node reads the same generations */
+        default boolean isShared() {
+            return false;
+        }
+    }
+
+    static final class LocalStore implements Store {
+
+        private final ConcurrentHashMap<RegionTenant, AtomicLong> generations = new ConcurrentHashMap<>();
+
+        @Override
+        public long get(String region, Long organizationId) {
+            AtomicLong generation = generations.get(new RegionTenant(region, organizationId));
+            return generation != null ? generation.get() : 0L;
+        }
+
+        @Override
+        public long increment(String region, Long organizationId) {
+            return generations.computeIfAbsent(new RegionTenant(region, organizationId), k -> new AtomicLong())
+                    .incrementAndGet();
+        }
+    }
+
+    private record RegionTenant(String region, Long organizationId) {}
+}
@@ -0,0 +1,171 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * A cache region whose keys are scoped to the current tenant and its generation:
+ * {@code t<orgId>:g<generation>:<key>}. Callers keep using their plain keys; {@link #evictTenant} retires
+ * all of a tenant's entries without touching other tenants. Keys used without a bound tenant are passed
+ * through unchanged. Loads through {@link #get(Object, Callable)} are coalesced by the {@link CacheLoadCoordinator}.
+ */
+@Slf4j
+public class TenantGenerationCache implements Cache {
+
+    private final Cache delegate;
+    private final TenantCacheGenerations generations;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final CacheAccessFrequencies accessFrequencies;
+
+    public TenantGenerationCache(Cache delegate, TenantCacheGenerations generations) {
+        this(delegate, generations, CacheLoadCoordinator.local());
+    }
+
+    public TenantGenerationCache(Cache delegate, TenantCacheGenerations generations,
+                                 CacheLoadCoordinator loadCoordinator) {
+        this(delegate, generations, loadCoordinator, null);
+    }
+
+    /**
+     * @param accessFrequencies counts the tenant's reads for the cache warm-up; may be null
+     */
+    public TenantGenerationCache(Cache delegate, TenantCacheGenerations generations,
+                                 CacheLoadCoordinator loadCoordinator, CacheAccessFrequencies accessFrequencies) {
+        this.delegate = delegate;
+        this.generations = generations;
+        this.loadCoordinator = loadCoordinator;
+        this.accessFrequencies = accessFrequencies;
+    }
+
+    /**
+     * Move the tenant to a new generation. Stale entries expire with the region TTL; in-process stores
+     * drop them right away.
+     */
+    public void evictTenant(Long organizationId) {
+        long generation = generations.increment(getName(), organizationId);
+        purgeLocal(organizationId);
+        log.trace("Cache '{}' moved to generation {} for tenant {}", getName(), generation, organizationId);
+    }
+
+    /** Apply another node's {@link #evictTenant} to this node's in-process store. */
+    public void evictTenantLocal(Long organizationId) {
+        generations.incrementedByPeer(getName(), organizationId);
+        purgeLocal(organizationId);
+    }
+
+    /** Apply another node's eviction of a tenant's key to this node's in-process store. */
+    public void evictLocal(Long organizationId, Object key) {
+        Object scopedKey = scopedKey(organizationId, key);
+        if (delegate instanceof TwoTierCache twoTier) {
+            twoTier.evictLocal(String.valueOf(scopedKey)); // the shared L2 was evicted by the sender
+        } else {
+            delegate.evict(scopedKey);
+        }
+    }
+
+    private void purgeLocal(Long organizationId) {
+        Object nativeCache = delegate.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            nativeCache = caffeine.asMap();
+        }
+        if (nativeCache instanceof ConcurrentMap<?, ?> store) {
+            String prefix = tenantPrefix(organizationId);
+            store.keySet().removeIf(key -> key instanceof String s && s.startsWith(prefix));
+        }
+    }
+
+    Object scopedKey(Object key) {
+        Long orgId = TenantContext.get();
+        return orgId != null ? scopedKey(orgId, key) : key;
+    }
+
+    private Object readKey(Object key) {
+        Long orgId = TenantContext.get();
+        if (orgId == null) {
+            return key;
+        }
+        if (accessFrequencies != null) {
+            accessFrequencies.record(getName(), orgId, key);
+        }
+        return scopedKey(orgId, key);
+    }
+
+    private String scopedKey(Long organizationId, Object key) {
+        return tenantPrefix(organizationId) + generations.current(getName(), organizationId) + ":" + key;
+    }
+
+    private static String tenantPrefix(Long organizationId) {
+        return "t" + organizationId + ":g";
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(readKey(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(scopedKey(key), type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return loadCoordinator.get(delegate, readKey(key), valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(scopedKey(key));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(scopedKey(key), valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(scopedKey(key), value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(scopedKey(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(scopedKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(scopedKey(key));
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
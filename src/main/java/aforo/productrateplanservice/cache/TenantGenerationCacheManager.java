@@ -0,0 +1,53 @@
+package aforo.productrateplanservice.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the configured cache manager so that every region is a {@link TenantGenerationCache}.
+ */
+public class TenantGenerationCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final TenantCacheGenerations generations;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final CacheAccessFrequencies accessFrequencies;
+    private final ConcurrentHashMap<String, TenantGenerationCache> caches = new ConcurrentHashMap<>();
+
+    public TenantGenerationCacheManager(CacheManager delegate, TenantCacheGenerations generations) {
+        this(delegate, generations, CacheLoadCoordinator.local());
+    }
+
+    public TenantGenerationCacheManager(CacheManager delegate, TenantCacheGenerations generations,
+                                        CacheLoadCoordinator loadCoordinator) {
+        this(delegate, generations, loadCoordinator, null);
+    }
+
+    public TenantGenerationCacheManager(CacheManager delegate, TenantCacheGenerations generations,
+                                        CacheLoadCoordinator loadCoordinator, CacheAccessFrequencies accessFrequencies) {
+        this.delegate = delegate;
+        this.generations = generations;
+        this.loadCoordinator = loadCoordinator;
+        this.accessFrequencies = accessFrequencies;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TenantGenerationCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target != null
+                ? caches.computeIfAbsent(name, n -> new TenantGenerationCache(target, generations, loadCoordinator, accessFrequencies))
+                : null;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
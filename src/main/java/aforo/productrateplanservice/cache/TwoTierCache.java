@@ -0,0 +1,158 @@
+package aforo.productrateplanservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * ⚡ A cache region with a bounded in-process Caffeine L1 in front of a shared L2 (Redis).
+ *
+ * Reads try L1, then L2; an L2 hit is copied into L1 so the next read skips the network hop and the
+ * decode. Writes and evictions go to L2 first, then L1; {@link CacheInvalidationBus} drops the other
+ * nodes' L1 copies. Hits and misses are counted per tier as {@code cache.tier.gets}.
+ */
+public class TwoTierCache implements Cache {
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public TwoTierCache(com.github.benmanes.caffeine.cache.Cache<String, Object> l1, Cache l2,
+                        MeterRegistry meterRegistry) {
+        this.l1 = l1;
+        this.l2 = l2;
+        this.l1Hits = counter(meterRegistry, "l1", "hit");
+        this.l1Misses = counter(meterRegistry, "l1", "miss");
+        this.l2Hits = counter(meterRegistry, "l2", "hit");
+        this.l2Misses = counter(meterRegistry, "l2", "miss");
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Cache lookups per region and tier")
+                .tag("cache", getName())
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /** L1 keys are strings, the form L2 stores them in. */
+    private static String l1Key(Object key) {
+        return String.valueOf(key);
+    }
+
+    /** Drop a key from this node's L1 only (a peer evicted it). */
+    public void evictLocal(String key) {
+        l1.invalidate(key);
+    }
+
+    @Override
+    public String getName() {
+        return l2.getName();
+    }
+
+    /** The L1 store; tenant invalidation purges retired generations from it. */
+    @Override
+    public Object getNativeCache() {
+        return l1;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object local = l1.getIfPresent(l1Key(key));
+        if (local != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(local == NullValue.INSTANCE ? null : local);
+        }
+        l1Misses.increment();
+
+        ValueWrapper shared = l2.get(key);
+        if (shared == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        l1.put(l1Key(key), toStoreValue(shared.get()));
+        return shared;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        l1.put(l1Key(key), toStoreValue(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        l1.put(l1Key(key), toStoreValue(existing != null ? existing.get() : value));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        l1.invalidate(l1Key(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = l2.evictIfPresent(key);
+        present |= l1.asMap().remove(l1Key(key)) != null;
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = l2.invalidate();
+        present |= l1.estimatedSize() > 0;
+        l1.invalidateAll();
+        return present;
+    }
+
+    private static Object toStoreValue(Object value) {
+        return value != null ? value : NullValue.INSTANCE;
+    }
+}
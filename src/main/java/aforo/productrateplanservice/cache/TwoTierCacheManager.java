@@ -0,0 +1,57 @@
+package aforo.productrateplanservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts a {@link TwoTierCache} in front of every region of the shared (L2) cache manager. Each region's
+ * L1 holds at most {@code l1MaximumSize} entries for the region's TTL.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager l2;
+    private final Map<String, Duration> ttls;
+    private final Duration defaultTtl;
+    private final long l1MaximumSize;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager l2, Map<String, Duration> ttls, Duration defaultTtl, long l1MaximumSize,
+                               MeterRegistry meterRegistry) {
+        this.l2 = l2;
+        this.ttls = Map.copyOf(ttls);
+        this.defaultTtl = defaultTtl;
+        this.l1MaximumSize = l1MaximumSize;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache shared = l2.getCache(name);
+        if (shared == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoTierCache(
+                Caffeine.newBuilder()
+                        .maximumSize(l1MaximumSize)
+                        .expireAfterWrite(ttls.getOrDefault(n, defaultTtl))
+                        .build(),
+                shared, meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return l2.getCacheNames();
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 @Slf4j
 @Configuration
@@ -25,6 +26,7 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setThreadNamePrefix("Async-");
         executor.setRejectedExecutionHandler((r, executor1) -> {
             log.warn("Task rejected, thread pool is full and queue is also full");
+            cancelIfFuture(r);
         });
         executor.initialize();
         return executor;
@@ -40,11 +42,19 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setThreadNamePrefix("Bulkhead-");
         executor.setRejectedExecutionHandler((r, executor1) -> {
             log.warn("Bulkhead task rejected, thread pool is full");
+            cancelIfFuture(r);
         });
         executor.initialize();
         return executor;
     }
 
+    // A dropped task never runs; cancelling its future lets the submitter notice instead of waiting forever
+    private static void cancelIfFuture(Runnable rejected) {
+        if (rejected instanceof Future<?> future) {
+            future.cancel(false);
+        }
+    }
+
     @Override
     public Executor getAsyncExecutor() {
         return taskExecutor();
@@ -1,14 +1,30 @@
 package aforo.productrateplanservice.config;
 
+import aforo.productrateplanservice.cache.CacheAccessFrequencies;
+import aforo.productrateplanservice.cache.CacheLoadCoordinator;
+import aforo.productrateplanservice.cache.RedisCacheLoadLock;
+import aforo.productrateplanservice.cache.RedisHotKeyStore;
+import aforo.productrateplanservice.cache.RedisTenantGenerationStore;
+import aforo.productrateplanservice.cache.TenantCacheGenerations;
+import aforo.productrateplanservice.cache.TenantGenerationCacheManager;
+import aforo.productrateplanservice.cache.TwoTierCacheManager;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -16,38 +32,93 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@EnableCaching
 @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = false)
 public class CacheConfig {
 
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /** Region TTLs, shared by the Redis L2, the Caffeine L1 and the simple in-memory cache */
+    public static final Map<String, Duration> REGION_TTLS = Map.of(
+            // Product cache - 30 minutes TTL
+            "products", Duration.ofMinutes(30),
+            // Billable metrics cache - 10 minutes TTL
+            "billableMetrics", Duration.ofMinutes(10),
+            // Rate plans cache - 15 minutes TTL
+            "ratePlans", Duration.ofMinutes(15),
+            // Pricing configurations cache - 20 minutes TTL
+            "pricingConfigurations", Duration.ofMinutes(20),
+            // Short-lived cache for validation - 5 minutes TTL
+            "validations", Duration.ofMinutes(5));
+
+    /** Entries per region in each node's L1 */
+    @Value("${aforo.cache.l1.maximum-size:10000}")
+    private long l1MaximumSize = 10_000;
+
+    /** How long a node may hold a key's load lock; other nodes wait at most this long for its result */
+    @Value("${aforo.cache.load.lock-ttl-ms:5000}")
+    private long loadLockTtlMs = 5000;
+
+    /** How often waiting nodes look for the value loaded by the lock holder */
+    @Value("${aforo.cache.load.lock-poll-ms:25}")
+    private long loadLockPollMs = 25;
+
+    /** How eagerly hot entries are refreshed before their TTL; 0 disables early refresh */
+    @Value("${aforo.cache.load.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta = 1.0;
+
+    /** Hottest keys kept in Redis for the startup warm-up of any node */
+    @Value("${aforo.cache.warmup.max-startup-keys:500}")
+    private int hotKeysKept = 500;
+
+    @Bean
+    public TenantCacheGenerations.Store tenantGenerationStore(StringRedisTemplate redisTemplate) {
+        return new RedisTenantGenerationStore(redisTemplate);
+    }
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheAccessFrequencies.Store hotKeyStore(StringRedisTemplate redisTemplate) {
+        return new RedisHotKeyStore(redisTemplate, hotKeysKept);
+    }
+
+    @Bean
+    public TwoTierCacheManager twoTierCacheManager(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10))
+                .entryTtl(DEFAULT_TTL)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                        .fromSerializer(valueSerializer()));
 
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        
-        // Product cache - 30 minutes TTL
-        cacheConfigurations.put("products", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        
-        // Billable metrics cache - 10 minutes TTL
-        cacheConfigurations.put("billableMetrics", defaultConfig.entryTtl(Duration.ofMinutes(10)));
-        
-        // Rate plans cache - 15 minutes TTL
-        cacheConfigurations.put("ratePlans", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        
-        // Pricing configurations cache - 20 minutes TTL
-        cacheConfigurations.put("pricingConfigurations", defaultConfig.entryTtl(Duration.ofMinutes(20)));
-        
-        // Short-lived cache for validation - 5 minutes TTL
-        cacheConfigurations.put("validations", defaultConfig.entryTtl(Duration.ofMinutes(5)));
-
-        return RedisCacheManager.builder(connectionFactory)
+        REGION_TTLS.forEach((region, ttl) -> cacheConfigurations.put(region, defaultConfig.entryTtl(ttl)));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Bounded in-process L1 in front of Redis, with the same TTL per region
+        return new TwoTierCacheManager(redisCacheManager, REGION_TTLS, DEFAULT_TTL, l1MaximumSize, meterRegistry);
+    }
+
+    /** JSON with type information, and java.time support: the cached DTOs carry dates */
+    public static RedisSerializer<Object> valueSerializer() {
+        return new GenericJackson2JsonRedisSerializer().configure(mapper -> mapper
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    @Bean
+    @Primary
+    public CacheManager cacheManager(TwoTierCacheManager twoTierCacheManager, TenantCacheGenerations generations,
+                                     StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                                     CacheAccessFrequencies accessFrequencies) {
+        // One load per key across the cluster for @Cacheable(sync = true)
+        CacheLoadCoordinator loadCoordinator = new CacheLoadCoordinator(new RedisCacheLoadLock(redisTemplate),
+                meterRegistry, REGION_TTLS, DEFAULT_TTL, earlyRefreshBeta, Duration.ofMillis(loadLockTtlMs), loadLockPollMs);
+        // Keys carry the tenant's generation; retired generations expire with the region TTL
+        return new TenantGenerationCacheManager(twoTierCacheManager, generations, loadCoordinator, accessFrequencies);
     }
 }
@@ -0,0 +1,47 @@
+package aforo.productrateplanservice.config;
+
+import aforo.productrateplanservice.cache.CacheInvalidationTransport;
+import aforo.productrateplanservice.cache.InMemoryCacheInvalidationTransport;
+import aforo.productrateplanservice.cache.RedisCacheInvalidationTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Transport of the cache invalidation bus: Redis pub/sub when
+ * {@code aforo.cache.invalidation.transport} (default: {@code spring.cache.type}) is {@code redis},
+ * otherwise in-process only (a single node).
+ */
+@Configuration
+public class CacheInvalidationBusConfig {
+
+    @Configuration
+    @ConditionalOnExpression("'${aforo.cache.invalidation.transport:${spring.cache.type:simple}}' == 'redis'")
+    static class RedisTransportConfig {
+
+        @Bean
+        public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        public CacheInvalidationTransport cacheInvalidationTransport(StringRedisTemplate redisTemplate,
+                                                                     RedisMessageListenerContainer cacheInvalidationListenerContainer,
+                                                                     ObjectMapper objectMapper) {
+            return new RedisCacheInvalidationTransport(redisTemplate, cacheInvalidationListenerContainer, objectMapper);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(CacheInvalidationTransport.class)
+    public CacheInvalidationTransport inMemoryCacheInvalidationTransport() {
+        return new InMemoryCacheInvalidationTransport();
+    }
+}
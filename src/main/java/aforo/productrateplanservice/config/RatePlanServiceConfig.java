@@ -5,6 +5,7 @@ import aforo.productrateplanservice.rate_plan.RatePlanServiceImplRefactored;
 import aforo.productrateplanservice.rate_plan.service.RatePlanCoreService;
 import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
 import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanSnapshotService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -37,10 +38,11 @@ public class RatePlanServiceConfig {
     public RatePlanService ratePlanServiceRefactored(
             RatePlanCoreService coreService,
             RatePlanPricingAggregationService pricingService,
-            RatePlanRepository repository) {
+            RatePlanRepository repository,
+            RatePlanSnapshotService snapshotService) {
         
-        log.info("🏗️ Configuring REFACTORED Rate Plan Service (3 focused dependencies)");
-        return new RatePlanServiceImplRefactored(coreService, pricingService, repository);
+        log.info("🏗️ Configuring REFACTORED Rate Plan Service (4 focused dependencies)");
+        return new RatePlanServiceImplRefactored(coreService, pricingService, repository, snapshotService);
     }
 
     /**
@@ -137,7 +137,7 @@ public class SecurityConfig {
         config.setAllowedHeaders(List.of("*"));
 
         // Expose headers that the frontend might need
-        config.setExposedHeaders(List.of("Location", "Content-Type", "Authorization"));
+        config.setExposedHeaders(List.of("Location", "Content-Type", "Authorization", "ETag"));
         
         // Set max age for preflight cache (in seconds)
         config.setMaxAge(3600L);
@@ -1,28 +1,70 @@
 package aforo.productrateplanservice.config;
 
+import aforo.productrateplanservice.cache.CacheAccessFrequencies;
+import aforo.productrateplanservice.cache.CacheLoadCoordinator;
+import aforo.productrateplanservice.cache.CacheLoadLock;
+import aforo.productrateplanservice.cache.FileHotKeyStore;
+import aforo.productrateplanservice.cache.TenantCacheGenerations;
+import aforo.productrateplanservice.cache.TenantGenerationCacheManager;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Configuration
 @EnableCaching
+@ConditionalOnExpression("'${spring.cache.type:simple}' != 'redis'") // CacheConfig provides the two-tier manager
 public class SimpleCacheConfig {
 
+    /** Entries per region */
+    @Value("${aforo.cache.l1.maximum-size:10000}")
+    private long maximumSize = 10_000;
+
+    /** How eagerly hot entries are refreshed before their TTL; 0 disables early refresh */
+    @Value("${aforo.cache.load.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta = 1.0;
+
+    /** Hottest keys kept for the startup warm-up */
+    @Value("${aforo.cache.warmup.max-startup-keys:500}")
+    private int hotKeysKept = 500;
+
+    /** Without Redis the hottest keys go to a local file, so a restarted node still has something to warm */
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        
-        // Set up the same cache names as used in the application
-        cacheManager.setCacheNames(java.util.Arrays.asList(
-            "products",
-            "billableMetrics", 
-            "ratePlans",
-            "pricingConfigurations",
-            "validations"
-        ));
-        
-        return cacheManager;
+    @ConditionalOnExpression("!'${aforo.cache.warmup.snapshot-file:cache/hot-keys.tsv}'.isEmpty()")
+    public CacheAccessFrequencies.Store hotKeyStore(
+            @Value("${aforo.cache.warmup.snapshot-file:cache/hot-keys.tsv}") String snapshotFile) {
+        return new FileHotKeyStore(Path.of(snapshotFile), hotKeysKept);
+    }
+
+    @Bean
+    public CacheManager cacheManager(TenantCacheGenerations generations, ObjectProvider<MeterRegistry> meterRegistry,
+                                     ObjectProvider<CacheAccessFrequencies> accessFrequencies) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(CacheConfig.DEFAULT_TTL));
+
+        // Set up the same cache names as used in the application, bounded and with the Redis TTLs
+        cacheManager.setCacheNames(CacheConfig.REGION_TTLS.keySet());
+        CacheConfig.REGION_TTLS.forEach((region, ttl) -> cacheManager.registerCustomCache(region,
+                Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build()));
+
+        // Single node: concurrent misses for a key share one load, no cross-node lock
+        CacheLoadCoordinator loadCoordinator = new CacheLoadCoordinator(CacheLoadLock.NONE,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                CacheConfig.REGION_TTLS, CacheConfig.DEFAULT_TTL, earlyRefreshBeta, Duration.ZERO, 1);
+
+        // Keys carry the tenant's generation, so a tenant can be invalidated without clearing the region
+        return new TenantGenerationCacheManager(cacheManager, generations, loadCoordinator,
+                accessFrequencies.getIfAvailable());
     }
 }
@@ -36,7 +36,7 @@ public class WebConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
-                .exposedHeaders("Location", "Content-Type", "Authorization")
+                .exposedHeaders("Location", "Content-Type", "Authorization", "ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
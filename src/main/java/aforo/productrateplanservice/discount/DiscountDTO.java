@@ -1,12 +1,16 @@
 package aforo.productrateplanservice.discount;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class DiscountDTO {
     private Long id;
     private Long ratePlanId;
@@ -6,6 +6,7 @@ import aforo.productrateplanservice.rate_plan.RatePlan;
 import aforo.productrateplanservice.rate_plan.RatePlanRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,6 +21,7 @@ public class DiscountServiceImpl implements DiscountService {
     private final CacheInvalidationService cacheInvalidationService;
 
     @Override
+    @Transactional
 public DiscountDTO create(Long ratePlanId, DiscountCreateUpdateDTO dto) {
     RatePlan ratePlan = ratePlanRepository.findById(ratePlanId)
             .orElseThrow(() -> new NotFoundException("RatePlan not found"));
@@ -66,6 +68,7 @@ public DiscountDTO create(Long ratePlanId, DiscountCreateUpdateDTO dto) {
     }
 
     @Override
+    @Transactional
     public DiscountDTO update(Long ratePlanId, Long id, DiscountCreateUpdateDTO dto) {
         Discount existing = discountRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Discount not found"));
@@ -79,6 +82,7 @@ public DiscountDTO create(Long ratePlanId, DiscountCreateUpdateDTO dto) {
     }
 
     @Override
+    @Transactional
     public DiscountDTO partialUpdate(Long ratePlanId, Long id, DiscountCreateUpdateDTO dto) {
         Discount existing = discountRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Discount not found"));
@@ -92,6 +96,7 @@ public DiscountDTO create(Long ratePlanId, DiscountCreateUpdateDTO dto) {
     }
 
     @Override
+    @Transactional
     public void delete(Long ratePlanId, Long id) {
         Discount discount = discountRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Discount not found"));
@@ -0,0 +1,52 @@
+package aforo.productrateplanservice.estimator;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One pricing definition evaluated at many usage points.
+ * Usage points come either from an explicit {@code usages} array or from a {@code range}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEstimateRequest {
+
+    @Valid
+    @NotNull(message = "pricing is required")
+    private EstimateRequest pricing; // usage on the definition is ignored
+
+    private List<@NotNull @PositiveOrZero Long> usages;
+
+    @Valid
+    private UsageRange range;
+
+    private Boolean includeBreakdown;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UsageRange {
+        @NotNull(message = "range.start is required")
+        @PositiveOrZero(message = "range.start must be zero or positive")
+        private Long start;
+
+        @NotNull(message = "range.end is required")
+        @PositiveOrZero(message = "range.end must be zero or positive")
+        private Long end; // inclusive
+
+        @NotNull(message = "range.step is required")
+        @Positive(message = "range.step must be positive")
+        private Long step;
+    }
+}
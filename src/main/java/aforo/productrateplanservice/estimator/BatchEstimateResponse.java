@@ -0,0 +1,27 @@
+package aforo.productrateplanservice.estimator;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Columnar batch result: {@code totals[i]} (and {@code breakdowns[i]}) belong to {@code usages[i]}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEstimateResponse {
+
+    private String modelType;
+    private long[] usages;
+    private BigDecimal[] totals;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<List<EstimateResponse.LineItem>> breakdowns; // only when includeBreakdown=true
+}
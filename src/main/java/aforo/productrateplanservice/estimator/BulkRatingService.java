@@ -0,0 +1,151 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streams NDJSON usage records through the compiled pricing of stored rate plans.
+ * Input is read line by line and each rated line is written back immediately, so memory is
+ * bounded by the per-stream plan cache, not by the input size.
+ */
+@Service
+@Slf4j
+public class BulkRatingService {
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final RatePlanRepository ratePlanRepository;
+    private final RatePlanPricingAggregationService pricingAggregationService;
+    private final EntityManager entityManager;
+    private final ObjectReader recordReader;
+    private final ObjectWriter resultWriter;
+    private final int planCacheSize;
+
+    public BulkRatingService(RatePlanRepository ratePlanRepository,
+                             RatePlanPricingAggregationService pricingAggregationService,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             @Value("${aforo.estimator.rating.plan-cache-size:1024}") int planCacheSize) {
+        this.ratePlanRepository = ratePlanRepository;
+        this.pricingAggregationService = pricingAggregationService;
+        this.entityManager = entityManager;
+        this.recordReader = objectMapper.readerFor(UsageRecord.class);
+        this.resultWriter = objectMapper.writerFor(RatedUsageRecord.class);
+        this.planCacheSize = Math.max(1, planCacheSize);
+    }
+
+    /**
+     * Rate every NDJSON line of {@code in} and write one NDJSON result line per input line to {@code out}.
+     * Malformed lines and unknown plans produce an error line; they do not abort the stream.
+     *
+     * @return number of lines rated
+     */
+    public long rate(InputStream in, OutputStream out) throws IOException {
+        Long orgId = TenantContext.require();
+        Map<Long, Object> plans = new PlanCache(planCacheSize); // CompiledPricingProgram or error String
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long lineNo = 0;
+        long rated = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+
+            RatedUsageRecord result = rateLine(lineNo, line, orgId, plans);
+            out.write(resultWriter.writeValueAsBytes(result));
+            out.write('\n');
+            if (++rated % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        log.debug("Bulk-rated {} usage records for orgId: {}", rated, orgId);
+        return rated;
+    }
+
+    private RatedUsageRecord rateLine(long lineNo, String line, Long orgId, Map<Long, Object> plans) {
+        UsageRecord record;
+        try {
+            record = recordReader.readValue(line);
+        } catch (IOException e) {
+            return RatedUsageRecord.builder().line(lineNo).error("Malformed usage record").build();
+        }
+
+        RatedUsageRecord.RatedUsageRecordBuilder result = RatedUsageRecord.builder()
+                .line(lineNo)
+                .ratePlanId(record.getRatePlanId())
+                .usage(record.getUsage())
+                .periodStart(record.getPeriodStart())
+                .periodEnd(record.getPeriodEnd());
+
+        if (record.getRatePlanId() == null) {
+            return result.error("ratePlanId is required").build();
+        }
+        if (record.getUsage() == null || record.getUsage() < 0) {
+            return result.error("usage must be zero or positive").build();
+        }
+
+        Object plan = plans.get(record.getRatePlanId());
+        if (plan == null) {
+            plan = resolve(record.getRatePlanId(), orgId);
+            plans.put(record.getRatePlanId(), plan);
+        }
+        if (plan instanceof String error) {
+            return result.error(error).build();
+        }
+
+        CompiledPricingProgram program = (CompiledPricingProgram) plan;
+        return result.modelType(program.getPricingModel().name())
+                .total(program.total(record.getUsage()))
+                .build();
+    }
+
+    private Object resolve(Long ratePlanId, Long orgId) {
+        try {
+            return ratePlanRepository.findByRatePlanIdAndOrganizationId(ratePlanId, orgId)
+                    .<Object>map(ratePlan -> CompiledPricingProgram.compile(pricingAggregationService.toDetailedDTO(ratePlan)))
+                    .orElse("Rate plan not found with ID: " + ratePlanId);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        } finally {
+            // The compiled program holds copies of everything it needs; don't let the
+            // persistence context grow with the number of distinct plans in the stream
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Access-ordered LRU bound on resolved plans.
+     */
+    private static final class PlanCache extends LinkedHashMap<Long, Object> {
+        private final int maxEntries;
+
+        PlanCache(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
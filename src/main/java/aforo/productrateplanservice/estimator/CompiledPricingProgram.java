@@ -0,0 +1,728 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.enums.RatePlanType;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, pre-validated form of a pricing definition.
+ * Tiers and steps are sorted once into parallel arrays so that {@link #evaluate(long, boolean)}
+ * never re-sorts or copies the request. Volume tiers and stair steps resolve through a
+ * {@link TierIndex} (binary search); graduated tiers keep cumulative band offsets and prefix
+ * charges, so a total costs O(log n) in the number of tiers.
+ * Programs are keyed by {@link #contentHash(EstimateRequest)}, which ignores {@code usage}.
+ * <p>
+ * When every amount in the definition fits in six decimal places, {@link #total(long)} runs on
+ * scaled {@code long} micro-units instead of {@code BigDecimal}; any overflow falls back to the
+ * {@code BigDecimal} path. Both paths give identical results after the final
+ * {@code setScale(2, HALF_UP)}.
+ */
+public final class CompiledPricingProgram {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int MICRO_SCALE = 6;
+    private static final long MICROS_PER_CENT = 10_000L;
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private final EstimateRequest definition;
+    private final long contentHash;
+    private final RatePlanType pricingModel;
+
+    // Flat Fee
+    private final BigDecimal flatFeeAmount;
+    private final long includedUnits;
+    private final BigDecimal overageUnitRate;
+    private final boolean chargesOverage;
+
+    // Usage Based (also the freemium credit rate)
+    private final BigDecimal perUnitAmount;
+
+    // Tiered & Volume Based, sorted by minUnits
+    private final long[] tierMin;
+    private final long[] tierMax;
+    private final long[] tierWidth;  // units in the band, saturated for open-ended bands
+    private final long[] tierOffset; // units consumed by all earlier bands (graduated pricing)
+    private final BigDecimal[] tierPrice;
+    private final BigDecimal[] tierPrefix; // charge of all earlier bands when full (graduated pricing)
+    private final String[] tierLabel;
+    private final TierIndex tierIndex;
+
+    // Stair Step, sorted by usageThresholdStart
+    private final long[] stepStart;
+    private final long[] stepEnd;
+    private final BigDecimal[] stepCharge;
+    private final String[] stepLabel;
+    private final TierIndex stepIndex;
+
+    // Extras (null / negative when not included)
+    private final BigDecimal setupFee;
+    private final long freeUnits;
+    private final BigDecimal minCommitmentAmount;
+    private final BigDecimal discountPct;
+    private final BigDecimal flatDiscountAmount;
+    private final String discountLabel;
+
+    // Fixed-point mirror of the amounts above, in micro-units (1e-6); only valid when fixedPoint
+    private final boolean fixedPoint;
+    private final long flatFeeMicros;
+    private final long overageMicros;
+    private final long perUnitMicros;
+    private final long[] tierPriceMicros;
+    private final long[] tierPrefixMicros;
+    private final int tierPrefixMicrosCount; // leading tierPrefixMicros entries that did not overflow
+    private final long[] stepChargeMicros;
+    private final long setupFeeMicros;
+    private final long minCommitmentMicros;
+    private final long flatDiscountMicros;
+    private final long discountPctUnscaled; // discountPct = discountPctUnscaled / 10^discountPctScale
+    private final int discountPctScale;
+
+    private CompiledPricingProgram(EstimateRequest request, long contentHash) {
+        this.definition = copyDefinition(request);
+        this.contentHash = contentHash;
+        this.pricingModel = request.getPricingModel();
+
+        this.flatFeeAmount = request.getFlatFeeAmountSafe();
+        this.includedUnits = request.getIncludedUnitsSafe();
+        this.overageUnitRate = request.getOverageUnitRateSafe();
+        this.chargesOverage = overageUnitRate.compareTo(BigDecimal.ZERO) > 0;
+        this.perUnitAmount = request.getPerUnitAmountSafe();
+
+        List<EstimateRequest.Tier> tiers = pricingModel == RatePlanType.TIERED || pricingModel == RatePlanType.VOLUME_BASED
+                ? sortedTiers(request.getTiers())
+                : List.of();
+        int tierCount = tiers.size();
+        this.tierMin = new long[tierCount];
+        this.tierMax = new long[tierCount];
+        this.tierWidth = new long[tierCount];
+        this.tierOffset = new long[tierCount];
+        this.tierPrice = new BigDecimal[tierCount];
+        this.tierPrefix = new BigDecimal[tierCount];
+        this.tierLabel = new String[tierCount];
+        long offset = 0;
+        BigDecimal prefix = BigDecimal.ZERO;
+        for (int i = 0; i < tierCount; i++) {
+            EstimateRequest.Tier tier = tiers.get(i);
+            long min = tier.getMinUnits() != null ? tier.getMinUnits() : 0L;
+            long max = tier.getMaxUnits() != null ? tier.getMaxUnits() : Long.MAX_VALUE;
+            if (max < min) {
+                throw new IllegalArgumentException("Tier maxUnits must not be less than minUnits: " + min + "-" + max);
+            }
+            if (tier.getPricePerUnit() == null) {
+                throw new IllegalArgumentException("pricePerUnit is required for tier " + min + "-" + max);
+            }
+            tierMin[i] = min;
+            tierMax[i] = max;
+            tierWidth[i] = bandWidth(min, max);
+            tierOffset[i] = offset;
+            tierPrice[i] = tier.getPricePerUnit();
+            tierPrefix[i] = prefix;
+            tierLabel[i] = "Tier " + min + "-" + (tier.getMaxUnits() != null ? tier.getMaxUnits() : "∞");
+            offset = saturatedAdd(offset, tierWidth[i]);
+            prefix = prefix.add(tierPrice[i].multiply(BigDecimal.valueOf(tierWidth[i])));
+        }
+        this.tierIndex = TierIndex.of(tierMin, tierMax);
+
+        List<EstimateRequest.Step> steps = pricingModel == RatePlanType.STAIRSTEP
+                ? sortedSteps(request.getSteps())
+                : List.of();
+        int stepCount = steps.size();
+        this.stepStart = new long[stepCount];
+        this.stepEnd = new long[stepCount];
+        this.stepCharge = new BigDecimal[stepCount];
+        this.stepLabel = new String[stepCount];
+        for (int i = 0; i < stepCount; i++) {
+            EstimateRequest.Step step = steps.get(i);
+            stepStart[i] = step.getUsageThresholdStart() != null ? step.getUsageThresholdStart() : 0L;
+            stepEnd[i] = step.getUsageThresholdEnd() != null ? step.getUsageThresholdEnd() : Long.MAX_VALUE;
+            stepCharge[i] = step.getMonthlyCharge() != null ? step.getMonthlyCharge() : BigDecimal.ZERO;
+            stepLabel[i] = step.getUsageThresholdStart() + "-" +
+                    (step.getUsageThresholdEnd() != null ? step.getUsageThresholdEnd() : "∞");
+        }
+        this.stepIndex = TierIndex.of(stepStart, stepEnd);
+
+        this.setupFee = Boolean.TRUE.equals(request.getIncludeSetup()) ? request.getSetupFee() : null;
+        this.freeUnits = Boolean.TRUE.equals(request.getIncludeFreemium()) && request.getFreeUnits() != null
+                ? request.getFreeUnits() : -1L;
+        this.minCommitmentAmount = Boolean.TRUE.equals(request.getIncludeCommitment()) ? request.getMinCommitmentAmount() : null;
+
+        BigDecimal pct = null;
+        BigDecimal flat = null;
+        String label = null;
+        if (Boolean.TRUE.equals(request.getIncludeDiscount())) {
+            if (request.getDiscountPct() != null && request.getDiscountPct().compareTo(BigDecimal.ZERO) > 0) {
+                pct = request.getDiscountPct();
+                label = "Discount (" + pct + "%)";
+            } else if (request.getFlatDiscountAmount() != null && request.getFlatDiscountAmount().compareTo(BigDecimal.ZERO) > 0) {
+                flat = request.getFlatDiscountAmount();
+                label = "Flat Discount";
+            }
+        }
+        this.discountPct = pct;
+        this.flatDiscountAmount = flat;
+        this.discountLabel = label;
+
+        // -- Fixed-point form --
+        long[] tierMicros = new long[tierCount];
+        long[] stepMicros = new long[stepCount];
+        boolean representable = true;
+        long flatMicros = 0, overMicros = 0, perMicros = 0, setupMicros = 0, commitMicros = 0, flatDiscMicros = 0;
+        long pctUnscaled = 0;
+        int pctScale = 0;
+        try {
+            flatMicros = toMicros(flatFeeAmount);
+            overMicros = toMicros(overageUnitRate);
+            perMicros = toMicros(perUnitAmount);
+            for (int i = 0; i < tierCount; i++) tierMicros[i] = toMicros(tierPrice[i]);
+            for (int i = 0; i < stepCount; i++) stepMicros[i] = toMicros(stepCharge[i]);
+            if (setupFee != null) setupMicros = toMicros(setupFee);
+            if (minCommitmentAmount != null) commitMicros = toMicros(minCommitmentAmount);
+            if (flatDiscountAmount != null) flatDiscMicros = toMicros(flatDiscountAmount);
+            if (discountPct != null) {
+                BigDecimal normalized = discountPct.stripTrailingZeros();
+                if (normalized.scale() < 0) normalized = normalized.setScale(0);
+                pctScale = normalized.scale();
+                pctUnscaled = normalized.unscaledValue().longValueExact();
+                if (MICRO_SCALE + pctScale >= POW10.length) representable = false;
+            }
+        } catch (ArithmeticException e) {
+            representable = false;
+        }
+        this.fixedPoint = representable;
+        this.flatFeeMicros = flatMicros;
+        this.overageMicros = overMicros;
+        this.perUnitMicros = perMicros;
+        this.tierPriceMicros = tierMicros;
+        this.tierPrefixMicros = new long[tierCount];
+        int prefixCount = 0;
+        if (representable) {
+            try {
+                long sum = 0;
+                for (; prefixCount < tierCount; prefixCount++) {
+                    tierPrefixMicros[prefixCount] = sum;
+                    sum = Math.addExact(sum, Math.multiplyExact(tierMicros[prefixCount], tierWidth[prefixCount]));
+                }
+            } catch (ArithmeticException overflow) {
+                prefixCount++; // the entry written before the overflow is still exact
+            }
+        }
+        this.tierPrefixMicrosCount = prefixCount;
+        this.stepChargeMicros = stepMicros;
+        this.setupFeeMicros = setupMicros;
+        this.minCommitmentMicros = commitMicros;
+        this.flatDiscountMicros = flatDiscMicros;
+        this.discountPctUnscaled = pctUnscaled;
+        this.discountPctScale = pctScale;
+    }
+
+    /**
+     * Compile the pricing definition carried by an estimate request. {@code usage} is ignored.
+     */
+    public static CompiledPricingProgram compile(EstimateRequest request) {
+        if (request == null || request.getPricingModel() == null)
+            throw new IllegalArgumentException("Request and pricing model must be provided");
+        return compile(request, contentHash(request));
+    }
+
+    /**
+     * Compile the pricing and extras of a persisted rate plan.
+     */
+    public static CompiledPricingProgram compile(RatePlanDTO ratePlan) {
+        return compile(EstimateRequest.fromRatePlan(ratePlan));
+    }
+
+    static CompiledPricingProgram compile(EstimateRequest request, long contentHash) {
+        if (request == null || request.getPricingModel() == null)
+            throw new IllegalArgumentException("Request and pricing model must be provided");
+        return new CompiledPricingProgram(request, contentHash);
+    }
+
+    public RatePlanType getPricingModel() {
+        return pricingModel;
+    }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Evaluate the program for a usage value. The breakdown list is only built when requested;
+     * otherwise the response carries an empty breakdown.
+     */
+    public EstimateResponse evaluate(long usage, boolean withBreakdown) {
+        List<EstimateResponse.LineItem> lineItems = withBreakdown ? new ArrayList<>() : null;
+        BigDecimal total = run(usage, lineItems);
+        return EstimateResponse.builder()
+                .modelType(pricingModel.name())
+                .breakdown(lineItems != null ? lineItems : List.of())
+                .total(total)
+                .build();
+    }
+
+    /**
+     * Final (rounded) total for a usage value without building a breakdown.
+     * Uses the fixed-point path when the program supports it.
+     */
+    public BigDecimal total(long usage) {
+        if (fixedPoint) {
+            try {
+                return BigDecimal.valueOf(runFixedPoint(usage), MICRO_SCALE).setScale(2, RoundingMode.HALF_UP);
+            } catch (ArithmeticException overflow) {
+                // fall through to the exact BigDecimal path
+            }
+        }
+        return run(usage, null);
+    }
+
+    /**
+     * Same value as {@link #total(long)} in whole cents. Allocation-free on the fixed-point path.
+     *
+     * @throws ArithmeticException if the total does not fit in a {@code long} number of cents
+     */
+    public long totalCents(long usage) {
+        if (fixedPoint) {
+            try {
+                return divideHalfUp(runFixedPoint(usage), MICROS_PER_CENT);
+            } catch (ArithmeticException overflow) {
+                // fall through to the exact BigDecimal path
+            }
+        }
+        return run(usage, null).unscaledValue().longValueExact();
+    }
+
+    /**
+     * True when every amount fits in micro-units, i.e. {@link #total(long)} can avoid {@code BigDecimal}.
+     */
+    public boolean isFixedPoint() {
+        return fixedPoint;
+    }
+
+    /**
+     * Total computed on the {@code BigDecimal} path only (reference for the fixed-point path).
+     */
+    BigDecimal exactTotal(long usage) {
+        return run(usage, null);
+    }
+
+    /**
+     * True when the request carries exactly the pricing definition this program was compiled from.
+     */
+    public boolean hasDefinition(EstimateRequest request) {
+        return sameDefinition(definition, request);
+    }
+
+    private BigDecimal run(long usage, List<EstimateResponse.LineItem> out) {
+        BigDecimal total = chargesBeforeCommitment(usage, out);
+
+        if (minCommitmentAmount != null && total.compareTo(minCommitmentAmount) < 0) {
+            BigDecimal diff = minCommitmentAmount.subtract(total);
+            total = minCommitmentAmount;
+            add(out, "Minimum Commitment Uplift", "Adjusted to minimum", diff);
+        }
+
+        if (discountLabel != null) {
+            BigDecimal discountAmt = discountPct != null
+                    ? total.multiply(discountPct).divide(HUNDRED, 2, RoundingMode.HALF_UP)
+                    : flatDiscountAmount;
+            if (discountAmt.compareTo(BigDecimal.ZERO) > 0) {
+                total = total.subtract(discountAmt);
+                if (out != null) add(out, discountLabel, discountLabel, discountAmt.negate());
+            }
+        }
+
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Base pricing model, setup fee and freemium credit: the part of the total that is linear in
+     * usage between two {@link #breakpoints()}.
+     */
+    private BigDecimal chargesBeforeCommitment(long usage, List<EstimateResponse.LineItem> out) {
+        BigDecimal total = BigDecimal.ZERO;
+
+        // -- Base Pricing Models --
+        switch (pricingModel) {
+            case FLATFEE -> {
+                add(out, "Flat Fee", "Base flat fee", flatFeeAmount);
+                total = total.add(flatFeeAmount);
+                long overUnits = Math.max(0L, usage - includedUnits);
+                if (overUnits > 0 && chargesOverage) {
+                    BigDecimal overAmount = overageUnitRate.multiply(BigDecimal.valueOf(overUnits));
+                    if (out != null) add(out, "Overage Charges", overUnits + " * " + overageUnitRate, overAmount);
+                    total = total.add(overAmount);
+                }
+            }
+            case USAGE_BASED -> {
+                BigDecimal usageAmt = perUnitAmount.multiply(BigDecimal.valueOf(usage));
+                if (out != null) add(out, "Usage Charges", perUnitAmount + " * " + usage, usageAmt);
+                total = total.add(usageAmt);
+            }
+            case TIERED -> {
+                int bands = chargedBands(usage);
+                if (out == null && bands > 0) {
+                    // every earlier band is full: prefix charge plus the partial last band
+                    int lastBand = bands - 1;
+                    long bandUnits = Math.min(usage - tierOffset[lastBand], tierWidth[lastBand]);
+                    total = total.add(tierPrefix[lastBand]).add(tierPrice[lastBand].multiply(BigDecimal.valueOf(bandUnits)));
+                } else {
+                    for (int i = 0; i < bands; i++) {
+                        long bandUnits = Math.min(usage - tierOffset[i], tierWidth[i]);
+                        BigDecimal seg = tierPrice[i].multiply(BigDecimal.valueOf(bandUnits));
+                        add(out, tierLabel[i], bandUnits + " * " + tierPrice[i], seg);
+                        total = total.add(seg);
+                    }
+                }
+            }
+            case VOLUME_BASED -> {
+                if (tierMin.length > 0) {
+                    int matched = tierIndex.find(usage);
+                    BigDecimal volCharge = tierPrice[matched].multiply(BigDecimal.valueOf(usage));
+                    if (out != null) add(out, "Volume Charge", usage + " * " + tierPrice[matched], volCharge);
+                    total = total.add(volCharge);
+                }
+            }
+            case STAIRSTEP -> {
+                if (stepStart.length > 0) {
+                    int chosen = stepIndex.find(usage);
+                    add(out, "Stair Step Charge", stepLabel[chosen], stepCharge[chosen]);
+                    total = total.add(stepCharge[chosen]);
+                }
+            }
+        }
+
+        // -- Extras & Adjustments --
+        if (setupFee != null) {
+            total = total.add(setupFee);
+            add(out, "Setup Fee", "Fixed", setupFee);
+        }
+
+        if (freeUnits >= 0) {
+            BigDecimal credit = perUnitAmount.multiply(BigDecimal.valueOf(Math.min(freeUnits, usage)));
+            if (credit.compareTo(BigDecimal.ZERO) > 0) {
+                total = total.subtract(credit);
+                if (out != null) add(out, "Freemium Credit", freeUnits + " free units", credit.negate());
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Ascending usage values (starting at 0) where the cost formula may change. Between two consecutive
+     * breakpoints the total is linear in usage, apart from cent rounding and the discount applying only
+     * to a positive amount. Jumps (volume and stair-step boundaries) and minimum-commitment kinks are
+     * breakpoints too, so comparing two programs only needs one linear solve per merged interval.
+     */
+    public long[] breakpoints() {
+        long[] points = new long[2 + 2 * tierMin.length + 2 * stepStart.length + 1];
+        int n = 0;
+        points[n++] = 0;
+        switch (pricingModel) {
+            case FLATFEE -> {
+                if (chargesOverage) points[n++] = next(includedUnits);
+            }
+            case TIERED -> {
+                for (int i = 0; i < tierMin.length; i++) {
+                    points[n++] = tierMin[i];
+                    points[n++] = next(tierOffset[i]);
+                }
+            }
+            case VOLUME_BASED -> {
+                for (int i = 0; i < tierMin.length; i++) {
+                    points[n++] = tierMin[i];
+                    points[n++] = next(tierMax[i]);
+                }
+            }
+            case STAIRSTEP -> {
+                for (int i = 0; i < stepStart.length; i++) {
+                    points[n++] = stepStart[i];
+                    points[n++] = next(stepEnd[i]);
+                }
+            }
+            default -> {
+            }
+        }
+        if (freeUnits >= 0) points[n++] = next(freeUnits);
+
+        Arrays.sort(points, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (points[i] >= 0 && (distinct == 0 || points[i] != points[distinct - 1])) points[distinct++] = points[i];
+        }
+        points = Arrays.copyOf(points, distinct);
+        return minCommitmentAmount != null ? withCommitmentKinks(points) : points;
+    }
+
+    /**
+     * Adds, inside each linear interval, the first usage at which the pre-commitment total crosses the
+     * minimum commitment (the exact rational crossing, rounded down, plus one).
+     */
+    private long[] withCommitmentKinks(long[] points) {
+        long[] result = Arrays.copyOf(points, points.length * 2);
+        int n = points.length;
+        for (int i = 0; i < points.length; i++) {
+            long from = points[i];
+            long to = i + 1 < points.length ? points[i + 1] - 1 : Long.MAX_VALUE;
+            if (to <= from) continue;
+            BigDecimal atFrom = chargesBeforeCommitment(from, null).subtract(minCommitmentAmount);
+            BigDecimal atTo = chargesBeforeCommitment(to, null).subtract(minCommitmentAmount);
+            if (atFrom.signum() == 0 || atFrom.signum() == atTo.signum()) continue;
+            // atFrom + (atTo - atFrom) * (u - from) / (to - from) = 0
+            BigDecimal offset = atFrom.negate().multiply(BigDecimal.valueOf(to - from))
+                    .divide(atTo.subtract(atFrom), 0, RoundingMode.FLOOR);
+            long kink = from + offset.longValueExact() + 1;
+            if (kink > from && kink <= to) result[n++] = kink;
+        }
+        Arrays.sort(result, 0, n);
+        return Arrays.copyOf(result, n);
+    }
+
+    private static long next(long usage) {
+        return usage == Long.MAX_VALUE ? Long.MAX_VALUE : usage + 1;
+    }
+
+    /**
+     * Same algorithm as {@link #run(long, List)} on micro-units. Every operation is overflow-checked
+     * and throws {@link ArithmeticException} rather than wrapping.
+     */
+    private long runFixedPoint(long usage) {
+        long total = 0;
+
+        switch (pricingModel) {
+            case FLATFEE -> {
+                total = flatFeeMicros;
+                long overUnits = Math.max(0L, usage - includedUnits);
+                if (overUnits > 0 && chargesOverage) {
+                    total = Math.addExact(total, Math.multiplyExact(overageMicros, overUnits));
+                }
+            }
+            case USAGE_BASED -> total = Math.multiplyExact(perUnitMicros, usage);
+            case TIERED -> {
+                int bands = chargedBands(usage);
+                if (bands > 0) {
+                    int lastBand = bands - 1;
+                    if (lastBand >= tierPrefixMicrosCount) throw new ArithmeticException("tier prefix overflow");
+                    long bandUnits = Math.min(usage - tierOffset[lastBand], tierWidth[lastBand]);
+                    total = Math.addExact(tierPrefixMicros[lastBand], Math.multiplyExact(tierPriceMicros[lastBand], bandUnits));
+                }
+            }
+            case VOLUME_BASED -> {
+                if (tierMin.length > 0) {
+                    int matched = tierIndex.find(usage);
+                    total = Math.multiplyExact(tierPriceMicros[matched], usage);
+                }
+            }
+            case STAIRSTEP -> {
+                if (stepStart.length > 0) {
+                    int chosen = stepIndex.find(usage);
+                    total = stepChargeMicros[chosen];
+                }
+            }
+        }
+
+        if (setupFee != null) {
+            total = Math.addExact(total, setupFeeMicros);
+        }
+
+        if (freeUnits >= 0) {
+            long credit = Math.multiplyExact(perUnitMicros, Math.min(freeUnits, usage));
+            if (credit > 0) {
+                total = Math.subtractExact(total, credit);
+            }
+        }
+
+        if (minCommitmentAmount != null && total < minCommitmentMicros) {
+            total = minCommitmentMicros;
+        }
+
+        if (discountLabel != null) {
+            long discountMicros;
+            if (discountPct != null) {
+                // total * pct / 100 rounded HALF_UP to cents: (micros * unscaledPct) / 10^(6 + pctScale) cents
+                long cents = divideHalfUp(Math.multiplyExact(total, discountPctUnscaled), POW10[MICRO_SCALE + discountPctScale]);
+                discountMicros = Math.multiplyExact(cents, MICROS_PER_CENT);
+            } else {
+                discountMicros = flatDiscountMicros;
+            }
+            if (discountMicros > 0) {
+                total = Math.subtractExact(total, discountMicros);
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Number of graduated bands that receive units: bands are consumed in order until the usage is
+     * used up or a band starts above the usage. Both bounds are ascending, so this is two binary searches.
+     */
+    private int chargedBands(long usage) {
+        return Math.min(TierIndex.lowerBound(tierOffset, usage), TierIndex.upperBound(tierMin, usage));
+    }
+
+    /**
+     * Integer division rounding half away from zero (BigDecimal's HALF_UP); divisor is positive.
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * Units in the inclusive band [min, max], saturating at {@code Long.MAX_VALUE} for open-ended bands.
+     */
+    private static long bandWidth(long min, long max) {
+        long span = max - min; // max >= min is validated, so a negative result means overflow
+        return span < 0 || span == Long.MAX_VALUE ? Long.MAX_VALUE : span + 1;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long toMicros(BigDecimal amount) {
+        return amount.setScale(MICRO_SCALE).unscaledValue().longValueExact();
+    }
+
+    private static void add(List<EstimateResponse.LineItem> out, String label, String calculation, BigDecimal amount) {
+        if (out == null) return;
+        out.add(EstimateResponse.LineItem.builder()
+                .label(label)
+                .calculation(calculation)
+                .amount(amount)
+                .build());
+    }
+
+    // --- Compilation helpers ---
+
+    private static List<EstimateRequest.Tier> sortedTiers(List<EstimateRequest.Tier> tiers) {
+        if (tiers == null || tiers.isEmpty()) return List.of();
+        EstimateRequest.Tier[] sorted = tiers.toArray(new EstimateRequest.Tier[0]);
+        Arrays.sort(sorted, Comparator.comparingLong(t -> t.getMinUnits() != null ? t.getMinUnits() : 0L));
+        return Arrays.asList(sorted);
+    }
+
+    private static List<EstimateRequest.Step> sortedSteps(List<EstimateRequest.Step> steps) {
+        if (steps == null || steps.isEmpty()) return List.of();
+        EstimateRequest.Step[] sorted = steps.toArray(new EstimateRequest.Step[0]);
+        Arrays.sort(sorted, Comparator.comparingLong(s -> s.getUsageThresholdStart() != null ? s.getUsageThresholdStart() : 0L));
+        return Arrays.asList(sorted);
+    }
+
+    private static EstimateRequest copyDefinition(EstimateRequest request) {
+        EstimateRequest copy = new EstimateRequest();
+        copy.setPricingModel(request.getPricingModel());
+        copy.setFlatFeeAmount(request.getFlatFeeAmount());
+        copy.setNumberOfApiCalls(request.getNumberOfApiCalls());
+        copy.setOverageUnitRate(request.getOverageUnitRate());
+        copy.setPerUnitAmount(request.getPerUnitAmount());
+        if (request.getTiers() != null) {
+            copy.setTiers(request.getTiers().stream()
+                    .map(t -> new EstimateRequest.Tier(t.getMinUnits(), t.getMaxUnits(), t.getPricePerUnit()))
+                    .toList());
+        }
+        if (request.getSteps() != null) {
+            copy.setSteps(request.getSteps().stream()
+                    .map(s -> new EstimateRequest.Step(s.getUsageThresholdStart(), s.getUsageThresholdEnd(), s.getMonthlyCharge()))
+                    .toList());
+        }
+        copy.setIncludeSetup(request.getIncludeSetup());
+        copy.setSetupFee(request.getSetupFee());
+        copy.setIncludeDiscount(request.getIncludeDiscount());
+        copy.setDiscountPct(request.getDiscountPct());
+        copy.setFlatDiscountAmount(request.getFlatDiscountAmount());
+        copy.setIncludeFreemium(request.getIncludeFreemium());
+        copy.setFreeUnits(request.getFreeUnits());
+        copy.setIncludeCommitment(request.getIncludeCommitment());
+        copy.setMinCommitmentAmount(request.getMinCommitmentAmount());
+        return copy;
+    }
+
+    static boolean sameDefinition(EstimateRequest a, EstimateRequest b) {
+        return a.getPricingModel() == b.getPricingModel()
+                && Objects.equals(a.getFlatFeeAmount(), b.getFlatFeeAmount())
+                && Objects.equals(a.getNumberOfApiCalls(), b.getNumberOfApiCalls())
+                && Objects.equals(a.getOverageUnitRate(), b.getOverageUnitRate())
+                && Objects.equals(a.getPerUnitAmount(), b.getPerUnitAmount())
+                && Objects.equals(a.getTiers(), b.getTiers())
+                && Objects.equals(a.getSteps(), b.getSteps())
+                && Objects.equals(a.getIncludeSetup(), b.getIncludeSetup())
+                && Objects.equals(a.getSetupFee(), b.getSetupFee())
+                && Objects.equals(a.getIncludeDiscount(), b.getIncludeDiscount())
+                && Objects.equals(a.getDiscountPct(), b.getDiscountPct())
+                && Objects.equals(a.getFlatDiscountAmount(), b.getFlatDiscountAmount())
+                && Objects.equals(a.getIncludeFreemium(), b.getIncludeFreemium())
+                && Objects.equals(a.getFreeUnits(), b.getFreeUnits())
+                && Objects.equals(a.getIncludeCommitment(), b.getIncludeCommitment())
+                && Objects.equals(a.getMinCommitmentAmount(), b.getMinCommitmentAmount());
+    }
+
+    /**
+     * 64-bit content hash over every pricing input of the request except {@code usage}.
+     * Consistent with {@link #hasDefinition(EstimateRequest)}: equal definitions hash equally.
+     */
+    public static long contentHash(EstimateRequest r) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, r.getPricingModel() != null ? r.getPricingModel().ordinal() + 1 : 0);
+        h = mix(h, Objects.hashCode(r.getFlatFeeAmount()));
+        h = mix(h, Objects.hashCode(r.getNumberOfApiCalls()));
+        h = mix(h, Objects.hashCode(r.getOverageUnitRate()));
+        h = mix(h, Objects.hashCode(r.getPerUnitAmount()));
+        List<EstimateRequest.Tier> tiers = r.getTiers();
+        h = mix(h, tiers != null ? tiers.size() : -1);
+        if (tiers != null) {
+            for (int i = 0; i < tiers.size(); i++) {
+                EstimateRequest.Tier t = tiers.get(i);
+                h = mix(h, Objects.hashCode(t.getMinUnits()));
+                h = mix(h, Objects.hashCode(t.getMaxUnits()));
+                h = mix(h, Objects.hashCode(t.getPricePerUnit()));
+            }
+        }
+        List<EstimateRequest.Step> steps = r.getSteps();
+        h = mix(h, steps != null ? steps.size() : -1);
+        if (steps != null) {
+            for (int i = 0; i < steps.size(); i++) {
+                EstimateRequest.Step s = steps.get(i);
+                h = mix(h, Objects.hashCode(s.getUsageThresholdStart()));
+                h = mix(h, Objects.hashCode(s.getUsageThresholdEnd()));
+                h = mix(h, Objects.hashCode(s.getMonthlyCharge()));
+            }
+        }
+        h = mix(h, Objects.hashCode(r.getIncludeSetup()));
+        h = mix(h, Objects.hashCode(r.getSetupFee()));
+        h = mix(h, Objects.hashCode(r.getIncludeDiscount()));
+        h = mix(h, Objects.hashCode(r.getDiscountPct()));
+        h = mix(h, Objects.hashCode(r.getFlatDiscountAmount()));
+        h = mix(h, Objects.hashCode(r.getIncludeFreemium()));
+        h = mix(h, Objects.hashCode(r.getFreeUnits()));
+        h = mix(h, Objects.hashCode(r.getIncludeCommitment()));
+        h = mix(h, Objects.hashCode(r.getMinCommitmentAmount()));
+        // final avalanche (MurmurHash3 fmix64)
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long mix(long h, int value) {
+        return (h ^ value) * 0x100000001b3L;
+    }
+}
@@ -0,0 +1,60 @@
+package aforo.productrateplanservice.estimator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded in-process cache of compiled pricing programs keyed by content hash.
+ * A hash hit is only used when the cached program was compiled from an identical definition,
+ * so a collision costs a recompile, never a wrong price.
+ */
+@Component
+@Slf4j
+public class CompiledPricingProgramCache {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<Long, CompiledPricingProgram> programs = new ConcurrentHashMap<>();
+
+    public CompiledPricingProgramCache(@Value("${aforo.estimator.program-cache.max-entries:4096}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public CompiledPricingProgram getOrCompile(EstimateRequest request) {
+        if (request == null || request.getPricingModel() == null)
+            throw new IllegalArgumentException("Request and pricing model must be provided");
+
+        long key = CompiledPricingProgram.contentHash(request);
+        CompiledPricingProgram cached = programs.get(key);
+        if (cached != null && cached.hasDefinition(request)) {
+            return cached;
+        }
+
+        CompiledPricingProgram compiled = CompiledPricingProgram.compile(request, key);
+        if (programs.size() >= maxEntries) {
+            evictOne();
+        }
+        programs.put(key, compiled);
+        log.trace("Compiled pricing program {} for model {}", Long.toHexString(key), compiled.getPricingModel());
+        return compiled;
+    }
+
+    public int size() {
+        return programs.size();
+    }
+
+    public void clear() {
+        programs.clear();
+    }
+
+    private void evictOne() {
+        Iterator<Long> it = programs.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
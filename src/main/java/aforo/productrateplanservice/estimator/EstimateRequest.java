@@ -1,6 +1,13 @@
 package aforo.productrateplanservice.estimator;
 
+import aforo.productrateplanservice.discount.DiscountDTO;
+import aforo.productrateplanservice.discount.DiscountType;
 import aforo.productrateplanservice.enums.RatePlanType;
+import aforo.productrateplanservice.freemium.FreemiumDTO;
+import aforo.productrateplanservice.freemium.FreemiumType;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.setupfee.SetupFeeDTO;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
@@ -20,11 +27,11 @@ public class EstimateRequest {
     private RatePlanType pricingModel;
 
     @PositiveOrZero(message = "usage must be zero or positive")
-    private Integer usage; // Number of billable units (API calls, tokens, etc.)
+    private Long usage; // Number of billable units (API calls, tokens, etc.)
 
     // Flat Fee
     private BigDecimal flatFeeAmount;
-    private Integer numberOfApiCalls;
+    private Long numberOfApiCalls;
     private BigDecimal overageUnitRate;
 
     // Usage Based
@@ -45,7 +52,7 @@ public class EstimateRequest {
     private BigDecimal flatDiscountAmount;
 
     private Boolean includeFreemium;
-    private Integer freeUnits;
+    private Long freeUnits;
 
     private Boolean includeCommitment;
     private BigDecimal minCommitmentAmount;
@@ -56,8 +63,8 @@ public class EstimateRequest {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Tier {
-        private Integer minUnits;
-        private Integer maxUnits;
+        private Long minUnits;
+        private Long maxUnits;
         private BigDecimal pricePerUnit;
     }
 
@@ -66,14 +73,14 @@ public class EstimateRequest {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Step {
-        private Integer usageThresholdStart;
-        private Integer usageThresholdEnd;
+        private Long usageThresholdStart;
+        private Long usageThresholdEnd;
         private BigDecimal monthlyCharge;
     }
 
     // --- Helpers ---
-    public int getUsageSafe() {
-        return usage != null ? usage : 0;
+    public long getUsageSafe() {
+        return usage != null ? usage : 0L;
     }
 
     public BigDecimal getPerUnitAmountSafe() {
@@ -88,7 +95,84 @@ public class EstimateRequest {
         return overageUnitRate != null ? overageUnitRate : BigDecimal.ZERO;
     }
 
-    public int getIncludedUnitsSafe() {
-        return numberOfApiCalls != null ? numberOfApiCalls : 0;
+    public long getIncludedUnitsSafe() {
+        return numberOfApiCalls != null ? numberOfApiCalls : 0L;
+    }
+
+    // --- Stored rate plans ---
+
+    /**
+     * Build the pricing definition of a persisted rate plan (as assembled by the pricing
+     * aggregation service). Extras present on the plan are switched on; {@code usage} is left unset.
+     */
+    public static EstimateRequest fromRatePlan(RatePlanDTO ratePlan) {
+        EstimateRequest request = new EstimateRequest();
+        if (ratePlan.getFlatFee() != null) {
+            request.setPricingModel(RatePlanType.FLATFEE);
+            request.setFlatFeeAmount(ratePlan.getFlatFee().getFlatFeeAmount() != null
+                    ? BigDecimal.valueOf(ratePlan.getFlatFee().getFlatFeeAmount()) : null);
+            request.setNumberOfApiCalls(ratePlan.getFlatFee().getNumberOfApiCalls());
+            request.setOverageUnitRate(ratePlan.getFlatFee().getOverageUnitRate());
+        } else if (ratePlan.getTieredPricings() != null && !ratePlan.getTieredPricings().isEmpty()) {
+            request.setPricingModel(RatePlanType.TIERED);
+            request.setTiers(ratePlan.getTieredPricings().get(0).getTiers() == null ? List.of()
+                    : ratePlan.getTieredPricings().get(0).getTiers().stream()
+                    .map(t -> new Tier(t.getStartRange(), t.getEndRange(), t.getUnitPrice()))
+                    .toList());
+        } else if (ratePlan.getVolumePricings() != null && !ratePlan.getVolumePricings().isEmpty()) {
+            request.setPricingModel(RatePlanType.VOLUME_BASED);
+            request.setTiers(ratePlan.getVolumePricings().get(0).getTiers() == null ? List.of()
+                    : ratePlan.getVolumePricings().get(0).getTiers().stream()
+                    .map(t -> new Tier(t.getUsageStart(), t.getUsageEnd(), t.getUnitPrice()))
+                    .toList());
+        } else if (ratePlan.getUsageBasedPricings() != null && !ratePlan.getUsageBasedPricings().isEmpty()) {
+            request.setPricingModel(RatePlanType.USAGE_BASED);
+            request.setPerUnitAmount(ratePlan.getUsageBasedPricings().get(0).getPerUnitAmount());
+        } else if (ratePlan.getStairStepPricings() != null && !ratePlan.getStairStepPricings().isEmpty()) {
+            request.setPricingModel(RatePlanType.STAIRSTEP);
+            request.setSteps(ratePlan.getStairStepPricings().get(0).getTiers() == null ? List.of()
+                    : ratePlan.getStairStepPricings().get(0).getTiers().stream()
+                    .map(t -> new Step(t.getUsageStart(), t.getUsageEnd(), t.getFlatCost()))
+                    .toList());
+        } else {
+            throw new IllegalArgumentException("Rate plan " + ratePlan.getRatePlanId() + " has no pricing configuration");
+        }
+
+        if (ratePlan.getSetupFees() != null && !ratePlan.getSetupFees().isEmpty()) {
+            BigDecimal setup = BigDecimal.ZERO;
+            for (SetupFeeDTO fee : ratePlan.getSetupFees()) {
+                if (fee.getSetupFee() != null) setup = setup.add(fee.getSetupFee());
+            }
+            request.setIncludeSetup(true);
+            request.setSetupFee(setup);
+        }
+        if (ratePlan.getDiscounts() != null && !ratePlan.getDiscounts().isEmpty()) {
+            DiscountDTO discount = ratePlan.getDiscounts().get(0);
+            request.setIncludeDiscount(true);
+            if (discount.getDiscountType() == DiscountType.PERCENTAGE && discount.getPercentageDiscount() != null) {
+                request.setDiscountPct(BigDecimal.valueOf(discount.getPercentageDiscount()));
+            } else if (discount.getDiscountType() == DiscountType.FLAT && discount.getFlatDiscountAmount() != null) {
+                request.setFlatDiscountAmount(BigDecimal.valueOf(discount.getFlatDiscountAmount()));
+            }
+        }
+        if (ratePlan.getFreemiums() != null) {
+            for (FreemiumDTO freemium : ratePlan.getFreemiums()) {
+                if (freemium.getFreemiumType() != FreemiumType.FREE_TRIAL_DURATION && freemium.getFreeUnits() != null) {
+                    request.setIncludeFreemium(true);
+                    request.setFreeUnits(freemium.getFreeUnits().longValue());
+                    break;
+                }
+            }
+        }
+        if (ratePlan.getMinimumCommitments() != null) {
+            for (MinimumCommitmentDTO commitment : ratePlan.getMinimumCommitments()) {
+                if (commitment.getMinimumCharge() != null) {
+                    request.setIncludeCommitment(true);
+                    request.setMinCommitmentAmount(BigDecimal.valueOf(commitment.getMinimumCharge()));
+                    break;
+                }
+            }
+        }
+        return request;
     }
 }
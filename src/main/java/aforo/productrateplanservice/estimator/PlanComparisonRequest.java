@@ -0,0 +1,29 @@
+package aforo.productrateplanservice.estimator;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Two or more plans to compare: stored rate plans of the current tenant and/or inline pricing definitions.
+ * Crossovers are searched over {@code [0, maxUsage]} (unbounded when omitted).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanComparisonRequest {
+
+    private List<@NotNull Long> ratePlanIds;
+
+    private List<@Valid @NotNull EstimateRequest> plans; // usage on each definition is ignored
+
+    @PositiveOrZero(message = "maxUsage must be zero or positive")
+    private Long maxUsage;
+}
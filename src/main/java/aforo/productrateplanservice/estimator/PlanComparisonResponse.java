@@ -0,0 +1,73 @@
+package aforo.productrateplanservice.estimator;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Exact crossover points between the compared plans.
+ * Each {@link Crossover} reads "from {@code usage} on, {@code cheaper} costs less" ({@code TIE} when equal),
+ * until the next crossover. {@code cheapest} is the lower envelope: which plan(s) cost least on each usage range.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanComparisonResponse {
+
+    public static final String TIE = "TIE";
+
+    private List<Plan> plans;
+    private List<Pair> pairs;
+    private List<Range> cheapest;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Plan {
+        private String key;        // "rateplan-<id>" or "inline-<n>"
+        private Long ratePlanId;
+        private String name;
+        private String modelType;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pair {
+        private String planA;
+        private String planB;
+        private String cheaperAtZero;
+        private List<Crossover> crossovers;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Crossover {
+        private long usage;
+        private String cheaper;
+        private BigDecimal costA;
+        private BigDecimal costB;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Range {
+        private long fromUsage;
+        private Long toUsage;      // inclusive; null = no upper bound
+        private List<String> plans;
+    }
+}
@@ -0,0 +1,235 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Plan comparison and break-even analysis.
+ * <p>
+ * Each compiled program exposes the usage points where its cost formula changes
+ * ({@link CompiledPricingProgram#breakpoints()}). Merging the breakpoints of two plans gives intervals on
+ * which both costs are linear, so the cost difference has at most one root per interval. The root is
+ * solved from the interval endpoints and then pinned to the exact cent-rounded totals with a few
+ * galloping probes around it; jumps at interval boundaries are crossovers too. No usage sampling is done.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlanComparisonService {
+
+    private final RatePlanRepository ratePlanRepository;
+    private final RatePlanEstimateService ratePlanEstimateService;
+    private final CompiledPricingProgramCache programCache;
+
+    @Transactional(readOnly = true)
+    public PlanComparisonResponse compare(PlanComparisonRequest request) {
+        if (request == null)
+            throw new IllegalArgumentException("Request must be provided");
+        long maxUsage = request.getMaxUsage() != null ? request.getMaxUsage() : Long.MAX_VALUE;
+        if (maxUsage < 0)
+            throw new IllegalArgumentException("maxUsage must be zero or positive");
+
+        List<PlanComparisonResponse.Plan> plans = new ArrayList<>();
+        List<CompiledPricingProgram> programs = new ArrayList<>();
+        if (request.getRatePlanIds() != null) {
+            Long orgId = TenantContext.require();
+            for (Long ratePlanId : request.getRatePlanIds()) {
+                RatePlan ratePlan = ratePlanRepository.findByRatePlanIdAndOrganizationId(ratePlanId, orgId)
+                        .orElseThrow(() -> new NotFoundException("Rate plan not found with ID: " + ratePlanId));
+                CompiledPricingProgram program = ratePlanEstimateService.program(ratePlanId);
+                programs.add(program);
+                plans.add(PlanComparisonResponse.Plan.builder()
+                        .key("rateplan-" + ratePlanId)
+                        .ratePlanId(ratePlanId)
+                        .name(ratePlan.getRatePlanName())
+                        .modelType(program.getPricingModel().name())
+                        .build());
+            }
+        }
+        if (request.getPlans() != null) {
+            int inline = 0;
+            for (EstimateRequest definition : request.getPlans()) {
+                if (definition == null || definition.getPricingModel() == null)
+                    throw new IllegalArgumentException("Every inline plan needs a pricing model");
+                CompiledPricingProgram program = programCache.getOrCompile(definition);
+                programs.add(program);
+                plans.add(PlanComparisonResponse.Plan.builder()
+                        .key("inline-" + (++inline))
+                        .modelType(program.getPricingModel().name())
+                        .build());
+            }
+        }
+        if (programs.size() < 2)
+            throw new IllegalArgumentException("At least two plans are required for a comparison");
+
+        List<PlanComparisonResponse.Pair> pairs = new ArrayList<>();
+        long[] events = new long[]{0};
+        for (int a = 0; a < programs.size(); a++) {
+            for (int b = a + 1; b < programs.size(); b++) {
+                PlanComparisonResponse.Pair pair = comparePair(plans.get(a).getKey(), programs.get(a),
+                        plans.get(b).getKey(), programs.get(b), maxUsage);
+                pairs.add(pair);
+                long[] usages = pair.getCrossovers().stream().mapToLong(PlanComparisonResponse.Crossover::getUsage).toArray();
+                events = merge(events, usages);
+            }
+        }
+
+        return PlanComparisonResponse.builder()
+                .plans(plans)
+                .pairs(pairs)
+                .cheapest(envelope(plans, programs, events, maxUsage))
+                .build();
+    }
+
+    PlanComparisonResponse.Pair comparePair(String keyA, CompiledPricingProgram a,
+                                            String keyB, CompiledPricingProgram b, long maxUsage) {
+        long[] points = merge(a.breakpoints(), b.breakpoints());
+        List<PlanComparisonResponse.Crossover> crossovers = new ArrayList<>();
+        int state = sign(a, b, 0);
+
+        for (int i = 0; i < points.length && points[i] <= maxUsage; i++) {
+            long from = points[i];
+            long to = i + 1 < points.length && points[i + 1] <= maxUsage ? points[i + 1] - 1 : maxUsage;
+
+            int atFrom = sign(a, b, from);
+            if (atFrom != state) {
+                crossovers.add(crossover(keyA, a, keyB, b, from, atFrom)); // jump at the interval boundary
+                state = atFrom;
+            }
+            int atTo = sign(a, b, to);
+            // linear difference: at most one root, possibly with a tie region around it
+            long lo = from;
+            while (state != atTo) {
+                int current = state;
+                LongPredicate changed = u -> sign(a, b, u) != current;
+                long guess = lo == from ? root(a, b, from, to) : lo + 1;
+                long usage = firstTrue(lo, to, guess, changed);
+                state = sign(a, b, usage);
+                crossovers.add(crossover(keyA, a, keyB, b, usage, state));
+                lo = usage;
+            }
+        }
+
+        return PlanComparisonResponse.Pair.builder()
+                .planA(keyA)
+                .planB(keyB)
+                .cheaperAtZero(cheaper(keyA, keyB, sign(a, b, 0)))
+                .crossovers(crossovers)
+                .build();
+    }
+
+    private static List<PlanComparisonResponse.Range> envelope(List<PlanComparisonResponse.Plan> plans,
+                                                              List<CompiledPricingProgram> programs,
+                                                              long[] events, long maxUsage) {
+        List<PlanComparisonResponse.Range> ranges = new ArrayList<>();
+        for (long usage : events) {
+            BigDecimal best = null;
+            List<String> cheapest = new ArrayList<>();
+            for (int p = 0; p < programs.size(); p++) {
+                BigDecimal total = programs.get(p).total(usage);
+                int cmp = best == null ? -1 : total.compareTo(best);
+                if (cmp < 0) {
+                    best = total;
+                    cheapest.clear();
+                }
+                if (cmp <= 0) cheapest.add(plans.get(p).getKey());
+            }
+            PlanComparisonResponse.Range last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last.getPlans().equals(cheapest)) continue;
+            if (last != null) last.setToUsage(usage - 1);
+            ranges.add(PlanComparisonResponse.Range.builder().fromUsage(usage).plans(cheapest).build());
+        }
+        if (maxUsage != Long.MAX_VALUE) ranges.get(ranges.size() - 1).setToUsage(maxUsage);
+        return ranges;
+    }
+
+    /**
+     * Linear estimate of the first usage in (from, to] where the difference changes sign, from the exact
+     * differences at both ends; refined by {@link #firstTrue} against the exact totals.
+     */
+    private static long root(CompiledPricingProgram a, CompiledPricingProgram b, long from, long to) {
+        BigDecimal atFrom = a.total(from).subtract(b.total(from));
+        BigDecimal atTo = a.total(to).subtract(b.total(to));
+        BigDecimal slope = atTo.subtract(atFrom);
+        if (slope.signum() == 0) return to;
+        BigDecimal offset = atFrom.negate().multiply(BigDecimal.valueOf(to - from)).divide(slope, 0, RoundingMode.CEILING);
+        return from + offset.max(BigDecimal.ONE).min(BigDecimal.valueOf(to - from)).longValueExact();
+    }
+
+    /**
+     * First usage in (lo, hi] satisfying a predicate that is false at lo and true at hi and flips once.
+     * Gallops from the guess towards the flip, then bisects, so an accurate guess costs O(1) probes.
+     */
+    static long firstTrue(long lo, long hi, long guess, LongPredicate predicate) {
+        guess = Math.max(lo + 1, Math.min(hi, guess));
+        if (predicate.test(guess)) {
+            hi = guess;
+            for (long step = 1; step > 0 && step < hi - lo; step <<= 1) {
+                if (predicate.test(hi - step)) hi -= step;
+                else {
+                    lo = hi - step;
+                    break;
+                }
+            }
+        } else {
+            lo = guess;
+            for (long step = 1; step > 0 && step < hi - lo; step <<= 1) {
+                if (predicate.test(lo + step)) {
+                    hi = lo + step;
+                    break;
+                }
+                lo += step;
+            }
+        }
+        while (hi - lo > 1) {
+            long mid = lo + (hi - lo) / 2;
+            if (predicate.test(mid)) hi = mid;
+            else lo = mid;
+        }
+        return hi;
+    }
+
+    private static PlanComparisonResponse.Crossover crossover(String keyA, CompiledPricingProgram a,
+                                                              String keyB, CompiledPricingProgram b,
+                                                              long usage, int sign) {
+        return PlanComparisonResponse.Crossover.builder()
+                .usage(usage)
+                .cheaper(cheaper(keyA, keyB, sign))
+                .costA(a.total(usage))
+                .costB(b.total(usage))
+                .build();
+    }
+
+    private static String cheaper(String keyA, String keyB, int sign) {
+        return sign < 0 ? keyA : sign > 0 ? keyB : PlanComparisonResponse.TIE;
+    }
+
+    /** Sign of cost(a) - cost(b): negative when a is cheaper. */
+    private static int sign(CompiledPricingProgram a, CompiledPricingProgram b, long usage) {
+        return Integer.signum(a.total(usage).compareTo(b.total(usage)));
+    }
+
+    private static long[] merge(long[] x, long[] y) {
+        long[] all = Arrays.copyOf(x, x.length + y.length);
+        System.arraycopy(y, 0, all, x.length, y.length);
+        Arrays.sort(all);
+        int n = 0;
+        for (long v : all) {
+            if (n == 0 || all[n - 1] != v) all[n++] = v;
+        }
+        return Arrays.copyOf(all, n);
+    }
+}
@@ -0,0 +1,22 @@
+package aforo.productrateplanservice.estimator;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Usage to price against a persisted rate plan; the pricing itself is read from the plan.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatePlanEstimateRequest {
+
+    @PositiveOrZero(message = "usage must be zero or positive")
+    private Long usage;
+
+    private Boolean includeBreakdown; // defaults to true
+}
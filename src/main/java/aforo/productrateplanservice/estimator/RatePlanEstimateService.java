@@ -0,0 +1,45 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Estimates against persisted rate plans. The plan's pricing and extras are loaded and compiled once
+ * per tenant and rate plan, then served from {@link RatePlanProgramCache} until a pricing write evicts them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatePlanEstimateService {
+
+    private final RatePlanRepository ratePlanRepository;
+    private final RatePlanPricingAggregationService pricingAggregationService;
+    private final RatePlanProgramCache ratePlanProgramCache;
+
+    public EstimateResponse estimate(Long ratePlanId, RatePlanEstimateRequest request) {
+        long usage = request != null && request.getUsage() != null ? request.getUsage() : 0L;
+        if (usage < 0)
+            throw new IllegalArgumentException("usage must be zero or positive");
+        boolean withBreakdown = request == null || !Boolean.FALSE.equals(request.getIncludeBreakdown());
+
+        return program(ratePlanId).evaluate(usage, withBreakdown);
+    }
+
+    /**
+     * Compiled program for a rate plan of the current tenant.
+     */
+    public CompiledPricingProgram program(Long ratePlanId) {
+        Long orgId = TenantContext.require();
+        return ratePlanProgramCache.getOrLoad(orgId, ratePlanId, () -> {
+            if (!ratePlanRepository.existsByRatePlanIdAndOrganizationId(ratePlanId, orgId))
+                throw new NotFoundException("Rate plan not found with ID: " + ratePlanId);
+            log.debug("Compiling pricing for ratePlanId {} (orgId {})", ratePlanId, orgId);
+            return CompiledPricingProgram.compile(pricingAggregationService.toPricingDTO(ratePlanId));
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package aforo.productrateplanservice.estimator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of compiled pricing programs for persisted rate plans, partitioned by tenant.
+ * Entries are dropped by {@link aforo.productrateplanservice.cache.CacheInvalidationService} whenever the
+ * rate plan's pricing or extras change. Eviction is repeated after the writing transaction commits, and a
+ * load that overlapped an eviction is returned to its caller but not cached, so a stale program never
+ * outlives the write.
+ */
+@Component
+@Slf4j
+public class RatePlanProgramCache {
+
+    private final int maxEntriesPerTenant;
+    private final ConcurrentHashMap<Long, TenantPrograms> tenants = new ConcurrentHashMap<>();
+
+    public RatePlanProgramCache(@Value("${aforo.estimator.rate-plan-cache.max-entries-per-tenant:1024}") int maxEntriesPerTenant) {
+        this.maxEntriesPerTenant = Math.max(1, maxEntriesPerTenant);
+    }
+
+    public CompiledPricingProgram getOrLoad(Long organizationId, Long ratePlanId, Supplier<CompiledPricingProgram> loader) {
+        TenantPrograms tenant = tenants.computeIfAbsent(organizationId, id -> new TenantPrograms());
+        CompiledPricingProgram cached = tenant.programs.get(ratePlanId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = tenant.invalidations.get();
+        CompiledPricingProgram loaded = loader.get();
+        if (tenant.invalidations.get() == generation) {
+            if (tenant.programs.size() >= maxEntriesPerTenant) {
+                evictOne(tenant);
+            }
+            tenant.programs.put(ratePlanId, loaded);
+            log.trace("Cached compiled program for ratePlanId {} (orgId {})", ratePlanId, organizationId);
+        }
+        return loaded;
+    }
+
+    public void evict(Long organizationId, Long ratePlanId) {
+        afterCommitToo(() -> {
+            TenantPrograms tenant = tenants.get(organizationId);
+            if (tenant != null) {
+                tenant.invalidations.incrementAndGet();
+                tenant.programs.remove(ratePlanId);
+            }
+        });
+    }
+
+    public void evictTenant(Long organizationId) {
+        afterCommitToo(() -> {
+            TenantPrograms tenant = tenants.get(organizationId);
+            if (tenant != null) {
+                tenant.invalidations.incrementAndGet();
+                tenant.programs.clear();
+            }
+        });
+    }
+
+    public int size(Long organizationId) {
+        TenantPrograms tenant = tenants.get(organizationId);
+        return tenant != null ? tenant.programs.size() : 0;
+    }
+
+    /** Runs now, and again once the surrounding transaction (if any) has committed. */
+    private static void afterCommitToo(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static void evictOne(TenantPrograms tenant) {
+        Iterator<Long> it = tenant.programs.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static final class TenantPrograms {
+        private final ConcurrentHashMap<Long, CompiledPricingProgram> programs = new ConcurrentHashMap<>();
+        private final AtomicLong invalidations = new AtomicLong();
+    }
+}
@@ -0,0 +1,29 @@
+package aforo.productrateplanservice.estimator;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One NDJSON output line for bulk rating. Exactly one of {@code total} / {@code error} is set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RatedUsageRecord {
+    private long line;
+    private Long ratePlanId;
+    private Long usage;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private String modelType;
+    private BigDecimal total;
+    private String error;
+}
@@ -5,11 +5,25 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(path = "/api/estimator", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -17,7 +31,15 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Revenue Estimator", description = "Estimate revenue for a given rate plan and usage")
 public class RevenueEstimatorController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final RevenueEstimatorService estimatorService;
+    private final BulkRatingService bulkRatingService;
+    private final RevenueSimulationService simulationService;
+    private final PlanComparisonService comparisonService;
+    private final RatePlanEstimateService ratePlanEstimateService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
@@ -31,4 +53,105 @@ public class RevenueEstimatorController {
     public EstimateResponse estimate(@Valid @RequestBody EstimateRequest request) {
         return estimatorService.estimate(request);
     }
+
+    @PostMapping(path = "/rateplans/{ratePlanId}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Estimate revenue for a saved rate plan",
+            description = "Prices a usage value with the stored pricing and extras of a rate plan of the current organization. "
+                    + "The compiled plan is cached per tenant and refreshed when its pricing changes.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful estimate",
+                            content = @Content(schema = @Schema(implementation = EstimateResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Rate plan not found")
+            })
+    public EstimateResponse estimateForRatePlan(@PathVariable Long ratePlanId,
+                                                @Valid @RequestBody RatePlanEstimateRequest request) {
+        return ratePlanEstimateService.estimate(ratePlanId, request);
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Estimate revenue for many usage points",
+            description = "Evaluates one pricing definition at an explicit list of usage values or a start/end/step range. "
+                    + "Returns columnar arrays (usages[i] -> totals[i]); breakdowns only when includeBreakdown=true.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful batch estimate",
+                            content = @Content(schema = @Schema(implementation = BatchEstimateResponse.class)))
+            })
+    public BatchEstimateResponse estimateBatch(@Valid @RequestBody BatchEstimateRequest request) {
+        return estimatorService.estimateBatch(request);
+    }
+
+    @PostMapping(path = "/rate", consumes = NDJSON, produces = NDJSON)
+    @Operation(
+            summary = "Bulk-rate usage records against stored rate plans",
+            description = "Streams NDJSON lines {ratePlanId, usage, periodStart, periodEnd} and writes one rated NDJSON line "
+                    + "per input line as it goes. Each rate plan is loaded and compiled once per stream.")
+    public void rateUsage(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        bulkRatingService.rate(body, response.getOutputStream());
+    }
+
+    @PostMapping(path = "/simulate", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Simulate revenue over a usage distribution",
+            description = "Draws usage samples from a NORMAL, LOG_NORMAL or EMPIRICAL distribution, prices each sample "
+                    + "and returns p50/p90/p99 revenue and a histogram. Stops early (truncated=true) when the time budget is spent.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful simulation",
+                            content = @Content(schema = @Schema(implementation = SimulationResponse.class)))
+            })
+    public SimulationResponse simulate(@Valid @RequestBody SimulationRequest request) {
+        return simulationService.simulate(request);
+    }
+
+    @PostMapping(path = "/simulate", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Simulate revenue over an uploaded empirical histogram",
+            description = "Multipart variant: JSON 'request' part plus a CSV 'histogram' file with lines "
+                    + "'lower,upper,weight' or 'usage,weight'. The histogram replaces the request's distribution.")
+    public SimulationResponse simulateWithHistogram(
+            @RequestPart("request") String requestJson,
+            @RequestPart("histogram") MultipartFile histogram) throws IOException {
+        SimulationRequest request;
+        try {
+            request = objectMapper.readValue(requestJson, SimulationRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON in 'request' part", e);
+        }
+        // @RequestPart on a String skips bean validation, so apply the SimulationRequest constraints here
+        Set<ConstraintViolation<SimulationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        try (Reader csv = new InputStreamReader(histogram.getInputStream(), StandardCharsets.UTF_8)) {
+            request.setDistribution(UsageDistribution.builder()
+                    .type(UsageDistribution.Type.EMPIRICAL)
+                    .buckets(UsageDistribution.parseCsv(csv))
+                    .build());
+        }
+        return simulationService.simulate(request);
+    }
+
+    @PostMapping(path = "/compare", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Compare plans and find break-even usage",
+            description = "Compares stored rate plans (ratePlanIds) and/or inline plan definitions (plans). Returns the exact "
+                    + "usage points where each pair of plans swaps places and the cheapest plan per usage range.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful comparison",
+                            content = @Content(schema = @Schema(implementation = PlanComparisonResponse.class)))
+            })
+    public PlanComparisonResponse compare(@Valid @RequestBody PlanComparisonRequest request) {
+        return comparisonService.compare(request);
+    }
 }
@@ -5,4 +5,9 @@ package aforo.productrateplanservice.estimator;
  */
 public interface RevenueEstimatorService {
     EstimateResponse estimate(EstimateRequest request);
+
+    /**
+     * Evaluate one pricing definition at many usage points (parallel, columnar result).
+     */
+    BatchEstimateResponse estimateBatch(BatchEstimateRequest request);
 }
@@ -0,0 +1,169 @@
+package aforo.productrateplanservice.estimator;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monte Carlo revenue simulation on top of the compiled estimator.
+ * Samples are split into fixed-size chunks that workers on a dedicated ForkJoin pool claim in order;
+ * each chunk draws from its own seeded random source and prices usage with
+ * {@link CompiledPricingProgram#totalCents(long)}, so the inner loop does not allocate.
+ * Each worker folds its samples into a {@link RevenueSketch} and the sketches are merged at the end, so
+ * memory is fixed per worker rather than per sample and nothing is sorted after the budget is spent.
+ * Workers stop claiming chunks once the time budget is spent; the result then covers the completed chunks,
+ * which are always a prefix of the sample sequence. At most {@code max-concurrent} simulations run at once;
+ * further requests are answered 429.
+ */
+@Service
+@Slf4j
+public class RevenueSimulationService {
+
+    static final int CHUNK_SIZE = 16_384;
+    static final int MAX_HISTOGRAM_BINS = 1_000;
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final CompiledPricingProgramCache programCache;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final Semaphore running;
+    private final long defaultSamples;
+    private final long maxSamples;
+    private final long defaultTimeBudgetMs;
+    private final long maxTimeBudgetMs;
+    private final int defaultBins;
+
+    public RevenueSimulationService(CompiledPricingProgramCache programCache,
+                                    @Value("${aforo.estimator.simulation.parallelism:0}") int parallelism,
+                                    @Value("${aforo.estimator.simulation.max-concurrent:2}") int maxConcurrent,
+                                    @Value("${aforo.estimator.simulation.default-samples:1000000}") long defaultSamples,
+                                    @Value("${aforo.estimator.simulation.max-samples:5000000}") long maxSamples,
+                                    @Value("${aforo.estimator.simulation.default-time-budget-ms:2000}") long defaultTimeBudgetMs,
+                                    @Value("${aforo.estimator.simulation.max-time-budget-ms:10000}") long maxTimeBudgetMs,
+                                    @Value("${aforo.estimator.simulation.default-histogram-bins:50}") int defaultBins) {
+        this.programCache = programCache;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+        this.defaultSamples = defaultSamples;
+        this.maxSamples = Math.min(maxSamples, Integer.MAX_VALUE - 8); // chunk offsets are ints
+        this.defaultTimeBudgetMs = defaultTimeBudgetMs;
+        this.maxTimeBudgetMs = maxTimeBudgetMs;
+        this.defaultBins = defaultBins;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public SimulationResponse simulate(SimulationRequest request) {
+        if (request == null || request.getPricing() == null || request.getPricing().getPricingModel() == null)
+            throw new IllegalArgumentException("Request and pricing model must be provided");
+        if (request.getDistribution() == null)
+            throw new IllegalArgumentException("distribution is required");
+
+        long samples = request.getSamples() != null ? request.getSamples() : defaultSamples;
+        if (samples <= 0 || samples > maxSamples)
+            throw new IllegalArgumentException("samples must be between 1 and " + maxSamples);
+        long budgetMs = Math.min(request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : defaultTimeBudgetMs, maxTimeBudgetMs);
+        int bins = request.getHistogramBins() != null ? request.getHistogramBins() : defaultBins;
+        if (bins <= 0 || bins > MAX_HISTOGRAM_BINS)
+            throw new IllegalArgumentException("histogramBins must be between 1 and " + MAX_HISTOGRAM_BINS);
+        long seed = request.getSeed() != null ? request.getSeed() : System.nanoTime();
+
+        CompiledPricingProgram program = programCache.getOrCompile(request.getPricing());
+        UsageDistribution.Sampler sampler = request.getDistribution().sampler();
+
+        if (!running.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many simulations are running. Try again shortly");
+        }
+        try {
+            return run(program, sampler, samples, budgetMs, bins, seed);
+        } finally {
+            running.release();
+        }
+    }
+
+    private SimulationResponse run(CompiledPricingProgram program, UsageDistribution.Sampler sampler,
+                                   long samples, long budgetMs, int bins, long seed) {
+        long started = System.nanoTime();
+        long deadline = started + budgetMs * 1_000_000L;
+        int chunks = (int) ((samples + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        AtomicInteger nextChunk = new AtomicInteger();
+
+        List<Callable<RevenueSketch>> workers = new ArrayList<>(parallelism);
+        for (int w = 0; w < Math.min(parallelism, chunks); w++) {
+            workers.add(() -> {
+                RevenueSketch sketch = new RevenueSketch();
+                int chunk;
+                // the deadline is checked before claiming, so every claimed chunk completes;
+                // the first chunk always runs so a result is never empty
+                while ((nextChunk.get() == 0 || System.nanoTime() < deadline)
+                        && (chunk = nextChunk.getAndIncrement()) < chunks) {
+                    SplittableRandom random = new SplittableRandom(seed + chunk * SEED_STRIDE);
+                    long from = (long) chunk * CHUNK_SIZE;
+                    long to = Math.min(samples, from + CHUNK_SIZE);
+                    for (long i = from; i < to; i++) {
+                        sketch.add(program.totalCents(sampler.next(random)));
+                    }
+                }
+                return sketch;
+            });
+        }
+        RevenueSketch merged = new RevenueSketch();
+        runAll(workers).forEach(merged::merge);
+
+        long evaluated = merged.count();
+        List<SimulationResponse.Bin> histogram = merged.histogram(bins);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000L;
+        log.debug("Simulated {} of {} samples for {} in {} ms", evaluated, samples, program.getPricingModel(), elapsedMs);
+
+        return SimulationResponse.builder()
+                .modelType(program.getPricingModel().name())
+                .requestedSamples(samples)
+                .evaluatedSamples(evaluated)
+                .truncated(evaluated < samples)
+                .elapsedMs(elapsedMs)
+                .min(RevenueSketch.money(merged.min()))
+                .mean(merged.mean())
+                .p50(RevenueSketch.money(merged.quantile(0.50)))
+                .p90(RevenueSketch.money(merged.quantile(0.90)))
+                .p99(RevenueSketch.money(merged.quantile(0.99)))
+                .max(RevenueSketch.money(merged.max()))
+                .histogram(histogram)
+                .build();
+    }
+
+    private List<RevenueSketch> runAll(List<Callable<RevenueSketch>> workers) {
+        try {
+            List<RevenueSketch> sketches = new ArrayList<>(workers.size());
+            for (Future<RevenueSketch> done : pool.invokeAll(workers)) {
+                sketches.add(done.get());
+            }
+            return sketches;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ArithmeticException)
+                throw new IllegalArgumentException("Simulated revenue overflows; narrow the usage distribution", e.getCause());
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        }
+    }
+}
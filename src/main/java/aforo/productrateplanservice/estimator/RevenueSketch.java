@@ -0,0 +1,219 @@
+package aforo.productrateplanservice.estimator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mergeable, fixed-size accumulator of simulated revenue in cents.
+ * <p>
+ * Non-zero values fall into logarithmic buckets {@code (γ^(i-1), γ^i]} with
+ * {@code γ = (1 + α) / (1 - α)}, so any quantile is reported within a relative error of
+ * {@link #RELATIVE_ACCURACY} whatever the number of samples. Each bucket also keeps the exact
+ * smallest and largest value it saw: a bucket that only ever saw one value (the usual case for flat
+ * and stair-step pricing) reports it exactly. Min, max, count and sum are exact.
+ * <p>
+ * One sketch per worker; {@link #merge} combines them, so memory is bounded by the bucket count
+ * (about 11k per sign) instead of the sample count.
+ */
+final class RevenueSketch {
+
+    static final double RELATIVE_ACCURACY = 0.002;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKETS = (int) Math.ceil(Math.log(Long.MAX_VALUE) / LOG_GAMMA) + 1;
+
+    private Side positive; // allocated on first use: most plans never price below zero
+    private Side negative; // magnitudes of values below zero
+    private long zeros;
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private long sum;
+    private double overflowedSum;
+    private boolean sumOverflowed;
+
+    void add(long cents) {
+        if (cents > 0) {
+            if (positive == null) positive = new Side();
+            positive.add(cents);
+        } else if (cents < 0) {
+            if (negative == null) negative = new Side();
+            // -Long.MIN_VALUE overflows; one cent of error at that magnitude is far inside the accuracy
+            negative.add(cents == Long.MIN_VALUE ? Long.MAX_VALUE : -cents);
+        } else {
+            zeros++;
+        }
+        count++;
+        if (cents < min) min = cents;
+        if (cents > max) max = cents;
+        if (sumOverflowed) {
+            overflowedSum += cents;
+        } else {
+            try {
+                sum = Math.addExact(sum, cents);
+            } catch (ArithmeticException overflow) {
+                sumOverflowed = true;
+                overflowedSum = (double) sum + cents;
+            }
+        }
+    }
+
+    void merge(RevenueSketch other) {
+        if (other.count == 0) return;
+        if (other.positive != null) {
+            if (positive == null) positive = new Side();
+            positive.merge(other.positive);
+        }
+        if (other.negative != null) {
+            if (negative == null) negative = new Side();
+            negative.merge(other.negative);
+        }
+        zeros += other.zeros;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        if (!sumOverflowed && !other.sumOverflowed) {
+            try {
+                sum = Math.addExact(sum, other.sum);
+                return;
+            } catch (ArithmeticException overflow) {
+                // fall through to the floating-point sum
+            }
+        }
+        overflowedSum = total() + other.total();
+        sumOverflowed = true;
+    }
+
+    long count() {
+        return count;
+    }
+
+    long min() {
+        return min;
+    }
+
+    long max() {
+        return max;
+    }
+
+    BigDecimal mean() {
+        if (sumOverflowed) {
+            return BigDecimal.valueOf(overflowedSum / count).setScale(0, RoundingMode.HALF_UP).movePointLeft(2);
+        }
+        return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), 0, RoundingMode.HALF_UP).movePointLeft(2);
+    }
+
+    /** Nearest-rank quantile, within {@link #RELATIVE_ACCURACY} of the exact one. */
+    long quantile(double q) {
+        long rank = Math.max(1, Math.min(count, (long) Math.ceil(q * count)));
+        long seen = 0;
+        if (negative != null) {
+            for (int i = BUCKETS - 1; i >= 0; i--) {
+                seen += negative.counts[i];
+                if (seen >= rank) return -negative.value(i);
+            }
+        }
+        seen += zeros;
+        if (seen >= rank) return 0;
+        if (positive != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += positive.counts[i];
+                if (seen >= rank) return positive.value(i);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Equal-width bins from min to max; a single bin when every sample has the same revenue. Each
+     * bucket's count goes to the bin of its representative value, so a bin edge is as exact as a quantile.
+     */
+    List<SimulationResponse.Bin> histogram(int bins) {
+        BigDecimal width = BigDecimal.valueOf(max).subtract(BigDecimal.valueOf(min))
+                .divide(BigDecimal.valueOf(bins), 10, RoundingMode.CEILING);
+        if (width.signum() == 0) {
+            return List.of(new SimulationResponse.Bin(money(min), money(max), count));
+        }
+        long[] binCounts = new long[bins];
+        double binWidth = width.doubleValue();
+        if (negative != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                if (negative.counts[i] > 0) binCounts[bin(-negative.value(i), binWidth, bins)] += negative.counts[i];
+            }
+        }
+        if (zeros > 0) binCounts[bin(0, binWidth, bins)] += zeros;
+        if (positive != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                if (positive.counts[i] > 0) binCounts[bin(positive.value(i), binWidth, bins)] += positive.counts[i];
+            }
+        }
+
+        List<SimulationResponse.Bin> result = new ArrayList<>(bins);
+        for (int b = 0; b < bins; b++) {
+            BigDecimal lower = BigDecimal.valueOf(min).add(width.multiply(BigDecimal.valueOf(b)));
+            BigDecimal upper = b == bins - 1 ? BigDecimal.valueOf(max) : lower.add(width);
+            result.add(new SimulationResponse.Bin(lower.movePointLeft(2).setScale(2, RoundingMode.HALF_UP),
+                    upper.movePointLeft(2).setScale(2, RoundingMode.HALF_UP), binCounts[b]));
+        }
+        return result;
+    }
+
+    private int bin(long cents, double binWidth, int bins) {
+        int bin = (int) (((double) cents - (double) min) / binWidth);
+        return Math.max(0, Math.min(bins - 1, bin));
+    }
+
+    private double total() {
+        return sumOverflowed ? overflowedSum : sum;
+    }
+
+    static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int index(long magnitude) {
+        return Math.min(BUCKETS - 1, Math.max(0, (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA)));
+    }
+
+    /** Buckets of one sign, indexed by magnitude. */
+    private static final class Side {
+        private final long[] counts = new long[BUCKETS];
+        private final long[] lows = new long[BUCKETS];  // smallest magnitude seen per bucket
+        private final long[] highs = new long[BUCKETS]; // largest magnitude seen per bucket
+
+        void add(long magnitude) {
+            int i = index(magnitude);
+            if (counts[i]++ == 0) {
+                lows[i] = magnitude;
+                highs[i] = magnitude;
+            } else if (magnitude < lows[i]) {
+                lows[i] = magnitude;
+            } else if (magnitude > highs[i]) {
+                highs[i] = magnitude;
+            }
+        }
+
+        void merge(Side other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                if (other.counts[i] == 0) continue;
+                if (counts[i] == 0) {
+                    lows[i] = other.lows[i];
+                    highs[i] = other.highs[i];
+                } else {
+                    lows[i] = Math.min(lows[i], other.lows[i]);
+                    highs[i] = Math.max(highs[i], other.highs[i]);
+                }
+                counts[i] += other.counts[i];
+            }
+        }
+
+        /** Representative magnitude of a bucket: its midpoint in relative terms, kept within what it saw. */
+        long value(int i) {
+            if (lows[i] == highs[i]) return lows[i];
+            double midpoint = 2 * Math.pow(GAMMA, i) / (GAMMA + 1);
+            return Math.max(lows[i], Math.min(highs[i], Math.round(midpoint)));
+        }
+    }
+}
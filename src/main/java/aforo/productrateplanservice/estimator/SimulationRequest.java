@@ -0,0 +1,42 @@
+package aforo.productrateplanservice.estimator;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Monte Carlo revenue simulation: one pricing definition evaluated over usage drawn from a distribution.
+ * Unset limits fall back to the {@code aforo.estimator.simulation.*} defaults.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationRequest {
+
+    @Valid
+    @NotNull(message = "pricing is required")
+    private EstimateRequest pricing; // usage on the definition is ignored
+
+    @Valid
+    @NotNull(message = "distribution is required")
+    private UsageDistribution distribution;
+
+    @Positive(message = "samples must be positive")
+    private Long samples;
+
+    @Min(value = 1, message = "histogramBins must be at least 1")
+    @Max(value = 1000, message = "histogramBins must be at most 1000")
+    private Integer histogramBins;
+
+    @Positive(message = "timeBudgetMs must be positive")
+    private Long timeBudgetMs;
+
+    private Long seed; // fixed seed => reproducible result
+}
@@ -0,0 +1,45 @@
+package aforo.productrateplanservice.estimator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Revenue quantiles and histogram over the evaluated samples.
+ * {@code truncated} is true when the time budget stopped the run before {@code requestedSamples}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationResponse {
+
+    private String modelType;
+    private long requestedSamples;
+    private long evaluatedSamples;
+    private boolean truncated;
+    private long elapsedMs;
+
+    private BigDecimal min;
+    private BigDecimal mean;
+    private BigDecimal p50;
+    private BigDecimal p90;
+    private BigDecimal p99;
+    private BigDecimal max;
+
+    private List<Bin> histogram;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bin {
+        private BigDecimal lower; // inclusive
+        private BigDecimal upper; // exclusive, except for the last bin
+        private long count;
+    }
+}
@@ -0,0 +1,100 @@
+package aforo.productrateplanservice.estimator;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Indexed band lookup for volume tiers and stair steps.
+ * <p>
+ * Bands are given sorted by start (ties keep their original order). A usage value resolves to the
+ * first band with {@code start <= usage <= end}, or to the last band when none matches — the same
+ * rule the linear scan used. Bands may overlap or leave gaps: at build time the usage axis is cut
+ * into disjoint segments with a constant answer, so a lookup is one binary search over a primitive
+ * {@code long[]} of segment starts.
+ */
+public final class TierIndex {
+
+    private static final TierIndex EMPTY = new TierIndex(new long[0], new int[0], -1);
+
+    private final long[] segmentStart; // ascending
+    private final int[] segmentBand;   // band resolved for [segmentStart[i], segmentStart[i + 1])
+    private final int fallback;        // band resolved below the first segment
+
+    private TierIndex(long[] segmentStart, int[] segmentBand, int fallback) {
+        this.segmentStart = segmentStart;
+        this.segmentBand = segmentBand;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Build the index for bands sorted by start; {@code ends} are inclusive ({@code Long.MAX_VALUE} for open-ended).
+     */
+    public static TierIndex of(long[] starts, long[] ends) {
+        int n = starts.length;
+        if (n == 0) return EMPTY;
+        int last = n - 1;
+
+        // Every point where the answer can change: each start, and the unit after each end
+        long[] cuts = new long[2 * n];
+        int cutCount = 0;
+        for (int i = 0; i < n; i++) {
+            cuts[cutCount++] = starts[i];
+            if (ends[i] != Long.MAX_VALUE) cuts[cutCount++] = ends[i] + 1;
+        }
+        Arrays.sort(cuts, 0, cutCount);
+
+        // Sweep the cuts keeping the lowest-indexed band that covers the current point
+        long[] segStart = new long[cutCount];
+        int[] segBand = new int[cutCount];
+        int segments = 0;
+        PriorityQueue<Integer> open = new PriorityQueue<>();
+        int next = 0;
+        for (int c = 0; c < cutCount; c++) {
+            long point = cuts[c];
+            if (c > 0 && point == cuts[c - 1]) continue;
+            while (next < n && starts[next] <= point) open.add(next++);
+            while (!open.isEmpty() && ends[open.peek()] < point) open.poll();
+            int band = open.isEmpty() ? last : open.peek();
+            if (segments == 0 || segBand[segments - 1] != band) {
+                segStart[segments] = point;
+                segBand[segments] = band;
+                segments++;
+            }
+        }
+        return new TierIndex(Arrays.copyOf(segStart, segments), Arrays.copyOf(segBand, segments), last);
+    }
+
+    /**
+     * Band index for a usage value, or -1 when the index has no bands.
+     */
+    public int find(long usage) {
+        int segment = upperBound(segmentStart, usage) - 1;
+        return segment >= 0 ? segmentBand[segment] : fallback;
+    }
+
+    /**
+     * Index of the first element {@code >= key} in an ascending array ({@code a.length} if none).
+     */
+    public static int lowerBound(long[] a, long key) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Index of the first element {@code > key} in an ascending array ({@code a.length} if none).
+     */
+    public static int upperBound(long[] a, long key) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
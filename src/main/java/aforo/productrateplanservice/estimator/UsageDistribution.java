@@ -0,0 +1,171 @@
+package aforo.productrateplanservice.estimator;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Usage distribution for revenue simulation.
+ * NORMAL uses {@code mean}/{@code stdDev}; LOG_NORMAL uses {@code mu}/{@code sigma} of the underlying
+ * normal; EMPIRICAL uses weighted {@code buckets} (uniform within a bucket). Samples are rounded to whole
+ * units and clamped at zero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageDistribution {
+
+    public enum Type { NORMAL, LOG_NORMAL, EMPIRICAL }
+
+    @NotNull(message = "distribution.type is required")
+    private Type type;
+
+    private Double mean;
+    private Double stdDev;
+
+    private Double mu;
+    private Double sigma;
+
+    @Valid
+    private List<Bucket> buckets;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        @NotNull(message = "bucket.lower is required")
+        @PositiveOrZero(message = "bucket.lower must be zero or positive")
+        private Long lower;
+
+        @NotNull(message = "bucket.upper is required")
+        private Long upper; // inclusive
+
+        @NotNull(message = "bucket.weight is required")
+        @PositiveOrZero(message = "bucket.weight must be zero or positive")
+        private Double weight;
+    }
+
+    /**
+     * Draws usage values from a caller-supplied random source; stateless and safe to share across threads.
+     */
+    @FunctionalInterface
+    public interface Sampler {
+        long next(SplittableRandom random);
+    }
+
+    /**
+     * Validate the parameters and build a sampler.
+     */
+    public Sampler sampler() {
+        if (type == null) throw new IllegalArgumentException("distribution.type is required");
+        return switch (type) {
+            case NORMAL -> {
+                double m = require(mean, "distribution.mean");
+                double sd = nonNegative(stdDev, "distribution.stdDev");
+                yield random -> toUsage(m + sd * random.nextGaussian());
+            }
+            case LOG_NORMAL -> {
+                double m = require(mu, "distribution.mu");
+                double s = nonNegative(sigma, "distribution.sigma");
+                yield random -> toUsage(Math.exp(m + s * random.nextGaussian()));
+            }
+            case EMPIRICAL -> empiricalSampler();
+        };
+    }
+
+    private Sampler empiricalSampler() {
+        if (buckets == null || buckets.isEmpty())
+            throw new IllegalArgumentException("distribution.buckets must not be empty for EMPIRICAL");
+        int n = buckets.size();
+        long[] lower = new long[n];
+        long[] upper = new long[n];
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            Bucket b = buckets.get(i);
+            if (b == null || b.getLower() == null || b.getUpper() == null || b.getWeight() == null)
+                throw new IllegalArgumentException("bucket " + i + " requires lower, upper and weight");
+            if (b.getLower() < 0 || b.getUpper() < b.getLower())
+                throw new IllegalArgumentException("bucket " + i + " requires 0 <= lower <= upper");
+            if (!(b.getWeight() >= 0) || Double.isInfinite(b.getWeight()))
+                throw new IllegalArgumentException("bucket " + i + " weight must be a finite, non-negative number");
+            lower[i] = b.getLower();
+            upper[i] = b.getUpper();
+            total += b.getWeight();
+            cumulative[i] = total;
+        }
+        if (!(total > 0)) throw new IllegalArgumentException("distribution.buckets must have a positive total weight");
+
+        double totalWeight = total;
+        return random -> {
+            double u = random.nextDouble() * totalWeight;
+            int i = Arrays.binarySearch(cumulative, u);
+            i = i >= 0 ? i + 1 : -i - 1; // first bucket whose cumulative weight exceeds u
+            if (i >= cumulative.length) i = cumulative.length - 1;
+            return upper[i] == lower[i] ? lower[i]
+                    : upper[i] == Long.MAX_VALUE ? random.nextLong(lower[i], upper[i])
+                    : random.nextLong(lower[i], upper[i] + 1);
+        };
+    }
+
+    /**
+     * Parse an empirical histogram from CSV: {@code lower,upper,weight} or {@code usage,weight} per line.
+     * A non-numeric first line is treated as a header; blank lines and lines starting with {@code #} are skipped.
+     */
+    public static List<Bucket> parseCsv(Reader csv) throws IOException {
+        List<Bucket> result = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(csv);
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] cells = trimmed.split("\\s*[,;]\\s*");
+            try {
+                if (cells.length == 3) {
+                    result.add(new Bucket(Long.parseLong(cells[0]), Long.parseLong(cells[1]), Double.parseDouble(cells[2])));
+                } else if (cells.length == 2) {
+                    long usage = Long.parseLong(cells[0]);
+                    result.add(new Bucket(usage, usage, Double.parseDouble(cells[1])));
+                } else {
+                    throw new IllegalArgumentException("CSV line " + lineNo + ": expected 'lower,upper,weight' or 'usage,weight'");
+                }
+            } catch (NumberFormatException e) {
+                if (result.isEmpty() && lineNo == 1) continue; // header
+                throw new IllegalArgumentException("CSV line " + lineNo + ": " + e.getMessage());
+            }
+        }
+        if (result.isEmpty()) throw new IllegalArgumentException("CSV histogram has no buckets");
+        return result;
+    }
+
+    private static long toUsage(double value) {
+        return value <= 0 || Double.isNaN(value) ? 0L : Math.round(value); // Math.round saturates at Long.MAX_VALUE
+    }
+
+    private static double require(Double value, String name) {
+        if (value == null || !Double.isFinite(value)) throw new IllegalArgumentException(name + " is required");
+        return value;
+    }
+
+    private static double nonNegative(Double value, String name) {
+        double v = require(value, name);
+        if (v < 0) throw new IllegalArgumentException(name + " must be zero or positive");
+        return v;
+    }
+}
@@ -0,0 +1,22 @@
+package aforo.productrateplanservice.estimator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One NDJSON input line for bulk rating: usage of a stored rate plan over a period.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageRecord {
+    private Long ratePlanId;
+    private Long usage;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+}
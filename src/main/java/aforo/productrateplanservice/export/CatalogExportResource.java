@@ -0,0 +1,52 @@
+package aforo.productrateplanservice.export;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Full-catalog exports for the billing warehouse. Rows are written straight to the response stream
+ * on the request thread, so the tenant and transaction stay bound while the cursor is open.
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Tag(name = "Export", description = "Stream every product or rate plan of the tenant as NDJSON or CSV")
+public class CatalogExportResource {
+
+    private final CatalogExportService catalogExportService;
+
+    @GetMapping("/products")
+    @Operation(summary = "Export products", description = "format=ndjson (default) or csv; each product with its type configuration")
+    public void exportProducts(@RequestParam(required = false) String format, HttpServletResponse response)
+            throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        prepare(response, exportFormat, "products");
+        catalogExportService.exportProducts(exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/rateplans")
+    @Operation(summary = "Export rate plans", description = "format=ndjson (default) or csv; each rate plan with pricing, tiers and extras")
+    public void exportRatePlans(@RequestParam(required = false) String format, HttpServletResponse response)
+            throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        prepare(response, exportFormat, "rateplans");
+        catalogExportService.exportRatePlans(exportFormat, response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+    }
+}
@@ -0,0 +1,226 @@
+package aforo.productrateplanservice.export;
+
+import aforo.productrateplanservice.product.assembler.ProductAssembler;
+import aforo.productrateplanservice.product.entity.Product;
+import aforo.productrateplanservice.product.entity.ProductAPI;
+import aforo.productrateplanservice.product.entity.ProductFlatFile;
+import aforo.productrateplanservice.product.entity.ProductLLMToken;
+import aforo.productrateplanservice.product.entity.ProductSQLResult;
+import aforo.productrateplanservice.product.entity.ProductStorage;
+import aforo.productrateplanservice.product.enums.ProductType;
+import aforo.productrateplanservice.product.mapper.ProductAPIMapper;
+import aforo.productrateplanservice.product.mapper.ProductFlatFileMapper;
+import aforo.productrateplanservice.product.mapper.ProductLLMTokenMapper;
+import aforo.productrateplanservice.product.mapper.ProductSQLResultMapper;
+import aforo.productrateplanservice.product.mapper.ProductStorageMapper;
+import aforo.productrateplanservice.product.repository.ProductAPIRepository;
+import aforo.productrateplanservice.product.repository.ProductFlatFileRepository;
+import aforo.productrateplanservice.product.repository.ProductLLMTokenRepository;
+import aforo.productrateplanservice.product.repository.ProductSQLResultRepository;
+import aforo.productrateplanservice.product.repository.ProductStorageRepository;
+import aforo.productrateplanservice.product.service.ProductTypeBackfillService;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanFields;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.tenant.TenantContext;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 📦 Streaming export of a tenant's catalog (warehouse feeds).
+ *
+ * Rows are read through a read-only, forward-only cursor with a JDBC fetch size; every chunk of
+ * {@code fetch-size} rows is enriched with one IN-list query per child table, written to the stream,
+ * flushed and detached from the persistence context, so memory stays constant for 100k+ rows.
+ * On MySQL the JDBC URL needs {@code useCursorFetch=true} for the fetch size to take effect.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogExportService {
+
+    /** Warehouse format: ISO-8601 (UTC) timestamps and exact decimals, independent of the API's display formatting. */
+    private static final ObjectMapper EXPORT_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .build();
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW = new TypeReference<>() {};
+
+    private static final String CONFIGURATION = "configuration";
+
+    static final List<String> PRODUCT_COLUMNS = List.of("productId", "productName", "version", "productDescription",
+            "status", "productType", "internalSkuCode", "icon", "source", "externalId", "createdOn", "lastUpdated",
+            CONFIGURATION);
+
+    static final List<String> RATE_PLAN_COLUMNS;
+
+    static {
+        List<String> columns = new ArrayList<>(RatePlanFields.COLUMNS.keySet());
+        columns.addAll(RatePlanFields.SECTIONS.keySet());
+        RATE_PLAN_COLUMNS = List.copyOf(columns);
+    }
+
+    private final EntityManager entityManager;
+    private final ProductAssembler productAssembler;
+    private final RatePlanPricingAggregationService pricingAggregationService;
+
+    private final ProductAPIRepository productAPIRepository;
+    private final ProductFlatFileRepository productFlatFileRepository;
+    private final ProductSQLResultRepository productSQLResultRepository;
+    private final ProductLLMTokenRepository productLLMTokenRepository;
+    private final ProductStorageRepository productStorageRepository;
+    private final ProductAPIMapper productAPIMapper;
+    private final ProductFlatFileMapper productFlatFileMapper;
+    private final ProductSQLResultMapper productSQLResultMapper;
+    private final ProductLLMTokenMapper productLLMTokenMapper;
+    private final ProductStorageMapper productStorageMapper;
+    private final ProductTypeBackfillService productTypeBackfillService;
+
+    /** Rows per JDBC fetch and per enrichment chunk */
+    @Value("${aforo.export.fetch-size:500}")
+    private int fetchSize = 500;
+
+    /**
+     * Write every product of the current tenant, each with its type configuration.
+     *
+     * @return number of products written
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(ExportFormat format, OutputStream out) throws IOException {
+        Long orgId = TenantContext.require();
+        ExportRowWriter writer = ExportRowWriter.create(format, out, EXPORT_MAPPER, PRODUCT_COLUMNS);
+        long written = scroll("select p from Product p where p.organizationId = :organizationId order by p.productId",
+                Product.class, orgId, chunk -> writeProducts(chunk, writer), writer);
+        log.info("📦 Exported {} products for orgId: {} as {}", written, orgId, format);
+        return written;
+    }
+
+    /**
+     * Write every rate plan of the current tenant, each with its pricing (tiers included) and extras.
+     *
+     * @return number of rate plans written
+     */
+    @Transactional(readOnly = true)
+    public long exportRatePlans(ExportFormat format, OutputStream out) throws IOException {
+        Long orgId = TenantContext.require();
+        ExportRowWriter writer = ExportRowWriter.create(format, out, EXPORT_MAPPER, RATE_PLAN_COLUMNS);
+        long written = scroll("select r from RatePlan r left join fetch r.product "
+                        + "where r.organizationId = :organizationId order by r.ratePlanId",
+                RatePlan.class, orgId, chunk -> writeRatePlans(chunk, writer), writer);
+        log.info("📦 Exported {} rate plans for orgId: {} as {}", written, orgId, format);
+        return written;
+    }
+
+    private <T> long scroll(String hql, Class<T> type, Long orgId, ChunkWriter<T> chunkWriter, ExportRowWriter writer)
+            throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        long written = 0;
+        try (ScrollableResults<T> rows = session.createQuery(hql, type)
+                .setParameter("organizationId", orgId)
+                .setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            List<T> chunk = new ArrayList<>(fetchSize);
+            while (rows.next()) {
+                chunk.add(rows.get());
+                if (chunk.size() == fetchSize) {
+                    written += writeChunk(chunk, chunkWriter, writer, session);
+                }
+            }
+            written += writeChunk(chunk, chunkWriter, writer, session);
+        }
+        writer.flush();
+        return written;
+    }
+
+    private <T> int writeChunk(List<T> chunk, ChunkWriter<T> chunkWriter, ExportRowWriter writer, Session session)
+            throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        int size = chunk.size();
+        chunkWriter.write(chunk);
+        writer.flush();
+        chunk.clear();
+        session.clear(); // detach the chunk and its children so the persistence context stays small
+        return size;
+    }
+
+    private void writeProducts(List<Product> products, ExportRowWriter writer) throws IOException {
+        List<Long> ids = products.stream().map(Product::getProductId).toList();
+
+        // One IN-list query per configuration table; a product has at most one configuration
+        Map<Long, Object> configurations = new HashMap<>();
+        Map<Long, ProductType> types = new HashMap<>();
+        collect(productAPIRepository.findAllById(ids), ProductAPI::getProductId, productAPIMapper::toDTO,
+                ProductType.API, configurations, types);
+        collect(productFlatFileRepository.findAllById(ids), ProductFlatFile::getProductId, productFlatFileMapper::toDTO,
+                ProductType.FlatFile, configurations, types);
+        collect(productSQLResultRepository.findAllById(ids), ProductSQLResult::getProductId, productSQLResultMapper::toDTO,
+                ProductType.SQLResult, configurations, types);
+        collect(productLLMTokenRepository.findAllById(ids), ProductLLMToken::getProductId, productLLMTokenMapper::toDTO,
+                ProductType.LLMToken, configurations, types);
+        collect(productStorageRepository.findAllById(ids), ProductStorage::getProductId, productStorageMapper::toDTO,
+                ProductType.Storage, configurations, types);
+
+        Map<Long, ProductType> missingTypes = new HashMap<>();
+        for (Product product : products) {
+            ProductType type = product.getProductType();
+            if (type == null && (type = types.get(product.getProductId())) != null) {
+                missingTypes.put(product.getProductId(), type);
+            }
+            Map<String, Object> row = EXPORT_MAPPER.convertValue(productAssembler.toDTO(product, type), ROW);
+            row.remove("billableMetrics"); // owned by the billable metrics service, not part of this catalog
+            row.put(CONFIGURATION, EXPORT_MAPPER.convertValue(configurations.get(product.getProductId()), Object.class));
+            writer.write(row);
+        }
+        if (!missingTypes.isEmpty()) {
+            productTypeBackfillService.backfill(missingTypes);
+        }
+    }
+
+    private void writeRatePlans(List<RatePlan> ratePlans, ExportRowWriter writer) throws IOException {
+        for (RatePlanDTO dto : pricingAggregationService.toDetailedDTOsBatch(ratePlans)) {
+            writer.write(EXPORT_MAPPER.convertValue(dto, ROW));
+        }
+    }
+
+    private static <E, D> void collect(List<E> rows, Function<E, Long> productId, Function<E, D> toDTO, ProductType type,
+                                       Map<Long, Object> configurations, Map<Long, ProductType> types) {
+        for (E row : rows) {
+            Long id = productId.apply(row);
+            configurations.put(id, toDTO.apply(row));
+            types.put(id, type);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<T> chunk) throws IOException;
+    }
+}
@@ -0,0 +1,44 @@
+package aforo.productrateplanservice.export;
+
+import aforo.productrateplanservice.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * Wire formats of the catalog export.
+ */
+public enum ExportFormat {
+
+    /** One JSON object per line, nested pricing included */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** One row per record; nested sections are JSON-encoded cells */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /** @return NDJSON when absent */
+    public static ExportFormat parse(String format) {
+        if (format == null || format.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unsupported export format: " + format + " (expected ndjson or csv)");
+        }
+    }
+}
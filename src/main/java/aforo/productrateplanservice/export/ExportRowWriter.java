@@ -0,0 +1,101 @@
+package aforo.productrateplanservice.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes export rows (property → value) to a stream as NDJSON or CSV. Nothing is buffered beyond the
+ * writer's own buffer, so memory stays constant however many rows are written.
+ */
+abstract class ExportRowWriter {
+
+    protected final Writer out;
+    protected final ObjectMapper mapper;
+
+    private ExportRowWriter(OutputStream out, ObjectMapper mapper) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.mapper = mapper;
+    }
+
+    static ExportRowWriter create(ExportFormat format, OutputStream out, ObjectMapper mapper, List<String> columns)
+            throws IOException {
+        return format == ExportFormat.CSV ? new Csv(out, mapper, columns) : new NdJson(out, mapper);
+    }
+
+    abstract void write(Map<String, Object> row) throws IOException;
+
+    /** Push what is written so far to the client. */
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private static final class NdJson extends ExportRowWriter {
+
+        NdJson(OutputStream out, ObjectMapper mapper) {
+            super(out, mapper);
+        }
+
+        @Override
+        void write(Map<String, Object> row) throws IOException {
+            out.write(mapper.writeValueAsString(row));
+            out.write('\n');
+        }
+    }
+
+    private static final class Csv extends ExportRowWriter {
+
+        private final List<String> columns;
+
+        Csv(OutputStream out, ObjectMapper mapper, List<String> columns) throws IOException {
+            super(out, mapper);
+            this.columns = columns;
+            writeLine(columns);
+        }
+
+        @Override
+        void write(Map<String, Object> row) throws IOException {
+            String[] cells = new String[columns.size()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = cell(row.get(columns.get(i)));
+            }
+            writeLine(List.of(cells));
+        }
+
+        private String cell(Object value) throws IOException {
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof Map<?, ?> || value instanceof Collection<?>) {
+                return mapper.writeValueAsString(value);
+            }
+            return value.toString();
+        }
+
+        private void writeLine(List<String> cells) throws IOException {
+            for (int i = 0; i < cells.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(escape(cells.get(i)));
+            }
+            out.write("\r\n");
+        }
+
+        /** RFC 4180 quoting */
+        private static String escape(String cell) {
+            if (cell.indexOf(',') < 0 && cell.indexOf('"') < 0 && cell.indexOf('\n') < 0 && cell.indexOf('\r') < 0) {
+                return cell;
+            }
+            return '"' + cell.replace("\"", "\"\"") + '"';
+        }
+    }
+}
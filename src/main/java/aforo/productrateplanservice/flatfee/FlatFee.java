@@ -32,7 +32,7 @@ public class FlatFee {
 
     @Min(value = 0, message = "numberOfApiCalls must be non-negative")
     @Column(name = "number_of_api_calls", nullable = true)
-    private Integer numberOfApiCalls;
+    private Long numberOfApiCalls;
 
 
     @Enumerated(EnumType.STRING)
@@ -16,7 +16,7 @@ public class FlatFeeCreateUpdateDTO {
     private Integer flatFeeAmount;
 
     @Min(value = 0, message = "numberOfApiCalls must be non-negative")
-    private Integer numberOfApiCalls;
+    private Long numberOfApiCalls;
 
     private BigDecimal overageUnitRate;
     private Integer graceBuffer;
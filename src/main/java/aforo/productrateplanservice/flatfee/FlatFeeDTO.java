@@ -16,7 +16,7 @@ public class FlatFeeDTO {
     private Long ratePlanId;
 
     private Integer flatFeeAmount;
-    private Integer numberOfApiCalls;
+    private Long numberOfApiCalls;
 
     private RatePlanType ratePlanType;
 
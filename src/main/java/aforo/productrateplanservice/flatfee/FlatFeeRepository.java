@@ -2,9 +2,14 @@ package aforo.productrateplanservice.flatfee;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 import java.util.Optional;
 
 public interface FlatFeeRepository extends JpaRepository<FlatFee, Long> {
     Optional<FlatFee> findByRatePlanId(Long ratePlanId);
     boolean existsByRatePlanId(Long ratePlanId);
+
+    List<FlatFee> findByRatePlanIdIn(Collection<Long> ratePlanIds);
 }
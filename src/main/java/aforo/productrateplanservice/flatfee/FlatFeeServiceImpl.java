@@ -10,6 +10,7 @@ import aforo.productrateplanservice.stairsteppricing.StairStepPricingRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,6 +29,7 @@ public class FlatFeeServiceImpl implements FlatFeeService {
     private final CacheInvalidationService cacheInvalidationService; 
 
     @Override
+    @Transactional
     public FlatFeeDTO createFlatFee(Long ratePlanId, FlatFeeCreateUpdateDTO dto) {
         if (flatFeeRepository.existsByRatePlanId(ratePlanId)) {
             throw new IllegalStateException("FlatFee already exists for ratePlanId: " + ratePlanId);
@@ -65,6 +67,7 @@ public class FlatFeeServiceImpl implements FlatFeeService {
     }
 
     @Override
+    @Transactional
     public FlatFeeDTO updateFlatFee(Long ratePlanId, Long flatFeeId, FlatFeeCreateUpdateDTO dto) {
         // 
         ratePlanRepository.findById(ratePlanId)
@@ -104,6 +107,7 @@ public class FlatFeeServiceImpl implements FlatFeeService {
     }
 
     @Override
+    @Transactional
     public void deleteFlatFeeByRatePlanId(Long ratePlanId) {
         FlatFee entity = flatFeeRepository.findByRatePlanId(ratePlanId)
                 .orElseThrow(() -> new EntityNotFoundException("FlatFee config not found for ratePlanId: " + ratePlanId));
@@ -115,6 +119,7 @@ public class FlatFeeServiceImpl implements FlatFeeService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long flatFeeId) {
         if (!flatFeeRepository.existsById(flatFeeId)) {
             throw new EntityNotFoundException("FlatFee not found with ID: " + flatFeeId);
@@ -1,9 +1,16 @@
 package aforo.productrateplanservice.freemium;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface FreemiumRepository extends JpaRepository<Freemium, Long> {
     List<Freemium> findByRatePlan_RatePlanId(Long ratePlanId);
+
+    /** The rate plan association is eager, so it is fetched in the same query rather than one select per row. */
+    @Query("select f from Freemium f join fetch f.ratePlan where f.ratePlan.ratePlanId in :ratePlanIds")
+    List<Freemium> findWithRatePlanByRatePlanIdIn(@Param("ratePlanIds") Collection<Long> ratePlanIds);
 }
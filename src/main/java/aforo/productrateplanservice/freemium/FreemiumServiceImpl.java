@@ -6,6 +6,7 @@ import aforo.productrateplanservice.rate_plan.RatePlanRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,6 +21,7 @@ public class FreemiumServiceImpl implements FreemiumService {
     private final CacheInvalidationService cacheInvalidationService;
 
     @Override
+    @Transactional
 public FreemiumDTO create(Long ratePlanId, FreemiumCreateUpdateDTO dto) {
     RatePlan ratePlan = ratePlanRepository.findById(ratePlanId)
             .orElseThrow(() -> new EntityNotFoundException("RatePlan not found"));
@@ -43,6 +45,7 @@ public FreemiumDTO create(Long ratePlanId, FreemiumCreateUpdateDTO dto) {
 
 
     @Override
+    @Transactional
     public FreemiumDTO update(Long ratePlanId, Long id, FreemiumCreateUpdateDTO dto) {
         Freemium freemium = getFreemiumById(id, ratePlanId);
         freemiumMapper.update(freemium, dto);
@@ -55,6 +58,7 @@ public FreemiumDTO create(Long ratePlanId, FreemiumCreateUpdateDTO dto) {
     }
 
     @Override
+    @Transactional
     public FreemiumDTO partialUpdate(Long ratePlanId, Long id, FreemiumCreateUpdateDTO dto) {
         Freemium freemium = getFreemiumById(id, ratePlanId);
         freemiumMapper.update(freemium, dto); // You can add null checks if needed
@@ -67,6 +71,7 @@ public FreemiumDTO create(Long ratePlanId, FreemiumCreateUpdateDTO dto) {
     }
 
     @Override
+    @Transactional
     public void delete(Long ratePlanId, Long id) {
         Freemium freemium = getFreemiumById(id, ratePlanId);
         freemiumRepository.delete(freemium);
@@ -1,10 +1,14 @@
 package aforo.productrateplanservice.minimumcommitment;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class MinimumCommitmentDTO {
     private Long id;
     private Long ratePlanId;
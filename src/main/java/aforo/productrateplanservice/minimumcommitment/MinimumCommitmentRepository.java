@@ -1,9 +1,16 @@
 package aforo.productrateplanservice.minimumcommitment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MinimumCommitmentRepository extends JpaRepository<MinimumCommitment, Long> {
     List<MinimumCommitment> findByRatePlan_RatePlanId(Long ratePlanId);
+
+    /** The rate plan association is eager, so it is fetched in the same query rather than one select per row. */
+    @Query("select m from MinimumCommitment m join fetch m.ratePlan where m.ratePlan.ratePlanId in :ratePlanIds")
+    List<MinimumCommitment> findWithRatePlanByRatePlanIdIn(@Param("ratePlanIds") Collection<Long> ratePlanIds);
 }
@@ -6,6 +6,7 @@ import aforo.productrateplanservice.rate_plan.RatePlan;
 import aforo.productrateplanservice.rate_plan.RatePlanRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,6 +21,7 @@ public class MinimumCommitmentServiceImpl implements MinimumCommitmentService {
     private final CacheInvalidationService cacheInvalidationService;
 
     @Override
+    @Transactional
     public MinimumCommitmentDTO create(Long ratePlanId, MinimumCommitmentCreateUpdateDTO dto) {
         RatePlan ratePlan = ratePlanRepository.findById(ratePlanId)
                 .orElseThrow(() -> new NotFoundException("RatePlan not found"));
@@ -66,6 +68,7 @@ public class MinimumCommitmentServiceImpl implements MinimumCommitmentService {
     }
 
     @Override
+    @Transactional
     public MinimumCommitmentDTO update(Long ratePlanId, Long id, MinimumCommitmentCreateUpdateDTO dto) {
         MinimumCommitment existing = repository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Minimum Commitment not found"));
@@ -79,6 +82,7 @@ public class MinimumCommitmentServiceImpl implements MinimumCommitmentService {
     }
 
     @Override
+    @Transactional
     public MinimumCommitmentDTO partialUpdate(Long ratePlanId, Long id, MinimumCommitmentCreateUpdateDTO dto) {
         MinimumCommitment existing = repository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Minimum Commitment not found"));
@@ -92,6 +96,7 @@ public class MinimumCommitmentServiceImpl implements MinimumCommitmentService {
     }
 
     @Override
+    @Transactional
     public void delete(Long ratePlanId, Long id) {
         MinimumCommitment entity = repository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Minimum Commitment not found"));
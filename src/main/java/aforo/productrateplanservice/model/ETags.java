@@ -0,0 +1,39 @@
+package aforo.productrateplanservice.model;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Strong entity tags for conditional requests ({@code If-None-Match} / {@code If-Match}).
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @return a quoted strong ETag over the given version parts (e.g. lastUpdated and a version counter)
+     */
+    public static String of(Object... parts) {
+        StringJoiner key = new StringJoiner("|");
+        for (Object part : parts) {
+            key.add(Objects.toString(part));
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Evaluate {@code If-Match} for a PUT/PATCH. The current ETag is only computed when the header is present.
+     *
+     * @return true when the precondition failed; the response status is then already 412
+     */
+    public static boolean ifMatchFailed(WebRequest request, Supplier<String> currentETag) {
+        return request.getHeader(HttpHeaders.IF_MATCH) != null && request.checkNotModified(currentETag.get());
+    }
+}
@@ -0,0 +1,51 @@
+package aforo.productrateplanservice.model;
+
+import aforo.productrateplanservice.exception.ValidationException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Parsed {@code fields=} request parameter (sparse fieldset): the DTO properties a client asked for,
+ * in request order, always starting with the ID property.
+ */
+public final class FieldSelection {
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * @return the selection, or null when {@code fields} is absent or blank (full representation)
+     * @throws ValidationException when a requested property is not one of {@code allowed}
+     */
+    public static FieldSelection parse(String fields, Set<String> allowed, String idField) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(idField);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new ValidationException("Unknown field '" + name + "'. Allowed fields: " + String.join(", ", allowed));
+            }
+            selected.add(name);
+        }
+        return new FieldSelection(selected);
+    }
+
+    public Set<String> fields() {
+        return fields;
+    }
+
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+}
@@ -0,0 +1,39 @@
+package aforo.productrateplanservice.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time spent executing JDBC statements and batches to the current request's {@link SqlStatementStats}.
+ * Hibernate creates one instance per session (see {@link SqlMetricsConfig}).
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.jdbcTime(System.nanoTime() - executeStart);
+        }
+    }
+}
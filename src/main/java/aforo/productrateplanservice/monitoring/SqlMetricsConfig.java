@@ -0,0 +1,21 @@
+package aforo.productrateplanservice.monitoring;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks the per-request SQL instrumentation into Hibernate.
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementMetricsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCountingInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingSessionListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package aforo.productrateplanservice.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint SQL statement budgets ({@code aforo.sql-metrics.*}).
+ *
+ * <pre>
+ * aforo:
+ *   sql-metrics:
+ *     default-budget: 30
+ *     budgets:
+ *       "[GET /api/rateplans/{ratePlanId}]": 12
+ *     on-exceeded: warn   # or fail (e.g. in tests)
+ *     response-headers: false   # X-SQL-Statements / X-SQL-Time-Ms, for local runs only
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "aforo.sql-metrics")
+public class SqlMetricsProperties {
+
+    public enum OnExceeded { WARN, FAIL }
+
+    /** Budget for endpoints without their own entry; 0 disables the check */
+    private int defaultBudget = 0;
+
+    /** Budget by {@code "<METHOD> <uri pattern>"} */
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    private OnExceeded onExceeded = OnExceeded.WARN;
+
+    /** Add the counts to every response as headers ({@link SqlStatementHeaderAdvice}); off by default */
+    private boolean responseHeaders = false;
+
+    /** @return the budget of the endpoint, 0 when unlimited */
+    public int budgetFor(String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultBudget);
+    }
+}
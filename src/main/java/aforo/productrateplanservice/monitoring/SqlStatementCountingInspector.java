@@ -0,0 +1,18 @@
+package aforo.productrateplanservice.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares toward the current request's {@link SqlStatementStats}.
+ */
+public class SqlStatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.statement();
+        }
+        return sql;
+    }
+}
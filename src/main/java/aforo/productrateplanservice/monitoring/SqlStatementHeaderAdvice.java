@@ -0,0 +1,43 @@
+package aforo.productrateplanservice.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When {@code aforo.sql-metrics.response-headers} is on (the h2 profile turns it on; off by default, so
+ * deployments never expose it), reports the request's SQL statement count and JDBC time so far as response
+ * headers ({@code X-SQL-Statements}, {@code X-SQL-Time-Ms}). Written just before the body, after the
+ * handler's database work, since the headers can't be added once the body is committed.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(prefix = "aforo.sql-metrics", name = "response-headers", havingValue = "true")
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            response.getHeaders().set(TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,77 @@
+package aforo.productrateplanservice.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📊 Counts SQL statements and JDBC time per request and publishes them per endpoint:
+ * {@code http.server.requests.sql.statements} and {@code http.server.requests.sql.time}, tagged by
+ * method and URI pattern. Requests over their {@link SqlMetricsProperties budget} are logged at WARN,
+ * or fail when {@code on-exceeded: fail}, so N+1 regressions surface in tests.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlMetricsProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.end(stats);
+        }
+        record(request, stats);
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN"; // raw paths would explode the tag cardinality
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements prepared per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("JDBC execution time per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        String endpoint = method + " " + uri;
+        int budget = properties.budgetFor(endpoint);
+        if (budget > 0 && stats.getStatements() > budget) {
+            String message = String.format("%s ran %d SQL statements (budget %d, JDBC time %d ms)",
+                    endpoint, stats.getStatements(), budget, TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()));
+            if (properties.getOnExceeded() == SqlMetricsProperties.OnExceeded.FAIL) {
+                throw new IllegalStateException("SQL statement budget exceeded: " + message);
+            }
+            log.warn("⚠️ SQL statement budget exceeded: {}", message);
+        }
+    }
+}
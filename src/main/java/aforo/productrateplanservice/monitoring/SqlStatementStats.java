@@ -0,0 +1,59 @@
+package aforo.productrateplanservice.monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL statements and JDBC time of the current request.
+ *
+ * Bound to the request thread by {@link SqlStatementMetricsFilter} and inherited by threads it starts
+ * (e.g. the virtual threads of the parallel pricing loader), hence the thread-safe counters.
+ */
+public final class SqlStatementStats {
+
+    private static final InheritableThreadLocal<SqlStatementStats> CURRENT = new InheritableThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder jdbcNanos = new LongAdder();
+    private volatile boolean closed;
+
+    private SqlStatementStats() {
+    }
+
+    /** Start counting for the current request. */
+    static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /** Stop counting; threads that inherited the stats no longer add to it. */
+    static void end(SqlStatementStats stats) {
+        stats.closed = true;
+        CURRENT.remove();
+    }
+
+    /** @return the stats of the current request, or null outside a request */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    void statement() {
+        if (!closed) {
+            statements.increment();
+        }
+    }
+
+    void jdbcTime(long nanos) {
+        if (!closed) {
+            jdbcNanos.add(nanos);
+        }
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos.sum();
+    }
+}
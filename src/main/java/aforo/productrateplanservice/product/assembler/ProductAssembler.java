@@ -3,24 +3,49 @@ package aforo.productrateplanservice.product.assembler;
 import aforo.productrateplanservice.product.dto.ProductDTO;
 import aforo.productrateplanservice.product.entity.Product;
 import aforo.productrateplanservice.product.enums.ProductType;
-import aforo.productrateplanservice.product.repository.*;
+import aforo.productrateplanservice.product.service.ProductTypeResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 // ProductAssembler.java
 @Component
 @RequiredArgsConstructor
 public class ProductAssembler {
 
-    private final ProductAPIRepository productAPIRepository;
-    private final ProductFlatFileRepository productFlatFileRepository;
-    private final ProductSQLResultRepository productSQLResultRepository;
-    private final ProductLLMTokenRepository productLLMTokenRepository;
-    private final ProductStorageRepository productStorageRepository;
+    private final ProductTypeResolver productTypeResolver;
 
     public ProductDTO toDTO(Product product) {
-        ProductType determinedType = determineProductType(product);
-        
+        return toDTO(product, determineProductType(product));
+    }
+
+    /** Map a list, resolving the type of every product without a stored one in a single query */
+    public List<ProductDTO> toDTOs(List<Product> products) {
+        Map<Long, ProductType> resolved = resolveMissingTypes(products.stream()
+                .filter(product -> product.getProductType() == null)
+                .map(Product::getProductId)
+                .filter(Objects::nonNull)
+                .toList());
+        return products.stream()
+                .map(product -> toDTO(product, product.getProductType() != null
+                        ? product.getProductType()
+                        : resolved.get(product.getProductId())))
+                .toList();
+    }
+
+    /**
+     * Types of products that predate the column, from their configuration tables (one query per list);
+     * products without a configuration are absent
+     */
+    public Map<Long, ProductType> resolveMissingTypes(List<Long> productIds) {
+        return productIds.isEmpty() ? Map.of() : productTypeResolver.resolve(productIds);
+    }
+
+    /** Map with an already determined product type (no child table lookups) */
+    public ProductDTO toDTO(Product product, ProductType determinedType) {
         return ProductDTO.builder()
                 .productId(product.getProductId())
                 .productName(product.getProductName())
@@ -39,33 +64,23 @@ public class ProductAssembler {
     }
 
     private ProductType determineProductType(Product product) {
+        return determineProductType(product.getProductId(), product.getProductType());
+    }
+
+    /**
+     * The stored product type, or, for products that predate the column, the type whose child table
+     * has a row for this product
+     */
+    public ProductType determineProductType(Long productId, ProductType storedType) {
         // Return stored productType if available
-        if (product.getProductType() != null) {
-            return product.getProductType();
+        if (storedType != null) {
+            return storedType;
         }
 
         // Determine productType based on which child table has data
-        Long productId = product.getProductId();
         if (productId == null) {
             return null; // For new products
         }
-
-        if (productAPIRepository.existsById(productId)) {
-            return ProductType.API;
-        }
-        if (productFlatFileRepository.existsById(productId)) {
-            return ProductType.FlatFile;
-        }
-        if (productSQLResultRepository.existsById(productId)) {
-            return ProductType.SQLResult;
-        }
-        if (productLLMTokenRepository.existsById(productId)) {
-            return ProductType.LLMToken;
-        }
-        if (productStorageRepository.existsById(productId)) {
-            return ProductType.Storage;
-        }
-
-        return null; // No type configuration found
+        return productTypeResolver.resolve(List.of(productId)).get(productId); // null: no type configuration found
     }
-}
\ No newline at end of file
+}
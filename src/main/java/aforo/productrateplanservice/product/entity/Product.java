@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import aforo.productrateplanservice.product.enums.ProductCategory;
@@ -27,6 +28,7 @@ import aforo.productrateplanservice.product.util.JsonListConverter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@BatchSize(size = 50) // lazy RatePlan.product proxies are initialized together
 public class Product {
 
     @Id
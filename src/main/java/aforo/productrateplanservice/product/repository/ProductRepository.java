@@ -1,10 +1,14 @@
 package aforo.productrateplanservice.product.repository;
 
 import aforo.productrateplanservice.product.entity.Product;
+import aforo.productrateplanservice.product.enums.ProductType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -28,6 +32,27 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findAllByOrganizationId(Long organizationId);
     Optional<Product> findByProductIdAndOrganizationId(Long productId, Long organizationId);
+
+    @Query("SELECT p.lastUpdated FROM Product p WHERE p.productId = :productId AND p.organizationId = :organizationId")
+    Optional<LocalDateTime> findLastUpdated(@Param("productId") Long productId, @Param("organizationId") Long organizationId);
+
+    // Bulk update: leaves lastUpdated (and so the ETag) alone, the resolved type was already being served.
+    // The configuration is checked again here: it may have been cleared or switched since it was resolved,
+    // or the resolving transaction may have rolled back.
+    @Modifying
+    @Query("UPDATE Product p SET p.productType = :productType WHERE p.productId IN :productIds AND p.productType IS NULL AND ("
+            + "(:productType = aforo.productrateplanservice.product.enums.ProductType.API"
+            + " AND EXISTS (SELECT 1 FROM ProductAPI a WHERE a.productId = p.productId))"
+            + " OR (:productType = aforo.productrateplanservice.product.enums.ProductType.FlatFile"
+            + " AND EXISTS (SELECT 1 FROM ProductFlatFile f WHERE f.productId = p.productId))"
+            + " OR (:productType = aforo.productrateplanservice.product.enums.ProductType.SQLResult"
+            + " AND EXISTS (SELECT 1 FROM ProductSQLResult s WHERE s.productId = p.productId))"
+            + " OR (:productType = aforo.productrateplanservice.product.enums.ProductType.LLMToken"
+            + " AND EXISTS (SELECT 1 FROM ProductLLMToken l WHERE l.productId = p.productId))"
+            + " OR (:productType = aforo.productrateplanservice.product.enums.ProductType.Storage"
+            + " AND EXISTS (SELECT 1 FROM ProductStorage t WHERE t.productId = p.productId)))")
+    int backfillProductType(@Param("productType") ProductType productType, @Param("productIds") Collection<Long> productIds);
+
     void deleteByProductIdAndOrganizationId(Long productId, Long organizationId);
     
     Optional<Product> findByExternalIdAndSourceAndOrganizationId(String externalId, String source, Long organizationId);
@@ -1,14 +1,18 @@
 package aforo.productrateplanservice.product.resource;
 
+import aforo.productrateplanservice.model.ETags;
+import aforo.productrateplanservice.model.FieldSelection;
 import aforo.productrateplanservice.product.dto.ProductDTO;
 import aforo.productrateplanservice.product.request.CreateProductRequest;
 import aforo.productrateplanservice.product.request.UpdateProductRequest;
 import aforo.productrateplanservice.product.request.ProductCreateMultipart;
+import aforo.productrateplanservice.product.service.ProductProjectionService;
 import aforo.productrateplanservice.product.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.http.MediaType;
 import org.springframework.web.multipart.MultipartFile;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -30,6 +34,7 @@ import java.net.URI;
 public class ProductResource {
 
     private final ProductService productService;
+    private final ProductProjectionService productProjectionService;
     private final ObjectMapper objectMapper;
 
     // Multipart variant to create product with optional icon file, like CustomerService style
@@ -55,33 +60,66 @@ public class ProductResource {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get product by ID")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    @Operation(summary = "Get product by ID",
+            description = "Optional fields=productId,productName,... returns only those properties. "
+                    + "Returns an ETag; If-None-Match with the current ETag answers 304")
+    public ResponseEntity<?> getProductById(@PathVariable Long id,
+                                            @RequestParam(required = false) String fields,
+                                            WebRequest webRequest) {
+        FieldSelection selection = ProductProjectionService.parseFields(fields);
+        if (selection != null) {
+            // without billableMetrics the projection is covered by lastUpdated: 304 before any metrics call
+            String eTag = ETags.of(selection.fields().contains(ProductProjectionService.BILLABLE_METRICS)
+                    ? productService.getProductETag(id)
+                    : productService.getProductCoreETag(id), selection.fields());
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(eTag).body(productProjectionService.getProductById(id, selection));
+        }
+        // the full body carries billableMetrics, so the tag needs them too: 304 after lastUpdated and one
+        // metrics call, assembled only on a miss (reusing this request's metrics) and tagged as assembled
+        if (webRequest.checkNotModified(productService.getProductETag(id))) {
+            return null;
+        }
+        ProductDTO product = productService.getProductById(id);
+        return ResponseEntity.ok().eTag(productService.getProductETag(product)).body(product);
     }
 
     @GetMapping
-    @Operation(summary = "List products")
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
+    @Operation(summary = "List products", description = "Optional fields=productId,productName,... returns only those properties")
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String fields) {
+        FieldSelection selection = ProductProjectionService.parseFields(fields);
+        if (selection != null) {
+            return ResponseEntity.ok(productProjectionService.getAllProducts(selection));
+        }
         return ResponseEntity.ok(productService.getAllProducts());
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update product (full)")
+    @Operation(summary = "Update product (full)", description = "If-Match with a stale ETag answers 412")
     public ResponseEntity<ProductDTO> updateProductFully(
             @PathVariable Long id,
-            @org.springframework.web.bind.annotation.RequestBody @Valid UpdateProductRequest request) {
+            @org.springframework.web.bind.annotation.RequestBody @Valid UpdateProductRequest request,
+            WebRequest webRequest) {
+        if (ETags.ifMatchFailed(webRequest, () -> productService.getProductETag(id))) {
+            return null;
+        }
         ProductDTO updated = productService.updateProductFully(id, request);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().eTag(productService.getProductETag(id)).body(updated);
     }
 
     @PatchMapping("/{id}")
-    @Operation(summary = "Update product (partial)")
+    @Operation(summary = "Update product (partial)", description = "If-Match with a stale ETag answers 412")
     public ResponseEntity<ProductDTO> updateProductPartially(
             @PathVariable Long id,
-            @org.springframework.web.bind.annotation.RequestBody UpdateProductRequest request) {
+            @org.springframework.web.bind.annotation.RequestBody UpdateProductRequest request,
+            WebRequest webRequest) {
+        if (ETags.ifMatchFailed(webRequest, () -> productService.getProductETag(id))) {
+            return null;
+        }
         ProductDTO updated = productService.updateProductPartially(id, request);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().eTag(productService.getProductETag(id)).body(updated);
     }
 
     // Separate PATCH endpoint for just the icon
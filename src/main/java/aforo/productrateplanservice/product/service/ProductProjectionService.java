@@ -0,0 +1,127 @@
+package aforo.productrateplanservice.product.service;
+
+import aforo.productrateplanservice.client.BillableMetricClient;
+import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.model.FieldSelection;
+import aforo.productrateplanservice.product.assembler.ProductAssembler;
+import aforo.productrateplanservice.product.entity.Product;
+import aforo.productrateplanservice.product.enums.ProductType;
+import aforo.productrateplanservice.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🎯 Sparse-fieldset reads of products ({@code fields=}).
+ * Selects only the requested columns; the product type fallback and the billable metrics call
+ * run only when those fields are requested.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductProjectionService {
+
+    private static final String PRODUCT_TYPE = "productType";
+    public static final String BILLABLE_METRICS = "billableMetrics";
+
+    /** {@code ProductDTO} properties backed by a column of the same name on {@link Product}. */
+    private static final List<String> COLUMNS = List.of("productId", "productName", "version", "productDescription",
+            "status", PRODUCT_TYPE, "internalSkuCode", "icon", "source", "externalId", "createdOn", "lastUpdated");
+
+    private static final Set<String> ALLOWED;
+
+    static {
+        Set<String> allowed = new LinkedHashSet<>(COLUMNS);
+        allowed.add(BILLABLE_METRICS);
+        ALLOWED = Collections.unmodifiableSet(allowed);
+    }
+
+    private final EntityManager entityManager;
+    private final ProductAssembler productAssembler;
+    private final BillableMetricClient billableMetricClient;
+
+    /** @return the selection, or null for the full representation */
+    public static FieldSelection parseFields(String fields) {
+        return FieldSelection.parse(fields, ALLOWED, "productId");
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProducts(FieldSelection fields) {
+        return query(fields, null);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProductById(Long productId, FieldSelection fields) {
+        List<Map<String, Object>> rows = query(fields, productId);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Product not found with id: " + productId);
+        }
+        return rows.get(0);
+    }
+
+    private List<Map<String, Object>> query(FieldSelection fields, Long productId) {
+        Long orgId = TenantContext.require();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields.fields()) {
+            if (COLUMNS.contains(field)) {
+                selections.add(root.get(field).alias(field));
+            }
+        }
+        query.multiselect(selections);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("organizationId"), orgId));
+        if (productId != null) {
+            predicates.add(cb.equal(root.get("productId"), productId));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get("productId")));
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        Map<Long, ProductType> resolvedTypes = fields.fields().contains(PRODUCT_TYPE)
+                ? productAssembler.resolveMissingTypes(tuples.stream()
+                        .filter(tuple -> tuple.get(PRODUCT_TYPE) == null)
+                        .map(tuple -> tuple.get("productId", Long.class))
+                        .toList())
+                : Map.of();
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : tuples) {
+            Long id = tuple.get("productId", Long.class);
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields.fields()) {
+                if (PRODUCT_TYPE.equals(field)) {
+                    ProductType stored = tuple.get(field, ProductType.class);
+                    row.put(field, stored != null ? stored : resolvedTypes.get(id));
+                } else if (BILLABLE_METRICS.equals(field)) {
+                    row.put(field, billableMetricClient.getMetricsByProductId(id));
+                } else {
+                    row.put(field, tuple.get(field));
+                }
+            }
+            rows.add(row);
+        }
+        log.debug("Projected {} products with fields {}", rows.size(), fields.fields());
+        return rows;
+    }
+}
@@ -12,6 +12,16 @@ public interface ProductService {
     ProductDTO createProduct(CreateProductRequest request);
     ProductDTO createProduct(CreateProductRequest request, MultipartFile icon);
     ProductDTO getProductById(Long productId);
+    /**
+     * Strong ETag of the full product representation: its lastUpdated plus the billable metrics that the
+     * metrics service currently reports for it (they change without touching the product row). Within one
+     * HTTP request the metrics are fetched once and reused by {@link #getProductById}.
+     */
+    String getProductETag(Long productId);
+    /** The same ETag as {@link #getProductETag(Long)}, for a product already assembled by {@link #getProductById}. */
+    String getProductETag(ProductDTO product);
+    /** Strong ETag of a representation without billableMetrics, derived from lastUpdated alone. */
+    String getProductCoreETag(Long productId);
     List<ProductDTO> getAllProducts();
     void deleteProduct(Long productId);
     ProductDTO updateProductFully(Long id, UpdateProductRequest request);
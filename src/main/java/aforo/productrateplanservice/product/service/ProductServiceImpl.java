@@ -1,6 +1,7 @@
 package aforo.productrateplanservice.product.service;
 
 import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.model.ETags;
 import aforo.productrateplanservice.product.assembler.ProductAssembler;
 import aforo.productrateplanservice.product.dto.ProductDTO;
 import aforo.productrateplanservice.product.entity.Product;
@@ -24,23 +25,28 @@ import aforo.productrateplanservice.rate_plan.RatePlan;
 import aforo.productrateplanservice.rate_plan.RatePlanRepository;
 import aforo.productrateplanservice.rate_plan.service.RatePlanCoreService;
 import aforo.productrateplanservice.client.BillableMetricClient;
+import aforo.productrateplanservice.client.BillableMetricResponse;
 import aforo.productrateplanservice.storage.IconStorageService;
 import aforo.productrateplanservice.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductServiceImpl implements ProductService {
 
+    private static final String METRICS_ATTRIBUTE_PREFIX = ProductServiceImpl.class.getName() + ".billableMetrics.";
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final ProductAssembler productAssembler;
@@ -116,24 +122,69 @@ public class ProductServiceImpl implements ProductService {
     
         ProductDTO dto = productAssembler.toDTO(product);
         // fetch only metrics for this product
-        dto.setBillableMetrics(billableMetricClient.getMetricsByProductId(productId));
+        dto.setBillableMetrics(metricsForRequest(productId));
         return dto;
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public String getProductETag(Long productId) {
+        LocalDateTime lastUpdated = findLastUpdated(productId);
+        return eTag(productId, lastUpdated, metricsForRequest(productId));
+    }
+
+    /**
+     * Billable metrics of one product, fetched at most once per HTTP request: a GET that tags first and
+     * assembles on a miss, or a PUT that checks If-Match and then tags its response, makes one metrics call.
+     */
+    @SuppressWarnings("unchecked")
+    private List<BillableMetricResponse> metricsForRequest(Long productId) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return billableMetricClient.getMetricsByProductId(productId);
+        }
+        String attribute = METRICS_ATTRIBUTE_PREFIX + productId;
+        List<BillableMetricResponse> metrics =
+                (List<BillableMetricResponse>) request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        if (metrics == null) {
+            metrics = billableMetricClient.getMetricsByProductId(productId);
+            request.setAttribute(attribute, metrics, RequestAttributes.SCOPE_REQUEST);
+        }
+        return metrics;
+    }
+
+    @Override
+    public String getProductETag(ProductDTO product) {
+        return eTag(product.getProductId(), product.getLastUpdated(), product.getBillableMetrics());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getProductCoreETag(Long productId) {
+        return ETags.of(productId, findLastUpdated(productId));
+    }
+
+    private LocalDateTime findLastUpdated(Long productId) {
+        Long orgId = TenantContext.require();
+        return productRepository.findLastUpdated(productId, orgId)
+                .orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
+    }
+
+    // billable metrics are value objects, so their toString covers every field the response carries
+    private static String eTag(Long productId, LocalDateTime lastUpdated, List<BillableMetricResponse> metrics) {
+        return ETags.of(productId, lastUpdated, metrics);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
         Long orgId = TenantContext.require();
-        return productRepository.findAllByOrganizationId(orgId).stream()
-                .map(product -> {
-                    ProductDTO dto = productAssembler.toDTO(product);
-                    // fetch only metrics linked to each product
-                    dto.setBillableMetrics(
-                            billableMetricClient.getMetricsByProductId(product.getProductId())
-                    );
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        List<ProductDTO> dtos = productAssembler.toDTOs(productRepository.findAllByOrganizationId(orgId));
+        // fetch only metrics linked to each product
+        dtos.forEach(dto -> dto.setBillableMetrics(
+                billableMetricClient.getMetricsByProductId(dto.getProductId())
+        ));
+        return dtos;
     }
     
     @Override
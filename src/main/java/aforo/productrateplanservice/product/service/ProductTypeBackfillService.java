@@ -0,0 +1,77 @@
+package aforo.productrateplanservice.product.service;
+
+import aforo.productrateplanservice.product.enums.ProductType;
+import aforo.productrateplanservice.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * 🧹 Writes types resolved by {@link ProductTypeResolver} into {@code Product.productType} in the background,
+ * so the fallback resolution eventually disappears for existing data. Only products whose type is still
+ * null and that still have a configuration row of the resolved type are updated, and a product already
+ * queued is not queued again.
+ */
+@Service
+@Slf4j
+public class ProductTypeBackfillService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transaction;
+    private final Executor executor;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    public ProductTypeBackfillService(ProductRepository productRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      @Qualifier("taskExecutor") Executor executor) {
+        this.productRepository = productRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+    }
+
+    public void backfill(Map<Long, ProductType> types) {
+        List<Long> queued = types.keySet().stream().filter(pending::add).collect(Collectors.toList());
+        if (queued.isEmpty()) {
+            return;
+        }
+        Map<ProductType, List<Long>> byType = queued.stream()
+                .collect(Collectors.groupingBy(types::get, Collectors.toCollection(ArrayList::new)));
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                int updated = transaction.execute(status -> byType.entrySet().stream()
+                        .mapToInt(e -> productRepository.backfillProductType(e.getKey(), e.getValue()))
+                        .sum());
+                log.info("🧹 Backfilled productType for {} products", updated);
+            } catch (RuntimeException e) {
+                log.warn("Product type backfill failed for {} products: {}", queued.size(), e.getMessage());
+            } finally {
+                queued.forEach(pending::remove);
+            }
+        }, null);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.cancel(false);
+        }
+        // taskExecutor's rejection handler cancels the task instead of throwing; it will never run,
+        // so release its products for the next read to queue again
+        if (task.isCancelled()) {
+            log.debug("Product type backfill of {} products rejected by the executor", queued.size());
+            queued.forEach(pending::remove);
+        }
+    }
+}
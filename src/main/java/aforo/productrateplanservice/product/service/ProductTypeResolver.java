@@ -0,0 +1,64 @@
+package aforo.productrateplanservice.product.service;
+
+import aforo.productrateplanservice.product.enums.ProductType;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🔎 Resolves the type of products that predate the {@code productType} column from their configuration
+ * tables: one {@code UNION ALL} query over the five tables for a whole list of products (per chunk of ids),
+ * instead of up to five {@code existsById} lookups per product. Types found this way are handed to
+ * {@link ProductTypeBackfillService} so the products stop needing resolution.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductTypeResolver {
+
+    private static final String CONFIGURATION_TYPES =
+            "select a.productId, 'API' from ProductAPI a where a.productId in :ids "
+            + "union all select f.productId, 'FlatFile' from ProductFlatFile f where f.productId in :ids "
+            + "union all select s.productId, 'SQLResult' from ProductSQLResult s where s.productId in :ids "
+            + "union all select l.productId, 'LLMToken' from ProductLLMToken l where l.productId in :ids "
+            + "union all select t.productId, 'Storage' from ProductStorage t where t.productId in :ids";
+
+    private final EntityManager entityManager;
+    private final ProductTypeBackfillService backfillService;
+
+    /** Product ids per UNION ALL query (each id is bound once per configuration table) */
+    @Value("${aforo.product.type-resolution.chunk-size:500}")
+    private int chunkSize = 500;
+
+    /**
+     * @return the type of each product that has a configuration row; products without one are absent
+     */
+    public Map<Long, ProductType> resolve(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        Map<Long, ProductType> types = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Object[]> rows = entityManager.createQuery(CONFIGURATION_TYPES, Object[].class)
+                    .setParameter("ids", ids.subList(from, Math.min(from + chunkSize, ids.size())))
+                    .getResultList();
+            for (Object[] row : rows) {
+                // A product should have one configuration; if not, the first type in declaration order wins
+                types.merge((Long) row[0], ProductType.valueOf((String) row[1]),
+                        (a, b) -> a.ordinal() <= b.ordinal() ? a : b);
+            }
+        }
+        if (!types.isEmpty()) {
+            log.debug("🔎 Resolved product types from configuration tables for {} of {} products", types.size(), ids.size());
+            backfillService.backfill(types);
+        }
+        return types;
+    }
+}
@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 @Table(name = "aforo_rate_plan", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"rate_plan_name", "product_id", "organization_id"}),
     @UniqueConstraint(columnNames = {"rate_plan_code", "organization_id"})
+}, indexes = {
+    @Index(name = "idx_rate_plan_org_id", columnList = "organization_id, rate_plan_id")
 })
 @Getter
 @Setter
@@ -0,0 +1,45 @@
+package aforo.productrateplanservice.rate_plan;
+
+import aforo.productrateplanservice.cache.CacheWarmer;
+import aforo.productrateplanservice.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🔥 Warms the {@code ratePlans} keys cached by {@link RatePlanService}: the tenant's detailed list and
+ * detailed rate plans by ID.
+ */
+@Component
+@RequiredArgsConstructor
+public class RatePlanCacheWarmer implements CacheWarmer {
+
+    private static final String RATE_PLANS = "ratePlans";
+    private static final Pattern ALL_DETAILED = Pattern.compile("all_detailed_(\\d+)");
+    private static final Pattern DETAILED = Pattern.compile("detailed_(\\d+)_(\\d+)");
+
+    private final RatePlanService ratePlanService;
+
+    @Override
+    public boolean supports(String region, String key) {
+        return RATE_PLANS.equals(region) && (ALL_DETAILED.matcher(key).matches() || DETAILED.matcher(key).matches());
+    }
+
+    @Override
+    public void warm(String region, String key) {
+        String orgId = String.valueOf(TenantContext.require());
+        Matcher all = ALL_DETAILED.matcher(key);
+        if (all.matches()) {
+            if (orgId.equals(all.group(1))) {
+                ratePlanService.getAllRatePlans();
+            }
+            return;
+        }
+        Matcher detailed = DETAILED.matcher(key);
+        if (detailed.matches() && orgId.equals(detailed.group(2))) {
+            ratePlanService.getRatePlanById(Long.valueOf(detailed.group(1)));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package aforo.productrateplanservice.rate_plan;
+
+import aforo.productrateplanservice.model.FieldSelection;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Properties of {@link RatePlanDTO} that a {@code fields=} parameter may select. Column fields map to
+ * their entity path; each pricing/extras section is loaded only when selected.
+ */
+public final class RatePlanFields {
+
+    public static final String FLAT_FEE = "flatFee";
+    public static final String VOLUME_PRICINGS = "volumePricings";
+    public static final String USAGE_BASED_PRICINGS = "usageBasedPricings";
+    public static final String TIERED_PRICINGS = "tieredPricings";
+    public static final String STAIR_STEP_PRICINGS = "stairStepPricings";
+    public static final String SETUP_FEES = "setupFees";
+    public static final String DISCOUNTS = "discounts";
+    public static final String FREEMIUMS = "freemiums";
+    public static final String MINIMUM_COMMITMENTS = "minimumCommitments";
+
+    /** Field name → path on {@link RatePlan}; product fields go through a left join. */
+    public static final Map<String, String> COLUMNS;
+
+    /** Pricing/extras section → its value on a DTO filled by the aggregation service. */
+    public static final Map<String, Function<RatePlanDTO, Object>> SECTIONS;
+
+    public static final Set<String> ALL_SECTIONS;
+
+    private static final Set<String> ALLOWED;
+
+    static {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("ratePlanId", "ratePlanId");
+        columns.put("ratePlanCode", "ratePlanCode");
+        columns.put("ratePlanName", "ratePlanName");
+        columns.put("description", "description");
+        columns.put("billingFrequency", "billingFrequency");
+        columns.put("productId", "product.productId");
+        columns.put("productName", "product.productName");
+        columns.put("icon", "product.icon");
+        columns.put("paymentType", "paymentType");
+        columns.put("billableMetricId", "billableMetricId");
+        columns.put("status", "status");
+        columns.put("createdOn", "createdOn");
+        columns.put("lastUpdated", "lastUpdated");
+        COLUMNS = Collections.unmodifiableMap(columns);
+
+        Map<String, Function<RatePlanDTO, Object>> sections = new LinkedHashMap<>();
+        sections.put(FLAT_FEE, RatePlanDTO::getFlatFee);
+        sections.put(VOLUME_PRICINGS, RatePlanDTO::getVolumePricings);
+        sections.put(USAGE_BASED_PRICINGS, RatePlanDTO::getUsageBasedPricings);
+        sections.put(TIERED_PRICINGS, RatePlanDTO::getTieredPricings);
+        sections.put(STAIR_STEP_PRICINGS, RatePlanDTO::getStairStepPricings);
+        sections.put(SETUP_FEES, RatePlanDTO::getSetupFees);
+        sections.put(DISCOUNTS, RatePlanDTO::getDiscounts);
+        sections.put(FREEMIUMS, RatePlanDTO::getFreemiums);
+        sections.put(MINIMUM_COMMITMENTS, RatePlanDTO::getMinimumCommitments);
+        SECTIONS = Collections.unmodifiableMap(sections);
+        ALL_SECTIONS = Collections.unmodifiableSet(new LinkedHashSet<>(sections.keySet()));
+
+        Set<String> allowed = new LinkedHashSet<>(columns.keySet());
+        allowed.addAll(sections.keySet());
+        ALLOWED = Collections.unmodifiableSet(allowed);
+    }
+
+    private RatePlanFields() {
+    }
+
+    /** @return the selection, or null for the full representation */
+    public static FieldSelection parse(String fields) {
+        return FieldSelection.parse(fields, ALLOWED, "ratePlanId");
+    }
+}
@@ -0,0 +1,22 @@
+package aforo.productrateplanservice.rate_plan;
+
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import aforo.productrateplanservice.rate_plan.RatePlan.PaymentType;
+import lombok.*;
+
+/**
+ * Optional filters of the paginated rate plan listing; null fields match everything.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatePlanListFilter {
+
+    private RatePlanStatus status;
+    private Long productId;
+    private BillingFrequency billingFrequency;
+    private PaymentType paymentType;
+    private Long billableMetricId;
+}
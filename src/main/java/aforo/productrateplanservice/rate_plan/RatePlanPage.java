@@ -0,0 +1,48 @@
+package aforo.productrateplanservice.rate_plan;
+
+import aforo.productrateplanservice.exception.ValidationException;
+import lombok.*;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of rate plans, ordered by ID. Pass {@code nextCursor} back as {@code cursor} to get the
+ * following page; it is null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatePlanPage {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private List<RatePlanDTO> items;
+    private Long nextCursor;
+
+    /** The requested page size, defaulted when absent and capped at {@code maxSize}. */
+    public static int resolveSize(Integer requested, int defaultSize, int maxSize) {
+        if (requested == null) {
+            return Math.min(defaultSize, maxSize);
+        }
+        if (requested < 1) {
+            throw new ValidationException("Page size must be at least 1");
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    /**
+     * Build a page from up to {@code size + 1} rows; the extra row only signals that another page exists.
+     */
+    public static RatePlanPage of(List<RatePlan> rows, int size, Function<List<RatePlan>, List<RatePlanDTO>> toDTOs) {
+        boolean hasMore = rows.size() > size;
+        List<RatePlan> page = hasMore ? rows.subList(0, size) : rows;
+        return RatePlanPage.builder()
+                .items(toDTOs.apply(page))
+                .nextCursor(hasMore ? page.get(page.size() - 1).getRatePlanId() : null)
+                .build();
+    }
+}
@@ -1,12 +1,19 @@
 package aforo.productrateplanservice.rate_plan;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 
-public interface RatePlanRepository extends JpaRepository<RatePlan, Long> {
+public interface RatePlanRepository extends JpaRepository<RatePlan, Long>, JpaSpecificationExecutor<RatePlan> {
 
     Optional<RatePlan> findByRatePlanNameAndProduct_ProductId(String ratePlanName, Long productId);
     Optional<RatePlan> findByRatePlanNameAndProduct_ProductIdAndOrganizationId(String ratePlanName, Long productId, Long organizationId);
@@ -19,7 +26,10 @@ public interface RatePlanRepository extends JpaRepository<RatePlan, Long> {
     void deleteByProduct_ProductId(Long productId);
     void deleteByProduct_ProductIdAndOrganizationId(Long productId, Long organizationId);
 
+    // Listings and detail reads always show the product, so it is fetched in the same query
+    @EntityGraph(attributePaths = "product")
     List<RatePlan> findAllByOrganizationId(Long organizationId);
+    @EntityGraph(attributePaths = "product")
     Optional<RatePlan> findByRatePlanIdAndOrganizationId(Long ratePlanId, Long organizationId);
 
     // Delete by billable metric id for a given tenant
@@ -28,4 +38,17 @@ public interface RatePlanRepository extends JpaRepository<RatePlan, Long> {
     // Check if rate plan code exists for organization
     boolean existsByRatePlanCodeAndOrganizationId(String ratePlanCode, Long organizationId);
 
+    boolean existsByRatePlanIdAndOrganizationId(Long ratePlanId, Long organizationId);
+
+    // Row lock that serializes write-side refreshes of the rate plan's snapshot
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RatePlan r where r.ratePlanId = :ratePlanId")
+    Optional<RatePlan> findByIdForUpdate(@Param("ratePlanId") Long ratePlanId);
+
+    // Keyset page: plans after the cursor, in ID order, at most `limit` rows
+    default List<RatePlan> findPage(Long organizationId, RatePlanListFilter filter, Long cursor, int limit) {
+        return findBy(RatePlanSpecifications.page(organizationId, filter, cursor),
+                query -> query.sortBy(Sort.by("ratePlanId")).limit(limit).all());
+    }
+
 }
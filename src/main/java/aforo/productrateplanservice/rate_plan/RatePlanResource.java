@@ -1,8 +1,13 @@
 package aforo.productrateplanservice.rate_plan;
 
+import aforo.productrateplanservice.model.ETags;
+import aforo.productrateplanservice.model.FieldSelection;
+import aforo.productrateplanservice.rate_plan.service.RatePlanETagService;
+import aforo.productrateplanservice.rate_plan.service.RatePlanProjectionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,6 +20,8 @@ import io.swagger.v3.oas.annotations.Operation;
 public class RatePlanResource {
 
     private final RatePlanService ratePlanService;
+    private final RatePlanProjectionService ratePlanProjectionService;
+    private final RatePlanETagService ratePlanETagService;
 
     @PostMapping
     @Operation(summary = "Create rate plan")
@@ -23,15 +30,45 @@ public class RatePlanResource {
     }
 
     @GetMapping
-    @Operation(summary = "List rate plans")
-    public ResponseEntity<List<RatePlanDTO>> getAllRatePlans() {
+    @Operation(summary = "List rate plans", description = "Optional fields=ratePlanId,ratePlanName,... returns only those properties")
+    public ResponseEntity<?> getAllRatePlans(@RequestParam(required = false) String fields) {
+        FieldSelection selection = RatePlanFields.parse(fields);
+        if (selection != null) {
+            return ResponseEntity.ok(ratePlanProjectionService.getAllRatePlans(selection));
+        }
         return ResponseEntity.ok(ratePlanService.getAllRatePlans());
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "List rate plans page by page",
+            description = "Keyset pagination ordered by rate plan ID; pass the returned nextCursor as cursor for the next page")
+    public ResponseEntity<RatePlanPage> getRatePlanPage(
+            RatePlanListFilter filter,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ratePlanService.getRatePlanPage(filter, cursor, size));
+    }
+
     @GetMapping("/{ratePlanId}")
-    @Operation(summary = "Get rate plan by ID")
-    public ResponseEntity<RatePlanDTO> getRatePlanById(@PathVariable Long ratePlanId) {
-        return ResponseEntity.ok(ratePlanService.getRatePlanById(ratePlanId));
+    @Operation(summary = "Get rate plan by ID",
+            description = "Optional fields=ratePlanId,ratePlanName,... returns only those properties. "
+                    + "Returns an ETag; If-None-Match with the current ETag answers 304")
+    public ResponseEntity<?> getRatePlanById(@PathVariable Long ratePlanId,
+                                             @RequestParam(required = false) String fields,
+                                             WebRequest webRequest) {
+        FieldSelection selection = RatePlanFields.parse(fields);
+        String eTag = ratePlanETagService.getRatePlanETag(ratePlanId);
+        if (selection != null) {
+            eTag = ETags.of(eTag, selection.fields());
+        }
+        // 304 before any DTO assembly
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok().eTag(eTag).body(ratePlanProjectionService.getRatePlanById(ratePlanId, selection));
+        }
+        return ResponseEntity.ok().eTag(eTag).body(ratePlanService.getRatePlanById(ratePlanId));
     }
 
     @GetMapping("/product/{productId}")
@@ -47,19 +84,29 @@ public class RatePlanResource {
         return ResponseEntity.noContent().build();
     }
     @PutMapping("/{ratePlanId}")
-    @Operation(summary = "Update rate plan (full)")
+    @Operation(summary = "Update rate plan (full)", description = "If-Match with a stale ETag answers 412")
     public ResponseEntity<RatePlanDTO> updateRatePlanFully(
             @PathVariable Long ratePlanId,
-            @RequestBody UpdateRatePlanRequest request) {
-        return ResponseEntity.ok(ratePlanService.updateRatePlanFully(ratePlanId, request));
+            @RequestBody UpdateRatePlanRequest request,
+            WebRequest webRequest) {
+        if (ETags.ifMatchFailed(webRequest, () -> ratePlanETagService.getRatePlanETag(ratePlanId))) {
+            return null;
+        }
+        RatePlanDTO updated = ratePlanService.updateRatePlanFully(ratePlanId, request);
+        return ResponseEntity.ok().eTag(ratePlanETagService.getRatePlanETag(ratePlanId)).body(updated);
     }
     
     @PatchMapping("/{ratePlanId}")
-    @Operation(summary = "Update rate plan (partial)")
+    @Operation(summary = "Update rate plan (partial)", description = "If-Match with a stale ETag answers 412")
     public ResponseEntity<RatePlanDTO> updateRatePlanPartially(
             @PathVariable Long ratePlanId,
-            @RequestBody UpdateRatePlanRequest request) {
-        return ResponseEntity.ok(ratePlanService.updateRatePlanPartially(ratePlanId, request));
+            @RequestBody UpdateRatePlanRequest request,
+            WebRequest webRequest) {
+        if (ETags.ifMatchFailed(webRequest, () -> ratePlanETagService.getRatePlanETag(ratePlanId))) {
+            return null;
+        }
+        RatePlanDTO updated = ratePlanService.updateRatePlanPartially(ratePlanId, request);
+        return ResponseEntity.ok().eTag(ratePlanETagService.getRatePlanETag(ratePlanId)).body(updated);
     }
     
     @PostMapping("/{ratePlanId}/confirm")
@@ -8,6 +8,9 @@ public interface RatePlanService {
 
     List<RatePlanDTO> getAllRatePlans();
 
+    // Keyset-paginated listing ordered by rate plan ID; cursor is the previous page's nextCursor
+    RatePlanPage getRatePlanPage(RatePlanListFilter filter, Long cursor, Integer size);
+
     List<RatePlanDTO> getRatePlansByProductId(Long productId);
 
     RatePlanDTO getRatePlanById(Long ratePlanId);
@@ -42,6 +42,7 @@ public class RatePlanServiceImpl implements RatePlanService {
     private final RatePlanAssembler ratePlanAssembler;
     private final BillableMetricClient billableMetricClient;
     private final aforo.productrateplanservice.rate_plan.service.RatePlanCodeGenerationService ratePlanCodeGenerationService;
+    private final aforo.productrateplanservice.rate_plan.service.RatePlanCoreService ratePlanCoreService;
     // Pricing repos + mappers
     private final FlatFeeRepository flatFeeRepository;
     private final FlatFeeMapper flatFeeMapper;
@@ -190,6 +191,12 @@ public class RatePlanServiceImpl implements RatePlanService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public RatePlanPage getRatePlanPage(RatePlanListFilter filter, Long cursor, Integer size) {
+        // One implementation for both beans: page size settings and set-based pricing loads live there
+        return ratePlanCoreService.getRatePlanPage(filter, cursor, size);
+    }
+
     @Override
     public List<RatePlanDTO> getRatePlansByProductId(Long productId) {
         Long orgId = TenantContext.require();
@@ -1,8 +1,8 @@
 package aforo.productrateplanservice.rate_plan;
 
-import aforo.productrateplanservice.exception.NotFoundException;
 import aforo.productrateplanservice.rate_plan.service.RatePlanCoreService;
 import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanSnapshotService;
 import aforo.productrateplanservice.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +33,7 @@ public class RatePlanServiceImplRefactored implements RatePlanService {
     private final RatePlanCoreService ratePlanCoreService;
     private final RatePlanPricingAggregationService pricingAggregationService;
     private final RatePlanRepository ratePlanRepository;
+    private final RatePlanSnapshotService ratePlanSnapshotService;
 
     @Override
     public RatePlanDTO createRatePlan(CreateRatePlanRequest request) {
@@ -41,7 +42,7 @@ public class RatePlanServiceImplRefactored implements RatePlanService {
     }
 
     @Override
-    @Cacheable(value = "ratePlans", key = "'all_detailed_' + T(aforo.productrateplanservice.tenant.TenantContext).require()")
+    @Cacheable(value = "ratePlans", key = "'all_detailed_' + T(aforo.productrateplanservice.tenant.TenantContext).require()", sync = true)
     public List<RatePlanDTO> getAllRatePlans() {
         log.debug("📋 Getting all detailed rate plans for tenant");
         
@@ -52,6 +53,12 @@ public class RatePlanServiceImplRefactored implements RatePlanService {
         return pricingAggregationService.toDetailedDTOsBatch(ratePlans);
     }
 
+    @Override
+    public RatePlanPage getRatePlanPage(RatePlanListFilter filter, Long cursor, Integer size) {
+        log.debug("📄 Getting rate plan page after cursor: {}", cursor);
+        return ratePlanCoreService.getRatePlanPage(filter, cursor, size);
+    }
+
     @Override
     public List<RatePlanDTO> getRatePlansByProductId(Long productId) {
         log.debug("📋 Getting rate plans for product: {}", productId);
@@ -59,16 +66,15 @@ public class RatePlanServiceImplRefactored implements RatePlanService {
     }
 
     @Override
-    @Cacheable(value = "ratePlans", key = "'detailed_' + #ratePlanId + '_' + T(aforo.productrateplanservice.tenant.TenantContext).require()")
+    @Cacheable(value = "ratePlans", key = "'detailed_' + #ratePlanId + '_' + T(aforo.productrateplanservice.tenant.TenantContext).require()", sync = true)
     public RatePlanDTO getRatePlanById(Long ratePlanId) {
         log.debug("🔍 Getting detailed rate plan: {}", ratePlanId);
         
         Long orgId = TenantContext.require();
-        RatePlan ratePlan = ratePlanRepository.findByRatePlanIdAndOrganizationId(ratePlanId, orgId)
-                .orElseThrow(() -> new NotFoundException("Rate plan not found with ID: " + ratePlanId));
-        
-        // Use aggregation service for detailed DTO with pricing configurations
-        return pricingAggregationService.toDetailedDTO(ratePlan);
+
+        // 📸 Single primary-key lookup; rebuilt from the pricing tables only when missing or stale
+        return ratePlanSnapshotService.findCurrent(ratePlanId, orgId)
+                .orElseGet(() -> ratePlanSnapshotService.rebuild(ratePlanId, orgId));
     }
 
     @Override
@@ -0,0 +1,50 @@
+package aforo.productrateplanservice.rate_plan;
+
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria for the keyset-paginated rate plan listing. Only the filters that are set become predicates,
+ * so every page is a range scan of the (organization_id, rate_plan_id) index.
+ */
+public final class RatePlanSpecifications {
+
+    private RatePlanSpecifications() {
+    }
+
+    public static Specification<RatePlan> page(Long organizationId, RatePlanListFilter filter, Long cursor) {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("product", JoinType.LEFT); // product name/icon are part of every item
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("organizationId"), organizationId));
+            if (cursor != null) {
+                predicates.add(cb.greaterThan(root.get("ratePlanId"), cursor));
+            }
+            if (filter != null) {
+                if (filter.getStatus() != null) {
+                    predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+                }
+                if (filter.getProductId() != null) {
+                    predicates.add(cb.equal(root.get("product").get("productId"), filter.getProductId()));
+                }
+                if (filter.getBillingFrequency() != null) {
+                    predicates.add(cb.equal(root.get("billingFrequency"), filter.getBillingFrequency()));
+                }
+                if (filter.getPaymentType() != null) {
+                    predicates.add(cb.equal(root.get("paymentType"), filter.getPaymentType()));
+                }
+                if (filter.getBillableMetricId() != null) {
+                    predicates.add(cb.equal(root.get("billableMetricId"), filter.getBillableMetricId()));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package aforo.productrateplanservice.rate_plan.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * ⚡ Runs the independent pricing/extras loads of one rate plan concurrently on virtual threads.
+ * Each load runs in its own read-only transaction (and so on its own pooled connection). At most
+ * {@code max-concurrency} of one request's loads run at the same time, and all requests together share
+ * {@code max-connections} permits, by default half of the Hikari pool, so a burst of requests cannot
+ * exhaust it. Disabled by default; when disabled, or when the caller is already inside a transaction
+ * (which holds a connection of its own and, if read-write, rows other connections cannot see), loads run
+ * sequentially on the calling thread and its connection.
+ */
+@Component
+@Slf4j
+public class ParallelPricingLoader {
+
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final Semaphore connectionPermits;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public ParallelPricingLoader(PlatformTransactionManager transactionManager,
+                                 @Value("${aforo.rateplan.detail.parallel-loads.enabled:false}") boolean enabled,
+                                 @Value("${aforo.rateplan.detail.parallel-loads.max-concurrency:3}") int maxConcurrency,
+                                 @Value("${aforo.rateplan.detail.parallel-loads.max-connections:0}") int maxConnections,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int hikariMaximumPoolSize) {
+        this.enabled = enabled && transactionManager != null;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        // shared by every request; leaves the rest of the pool to callers that do not fan out
+        this.connectionPermits = new Semaphore(maxConnections > 0
+                ? Math.min(maxConnections, hikariMaximumPoolSize)
+                : Math.max(1, hikariMaximumPoolSize / 2), true);
+        if (this.enabled) {
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+            this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        } else {
+            this.readOnlyTransaction = null;
+            this.executor = null;
+        }
+    }
+
+    /** A loader that always runs loads on the calling thread. */
+    public static ParallelPricingLoader sequential() {
+        return new ParallelPricingLoader(null, false, 1, 1, 1);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /**
+     * Run every load and return once all have completed. The first failure cancels the remaining loads
+     * and is rethrown.
+     */
+    public void runAll(List<Runnable> loads) {
+        if (!canRunConcurrently() || loads.size() < 2) {
+            loads.forEach(Runnable::run);
+            return;
+        }
+
+        Semaphore requestPermits = new Semaphore(maxConcurrency);
+        List<Future<?>> futures = new ArrayList<>(loads.size());
+        for (Runnable load : loads) {
+            futures.add(executor.submit(() -> {
+                requestPermits.acquire();
+                try {
+                    connectionPermits.acquire();
+                    try {
+                        readOnlyTransaction.executeWithoutResult(status -> load.run());
+                    } finally {
+                        connectionPermits.release();
+                    }
+                } finally {
+                    requestPermits.release();
+                }
+                return null;
+            }));
+        }
+        awaitAll(futures);
+    }
+
+    private boolean canRunConcurrently() {
+        // an outer transaction already holds a connection; fanning out from it would need 1 + n per request
+        return enabled && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading rate plan pricing", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            log.warn("Parallel pricing load failed: {}", e.getCause().getMessage());
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException("Rate plan pricing load failed", e.getCause());
+        }
+    }
+}
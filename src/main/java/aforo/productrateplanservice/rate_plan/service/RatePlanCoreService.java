@@ -21,6 +21,7 @@ import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentRepositor
 import aforo.productrateplanservice.setupfee.SetupFeeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,6 +58,12 @@ public class RatePlanCoreService {
     private final SetupFeeRepository setupFeeRepository;
     private final RatePlanPricingAggregationService pricingAggregationService;
 
+    @Value("${aforo.rateplan.page.default-size:" + RatePlanPage.DEFAULT_SIZE + "}")
+    private int defaultPageSize = RatePlanPage.DEFAULT_SIZE;
+
+    @Value("${aforo.rateplan.page.max-size:" + RatePlanPage.MAX_SIZE + "}")
+    private int maxPageSize = RatePlanPage.MAX_SIZE;
+
     /**
      * Create a new rate plan (without pricing configurations)
      * 🔐 Requires RATE_PLAN_CREATE permission
@@ -118,7 +125,7 @@ public class RatePlanCoreService {
      * 🔐 Requires RATE_PLAN_READ permission
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "ratePlans", key = "'basic_' + #ratePlanId + '_' + T(aforo.productrateplanservice.tenant.TenantContext).require()")
+    @Cacheable(value = "ratePlans", key = "'basic_' + #ratePlanId + '_' + T(aforo.productrateplanservice.tenant.TenantContext).require()", sync = true)
     public RatePlanDTO getRatePlanBasic(Long ratePlanId) {
         Long orgId = TenantContext.require();
         
@@ -135,7 +142,7 @@ public class RatePlanCoreService {
      * 🔐 Requires RATE_PLAN_READ permission
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "ratePlans", key = "'basic_all_' + T(aforo.productrateplanservice.tenant.TenantContext).require()")
+    @Cacheable(value = "ratePlans", key = "'basic_all_' + T(aforo.productrateplanservice.tenant.TenantContext).require()", sync = true)
     public List<RatePlanDTO> getAllRatePlansBasic() {
         Long orgId = TenantContext.require();
         
@@ -147,6 +154,20 @@ public class RatePlanCoreService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one keyset page of rate plans (with pricing configurations), ordered by ID.
+     * Uncached: each page is a bounded index range scan plus one batch load per pricing table.
+     * 🔐 Requires RATE_PLAN_READ permission
+     */
+    @Transactional(readOnly = true)
+    public RatePlanPage getRatePlanPage(RatePlanListFilter filter, Long cursor, Integer size) {
+        Long orgId = TenantContext.require();
+        int pageSize = RatePlanPage.resolveSize(size, defaultPageSize, maxPageSize);
+
+        List<RatePlan> rows = ratePlanRepository.findPage(orgId, filter, cursor, pageSize + 1);
+        return RatePlanPage.of(rows, pageSize, pricingAggregationService::toDetailedDTOsBatch);
+    }
+
     /**
      * Get rate plans by product ID (without pricing configurations)
      * 🔐 Requires RATE_PLAN_READ permission
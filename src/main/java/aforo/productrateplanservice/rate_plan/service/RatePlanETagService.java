@@ -0,0 +1,40 @@
+package aforo.productrateplanservice.rate_plan.service;
+
+import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.model.ETags;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanSnapshotRepository;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanSnapshotService;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanVersion;
+import aforo.productrateplanservice.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 🏷️ Strong ETags for rate plans, computed without assembling the DTO.
+ *
+ * The tag is derived from {@code lastUpdated} plus the snapshot version, so pricing/extras writes change it
+ * too. A current snapshot costs one query; a missing or stale one is rebuilt first (its content changed,
+ * so the caller is about to send the full payload anyway).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatePlanETagService {
+
+    private final RatePlanSnapshotRepository snapshotRepository;
+    private final RatePlanSnapshotService snapshotService;
+
+    public String getRatePlanETag(Long ratePlanId) {
+        Long orgId = TenantContext.require();
+        RatePlanVersion version = snapshotRepository.findVersion(ratePlanId, orgId)
+                .filter(v -> !v.stale())
+                .orElseGet(() -> {
+                    log.debug("🏷️ Snapshot missing or stale for ratePlanId: {}, rebuilding before tagging", ratePlanId);
+                    snapshotService.rebuild(ratePlanId, orgId);
+                    return snapshotRepository.findVersion(ratePlanId, orgId)
+                            .orElseThrow(() -> new NotFoundException("Rate plan not found with ID: " + ratePlanId));
+                });
+        return ETags.of(ratePlanId, version.lastUpdated(), version.version());
+    }
+}
@@ -6,39 +6,39 @@ import aforo.productrateplanservice.flatfee.FlatFeeMapper;
 import aforo.productrateplanservice.flatfee.FlatFeeRepository;
 import aforo.productrateplanservice.rate_plan.RatePlan;
 import aforo.productrateplanservice.rate_plan.RatePlanDTO;
-import aforo.productrateplanservice.stairsteppricing.StairStepPricing;
+import aforo.productrateplanservice.rate_plan.RatePlanFields;
 import aforo.productrateplanservice.stairsteppricing.StairStepPricingMapper;
 import aforo.productrateplanservice.stairsteppricing.StairStepPricingRepository;
-import aforo.productrateplanservice.tieredpricing.TieredPricing;
 import aforo.productrateplanservice.tieredpricing.TieredPricingMapper;
 import aforo.productrateplanservice.tieredpricing.TieredPricingRepository;
-import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricing;
 import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingMapper;
 import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingRepository;
-import aforo.productrateplanservice.volumepricing.VolumePricing;
 import aforo.productrateplanservice.volumepricing.VolumePricingMapper;
 import aforo.productrateplanservice.volumepricing.VolumePricingRepository;
-import aforo.productrateplanservice.setupfee.SetupFee;
 import aforo.productrateplanservice.setupfee.SetupFeeMapper;
 import aforo.productrateplanservice.setupfee.SetupFeeRepository;
-import aforo.productrateplanservice.discount.Discount;
 import aforo.productrateplanservice.discount.DiscountMapper;
 import aforo.productrateplanservice.discount.DiscountRepository;
-import aforo.productrateplanservice.freemium.Freemium;
 import aforo.productrateplanservice.freemium.FreemiumMapper;
 import aforo.productrateplanservice.freemium.FreemiumRepository;
-import aforo.productrateplanservice.minimumcommitment.MinimumCommitment;
 import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentMapper;
 import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -73,260 +73,231 @@ public class RatePlanPricingAggregationService {
     private final MinimumCommitmentRepository minimumCommitmentRepository;
     private final MinimumCommitmentMapper minimumCommitmentMapper;
 
+    // Sequential or virtual-thread fan-out of the single-plan loads
+    private final ParallelPricingLoader pricingLoader;
+
+    // IN-list size per batch query; keeps large tenants under driver/database parameter limits
+    @Value("${aforo.rateplan.batch.in-list-chunk-size:1000}")
+    private int inListChunkSize = 1000;
+
     /**
-     * Convert a single RatePlan to detailed DTO with all pricing configurations and extras
+     * Convert a single RatePlan to detailed DTO with all pricing configurations and extras.
+     * Joins the caller's transaction if there is one but does not open its own, so that called outside
+     * one the pricing loads can fan out; the product must already be loaded with the plan.
      * 🔐 Requires PRICING_READ permission
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public RatePlanDTO toDetailedDTO(RatePlan ratePlan) {
         
         Long ratePlanId = ratePlan.getRatePlanId();
         log.debug("Converting rate plan {} to detailed DTO", ratePlanId);
 
         // Build DTO manually with core fields (avoid calling mapper which does redundant queries)
-        RatePlanDTO dto = RatePlanDTO.builder()
-                .ratePlanId(ratePlanId)
-                .ratePlanCode(ratePlan.getRatePlanCode())
-                .ratePlanName(ratePlan.getRatePlanName())
-                .description(ratePlan.getDescription())
-                .billingFrequency(ratePlan.getBillingFrequency())
-                .productId(ratePlan.getProduct() != null ? ratePlan.getProduct().getProductId() : null)
-                .productName(ratePlan.getProduct() != null ? ratePlan.getProduct().getProductName() : null)
-                .icon(ratePlan.getProduct() != null ? ratePlan.getProduct().getIcon() : null)
-                .status(ratePlan.getStatus())
-                .paymentType(ratePlan.getPaymentType())
-                .billableMetricId(ratePlan.getBillableMetricId())
-                .createdOn(ratePlan.getCreatedOn())
-                .lastUpdated(ratePlan.getLastUpdated())
-                .build();
-
-        // Pricing configurations
-        // FlatFee - at most one
-        flatFeeRepository.findByRatePlanId(ratePlanId)
-                .ifPresent(entity -> dto.setFlatFee(flatFeeMapper.toDTO(entity)));
-
-        dto.setTieredPricings(
-                tieredPricingRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
-                        .map(tieredPricingMapper::toDTO)
-                        .collect(Collectors.toList())
-        );
-
-        dto.setVolumePricings(
-                volumePricingRepository.findByRatePlanRatePlanId(ratePlanId).stream()
-                        .map(volumePricingMapper::toDTO)
-                        .collect(Collectors.toList())
-        );
-
-        dto.setUsageBasedPricings(
-                usageBasedPricingRepository.findByRatePlanRatePlanId(ratePlanId).stream()
-                        .map(usageBasedPricingMapper::toDTO)
-                        .collect(Collectors.toList())
-        );
-
-        dto.setStairStepPricings(
-                stairStepPricingRepository.findByRatePlanRatePlanId(ratePlanId).stream()
-                        .map(stairStepPricingMapper::toDTO)
-                        .collect(Collectors.toList())
-        );
+        RatePlanDTO dto = coreDTO(ratePlan);
 
-        // Extras
-        dto.setSetupFees(
-                setupFeeRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
-                        .map(setupFeeMapper::toDTO)
-                        .collect(Collectors.toList())
-        );
-        
-        dto.setDiscounts(
-                discountRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
-                        .map(discountMapper::toDTO)
-                        .collect(Collectors.toList())
-        );
-        
-        dto.setFreemiums(
-                freemiumRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
-                        .map(freemiumMapper::toDTO)
-                        .collect(Collectors.toList())
-        );
-        
-        dto.setMinimumCommitments(
-                minimumCommitmentRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
-                        .map(minimumCommitmentMapper::toDTO)
-                        .collect(Collectors.toList())
-        );
+        applyPricing(dto, ratePlanId);
+        return dto;
+    }
 
+    /**
+     * Pricing configurations and extras only, without the rate plan's own columns or product.
+     * Used by the estimator, which compiles these and never needs the rest.
+     * The caller is responsible for checking that the rate plan belongs to the current tenant.
+     * Joins the caller's transaction if there is one but does not open its own, so that
+     * {@link ParallelPricingLoader} can fan out without this method pinning a connection.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public RatePlanDTO toPricingDTO(Long ratePlanId) {
+        RatePlanDTO dto = RatePlanDTO.builder().ratePlanId(ratePlanId).build();
+        applyPricing(dto, ratePlanId);
         return dto;
     }
 
+    /**
+     * The nine pricing/extras loads are independent and each writes its own DTO field, so
+     * {@link ParallelPricingLoader} may run them concurrently when no transaction is active;
+     * otherwise they run in order here on the caller's connection.
+     */
+    private void applyPricing(RatePlanDTO dto, Long ratePlanId) {
+        pricingLoader.runAll(List.of(
+                // Pricing configurations
+                // FlatFee - at most one
+                () -> flatFeeRepository.findByRatePlanId(ratePlanId)
+                        .ifPresent(entity -> dto.setFlatFee(flatFeeMapper.toDTO(entity))),
+                () -> dto.setTieredPricings(
+                        tieredPricingRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
+                                .map(tieredPricingMapper::toDTO)
+                                .collect(Collectors.toList())),
+                () -> dto.setVolumePricings(
+                        volumePricingRepository.findByRatePlanRatePlanId(ratePlanId).stream()
+                                .map(volumePricingMapper::toDTO)
+                                .collect(Collectors.toList())),
+                () -> dto.setUsageBasedPricings(
+                        usageBasedPricingRepository.findByRatePlanRatePlanId(ratePlanId).stream()
+                                .map(usageBasedPricingMapper::toDTO)
+                                .collect(Collectors.toList())),
+                () -> dto.setStairStepPricings(
+                        stairStepPricingRepository.findByRatePlanRatePlanId(ratePlanId).stream()
+                                .map(stairStepPricingMapper::toDTO)
+                                .collect(Collectors.toList())),
+                // Extras
+                () -> dto.setSetupFees(
+                        setupFeeRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
+                                .map(setupFeeMapper::toDTO)
+                                .collect(Collectors.toList())),
+                () -> dto.setDiscounts(
+                        discountRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
+                                .map(discountMapper::toDTO)
+                                .collect(Collectors.toList())),
+                () -> dto.setFreemiums(
+                        freemiumRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
+                                .map(freemiumMapper::toDTO)
+                                .collect(Collectors.toList())),
+                () -> dto.setMinimumCommitments(
+                        minimumCommitmentRepository.findByRatePlan_RatePlanId(ratePlanId).stream()
+                                .map(minimumCommitmentMapper::toDTO)
+                                .collect(Collectors.toList()))
+        ));
+    }
+
     /**
      * ⚡ OPTIMIZED: Batch-load detailed DTOs to prevent N+1 queries
-     * Instead of 1 + (N * 9) queries, this uses 1 + 9 queries total
-     * Includes pricing configurations (5) and extras (4)
+     * Instead of N * 9 queries, this uses 9 IN-list queries (per chunk of ids) on top of the rate plan query
+     * Includes pricing configurations (5) and extras (4); tiers are fetch-joined
      * 🔐 Requires PRICING_READ permission
      */
     @Transactional(readOnly = true)
     public List<RatePlanDTO> toDetailedDTOsBatch(List<RatePlan> ratePlans) {
         if (ratePlans.isEmpty()) {
-            return List.of();
+            return new ArrayList<>(); // cached: the Redis L2's typed JSON cannot rebuild an immutable List
         }
 
 
         log.debug("Converting {} rate plans to detailed DTOs using batch optimization", ratePlans.size());
 
-        // Extract all rate plan IDs for batch queries
-        List<Long> ratePlanIds = ratePlans.stream()
-                .map(RatePlan::getRatePlanId)
+        // Build DTOs manually with core fields, then fill in pricing from batch-loaded data
+        List<RatePlanDTO> dtos = ratePlans.stream()
+                .map(RatePlanPricingAggregationService::coreDTO)
                 .collect(Collectors.toList());
+        applyPricingBatch(dtos, RatePlanFields.ALL_SECTIONS);
+        return dtos;
+    }
 
-        // ⚡ Batch fetch all related data - using individual queries since batch methods don't exist
-        Map<Long, FlatFee> flatFeeMap = new HashMap<>();
-        Map<Long, List<TieredPricing>> tieredPricingMap = new HashMap<>();
-        Map<Long, List<VolumePricing>> volumePricingMap = new HashMap<>();
-        Map<Long, List<UsageBasedPricing>> usageBasedPricingMap = new HashMap<>();
-        Map<Long, List<StairStepPricing>> stairStepPricingMap = new HashMap<>();
-        Map<Long, List<SetupFee>> setupFeeMap = new HashMap<>();
-        Map<Long, List<Discount>> discountMap = new HashMap<>();
-        Map<Long, List<Freemium>> freemiumMap = new HashMap<>();
-        Map<Long, List<MinimumCommitment>> minimumCommitmentMap = new HashMap<>();
-
-        // Fetch data for each rate plan ID
-        for (Long ratePlanId : ratePlanIds) {
-            // Flat fees
-            flatFeeRepository.findByRatePlanId(ratePlanId)
-                    .ifPresent(flatFee -> flatFeeMap.put(ratePlanId, flatFee));
-            
-            // Tiered pricing
-            var tieredPricings = tieredPricingRepository.findByRatePlan_RatePlanId(ratePlanId);
-            if (!tieredPricings.isEmpty()) {
-                tieredPricingMap.put(ratePlanId, tieredPricings);
-            }
-            
-            // Volume pricing
-            var volumePricings = volumePricingRepository.findByRatePlanRatePlanId(ratePlanId);
-            if (!volumePricings.isEmpty()) {
-                volumePricingMap.put(ratePlanId, volumePricings);
-            }
-            
-            // Usage-based pricing
-            var usageBasedPricings = usageBasedPricingRepository.findByRatePlanRatePlanId(ratePlanId);
-            if (!usageBasedPricings.isEmpty()) {
-                usageBasedPricingMap.put(ratePlanId, usageBasedPricings);
-            }
-            
-            // Stair step pricing
-            var stairStepPricings = stairStepPricingRepository.findByRatePlanRatePlanId(ratePlanId);
-            if (!stairStepPricings.isEmpty()) {
-                stairStepPricingMap.put(ratePlanId, stairStepPricings);
-            }
-            
-            // Setup fees
-            var setupFees = setupFeeRepository.findByRatePlan_RatePlanId(ratePlanId);
-            if (!setupFees.isEmpty()) {
-                setupFeeMap.put(ratePlanId, setupFees);
-            }
-            
-            // Discounts
-            var discounts = discountRepository.findByRatePlan_RatePlanId(ratePlanId);
-            if (!discounts.isEmpty()) {
-                discountMap.put(ratePlanId, discounts);
-            }
-            
-            // Freemiums
-            var freemiums = freemiumRepository.findByRatePlan_RatePlanId(ratePlanId);
-            if (!freemiums.isEmpty()) {
-                freemiumMap.put(ratePlanId, freemiums);
-            }
-            
-            // Minimum commitments
-            var minimumCommitments = minimumCommitmentRepository.findByRatePlan_RatePlanId(ratePlanId);
-            if (!minimumCommitments.isEmpty()) {
-                minimumCommitmentMap.put(ratePlanId, minimumCommitments);
-            }
+    /**
+     * Fill the requested pricing/extras sections (see {@link RatePlanFields}) of DTOs that carry their
+     * ratePlanId. Each requested section is one IN-list query per chunk of ids; sections not requested
+     * are neither queried nor set.
+     */
+    @Transactional(readOnly = true)
+    public void applyPricingBatch(List<RatePlanDTO> dtos, Set<String> sections) {
+        if (dtos.isEmpty() || sections.isEmpty()) {
+            return;
         }
+        Map<Long, RatePlanDTO> byId = new LinkedHashMap<>();
+        dtos.forEach(dto -> byId.put(dto.getRatePlanId(), dto));
+        List<Long> ratePlanIds = new ArrayList<>(byId.keySet());
 
-        // Build DTOs using pre-loaded data - build manually to avoid N+1 queries
-        return ratePlans.stream().map(ratePlan -> {
-            Long ratePlanId = ratePlan.getRatePlanId();
-            
-            // Build DTO manually with core fields
-            RatePlanDTO dto = RatePlanDTO.builder()
-                    .ratePlanId(ratePlanId)
-                    .ratePlanCode(ratePlan.getRatePlanCode())
-                    .ratePlanName(ratePlan.getRatePlanName())
-                    .description(ratePlan.getDescription())
-                    .billingFrequency(ratePlan.getBillingFrequency())
-                    .productId(ratePlan.getProduct() != null ? ratePlan.getProduct().getProductId() : null)
-                    .productName(ratePlan.getProduct() != null ? ratePlan.getProduct().getProductName() : null)
-                    .icon(ratePlan.getProduct() != null ? ratePlan.getProduct().getIcon() : null)
-                    .status(ratePlan.getStatus())
-                    .paymentType(ratePlan.getPaymentType())
-                    .billableMetricId(ratePlan.getBillableMetricId())
-                    .createdOn(ratePlan.getCreatedOn())
-                    .lastUpdated(ratePlan.getLastUpdated())
-                    .build();
-
-            // Set pricing configurations from pre-loaded maps
-            if (flatFeeMap.containsKey(ratePlanId)) {
-                dto.setFlatFee(flatFeeMapper.toDTO(flatFeeMap.get(ratePlanId)));
+        // ⚡ Batch fetch all related data: one IN-list query per table (per chunk of ids),
+        // tiers fetch-joined with their pricing
+        if (sections.contains(RatePlanFields.FLAT_FEE)) {
+            for (FlatFee flatFee : loadInChunks(ratePlanIds, flatFeeRepository::findByRatePlanIdIn)) {
+                RatePlanDTO dto = byId.get(flatFee.getRatePlanId());
+                if (dto.getFlatFee() == null) {
+                    dto.setFlatFee(flatFeeMapper.toDTO(flatFee));
+                }
             }
+        }
+        if (sections.contains(RatePlanFields.TIERED_PRICINGS)) {
+            fill(byId, loadInChunks(ratePlanIds, tieredPricingRepository::findWithTiersByRatePlanIdIn),
+                    p -> p.getRatePlan().getRatePlanId(), tieredPricingMapper::toDTO, RatePlanDTO::setTieredPricings);
+        }
+        if (sections.contains(RatePlanFields.VOLUME_PRICINGS)) {
+            fill(byId, loadInChunks(ratePlanIds, volumePricingRepository::findWithTiersByRatePlanIdIn),
+                    p -> p.getRatePlan().getRatePlanId(), volumePricingMapper::toDTO, RatePlanDTO::setVolumePricings);
+        }
+        if (sections.contains(RatePlanFields.USAGE_BASED_PRICINGS)) {
+            fill(byId, loadInChunks(ratePlanIds, usageBasedPricingRepository::findByRatePlanRatePlanIdIn),
+                    p -> p.getRatePlan().getRatePlanId(), usageBasedPricingMapper::toDTO, RatePlanDTO::setUsageBasedPricings);
+        }
+        if (sections.contains(RatePlanFields.STAIR_STEP_PRICINGS)) {
+            fill(byId, loadInChunks(ratePlanIds, stairStepPricingRepository::findWithTiersByRatePlanIdIn),
+                    p -> p.getRatePlan().getRatePlanId(), stairStepPricingMapper::toDTO, RatePlanDTO::setStairStepPricings);
+        }
 
-            dto.setTieredPricings(
-                    tieredPricingMap.getOrDefault(ratePlanId, List.of()).stream()
-                            .map(tieredPricingMapper::toDTO)
-                            .collect(Collectors.toList())
-            );
-
-            dto.setVolumePricings(
-                    volumePricingMap.getOrDefault(ratePlanId, List.of()).stream()
-                            .map(volumePricingMapper::toDTO)
-                            .collect(Collectors.toList())
-            );
+        // Extras
+        if (sections.contains(RatePlanFields.SETUP_FEES)) {
+            fill(byId, loadInChunks(ratePlanIds, setupFeeRepository::findByRatePlan_RatePlanIdIn),
+                    e -> e.getRatePlan().getRatePlanId(), setupFeeMapper::toDTO, RatePlanDTO::setSetupFees);
+        }
+        if (sections.contains(RatePlanFields.DISCOUNTS)) {
+            fill(byId, loadInChunks(ratePlanIds, discountRepository::findByRatePlan_RatePlanIdIn),
+                    e -> e.getRatePlan().getRatePlanId(), discountMapper::toDTO, RatePlanDTO::setDiscounts);
+        }
+        if (sections.contains(RatePlanFields.FREEMIUMS)) {
+            fill(byId, loadInChunks(ratePlanIds, freemiumRepository::findWithRatePlanByRatePlanIdIn),
+                    e -> e.getRatePlan().getRatePlanId(), freemiumMapper::toDTO, RatePlanDTO::setFreemiums);
+        }
+        if (sections.contains(RatePlanFields.MINIMUM_COMMITMENTS)) {
+            fill(byId, loadInChunks(ratePlanIds, minimumCommitmentRepository::findWithRatePlanByRatePlanIdIn),
+                    e -> e.getRatePlan().getRatePlanId(), minimumCommitmentMapper::toDTO, RatePlanDTO::setMinimumCommitments);
+        }
+    }
 
-            dto.setUsageBasedPricings(
-                    usageBasedPricingMap.getOrDefault(ratePlanId, List.of()).stream()
-                            .map(usageBasedPricingMapper::toDTO)
-                            .collect(Collectors.toList())
-            );
+    private static RatePlanDTO coreDTO(RatePlan ratePlan) {
+        return RatePlanDTO.builder()
+                .ratePlanId(ratePlan.getRatePlanId())
+                .ratePlanCode(ratePlan.getRatePlanCode())
+                .ratePlanName(ratePlan.getRatePlanName())
+                .description(ratePlan.getDescription())
+                .billingFrequency(ratePlan.getBillingFrequency())
+                .productId(ratePlan.getProduct() != null ? ratePlan.getProduct().getProductId() : null)
+                .productName(ratePlan.getProduct() != null ? ratePlan.getProduct().getProductName() : null)
+                .icon(ratePlan.getProduct() != null ? ratePlan.getProduct().getIcon() : null)
+                .status(ratePlan.getStatus())
+                .paymentType(ratePlan.getPaymentType())
+                .billableMetricId(ratePlan.getBillableMetricId())
+                .createdOn(ratePlan.getCreatedOn())
+                .lastUpdated(ratePlan.getLastUpdated())
+                .build();
+    }
 
-            dto.setStairStepPricings(
-                    stairStepPricingMap.getOrDefault(ratePlanId, List.of()).stream()
-                            .map(stairStepPricingMapper::toDTO)
-                            .collect(Collectors.toList())
-            );
+    /** Group batch-loaded rows by rate plan and set each DTO's list (empty when it has none). */
+    private static <E, D> void fill(Map<Long, RatePlanDTO> byId, List<E> rows, Function<E, Long> ratePlanId,
+                                    Function<E, D> toDTO, BiConsumer<RatePlanDTO, List<D>> setter) {
+        Map<Long, List<E>> grouped = groupByRatePlan(rows, ratePlanId);
+        byId.forEach((id, dto) -> setter.accept(dto, grouped.getOrDefault(id, List.of()).stream()
+                .map(toDTO)
+                .collect(Collectors.toList())));
+    }
 
-            // Set extras from pre-loaded maps
-            dto.setSetupFees(
-                    setupFeeMap.getOrDefault(ratePlanId, List.of()).stream()
-                            .map(setupFeeMapper::toDTO)
-                            .collect(Collectors.toList())
-            );
-            
-            dto.setDiscounts(
-                    discountMap.getOrDefault(ratePlanId, List.of()).stream()
-                            .map(discountMapper::toDTO)
-                            .collect(Collectors.toList())
-            );
-            
-            dto.setFreemiums(
-                    freemiumMap.getOrDefault(ratePlanId, List.of()).stream()
-                            .map(freemiumMapper::toDTO)
-                            .collect(Collectors.toList())
-            );
-            
-            dto.setMinimumCommitments(
-                    minimumCommitmentMap.getOrDefault(ratePlanId, List.of()).stream()
-                            .map(minimumCommitmentMapper::toDTO)
-                            .collect(Collectors.toList())
-            );
+    /**
+     * Run an IN-list query over the ids in chunks of at most {@code inListChunkSize},
+     * keeping each statement within database parameter limits.
+     */
+    private <T> List<T> loadInChunks(List<Long> ids, Function<List<Long>, List<T>> query) {
+        if (ids.size() <= inListChunkSize) {
+            return query.apply(ids);
+        }
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += inListChunkSize) {
+            result.addAll(query.apply(ids.subList(from, Math.min(ids.size(), from + inListChunkSize))));
+        }
+        return result;
+    }
 
-            return dto;
-        }).collect(Collectors.toList());
+    private static <T> Map<Long, List<T>> groupByRatePlan(List<T> rows, Function<T, Long> ratePlanId) {
+        Map<Long, List<T>> grouped = new HashMap<>();
+        for (T row : rows) {
+            grouped.computeIfAbsent(ratePlanId.apply(row), id -> new ArrayList<>()).add(row);
+        }
+        return grouped;
     }
 
     /**
      * Get detailed rate plan with all pricing configurations (cached)
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "ratePlans", key = "'detailed_' + #ratePlan.ratePlanId + '_' + T(aforo.productrateplanservice.tenant.TenantContext).require()")
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    @Cacheable(value = "ratePlans", key = "'detailed_' + #ratePlan.ratePlanId + '_' + T(aforo.productrateplanservice.tenant.TenantContext).require()", sync = true)
     public RatePlanDTO getDetailedRatePlan(RatePlan ratePlan) {
         return toDetailedDTO(ratePlan);
     }
@@ -335,7 +306,7 @@ public class RatePlanPricingAggregationService {
      * Get all detailed rate plans with batch optimization (cached)
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "ratePlans", key = "'detailed_all_' + T(aforo.productrateplanservice.tenant.TenantContext).require()")
+    @Cacheable(value = "ratePlans", key = "'detailed_all_' + T(aforo.productrateplanservice.tenant.TenantContext).require()", sync = true)
     public List<RatePlanDTO> getAllDetailedRatePlans(List<RatePlan> ratePlans) {
         return toDetailedDTOsBatch(ratePlans);
     }
@@ -0,0 +1,108 @@
+package aforo.productrateplanservice.rate_plan.service;
+
+import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.model.FieldSelection;
+import aforo.productrateplanservice.product.entity.Product;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanFields;
+import aforo.productrateplanservice.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 🎯 Sparse-fieldset reads of rate plans ({@code fields=}).
+ * Selects only the requested columns as a tuple projection (joining the product only for product
+ * fields) and batch-loads only the requested pricing/extras sections.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatePlanProjectionService {
+
+    private static final String PRODUCT_PATH = "product.";
+
+    private final EntityManager entityManager;
+    private final RatePlanPricingAggregationService pricingAggregationService;
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllRatePlans(FieldSelection fields) {
+        return query(fields, null);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRatePlanById(Long ratePlanId, FieldSelection fields) {
+        List<Map<String, Object>> rows = query(fields, ratePlanId);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Rate plan not found with ID: " + ratePlanId);
+        }
+        return rows.get(0);
+    }
+
+    private List<Map<String, Object>> query(FieldSelection fields, Long ratePlanId) {
+        Long orgId = TenantContext.require();
+        List<String> columns = fields.fields().stream()
+                .filter(RatePlanFields.COLUMNS::containsKey)
+                .collect(Collectors.toList());
+        Set<String> sections = fields.fields().stream()
+                .filter(RatePlanFields.SECTIONS::containsKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<RatePlan> root = query.from(RatePlan.class);
+        Join<RatePlan, Product> product = null;
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            String path = RatePlanFields.COLUMNS.get(column);
+            if (path.startsWith(PRODUCT_PATH)) {
+                if (product == null) {
+                    product = root.join("product", JoinType.LEFT); // plans without a product stay in the result
+                }
+                selections.add(product.get(path.substring(PRODUCT_PATH.length())).alias(column));
+            } else {
+                selections.add(root.get(path).alias(column));
+            }
+        }
+        query.multiselect(selections);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("organizationId"), orgId));
+        if (ratePlanId != null) {
+            predicates.add(cb.equal(root.get("ratePlanId"), ratePlanId));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get("ratePlanId")));
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+
+        // Only the requested pricing/extras sections are loaded, one batch query each
+        List<RatePlanDTO> pricing = tuples.stream()
+                .map(t -> RatePlanDTO.builder().ratePlanId(t.get("ratePlanId", Long.class)).build())
+                .collect(Collectors.toList());
+        pricingAggregationService.applyPricingBatch(pricing, sections);
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (int i = 0; i < tuples.size(); i++) {
+            Tuple tuple = tuples.get(i);
+            RatePlanDTO dto = pricing.get(i);
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields.fields()) {
+                row.put(field, sections.contains(field)
+                        ? RatePlanFields.SECTIONS.get(field).apply(dto)
+                        : tuple.get(field));
+            }
+            rows.add(row);
+        }
+        log.debug("Projected {} rate plans with fields {}", rows.size(), fields.fields());
+        return rows;
+    }
+}
@@ -0,0 +1,72 @@
+package aforo.productrateplanservice.rate_plan.snapshot;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 📸 Materialized read model of one rate plan: the fully assembled {@code RatePlanDTO} as JSON
+ * (JSONB on Postgres). {@code version} increases by one on every refresh; {@code stale} marks rows
+ * that a bulk change invalidated and the next read must rebuild.
+ */
+@Entity
+@Table(name = "rate_plan_snapshot")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RatePlanSnapshot implements Persistable<Long> {
+
+    @Id
+    @Column(name = "rate_plan_id")
+    private Long ratePlanId;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "stale", nullable = false)
+    private boolean stale;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newSnapshot;
+
+    static RatePlanSnapshot create(Long ratePlanId, Long organizationId) {
+        RatePlanSnapshot snapshot = new RatePlanSnapshot();
+        snapshot.ratePlanId = ratePlanId;
+        snapshot.organizationId = organizationId;
+        snapshot.newSnapshot = true;
+        return snapshot;
+    }
+
+    @Override
+    public Long getId() {
+        return ratePlanId;
+    }
+
+    /** Lets {@code save} insert a new snapshot directly instead of merging (which would select first). */
+    @Override
+    public boolean isNew() {
+        return newSnapshot;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        newSnapshot = false;
+    }
+}
@@ -0,0 +1,44 @@
+package aforo.productrateplanservice.rate_plan.snapshot;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RatePlanSnapshotRepository extends JpaRepository<RatePlanSnapshot, Long> {
+
+    Optional<RatePlanSnapshot> findByRatePlanIdAndOrganizationId(Long ratePlanId, Long organizationId);
+
+    @Query("select new aforo.productrateplanservice.rate_plan.snapshot.RatePlanVersion(r.lastUpdated, s.version, s.stale) "
+            + "from RatePlan r join RatePlanSnapshot s on s.ratePlanId = r.ratePlanId "
+            + "where r.ratePlanId = :ratePlanId and r.organizationId = :organizationId")
+    Optional<RatePlanVersion> findVersion(@Param("ratePlanId") Long ratePlanId,
+                                          @Param("organizationId") Long organizationId);
+
+    // Compare-and-set used by lock-free rebuilds on read: only replaces the version the rebuild started from
+    @Modifying
+    @Query("update RatePlanSnapshot s set s.payload = :payload, s.version = s.version + 1, s.stale = false, "
+            + "s.refreshedAt = :refreshedAt where s.ratePlanId = :ratePlanId and s.version = :version")
+    int replaceIfVersion(@Param("ratePlanId") Long ratePlanId, @Param("version") long version,
+                         @Param("payload") String payload, @Param("refreshedAt") LocalDateTime refreshedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update RatePlanSnapshot s set s.stale = true, s.version = s.version + 1 where s.ratePlanId = :ratePlanId")
+    int markStale(@Param("ratePlanId") Long ratePlanId);
+
+    @Transactional
+    @Modifying
+    @Query("update RatePlanSnapshot s set s.stale = true, s.version = s.version + 1 where s.organizationId = :organizationId")
+    int markStaleByOrganizationId(@Param("organizationId") Long organizationId);
+
+    @Transactional
+    @Modifying
+    @Query("update RatePlanSnapshot s set s.stale = true, s.version = s.version + 1 where s.ratePlanId in "
+            + "(select r.ratePlanId from RatePlan r where r.product.productId = :productId)")
+    int markStaleByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,209 @@
+package aforo.productrateplanservice.rate_plan.snapshot;
+
+import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 📸 Maintains the {@code rate_plan_snapshot} read model.
+ *
+ * Pricing and extras writes refresh the snapshot just before their transaction commits, so the new
+ * payload becomes visible atomically with the change; those refreshes hold the rate plan row lock, which
+ * serializes concurrent writers. Bulk changes only mark rows stale (bumping their version); the next read
+ * rebuilds them without any lock and stores the result only if the version it started from is still
+ * there, so a reader never overwrites a newer refresh and never waits for another reader.
+ */
+@Service
+@Slf4j
+public class RatePlanSnapshotService {
+
+    /** Storage format of the payload, independent of the API's display formatting. */
+    private static final ObjectMapper SNAPSHOT_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final RatePlanSnapshotRepository snapshotRepository;
+    private final RatePlanRepository ratePlanRepository;
+    private final RatePlanPricingAggregationService pricingAggregationService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public RatePlanSnapshotService(RatePlanSnapshotRepository snapshotRepository,
+                                   RatePlanRepository ratePlanRepository,
+                                   RatePlanPricingAggregationService pricingAggregationService,
+                                   PlatformTransactionManager transactionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.ratePlanRepository = ratePlanRepository;
+        this.pricingAggregationService = pricingAggregationService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The stored rate plan when its snapshot is current; empty when it is missing or stale.
+     */
+    @Transactional(readOnly = true)
+    public Optional<RatePlanDTO> findCurrent(Long ratePlanId, Long organizationId) {
+        return snapshotRepository.findByRatePlanIdAndOrganizationId(ratePlanId, organizationId)
+                .filter(snapshot -> !snapshot.isStale())
+                .map(RatePlanSnapshotService::read);
+    }
+
+    /**
+     * Build the rate plan from its pricing tables and store it, unless a concurrent caller already did.
+     * Takes no row lock: the plan and snapshot version are read in a short read-only transaction, the
+     * pricing is loaded after it (so {@code ParallelPricingLoader} may fan out), and the store is a
+     * compare-and-set on the version that was read, so a refresh or rebuild that got there first wins
+     * and this caller just serves what it built.
+     */
+    public RatePlanDTO rebuild(Long ratePlanId, Long organizationId) {
+        Rebuild rebuild = readTransaction.execute(status -> {
+            // product is fetched with the plan: the DTO is assembled after this transaction ends
+            RatePlan ratePlan = ratePlanRepository.findByRatePlanIdAndOrganizationId(ratePlanId, organizationId)
+                    .orElseThrow(() -> new NotFoundException("Rate plan not found with ID: " + ratePlanId));
+            Optional<RatePlanSnapshot> existing = snapshotRepository.findById(ratePlanId);
+            if (existing.isPresent() && !existing.get().isStale()) {
+                return new Rebuild(null, read(existing.get()), null);
+            }
+            return new Rebuild(ratePlan, null, existing.map(RatePlanSnapshot::getVersion).orElse(null));
+        });
+        if (rebuild.current() != null) {
+            return rebuild.current();
+        }
+        log.debug("📸 Rebuilding snapshot for ratePlanId: {}", ratePlanId);
+        RatePlanDTO dto = pricingAggregationService.toDetailedDTO(rebuild.ratePlan());
+        store(ratePlanId, organizationId, dto, rebuild.fromVersion());
+        return dto;
+    }
+
+    private void store(Long ratePlanId, Long organizationId, RatePlanDTO dto, Long fromVersion) {
+        String payload = serialize(dto);
+        try {
+            boolean stored = Boolean.TRUE.equals(writeTransaction.execute(status -> {
+                if (fromVersion != null) {
+                    return snapshotRepository.replaceIfVersion(ratePlanId, fromVersion, payload, LocalDateTime.now()) == 1;
+                }
+                RatePlanSnapshot snapshot = RatePlanSnapshot.create(ratePlanId, organizationId);
+                snapshot.setPayload(payload);
+                snapshot.setVersion(1);
+                snapshot.setRefreshedAt(LocalDateTime.now());
+                snapshotRepository.saveAndFlush(snapshot);
+                return true;
+            }));
+            if (!stored) {
+                log.debug("📸 Snapshot for ratePlanId: {} changed while rebuilding, keeping the newer one", ratePlanId);
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("📸 Snapshot for ratePlanId: {} was created concurrently, keeping it", ratePlanId);
+        }
+    }
+
+    /** Either the current snapshot, or the plan to build and the snapshot version it replaces. */
+    private record Rebuild(RatePlan ratePlan, RatePlanDTO current, Long fromVersion) {
+    }
+
+    /**
+     * Refresh the snapshot of a rate plan just before the current transaction commits (once per plan,
+     * however many writes the transaction makes). Outside a transaction the snapshot is marked stale.
+     */
+    public void refreshOnCommit(Long ratePlanId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            snapshotRepository.markStale(ratePlanId);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> ratePlanIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ratePlanIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    ratePlanIds.forEach(RatePlanSnapshotService.this::refresh);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RatePlanSnapshotService.this);
+                }
+            });
+            pending = ratePlanIds;
+        }
+        pending.add(ratePlanId);
+    }
+
+    /** Mark every snapshot of a tenant stale (bulk rate plan changes). */
+    public void markTenantStale(Long organizationId) {
+        int marked = snapshotRepository.markStaleByOrganizationId(organizationId);
+        log.debug("📸 Marked {} snapshots stale for orgId: {}", marked, organizationId);
+    }
+
+    /** Mark the snapshots of a product's rate plans stale (they embed product details). */
+    public void markProductStale(Long productId) {
+        int marked = snapshotRepository.markStaleByProductId(productId);
+        log.debug("📸 Marked {} snapshots stale for productId: {}", marked, productId);
+    }
+
+    private void refresh(Long ratePlanId) {
+        Optional<RatePlan> ratePlan = ratePlanRepository.findByIdForUpdate(ratePlanId);
+        if (ratePlan.isEmpty()) {
+            snapshotRepository.findById(ratePlanId).ifPresent(snapshotRepository::delete);
+            return;
+        }
+        write(ratePlan.get(), snapshotRepository.findById(ratePlanId));
+    }
+
+    private RatePlanDTO write(RatePlan ratePlan, Optional<RatePlanSnapshot> existing) {
+        RatePlanDTO dto = pricingAggregationService.toDetailedDTO(ratePlan);
+
+        RatePlanSnapshot snapshot = existing
+                .orElseGet(() -> RatePlanSnapshot.create(ratePlan.getRatePlanId(), ratePlan.getOrganizationId()));
+        snapshot.setPayload(serialize(dto));
+        snapshot.setVersion(snapshot.getVersion() + 1);
+        snapshot.setStale(false);
+        snapshot.setRefreshedAt(LocalDateTime.now());
+        snapshotRepository.save(snapshot);
+        return dto;
+    }
+
+    private static String serialize(RatePlanDTO dto) {
+        try {
+            return SNAPSHOT_MAPPER.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize rate plan snapshot " + dto.getRatePlanId(), e);
+        }
+    }
+
+    private static RatePlanDTO read(RatePlanSnapshot snapshot) {
+        try {
+            return SNAPSHOT_MAPPER.readValue(snapshot.getPayload(), RatePlanDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read rate plan snapshot " + snapshot.getRatePlanId(), e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package aforo.productrateplanservice.rate_plan.snapshot;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the ETag of a rate plan is derived from: the plan's own {@code lastUpdated} plus its snapshot
+ * version, which every pricing/extras write bumps (those writes don't touch {@code lastUpdated}).
+ */
+public record RatePlanVersion(LocalDateTime lastUpdated, long version, boolean stale) {
+}
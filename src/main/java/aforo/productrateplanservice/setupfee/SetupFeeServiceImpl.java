@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -23,6 +24,7 @@ public class SetupFeeServiceImpl implements SetupFeeService {
     private final CacheInvalidationService cacheInvalidationService;
 
     @Override
+    @Transactional
     public SetupFeeDTO create(Long ratePlanId, SetupFeeCreateUpdateDTO dto) {
         RatePlan ratePlan = ratePlanRepository.findById(ratePlanId)
                 .orElseThrow(() -> new NotFoundException("RatePlan not found"));
@@ -44,6 +46,7 @@ public class SetupFeeServiceImpl implements SetupFeeService {
     
 
     @Override
+    @Transactional
     public SetupFeeDTO update(Long ratePlanId, Long id, SetupFeeCreateUpdateDTO dto) {
         SetupFee existing = setupFeeRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("SetupFee not found"));
@@ -62,6 +65,7 @@ public class SetupFeeServiceImpl implements SetupFeeService {
     }
 
     @Override
+    @Transactional
 public void delete(Long ratePlanId, Long id) {
     SetupFee entity = setupFeeRepository.findById(id)
         .orElseThrow(() -> new NotFoundException("SetupFee not found"));
@@ -105,6 +109,7 @@ public SetupFeeDTO getById(Long ratePlanId, Long id) {
     }
 
     @Override
+    @Transactional
     public SetupFeeDTO partialUpdate(Long ratePlanId, Long id, SetupFeeCreateUpdateDTO dto) {
         SetupFee existing = setupFeeRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("SetupFee not found"));
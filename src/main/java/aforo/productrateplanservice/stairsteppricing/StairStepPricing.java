@@ -4,6 +4,7 @@ import aforo.productrateplanservice.enums.RatePlanType;
 import aforo.productrateplanservice.rate_plan.RatePlan;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import java.util.List;
 import java.math.BigDecimal;
 
@@ -22,6 +23,7 @@ public class StairStepPricing {
     private Long stairStepPricingId;
 
     @OneToMany(mappedBy = "stairStepPricing", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50) // lazy loads of several pricings' tiers share one IN query
     private List<StairStepTier> tiers;
     
 
@@ -1,9 +1,24 @@
 package aforo.productrateplanservice.stairsteppricing;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface StairStepPricingRepository extends JpaRepository<StairStepPricing, Long> {
+    /** Pricings of a rate plan with their tiers in one query (the mapper reads every tier). */
+    @EntityGraph(attributePaths = "tiers")
     List<StairStepPricing> findByRatePlanRatePlanId(Long ratePlanId);
+
+    @Override
+    @EntityGraph(attributePaths = "tiers")
+    Optional<StairStepPricing> findById(Long id);
+
+    /** Pricings of many rate plans with their tiers in one query. */
+    @Query("select distinct s from StairStepPricing s left join fetch s.tiers where s.ratePlan.ratePlanId in :ratePlanIds")
+    List<StairStepPricing> findWithTiersByRatePlanIdIn(@Param("ratePlanIds") Collection<Long> ratePlanIds);
 }
@@ -10,6 +10,7 @@ import aforo.productrateplanservice.volumepricing.VolumePricingRepository;
 import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -27,6 +28,7 @@ public class StairStepPricingServiceImpl implements StairStepPricingService {
     private final CacheInvalidationService cacheInvalidationService;
 
     @Override
+    @Transactional
     public StairStepPricingDTO create(Long ratePlanId, StairStepPricingCreateUpdateDTO dto) {
         // ✅ Validate RatePlan
         RatePlan ratePlan = ratePlanRepository.findById(ratePlanId)
@@ -59,6 +61,7 @@ public class StairStepPricingServiceImpl implements StairStepPricingService {
     }
 
     @Override
+    @Transactional
     public StairStepPricingDTO update(Long ratePlanId, Long stairStepPricingId, StairStepPricingCreateUpdateDTO dto) {
         // ✅ Validate existing StairStepPricing
         StairStepPricing existing = repository.findById(stairStepPricingId)
@@ -104,10 +107,12 @@ public class StairStepPricingServiceImpl implements StairStepPricingService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        if (!repository.existsById(id)) {
-            throw new ResourceNotFoundException("StairStepPricing not found with ID: " + id);
-        }
+        StairStepPricing entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("StairStepPricing not found with ID: " + id));
+        Long ratePlanId = entity.getRatePlan().getRatePlanId();
         repository.deleteById(id);
+        cacheInvalidationService.invalidateRatePlanCaches(ratePlanId);
     }
 }
@@ -20,10 +20,10 @@ public class StairStepTier {
     private Long stairStepTierId;
 
     @Column(name = "usage_start", nullable = false)
-    private Integer usageStart;
+    private Long usageStart;
 
     @Column(name = "usage_end")
-    private Integer usageEnd; // nullable → means "no upper limit"
+    private Long usageEnd; // nullable → means "no upper limit"
 
     @Column(name = "flat_cost", nullable = false)
     private BigDecimal flatCost;
@@ -13,9 +13,9 @@ import java.math.BigDecimal;
 public class StairStepTierCreateUpdateDTO {
 
     @NotNull
-    private Integer usageStart;
+    private Long usageStart;
 
-    private Integer usageEnd; // optional
+    private Long usageEnd; // optional
 
     @NotNull
     private BigDecimal flatCost;
@@ -13,9 +13,9 @@ public class StairStepTierDTO {
 
     private Long stairStepTierId;
 
-    private Integer usageStart;
+    private Long usageStart;
 
-    private Integer usageEnd;
+    private Long usageEnd;
 
     private BigDecimal flatCost;
 }
@@ -4,6 +4,7 @@ import aforo.productrateplanservice.rate_plan.RatePlan;
 import aforo.productrateplanservice.enums.RatePlanType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 
@@ -35,5 +36,6 @@ public class TieredPricing {
     private final RatePlanType ratePlanType = RatePlanType.TIERED;
 
     @OneToMany(mappedBy = "tieredPricing", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50) // lazy loads of several pricings' tiers share one IN query
     private java.util.List<TieredTier> tiers = new java.util.ArrayList<>();
 }
@@ -1,9 +1,24 @@
 package aforo.productrateplanservice.tieredpricing;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TieredPricingRepository extends JpaRepository<TieredPricing, Long> {
+    /** Pricings of a rate plan with their tiers in one query (the mapper reads every tier). */
+    @EntityGraph(attributePaths = "tiers")
     List<TieredPricing> findByRatePlan_RatePlanId(Long ratePlanId);
+
+    @Override
+    @EntityGraph(attributePaths = "tiers")
+    Optional<TieredPricing> findById(Long id);
+
+    /** Pricings of many rate plans with their tiers in one query. */
+    @Query("select distinct t from TieredPricing t left join fetch t.tiers where t.ratePlan.ratePlanId in :ratePlanIds")
+    List<TieredPricing> findWithTiersByRatePlanIdIn(@Param("ratePlanIds") Collection<Long> ratePlanIds);
 }
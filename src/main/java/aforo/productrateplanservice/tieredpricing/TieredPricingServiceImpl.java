@@ -110,9 +110,10 @@ public class TieredPricingServiceImpl implements TieredPricingService {
     @Override
     @Transactional
     public void deleteById(Long tieredPricingId) {
-        if (!tieredPricingRepository.existsById(tieredPricingId)) {
-            throw new ResourceNotFoundException("TieredPricing not found with ID: " + tieredPricingId);
-        }
+        TieredPricing entity = tieredPricingRepository.findById(tieredPricingId)
+                .orElseThrow(() -> new ResourceNotFoundException("TieredPricing not found with ID: " + tieredPricingId));
+        Long ratePlanId = entity.getRatePlan().getRatePlanId();
         tieredPricingRepository.deleteById(tieredPricingId);
+        cacheInvalidationService.invalidateRatePlanCaches(ratePlanId);
     }
 }
@@ -20,10 +20,10 @@ public class TieredTier {
     private Long tieredTierId;
 
     @Column(name = "start_range", nullable = false)
-    private Integer startRange;
+    private Long startRange;
 
     @Column(name = "end_range")
-    private Integer endRange;
+    private Long endRange;
 
     @Column(name = "unit_price", nullable = false)
     private BigDecimal unitPrice;
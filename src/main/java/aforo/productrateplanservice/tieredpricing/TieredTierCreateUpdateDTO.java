@@ -12,8 +12,8 @@ import java.math.BigDecimal;
 @Builder
 public class TieredTierCreateUpdateDTO {
     @NotNull
-    private Integer startRange;
-    private Integer endRange;
+    private Long startRange;
+    private Long endRange;
     @NotNull
     private BigDecimal unitPrice;
 
@@ -11,7 +11,7 @@ import java.math.BigDecimal;
 @Builder
 public class TieredTierDTO {
     private Long tieredTierId;
-    private Integer startRange;
-    private Integer endRange;
+    private Long startRange;
+    private Long endRange;
     private BigDecimal unitPrice;
 }
@@ -12,11 +12,11 @@ public class TieredTiersValidator implements ConstraintValidator<ValidTieredTier
         List<TieredTierCreateUpdateDTO> tiers = dto.getTiers();
         if (tiers == null || tiers.isEmpty()) return true; // @NotNull/@NotEmpty handled elsewhere
 
-        int prevEnd = -1;
-        Set<Integer> seenStarts = new HashSet<>();
+        long prevEnd = -1;
+        Set<Long> seenStarts = new HashSet<>();
         for (TieredTierCreateUpdateDTO tier : tiers) {
-            Integer start = tier.getStartRange();
-            Integer end = tier.getEndRange();
+            Long start = tier.getStartRange();
+            Long end = tier.getEndRange();
 
             if (start == null) return false;
             if (seenStarts.contains(start)) return false; // duplicate start
@@ -28,7 +28,7 @@ public class TieredTiersValidator implements ConstraintValidator<ValidTieredTier
             // No overlaps: current start must be > prevEnd (if prevEnd exists)
             if (prevEnd != -1 && start < prevEnd) return false;
             if (end != null) prevEnd = end;
-            else prevEnd = Integer.MAX_VALUE; // open-ended
+            else prevEnd = Long.MAX_VALUE; // open-ended
         }
         return true;
     }
@@ -1,8 +1,11 @@
 package aforo.productrateplanservice.usagebasedpricing;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
 import java.util.List;
 
 public interface UsageBasedPricingRepository extends JpaRepository<UsageBasedPricing, Long> {
     List<UsageBasedPricing> findByRatePlanRatePlanId(Long ratePlanId);
+
+    List<UsageBasedPricing> findByRatePlanRatePlanIdIn(Collection<Long> ratePlanIds);
 }
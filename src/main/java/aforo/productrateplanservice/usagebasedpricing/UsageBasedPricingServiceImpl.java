@@ -98,9 +98,10 @@ public class UsageBasedPricingServiceImpl implements UsageBasedPricingService {
     @Override
     @Transactional
     public void deleteById(Long id) {
-        if (!repository.existsById(id)) {
-            throw new ResourceNotFoundException("UsageBasedPricing not found with ID: " + id);
-        }
+        UsageBasedPricing entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("UsageBasedPricing not found with ID: " + id));
+        Long ratePlanId = entity.getRatePlan().getRatePlanId();
         repository.deleteById(id);
+        cacheInvalidationService.invalidateRatePlanCaches(ratePlanId);
     }
 }
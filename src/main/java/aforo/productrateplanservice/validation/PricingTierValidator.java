@@ -86,7 +86,7 @@ public class PricingTierValidator {
                 }
                 
                 // Check for gaps or overlaps
-                Integer prevEnd = prevTier.getEndRange();
+                Long prevEnd = prevTier.getEndRange();
                 if (prevEnd != null && currentTier.getStartRange() < prevEnd) {
                     throw new ValidationException(String.format(
                         "%s tier %d: Start range (%d) overlaps with previous tier end range (%d)", 
@@ -131,8 +131,8 @@ public class PricingTierValidator {
      * Interface for tier validation
      */
     public interface TierValidatable {
-        Integer getStartRange();
-        Integer getEndRange();
+        Long getStartRange();
+        Long getEndRange();
         BigDecimal getPrice();
     }
 }
@@ -19,12 +19,12 @@ public class TierValidationAdapters {
         }
 
         @Override
-        public Integer getStartRange() {
+        public Long getStartRange() {
             return dto.getStartRange();
         }
 
         @Override
-        public Integer getEndRange() {
+        public Long getEndRange() {
             return dto.getEndRange();
         }
 
@@ -42,12 +42,12 @@ public class TierValidationAdapters {
         }
 
         @Override
-        public Integer getStartRange() {
+        public Long getStartRange() {
             return dto.getUsageStart();
         }
 
         @Override
-        public Integer getEndRange() {
+        public Long getEndRange() {
             return dto.getUsageEnd();
         }
 
@@ -65,12 +65,12 @@ public class TierValidationAdapters {
         }
 
         @Override
-        public Integer getStartRange() {
+        public Long getStartRange() {
             return dto.getUsageStart();
         }
 
         @Override
-        public Integer getEndRange() {
+        public Long getEndRange() {
             return dto.getUsageEnd();
         }
 
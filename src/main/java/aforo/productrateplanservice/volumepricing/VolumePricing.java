@@ -4,6 +4,7 @@ import aforo.productrateplanservice.enums.RatePlanType;
 import aforo.productrateplanservice.rate_plan.RatePlan;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -27,6 +28,7 @@ public class VolumePricing {
     private RatePlan ratePlan;
 
     @OneToMany(mappedBy = "volumePricing", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50) // lazy loads of several pricings' tiers share one IN query
     private List<VolumeTier> tiers;
 
 
@@ -1,13 +1,26 @@
 package aforo.productrateplanservice.volumepricing;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VolumePricingRepository extends JpaRepository<VolumePricing, Long> {
+    /** Pricings of a rate plan with their tiers in one query (the mapper reads every tier). */
+    @EntityGraph(attributePaths = "tiers")
     List<VolumePricing> findByRatePlanRatePlanId(Long ratePlanId);
+
+    /** Pricings of many rate plans with their tiers in one query. */
+    @Query("select distinct v from VolumePricing v left join fetch v.tiers where v.ratePlan.ratePlanId in :ratePlanIds")
+    List<VolumePricing> findWithTiersByRatePlanIdIn(@Param("ratePlanIds") Collection<Long> ratePlanIds);
+
+    @Override
+    @EntityGraph(attributePaths = "tiers")
     Optional<VolumePricing> findById(Long id);
 }
@@ -10,6 +10,7 @@ import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingRepositor
 import aforo.productrateplanservice.stairsteppricing.StairStepPricingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -27,6 +28,7 @@ public class VolumePricingServiceImpl implements VolumePricingService {
     private final CacheInvalidationService cacheInvalidationService;
 
     @Override
+    @Transactional
     public VolumePricingDTO create(Long ratePlanId, VolumePricingCreateUpdateDTO dto) {
         // ✅ Validate RatePlan
         RatePlan ratePlan = ratePlanRepository.findById(ratePlanId)
@@ -59,6 +61,7 @@ public class VolumePricingServiceImpl implements VolumePricingService {
     }
 
     @Override
+    @Transactional
     public VolumePricingDTO update(Long ratePlanId, Long volumePricingId, VolumePricingCreateUpdateDTO dto) {
         // ✅ Validate existing VolumePricing
         VolumePricing existing = repository.findById(volumePricingId)
@@ -104,10 +107,12 @@ public class VolumePricingServiceImpl implements VolumePricingService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        if (!repository.existsById(id)) {
-            throw new ResourceNotFoundException("VolumePricing not found with ID: " + id);
-        }
+        VolumePricing entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("VolumePricing not found with ID: " + id));
+        Long ratePlanId = entity.getRatePlan().getRatePlanId();
         repository.deleteById(id);
+        cacheInvalidationService.invalidateRatePlanCaches(ratePlanId);
     }
 }
@@ -20,10 +20,10 @@ public class VolumeTier {
     private Long volumeTierId;
 
     @Column(name = "usage_start", nullable = false)
-    private Integer usageStart;
+    private Long usageStart;
 
     @Column(name = "usage_end")
-    private Integer usageEnd; // nullable → unlimited
+    private Long usageEnd; // nullable → unlimited
 
     @Column(name = "unit_price", nullable = false)
     private BigDecimal unitPrice;
@@ -13,9 +13,9 @@ import java.math.BigDecimal;
 public class VolumeTierCreateUpdateDTO {
 
     @NotNull(message = "usageStart is required")
-    private Integer usageStart;
+    private Long usageStart;
 
-    private Integer usageEnd; // optional
+    private Long usageEnd; // optional
 
     @NotNull(message = "unitPrice is required")
     private BigDecimal unitPrice;
@@ -13,9 +13,9 @@ public class VolumeTierDTO {
 
     private Long volumeTierId;
 
-    private Integer usageStart;
+    private Long usageStart;
 
-    private Integer usageEnd;
+    private Long usageEnd;
 
     private BigDecimal unitPrice;
 }
@@ -13,11 +13,11 @@ public class VolumeTiersValidator implements ConstraintValidator<ValidVolumeTier
         if (tiers == null || tiers.isEmpty()) return true; // @NotNull/@NotEmpty handled elsewhere
 
         // Must be ordered by usageStart
-        int prevEnd = -1;
-        Set<Integer> seenStarts = new HashSet<>();
+        long prevEnd = -1;
+        Set<Long> seenStarts = new HashSet<>();
         for (VolumeTierCreateUpdateDTO tier : tiers) {
-            Integer start = tier.getUsageStart();
-            Integer end = tier.getUsageEnd();
+            Long start = tier.getUsageStart();
+            Long end = tier.getUsageEnd();
 
             if (start == null) return false;
             if (seenStarts.contains(start)) return false; // duplicate start
@@ -29,7 +29,7 @@ public class VolumeTiersValidator implements ConstraintValidator<ValidVolumeTier
             // No overlaps: current start must be > prevEnd (if prevEnd exists)
             if (prevEnd != -1 && start < prevEnd) return false;
             if (end != null) prevEnd = end;
-            else prevEnd = Integer.MAX_VALUE; // open-ended
+            else prevEnd = Long.MAX_VALUE; // open-ended
         }
         return true;
     }
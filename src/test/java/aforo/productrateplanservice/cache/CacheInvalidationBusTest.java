@@ -0,0 +1,136 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.estimator.CompiledPricingProgram;
+import aforo.productrateplanservice.estimator.RatePlanProgramCache;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanSnapshotService;
+import aforo.productrateplanservice.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Evictions made on one node reach the other nodes' in-process caches, batched and deduplicated.
+ */
+class CacheInvalidationBusTest {
+
+    private static final String[] REGIONS =
+            {"products", "billableMetrics", "ratePlans", "pricingConfigurations", "validations"};
+    private static final long ORG_ID = 42L;
+    private static final long OTHER_ORG_ID = 43L;
+
+    private final RecordingTransport transport = new RecordingTransport();
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void ratePlanWritesEvictThePeersCopies() {
+        Node a = new Node(new TenantGenerationCacheManager(new ConcurrentMapCacheManager(REGIONS), new TenantCacheGenerations()));
+        Node b = new Node(new TenantGenerationCacheManager(new ConcurrentMapCacheManager(REGIONS), new TenantCacheGenerations()));
+        cache(b, "detailed_7_" + ORG_ID, ORG_ID, "old pricing");
+        cache(b, "detailed_7_" + ORG_ID, OTHER_ORG_ID, "other tenant");
+        b.programs.getOrLoad(ORG_ID, 7L, () -> mock(CompiledPricingProgram.class));
+
+        TenantContext.set(ORG_ID);
+        a.invalidation.invalidateRatePlanCaches(7L);
+        assertEquals(0, transport.batches.size(), "published once the batching window closes");
+        a.bus.flush();
+
+        assertNull(cached(b, "detailed_7_" + ORG_ID, ORG_ID));
+        assertEquals("other tenant", cached(b, "detailed_7_" + ORG_ID, OTHER_ORG_ID));
+        assertEquals(0, b.programs.size(ORG_ID));
+    }
+
+    @Test
+    void bulkWritesAreSentAsOneDeduplicatedBatch() {
+        Node a = new Node(new TenantGenerationCacheManager(new ConcurrentMapCacheManager(REGIONS), new TenantCacheGenerations()));
+        Node b = new Node(new TenantGenerationCacheManager(new ConcurrentMapCacheManager(REGIONS), new TenantCacheGenerations()));
+        cache(b, "basic_all_" + ORG_ID, ORG_ID, "plans");
+
+        TenantContext.set(ORG_ID);
+        for (long ratePlanId = 1; ratePlanId <= 100; ratePlanId++) {
+            a.invalidation.invalidateRatePlanCaches(ratePlanId);
+            a.invalidation.invalidateRatePlanCaches(ratePlanId);
+        }
+        a.invalidation.invalidateAllTenantCaches(ORG_ID);
+        a.bus.flush();
+
+        assertEquals(1, transport.batches.size());
+        // the tenant-wide evictions cover every key and program eviction of the tenant
+        assertEquals(REGIONS.length + 1, transport.batches.get(0).events().size());
+        assertNull(cached(b, "basic_all_" + ORG_ID, ORG_ID));
+    }
+
+    @Test
+    void peersDropTheirL1CopyOfASharedL2Entry() {
+        ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager(REGIONS);
+        redis.setBeanClassLoader(getClass().getClassLoader());
+        redis.setStoreByValue(true);
+        TenantCacheGenerations generations = new TenantCacheGenerations();
+        Node a = new Node(new TenantGenerationCacheManager(TwoTierCacheTest.node(redis, new SimpleMeterRegistry(), 100), generations));
+        Node b = new Node(new TenantGenerationCacheManager(TwoTierCacheTest.node(redis, new SimpleMeterRegistry(), 100), generations));
+        cache(a, "detailed_7_" + ORG_ID, ORG_ID, "v1");
+        assertEquals("v1", cached(b, "detailed_7_" + ORG_ID, ORG_ID)); // now in b's L1
+
+        TenantContext.set(ORG_ID);
+        a.invalidation.invalidateRatePlanCaches(7L);
+        cache(a, "detailed_7_" + ORG_ID, ORG_ID, "v2");
+        assertEquals("v1", cached(b, "detailed_7_" + ORG_ID, ORG_ID), "b's L1 is stale until the batch arrives");
+        a.bus.flush();
+
+        assertEquals("v2", cached(b, "detailed_7_" + ORG_ID, ORG_ID));
+    }
+
+    private static void cache(Node node, String key, long orgId, Object value) {
+        TenantContext.set(orgId);
+        node.cacheManager.getCache("ratePlans").put(key, value);
+        TenantContext.clear();
+    }
+
+    private static Object cached(Node node, String key, long orgId) {
+        TenantContext.set(orgId);
+        try {
+            Cache.ValueWrapper value = node.cacheManager.getCache("ratePlans").get(key);
+            return value != null ? value.get() : null;
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private final class Node {
+        final CacheManager cacheManager;
+        final RatePlanProgramCache programs = new RatePlanProgramCache(16);
+        final CacheInvalidationBus bus;
+        final CacheInvalidationService invalidation;
+
+        Node(CacheManager cacheManager) {
+            this.cacheManager = cacheManager;
+            // a long window and batch size, so each test flushes explicitly
+            this.bus = new CacheInvalidationBus(transport, cacheManager, programs, 60_000, 10_000);
+            this.invalidation = new CacheInvalidationService(cacheManager, programs, mock(RatePlanSnapshotService.class), bus,
+                    mock(CacheWarmUpService.class));
+        }
+    }
+
+    private static final class RecordingTransport extends InMemoryCacheInvalidationTransport {
+
+        private final List<CacheInvalidationBatch> batches = new ArrayList<>();
+
+        @Override
+        public void publish(CacheInvalidationBatch batch) {
+            batches.add(batch);
+            super.publish(batch);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package aforo.productrateplanservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheLoadCoordinatorTest {
+
+    private static final String RATE_PLANS = "ratePlans";
+    private static final String KEY = "t42:g0:detailed_1_42";
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Cache cache = new ConcurrentMapCache(RATE_PLANS);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CacheLoadCoordinator coordinator = coordinator(CacheLoadLock.NONE, 0);
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> coordinator.get(cache, KEY, () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "plan 1";
+                })));
+            }
+            // hold the leader until every other caller is waiting for it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (registry.get("cache.load.waiters").gauge().value() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("plan 1", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(callers - 1, coalesced("local"));
+        assertEquals(0, registry.get("cache.load.waiters").gauge().value());
+    }
+
+    @Test
+    void waitsForTheNodeHoldingTheLoadLock() throws Exception {
+        CacheLoadLock heldElsewhere = new CacheLoadLock() {
+            @Override
+            public String tryAcquire(String key, Duration ttl) {
+                return null;
+            }
+
+            @Override
+            public void release(String key, String token) {
+            }
+        };
+        CacheLoadCoordinator coordinator = coordinator(heldElsewhere, 0);
+        Thread peer = new Thread(() -> {
+            sleep(50);
+            cache.put(KEY, "plan from peer");
+        });
+        peer.start();
+
+        assertEquals("plan from peer", coordinator.get(cache, KEY, this::load));
+        peer.join();
+
+        assertEquals(0, loads.get());
+        assertEquals(1, coalesced("remote"));
+    }
+
+    @Test
+    void hitsRefreshEntriesAheadOfExpiry() {
+        // a beta this large makes any entry that took time to load due right away
+        CacheLoadCoordinator coordinator = coordinator(CacheLoadLock.NONE, 1e12);
+
+        assertEquals("plan 1", coordinator.get(cache, KEY, this::slowLoad));
+        assertEquals("plan 2", coordinator.get(cache, KEY, this::slowLoad));
+        assertEquals("plan 2", cache.get(KEY).get());
+
+        assertEquals(2, loads.get());
+        assertEquals(1, registry.get("cache.load.early.refreshes").counter().count());
+    }
+
+    private CacheLoadCoordinator coordinator(CacheLoadLock lock, double beta) {
+        return new CacheLoadCoordinator(lock, registry, Map.of(RATE_PLANS, Duration.ofMinutes(15)),
+                Duration.ofMinutes(10), beta, Duration.ofSeconds(5), 5);
+    }
+
+    private String load() {
+        return "plan " + loads.incrementAndGet();
+    }
+
+    private String slowLoad() {
+        sleep(5);
+        return load();
+    }
+
+    private double coalesced(String scope) {
+        return registry.get("cache.load.coalesced").tag("scope", scope).counter().count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hottest keys of the invalidated tenant are reloaded in the background, hottest first and at a
+ * bounded rate, without the warm-up's own reads counting as traffic.
+ */
+class CacheWarmUpServiceTest {
+
+    private static final String RATE_PLANS = "ratePlans";
+    private static final long ORG_ID = 42L;
+
+    private CacheAccessFrequencies frequencies = new CacheAccessFrequencies(100);
+    private final List<String> warmed = new CopyOnWriteArrayList<>();
+    private TenantGenerationCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TenantGenerationCacheManager(new ConcurrentMapCacheManager(RATE_PLANS),
+                new TenantCacheGenerations(), CacheLoadCoordinator.local(), frequencies);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void hottestKeysOfTheTenantAreWarmedOnce() throws Exception {
+        read(ORG_ID, "detailed_1_42", 10);
+        read(ORG_ID, "all_detailed_42", 5);
+        read(ORG_ID, "detailed_3_42", 1);
+        read(7L, "detailed_9_7", 20);
+        CacheWarmUpService warmUp = warmUpService(2, 1000);
+
+        warmUp.warmUpTenant(ORG_ID);
+        Map<String, Object> run = awaitRun(warmUp, null);
+
+        assertEquals(List.of("detailed_1_42", "all_detailed_42"), warmed);
+        assertEquals(2, run.get("warmed"));
+        assertEquals("tenant", run.get("trigger")); // no organization ID on the shared actuator endpoint
+        assertEquals(10, frequencies.frequency(new CacheAccessFrequencies.HotKey(RATE_PLANS, ORG_ID, "detailed_1_42")));
+
+        // everything is cached now: nothing to load
+        warmUp.warmUpTenant(ORG_ID);
+        run = awaitRun(warmUp, run);
+        assertEquals(2, warmed.size());
+        assertEquals(2, run.get("skipped"));
+    }
+
+    @Test
+    void databaseLoadIsRateLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            read(ORG_ID, "detailed_" + i + "_42", 1);
+        }
+        CacheWarmUpService warmUp = warmUpService(10, 5);
+
+        long start = System.nanoTime();
+        warmUp.warmUpTenant(ORG_ID);
+        awaitRun(warmUp, null);
+
+        // 5 loads right away, the other 5 over the next second
+        assertEquals(10, warmed.size());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 800);
+    }
+
+    @Test
+    void startupWarmUpAfterARestartUsesTheSnapshotFile(@TempDir Path directory) throws Exception {
+        Path snapshot = directory.resolve("cache/hot-keys.tsv");
+        frequencies = new CacheAccessFrequencies(100, new FileHotKeyStore(snapshot, 500));
+        setUp();
+        read(ORG_ID, "detailed_1_42", 10);
+        read(ORG_ID, "all_detailed_42", 5);
+        read(7L, "detailed_9_7", 20);
+        warmUpService(10, 1000).shutdown(); // saves the hottest keys on the way down
+
+        // restart: new process memory, same file
+        frequencies = new CacheAccessFrequencies(100, new FileHotKeyStore(snapshot, 500));
+        setUp();
+        CacheWarmUpService warmUp = warmUpService(10, 1000);
+        warmUp.warmUpOnStartup();
+        Map<String, Object> run = awaitRun(warmUp, null);
+
+        assertEquals(List.of("detailed_9_7", "detailed_1_42", "all_detailed_42"), warmed);
+        assertEquals(3, run.get("warmed"));
+        // the restored frequencies keep ranking the tenant's keys
+        assertEquals(List.of(new CacheAccessFrequencies.HotKey(RATE_PLANS, ORG_ID, "detailed_1_42"),
+                        new CacheAccessFrequencies.HotKey(RATE_PLANS, ORG_ID, "all_detailed_42")),
+                frequencies.hottest(ORG_ID, 10));
+    }
+
+    @Test
+    void startupWarmUpWithTheMemoryOnlyStoreHasNothingToRestore() throws Exception {
+        read(ORG_ID, "detailed_1_42", 10);
+        warmUpService(10, 1000).shutdown();
+
+        frequencies = new CacheAccessFrequencies(100);
+        setUp();
+        CacheWarmUpService warmUp = warmUpService(10, 1000);
+        warmUp.warmUpOnStartup();
+        Map<String, Object> run = awaitRun(warmUp, null);
+
+        assertEquals(0, run.get("warmed"));
+        assertTrue(warmed.isEmpty());
+    }
+
+    private void read(Long organizationId, String key, int times) {
+        TenantContext.set(organizationId);
+        Cache cache = cacheManager.getCache(RATE_PLANS);
+        for (int i = 0; i < times; i++) {
+            cache.get(key);
+        }
+        TenantContext.clear();
+    }
+
+    private CacheWarmUpService warmUpService(int maxKeysPerTenant, int maxLoadsPerSecond) {
+        CacheWarmer warmer = new CacheWarmer() {
+            @Override
+            public boolean supports(String region, String key) {
+                return RATE_PLANS.equals(region);
+            }
+
+            @Override
+            public void warm(String region, String key) {
+                warmed.add(key);
+                cacheManager.getCache(region).put(key, "plan");
+            }
+        };
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("warmer", warmer));
+        return new CacheWarmUpService(frequencies, cacheManager, beanFactory.getBeanProvider(CacheWarmer.class),
+                new SimpleMeterRegistry(), true, maxKeysPerTenant, 500, maxLoadsPerSecond, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> awaitRun(CacheWarmUpService warmUp, Map<String, Object> previous)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Map<String, Object> last = (Map<String, Object>) warmUp.progress().get("last");
+            if (last != null && !last.equals(previous)) {
+                return last;
+            }
+            Thread.sleep(10);
+        }
+        fail("warm-up did not finish: " + warmUp.progress());
+        return Map.of();
+    }
+}
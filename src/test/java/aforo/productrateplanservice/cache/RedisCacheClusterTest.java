@@ -0,0 +1,247 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.config.CacheConfig;
+import aforo.productrateplanservice.config.CacheInvalidationBusConfig;
+import aforo.productrateplanservice.discount.DiscountDTO;
+import aforo.productrateplanservice.estimator.RatePlanProgramCache;
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanSnapshotService;
+import aforo.productrateplanservice.tenant.TenantContext;
+import aforo.productrateplanservice.tieredpricing.TieredPricingDTO;
+import aforo.productrateplanservice.tieredpricing.TieredTierDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Two nodes wired by {@link CacheConfig} and {@link CacheInvalidationBusConfig} over one real Redis: the
+ * L2 serializer, pub/sub invalidation, shared generations, load locks and hot keys. Skipped without Docker.
+ */
+class RedisCacheClusterTest {
+
+    private static final String RATE_PLANS = "ratePlans";
+    private static final long ORG_ID = 42L;
+
+    private static GenericContainer<?> redis;
+
+    @BeforeAll
+    static void startRedis() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        if (redis != null) {
+            redis.stop();
+        }
+    }
+
+    @BeforeEach
+    void flushRedis() throws Exception {
+        redis.execInContainer("redis-cli", "FLUSHALL");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void dtoCachedByOneNodeIsReadFromL2ByTheOtherAndKeptInItsL1() {
+        twoNodes((a, b) -> {
+            RatePlanDTO plan = ratePlan("v1");
+            cache(a, "detailed_7_" + ORG_ID, plan);
+
+            RatePlanDTO copy = (RatePlanDTO) cached(b, "detailed_7_" + ORG_ID);
+            assertNotSame(plan, copy);
+            assertEquals(plan.getRatePlanName(), copy.getRatePlanName());
+            assertEquals(plan.getStatus(), copy.getStatus());
+            assertEquals(plan.getCreatedOn(), copy.getCreatedOn());
+            assertEquals(0, new BigDecimal("0.25").compareTo(copy.getTieredPricings().get(0).getTiers().get(0).getUnitPrice()));
+            assertEquals(LocalDate.of(2026, 1, 1), copy.getDiscounts().get(0).getStartDate());
+
+            // the second read is served by b's L1
+            assertSame(copy, cached(b, "detailed_7_" + ORG_ID));
+            assertEquals(1, tierGets(b, "l2", "hit"));
+            assertEquals(1, tierGets(b, "l1", "hit"));
+
+            // lists are cached as well as single plans
+            cache(a, "all_detailed_" + ORG_ID, new ArrayList<>(List.of(plan)));
+            assertEquals("v1", ((RatePlanDTO) ((List<?>) cached(b, "all_detailed_" + ORG_ID)).get(0)).getRatePlanName());
+        });
+    }
+
+    @Test
+    void keyEvictionReachesThePeersL1OverPubSub() {
+        twoNodes((a, b) -> {
+            cache(a, "detailed_7_" + ORG_ID, ratePlan("v1"));
+            assertEquals("v1", name(cached(b, "detailed_7_" + ORG_ID))); // now in b's L1
+
+            TenantContext.set(ORG_ID);
+            a.getBean(CacheInvalidationService.class).invalidateRatePlanCaches(7L);
+            TenantContext.clear();
+            cache(a, "detailed_7_" + ORG_ID, ratePlan("v2"));
+
+            awaitEquals("v2", () -> name(cached(b, "detailed_7_" + ORG_ID)));
+        });
+    }
+
+    @Test
+    void tenantInvalidationMovesTheSharedGenerationOnEveryNode() {
+        twoNodes((a, b) -> {
+            cache(a, "detailed_7_" + ORG_ID, ratePlan("v1"));
+            assertEquals("v1", name(cached(b, "detailed_7_" + ORG_ID)));
+
+            a.getBean(CacheInvalidationService.class).invalidateAllTenantCaches(ORG_ID);
+
+            StringRedisTemplate redisTemplate = a.getBean(StringRedisTemplate.class);
+            assertEquals("1", redisTemplate.opsForValue().get("aforo:cache:generation:" + RATE_PLANS + ":" + ORG_ID));
+            assertEquals(1, a.getBean(TenantCacheGenerations.class).current(RATE_PLANS, ORG_ID));
+            // b drops its generation on the peer message, well before shared-refresh-ms
+            awaitEquals(1L, () -> b.getBean(TenantCacheGenerations.class).current(RATE_PLANS, ORG_ID));
+            assertNull(cached(b, "detailed_7_" + ORG_ID));
+        });
+    }
+
+    @Test
+    void loadLockIsExclusiveAndOnlyItsHolderReleasesIt() {
+        twoNodes((a, b) -> {
+            CacheLoadLock lockA = new RedisCacheLoadLock(a.getBean(StringRedisTemplate.class));
+            CacheLoadLock lockB = new RedisCacheLoadLock(b.getBean(StringRedisTemplate.class));
+
+            String token = lockA.tryAcquire("ratePlans::42:0:detailed_7_42", Duration.ofSeconds(5));
+            assertNotNull(token);
+            assertNull(lockB.tryAcquire("ratePlans::42:0:detailed_7_42", Duration.ofSeconds(5)));
+
+            lockB.release("ratePlans::42:0:detailed_7_42", "not-the-holder");
+            assertNull(lockB.tryAcquire("ratePlans::42:0:detailed_7_42", Duration.ofSeconds(5)));
+
+            lockA.release("ratePlans::42:0:detailed_7_42", token);
+            assertNotNull(lockB.tryAcquire("ratePlans::42:0:detailed_7_42", Duration.ofSeconds(5)));
+        });
+    }
+
+    @Test
+    void hotKeysSavedByOneNodeAreRestoredByAnother() {
+        twoNodes((a, b) -> {
+            CacheAccessFrequencies frequencies = a.getBean(CacheAccessFrequencies.class);
+            for (int i = 0; i < 5; i++) {
+                frequencies.record(RATE_PLANS, ORG_ID, "detailed_1_42");
+            }
+            frequencies.record(RATE_PLANS, ORG_ID, "all_detailed_42\twith a tab");
+            frequencies.save(10);
+
+            assertEquals(List.of(new CacheAccessFrequencies.HotKey(RATE_PLANS, ORG_ID, "detailed_1_42"),
+                            new CacheAccessFrequencies.HotKey(RATE_PLANS, ORG_ID, "all_detailed_42\twith a tab")),
+                    b.getBean(CacheAccessFrequencies.class).restore(10));
+        });
+    }
+
+    private interface TwoNodes {
+        void run(AssertableApplicationContext a, AssertableApplicationContext b) throws Exception;
+    }
+
+    private static void twoNodes(TwoNodes test) {
+        ApplicationContextRunner node = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(RedisAutoConfiguration.class, JacksonAutoConfiguration.class))
+                .withUserConfiguration(CacheConfig.class, CacheInvalidationBusConfig.class, TenantCacheGenerations.class,
+                        CacheAccessFrequencies.class, CacheInvalidationBus.class, CacheInvalidationService.class,
+                        RatePlanProgramCache.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withBean(RatePlanSnapshotService.class, () -> mock(RatePlanSnapshotService.class))
+                .withBean(CacheWarmUpService.class, () -> mock(CacheWarmUpService.class))
+                .withPropertyValues(
+                        "spring.cache.type=redis",
+                        "spring.data.redis.host=" + redis.getHost(),
+                        "spring.data.redis.port=" + redis.getMappedPort(6379),
+                        "aforo.cache.invalidation.batch-window-ms=0",
+                        "aforo.cache.generations.shared-refresh-ms=60000"); // only the peer message refreshes
+        node.run(a -> node.run(b -> {
+            assertNull(a.getStartupFailure());
+            assertNull(b.getStartupFailure());
+            test.run(a, b);
+        }));
+    }
+
+    private static RatePlanDTO ratePlan(String name) {
+        return RatePlanDTO.builder()
+                .ratePlanId(7L)
+                .ratePlanName(name)
+                .status(RatePlanStatus.ACTIVE)
+                .createdOn(LocalDateTime.of(2026, 1, 1, 12, 30))
+                .tieredPricings(new ArrayList<>(List.of(TieredPricingDTO.builder()
+                        .tiers(new ArrayList<>(List.of(TieredTierDTO.builder()
+                                .startRange(1L).endRange(100L).unitPrice(new BigDecimal("0.25")).build())))
+                        .build())))
+                .discounts(new ArrayList<>(List.of(DiscountDTO.builder().startDate(LocalDate.of(2026, 1, 1)).build())))
+                .build();
+    }
+
+    private static void cache(AssertableApplicationContext node, String key, Object value) {
+        TenantContext.set(ORG_ID);
+        try {
+            node.getBean(CacheManager.class).getCache(RATE_PLANS).put(key, value);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static Object cached(AssertableApplicationContext node, String key) {
+        TenantContext.set(ORG_ID);
+        try {
+            Cache.ValueWrapper value = node.getBean(CacheManager.class).getCache(RATE_PLANS).get(key);
+            return value != null ? value.get() : null;
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static String name(Object ratePlan) {
+        return ratePlan != null ? ((RatePlanDTO) ratePlan).getRatePlanName() : null;
+    }
+
+    private static double tierGets(AssertableApplicationContext node, String tier, String result) {
+        return node.getBean(MeterRegistry.class).get("cache.tier.gets")
+                .tags("cache", RATE_PLANS, "tier", tier, "result", result)
+                .counter().count();
+    }
+
+    private static void awaitEquals(Object expected, Supplier<Object> actual) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!expected.equals(actual.get()) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, actual.get());
+    }
+}
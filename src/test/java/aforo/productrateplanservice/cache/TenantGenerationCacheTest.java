@@ -0,0 +1,132 @@
+package aforo.productrateplanservice.cache;
+
+import aforo.productrateplanservice.estimator.RatePlanProgramCache;
+import aforo.productrateplanservice.rate_plan.snapshot.RatePlanSnapshotService;
+import aforo.productrateplanservice.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Invalidating one tenant must not cost any other tenant a single cache hit.
+ */
+class TenantGenerationCacheTest {
+
+    private static final List<String> REGIONS =
+            List.of("products", "billableMetrics", "ratePlans", "pricingConfigurations", "validations");
+    private static final int TENANTS = 200;
+    private static final int KEYS_PER_TENANT = 20;
+    private static final long INVALIDATED = 17L;
+
+    private CacheManager cacheManager;
+    private CacheInvalidationService invalidationService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TenantGenerationCacheManager(new ConcurrentMapCacheManager(REGIONS.toArray(String[]::new)),
+                new TenantCacheGenerations());
+        invalidationService = new CacheInvalidationService(cacheManager,
+                mock(RatePlanProgramCache.class), mock(RatePlanSnapshotService.class), mock(CacheInvalidationBus.class),
+                mock(CacheWarmUpService.class));
+        for (long orgId = 1; orgId <= TENANTS; orgId++) {
+            TenantContext.set(orgId);
+            for (String region : REGIONS) {
+                for (int key = 0; key < KEYS_PER_TENANT; key++) {
+                    cacheManager.getCache(region).put("detailed_" + key + "_" + orgId, region + key);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void invalidatingOneTenantKeepsEveryOtherTenantsHits() {
+        TenantContext.set(INVALIDATED);
+        invalidationService.invalidateAllTenantCaches(INVALIDATED);
+
+        for (String region : REGIONS) {
+            Cache cache = cacheManager.getCache(region);
+            int hits = 0;
+            for (long orgId = 1; orgId <= TENANTS; orgId++) {
+                TenantContext.set(orgId);
+                for (int key = 0; key < KEYS_PER_TENANT; key++) {
+                    Cache.ValueWrapper value = cache.get("detailed_" + key + "_" + orgId);
+                    if (orgId == INVALIDATED) {
+                        assertNull(value, region + " still serves the invalidated tenant");
+                    } else if (value != null && (region + key).equals(value.get())) {
+                        hits++;
+                    }
+                }
+            }
+            assertEquals((TENANTS - 1) * KEYS_PER_TENANT, hits, region);
+            // the retired generation is dropped from the in-process store right away
+            assertEquals((TENANTS - 1) * KEYS_PER_TENANT, ((Map<?, ?>) cache.getNativeCache()).size(), region);
+        }
+
+        // the invalidated tenant caches again under its new generation
+        TenantContext.set(INVALIDATED);
+        Cache ratePlans = cacheManager.getCache("ratePlans");
+        ratePlans.put("detailed_0_" + INVALIDATED, "fresh");
+        assertEquals("fresh", ratePlans.get("detailed_0_" + INVALIDATED).get());
+    }
+
+    @Test
+    void sameKeyIsIsolatedBetweenTenants() {
+        Cache cache = cacheManager.getCache("ratePlans");
+        TenantContext.set(1L);
+        cache.put("basic_all", "tenant 1");
+        TenantContext.set(2L);
+        cache.put("basic_all", "tenant 2");
+
+        TenantContext.set(1L);
+        invalidationService.invalidateAllTenantCaches(1L);
+
+        assertNull(cache.get("basic_all"));
+        TenantContext.set(2L);
+        assertEquals("tenant 2", cache.get("basic_all").get());
+    }
+
+    @Test
+    void sharedGenerationsAreReadAgainAfterAMissedPeerMessage() {
+        AtomicLong redis = new AtomicLong();
+        AtomicLong nanos = new AtomicLong();
+        TenantCacheGenerations generations = new TenantCacheGenerations(new TenantCacheGenerations.Store() {
+            @Override
+            public long get(String region, Long organizationId) {
+                return redis.get();
+            }
+
+            @Override
+            public long increment(String region, Long organizationId) {
+                return redis.incrementAndGet();
+            }
+
+            @Override
+            public boolean isShared() {
+                return true;
+            }
+        }, Duration.ofSeconds(5), nanos::get);
+        assertEquals(0, generations.current("ratePlans", INVALIDATED));
+
+        redis.incrementAndGet(); // a peer invalidated; its pub/sub message never reached this node
+        assertEquals(0, generations.current("ratePlans", INVALIDATED));
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals(1, generations.current("ratePlans", INVALIDATED));
+    }
+}
@@ -0,0 +1,78 @@
+package aforo.productrateplanservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes sharing one L2. The stand-in for Redis stores values by serialized copy, like Redis does.
+ * Cross-node L1 invalidation is covered by {@link CacheInvalidationBusTest}.
+ */
+class TwoTierCacheTest {
+
+    private static final String RATE_PLANS = "ratePlans";
+
+    private final MeterRegistry registryA = new SimpleMeterRegistry();
+    private final MeterRegistry registryB = new SimpleMeterRegistry();
+    private TwoTierCacheManager nodeA;
+    private TwoTierCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager(RATE_PLANS);
+        redis.setBeanClassLoader(getClass().getClassLoader());
+        redis.setStoreByValue(true);
+
+        nodeA = node(redis, registryA, 100);
+        nodeB = node(redis, registryB, 100);
+    }
+
+    static TwoTierCacheManager node(ConcurrentMapCacheManager redis, MeterRegistry registry, long l1MaximumSize) {
+        return new TwoTierCacheManager(redis, Map.of(RATE_PLANS, Duration.ofMinutes(15)), Duration.ofMinutes(10),
+                l1MaximumSize, registry);
+    }
+
+    @Test
+    void l2HitsPopulateL1() {
+        nodeA.getCache(RATE_PLANS).put("detailed_1_42", "plan 1");
+
+        Cache cacheB = nodeB.getCache(RATE_PLANS);
+        assertEquals("plan 1", cacheB.get("detailed_1_42").get());
+        assertEquals("plan 1", cacheB.get("detailed_1_42").get());
+        assertNull(cacheB.get("detailed_2_42"));
+
+        assertEquals(1, count(registryB, "l1", "hit"));
+        assertEquals(2, count(registryB, "l1", "miss"));
+        assertEquals(1, count(registryB, "l2", "hit"));
+        assertEquals(1, count(registryB, "l2", "miss"));
+    }
+
+    @Test
+    void l1IsBounded() {
+        ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager(RATE_PLANS);
+        Cache cache = node(redis, new SimpleMeterRegistry(), 2).getCache(RATE_PLANS);
+        for (int i = 0; i < 10; i++) {
+            cache.put("detailed_" + i + "_42", "plan " + i);
+        }
+
+        var l1 = (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+        l1.cleanUp();
+        assertTrue(l1.estimatedSize() <= 2, "L1 holds " + l1.estimatedSize());
+        // evicted from L1, still served from L2
+        assertEquals("plan 0", cache.get("detailed_0_42").get());
+    }
+
+    private static double count(MeterRegistry registry, String tier, String result) {
+        return registry.get("cache.tier.gets")
+                .tags("cache", RATE_PLANS, "tier", tier, "result", result)
+                .counter().count();
+    }
+}
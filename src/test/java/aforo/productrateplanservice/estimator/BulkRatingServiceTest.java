@@ -0,0 +1,83 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.tenant.TenantContext;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BulkRatingServiceTest {
+
+    private final RatePlanRepository ratePlanRepository = mock(RatePlanRepository.class);
+    private final RatePlanPricingAggregationService aggregationService = mock(RatePlanPricingAggregationService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final BulkRatingService service = new BulkRatingService(
+            ratePlanRepository, aggregationService, mock(EntityManager.class), objectMapper, 8);
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.set(1L);
+        RatePlan plan = RatePlan.builder().ratePlanId(7L).organizationId(1L).build();
+        when(ratePlanRepository.findByRatePlanIdAndOrganizationId(7L, 1L)).thenReturn(Optional.of(plan));
+        when(ratePlanRepository.findByRatePlanIdAndOrganizationId(8L, 1L)).thenReturn(Optional.empty());
+        when(aggregationService.toDetailedDTO(any())).thenReturn(RatePlanDTO.builder()
+                .ratePlanId(7L)
+                .usageBasedPricings(List.of(UsageBasedPricingDTO.builder().perUnitAmount(new BigDecimal("0.25")).build()))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void ratesEachLineAndCompilesEachPlanOnce() throws Exception {
+        String input = """
+                {"ratePlanId":7,"usage":100,"periodStart":"2025-01-01","periodEnd":"2025-01-31"}
+                {"ratePlanId":7,"usage":8}
+
+                {"ratePlanId":8,"usage":1}
+                not json
+                """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rated = service.rate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+
+        List<RatedUsageRecord> results = out.toString(StandardCharsets.UTF_8).lines()
+                .map(l -> {
+                    try {
+                        return objectMapper.readValue(l, RatedUsageRecord.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertEquals(4, rated);
+        assertEquals(new BigDecimal("25.00"), results.get(0).getTotal());
+        assertEquals("2025-01-31", results.get(0).getPeriodEnd().toString());
+        assertEquals(new BigDecimal("2.00"), results.get(1).getTotal());
+        assertNotNull(results.get(2).getError());
+        assertEquals(5, results.get(3).getLine());
+        assertNotNull(results.get(3).getError());
+        verify(aggregationService, times(1)).toDetailedDTO(any());
+    }
+}
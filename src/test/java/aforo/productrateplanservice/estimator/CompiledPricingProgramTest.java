@@ -0,0 +1,111 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.enums.RatePlanType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPricingProgramTest {
+
+    private static EstimateRequest.Tier tier(Long min, Long max, String price) {
+        return new EstimateRequest.Tier(min, max, new BigDecimal(price));
+    }
+
+    private static List<EstimateRequest.Tier> bands() {
+        // deliberately unsorted: compilation sorts once
+        return List.of(tier(201L, null, "0.01"), tier(1L, 100L, "0.10"), tier(101L, 200L, "0.05"));
+    }
+
+    @Test
+    void tieredChargesEachBandUsingCumulativeOffsets() {
+        EstimateRequest request = EstimateRequest.builder()
+                .pricingModel(RatePlanType.TIERED).usage(250L).tiers(bands()).build();
+
+        EstimateResponse response = CompiledPricingProgram.compile(request).evaluate(250, true);
+
+        assertEquals(new BigDecimal("15.50"), response.getTotal());
+        assertEquals(3, response.getBreakdown().size());
+        assertEquals("Tier 1-100", response.getBreakdown().get(0).getLabel());
+        assertEquals("50 * 0.01", response.getBreakdown().get(2).getCalculation());
+    }
+
+    @Test
+    void tieredOpenEndedBandFromZeroDoesNotOverflow() {
+        EstimateRequest request = EstimateRequest.builder()
+                .pricingModel(RatePlanType.TIERED).tiers(List.of(tier(0L, null, "1"))).build();
+
+        assertEquals(new BigDecimal("5.00"), CompiledPricingProgram.compile(request).total(5));
+    }
+
+    @Test
+    void usageBeyondIntRangeIsChargedAcrossOpenEndedBand() {
+        EstimateRequest request = EstimateRequest.builder()
+                .pricingModel(RatePlanType.TIERED).tiers(bands()).build();
+        CompiledPricingProgram program = CompiledPricingProgram.compile(request);
+
+        // 10.00 + 5.00 for the first two bands, then 4_999_999_800 * 0.01
+        assertEquals(new BigDecimal("50000013.00"), program.total(5_000_000_000L));
+        assertEquals("Tier 201-∞", program.evaluate(5_000_000_000L, true).getBreakdown().get(2).getLabel());
+    }
+
+    @Test
+    void volumeAndStairStepPickMatchingBand() {
+        EstimateRequest volume = EstimateRequest.builder()
+                .pricingModel(RatePlanType.VOLUME_BASED).tiers(bands()).build();
+        EstimateRequest stair = EstimateRequest.builder()
+                .pricingModel(RatePlanType.STAIRSTEP)
+                .steps(List.of(new EstimateRequest.Step(101L, null, new BigDecimal("25")),
+                        new EstimateRequest.Step(0L, 100L, new BigDecimal("10"))))
+                .build();
+
+        assertEquals(new BigDecimal("7.50"), CompiledPricingProgram.compile(volume).total(150));
+        assertEquals(new BigDecimal("10.00"), CompiledPricingProgram.compile(stair).total(100));
+        assertEquals("101-∞", CompiledPricingProgram.compile(stair).evaluate(500, true)
+                .getBreakdown().get(0).getCalculation());
+    }
+
+    @Test
+    void extrasAreAppliedInOrder() {
+        EstimateRequest request = EstimateRequest.builder()
+                .pricingModel(RatePlanType.USAGE_BASED)
+                .perUnitAmount(new BigDecimal("0.5"))
+                .includeFreemium(true).freeUnits(4L)
+                .includeCommitment(true).minCommitmentAmount(new BigDecimal("10"))
+                .includeDiscount(true).discountPct(new BigDecimal("10"))
+                .build();
+
+        EstimateResponse response = CompiledPricingProgram.compile(request).evaluate(10, true);
+
+        assertEquals(new BigDecimal("9.00"), response.getTotal());
+        assertEquals(List.of("Usage Charges", "Freemium Credit", "Minimum Commitment Uplift", "Discount (10%)"),
+                response.getBreakdown().stream().map(EstimateResponse.LineItem::getLabel).toList());
+    }
+
+    @Test
+    void invalidTierIsRejectedAtCompileTime() {
+        EstimateRequest request = EstimateRequest.builder()
+                .pricingModel(RatePlanType.TIERED).tiers(List.of(tier(10L, 5L, "1"))).build();
+
+        assertThrows(IllegalArgumentException.class, () -> CompiledPricingProgram.compile(request));
+    }
+
+    @Test
+    void cacheReusesProgramForSameDefinitionRegardlessOfUsage() {
+        CompiledPricingProgramCache cache = new CompiledPricingProgramCache(16);
+        EstimateRequest first = EstimateRequest.builder()
+                .pricingModel(RatePlanType.FLATFEE).flatFeeAmount(new BigDecimal("50"))
+                .numberOfApiCalls(1000L).overageUnitRate(new BigDecimal("0.02")).usage(10L).build();
+        EstimateRequest second = EstimateRequest.builder()
+                .pricingModel(RatePlanType.FLATFEE).flatFeeAmount(new BigDecimal("50"))
+                .numberOfApiCalls(1000L).overageUnitRate(new BigDecimal("0.02")).usage(1500L).build();
+
+        CompiledPricingProgram program = cache.getOrCompile(first);
+
+        assertSame(program, cache.getOrCompile(second));
+        assertEquals(new BigDecimal("60.00"), program.total(1500));
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,112 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.enums.RatePlanType;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.LongRange;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The fixed-point (micro-unit) total must be bit-for-bit identical to the BigDecimal total.
+ */
+class FixedPointPricingPropertiesTest {
+
+    @Property(tries = 2000)
+    void fixedPointTotalMatchesBigDecimalTotal(@ForAll("definitions") EstimateRequest definition,
+                                               @ForAll @LongRange(min = 0, max = Long.MAX_VALUE) long usage) {
+        CompiledPricingProgram program = CompiledPricingProgram.compile(definition);
+
+        assertEquals(program.exactTotal(usage), program.total(usage));
+    }
+
+    @Property(tries = 1000)
+    void fixedPointTotalMatchesForTypicalUsage(@ForAll("definitions") EstimateRequest definition,
+                                               @ForAll @LongRange(max = 100_000) long usage) {
+        CompiledPricingProgram program = CompiledPricingProgram.compile(definition);
+
+        assertEquals(program.exactTotal(usage), program.total(usage));
+    }
+
+    @Example
+    void overflowFallsBackToBigDecimal() {
+        EstimateRequest definition = EstimateRequest.builder()
+                .pricingModel(RatePlanType.USAGE_BASED)
+                .perUnitAmount(new BigDecimal("9999999999.999999"))
+                .build();
+        CompiledPricingProgram program = CompiledPricingProgram.compile(definition);
+
+        assertTrue(program.isFixedPoint());
+        assertEquals(new BigDecimal("9999999999.999999").multiply(BigDecimal.valueOf(Long.MAX_VALUE))
+                .setScale(2, java.math.RoundingMode.HALF_UP), program.total(Long.MAX_VALUE));
+    }
+
+    @Provide
+    Arbitrary<EstimateRequest> definitions() {
+        Arbitrary<RatePlanType> models = Arbitraries.of(RatePlanType.class);
+        Arbitrary<List<EstimateRequest.Tier>> tiers = Combinators.combine(
+                Arbitraries.longs().between(1, 5_000).list().ofMinSize(0).ofMaxSize(8),
+                amounts().list().ofSize(9),
+                Arbitraries.of(true, false)
+        ).as(FixedPointPricingPropertiesTest::bands);
+        Arbitrary<List<EstimateRequest.Step>> steps = tiers.map(ts -> ts.stream()
+                .map(t -> new EstimateRequest.Step(t.getMinUnits(), t.getMaxUnits(), t.getPricePerUnit()))
+                .toList());
+
+        return Combinators.combine(models, tiers, steps, amounts(), amounts(), amounts(),
+                        Arbitraries.longs().between(-1, 100_000), Arbitraries.longs().between(-1, 10_000))
+                .as((model, ts, ss, a, b, c, included, freeUnits) -> EstimateRequest.builder()
+                        .pricingModel(model)
+                        .tiers(ts)
+                        .steps(ss)
+                        .flatFeeAmount(a)
+                        .numberOfApiCalls(included < 0 ? null : included)
+                        .overageUnitRate(b)
+                        .perUnitAmount(c)
+                        .includeFreemium(freeUnits >= 0)
+                        .freeUnits(freeUnits >= 0 ? freeUnits : null)
+                        .build())
+                .flatMap(request -> Combinators.combine(amounts(), amounts(), percentages(), amounts(),
+                                Arbitraries.integers().between(0, 15))
+                        .as((setup, commitment, pct, flatDiscount, extras) -> {
+                            request.setIncludeSetup((extras & 1) != 0);
+                            request.setSetupFee(setup);
+                            request.setIncludeCommitment((extras & 2) != 0);
+                            request.setMinCommitmentAmount(commitment);
+                            request.setIncludeDiscount((extras & 4) != 0);
+                            request.setDiscountPct((extras & 8) != 0 ? pct : null);
+                            request.setFlatDiscountAmount(flatDiscount);
+                            return request;
+                        }));
+    }
+
+    private static List<EstimateRequest.Tier> bands(List<Long> widths, List<BigDecimal> prices, boolean openEnded) {
+        List<EstimateRequest.Tier> result = new ArrayList<>();
+        long start = 1;
+        for (int i = 0; i < widths.size(); i++) {
+            long end = start + widths.get(i) - 1;
+            boolean last = i == widths.size() - 1;
+            result.add(new EstimateRequest.Tier(start, last && openEnded ? null : end, prices.get(i)));
+            start = end + 1;
+        }
+        return result;
+    }
+
+    /** Amounts with 0-6 decimals, occasionally 8 decimals (not representable in micro-units) or huge. */
+    private static Arbitrary<BigDecimal> amounts() {
+        return Arbitraries.frequencyOf(
+                Tuple.of(12, Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("1000")).ofScale(2)),
+                Tuple.of(6, Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("10")).ofScale(6)),
+                Tuple.of(1, Arbitraries.bigDecimals().between(BigDecimal.ZERO, BigDecimal.ONE).ofScale(8)),
+                Tuple.of(1, Arbitraries.bigDecimals().between(new BigDecimal("1000000000"), new BigDecimal("9999999999")).ofScale(6))
+        );
+    }
+
+    private static Arbitrary<BigDecimal> percentages() {
+        return Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("100")).ofScale(3);
+    }
+}
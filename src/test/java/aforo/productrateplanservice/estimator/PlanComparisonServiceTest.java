@@ -0,0 +1,128 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.enums.RatePlanType;
+import net.jqwik.api.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Break-even points must be exactly the usages where a brute-force scan sees the cheaper plan change.
+ */
+class PlanComparisonServiceTest {
+
+    private final PlanComparisonService service = new PlanComparisonService(null, null, new CompiledPricingProgramCache(16));
+
+    @Example
+    void usageBasedAndFlatFeeBreakEvenExactly() {
+        PlanComparisonResponse response = service.compare(PlanComparisonRequest.builder()
+                .plans(List.of(
+                        EstimateRequest.builder().pricingModel(RatePlanType.USAGE_BASED)
+                                .perUnitAmount(new BigDecimal("0.10")).build(),
+                        EstimateRequest.builder().pricingModel(RatePlanType.FLATFEE)
+                                .flatFeeAmount(new BigDecimal("50")).numberOfApiCalls(1_000L)
+                                .overageUnitRate(new BigDecimal("0.02")).build()))
+                .build());
+
+        PlanComparisonResponse.Pair pair = response.getPairs().get(0);
+        assertEquals("inline-1", pair.getCheaperAtZero());
+        assertEquals(2, pair.getCrossovers().size());
+        assertEquals(500, pair.getCrossovers().get(0).getUsage());
+        assertEquals(PlanComparisonResponse.TIE, pair.getCrossovers().get(0).getCheaper());
+        assertEquals(501, pair.getCrossovers().get(1).getUsage());
+        assertEquals("inline-2", pair.getCrossovers().get(1).getCheaper());
+
+        List<PlanComparisonResponse.Range> cheapest = response.getCheapest();
+        assertEquals(3, cheapest.size());
+        assertEquals(499L, cheapest.get(0).getToUsage());
+        assertEquals(List.of("inline-1", "inline-2"), cheapest.get(1).getPlans());
+        assertEquals(501L, cheapest.get(2).getFromUsage());
+        assertNull(cheapest.get(2).getToUsage());
+    }
+
+    @Example
+    void stairStepJumpIsACrossover() {
+        PlanComparisonResponse response = service.compare(PlanComparisonRequest.builder()
+                .plans(List.of(
+                        EstimateRequest.builder().pricingModel(RatePlanType.STAIRSTEP)
+                                .steps(List.of(new EstimateRequest.Step(0L, 100L, new BigDecimal("10")),
+                                        new EstimateRequest.Step(101L, null, new BigDecimal("40")))).build(),
+                        EstimateRequest.builder().pricingModel(RatePlanType.FLATFEE)
+                                .flatFeeAmount(new BigDecimal("25")).numberOfApiCalls(1_000_000L).build()))
+                .maxUsage(10_000L)
+                .build());
+
+        List<PlanComparisonResponse.Crossover> crossovers = response.getPairs().get(0).getCrossovers();
+        assertEquals(1, crossovers.size());
+        assertEquals(101, crossovers.get(0).getUsage());
+        assertEquals("inline-2", crossovers.get(0).getCheaper());
+        assertEquals(10_000L, response.getCheapest().get(1).getToUsage());
+    }
+
+    @Example
+    void singlePlanIsRejected() {
+        PlanComparisonRequest request = PlanComparisonRequest.builder()
+                .plans(List.of(EstimateRequest.builder().pricingModel(RatePlanType.USAGE_BASED).build()))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> service.compare(request));
+    }
+
+    @Property(tries = 300)
+    void crossoversMatchBruteForceScan(@ForAll("plans") EstimateRequest a, @ForAll("plans") EstimateRequest b) {
+        long maxUsage = 3_000;
+        CompiledPricingProgram programA = CompiledPricingProgram.compile(a);
+        CompiledPricingProgram programB = CompiledPricingProgram.compile(b);
+
+        List<Long> expected = new ArrayList<>();
+        int previous = programA.total(0).compareTo(programB.total(0));
+        for (long usage = 1; usage <= maxUsage; usage++) {
+            int current = programA.total(usage).compareTo(programB.total(usage));
+            if (current != previous) expected.add(usage);
+            previous = current;
+        }
+
+        List<Long> actual = service.comparePair("a", programA, "b", programB, maxUsage).getCrossovers().stream()
+                .map(PlanComparisonResponse.Crossover::getUsage).toList();
+        assertEquals(expected, actual);
+    }
+
+    /** Whole-cent prices so totals are exact and the cost difference is linear between breakpoints. */
+    @Provide
+    Arbitrary<EstimateRequest> plans() {
+        Arbitrary<BigDecimal> price = Arbitraries.integers().between(0, 50).map(c -> BigDecimal.valueOf(c, 2));
+        Arbitrary<List<EstimateRequest.Tier>> tiers = Arbitraries.integers().between(1, 6).flatMap(count ->
+                price.list().ofSize(count).flatMap(prices -> Arbitraries.longs().between(50, 800).list().ofSize(count)
+                        .map(widths -> {
+                            List<EstimateRequest.Tier> result = new ArrayList<>();
+                            long start = 1;
+                            for (int i = 0; i < count; i++) {
+                                Long end = i == count - 1 ? null : start + widths.get(i) - 1;
+                                result.add(new EstimateRequest.Tier(start, end, prices.get(i)));
+                                if (end != null) start = end + 1;
+                            }
+                            return result;
+                        })));
+        Arbitrary<BigDecimal> commitment = Arbitraries.integers().between(0, 300)
+                .map(v -> v < 100 ? null : BigDecimal.valueOf(v));
+
+        return Arbitraries.oneOf(
+                price.map(p -> EstimateRequest.builder().pricingModel(RatePlanType.USAGE_BASED).perUnitAmount(p).build()),
+                Combinators.combine(Arbitraries.integers().between(0, 200), Arbitraries.longs().between(0, 2_500), price)
+                        .as((fee, included, overage) -> EstimateRequest.builder().pricingModel(RatePlanType.FLATFEE)
+                                .flatFeeAmount(BigDecimal.valueOf(fee)).numberOfApiCalls(included)
+                                .overageUnitRate(overage).build()),
+                Combinators.combine(tiers, commitment).as((t, min) -> EstimateRequest.builder()
+                        .pricingModel(RatePlanType.TIERED).tiers(t)
+                        .includeCommitment(min != null).minCommitmentAmount(min).build()),
+                tiers.map(t -> EstimateRequest.builder().pricingModel(RatePlanType.VOLUME_BASED).tiers(t).build()),
+                tiers.map(t -> EstimateRequest.builder().pricingModel(RatePlanType.STAIRSTEP)
+                        .steps(t.stream().map(tier -> new EstimateRequest.Step(tier.getMinUnits(), tier.getMaxUnits(),
+                                tier.getPricePerUnit().movePointRight(3))).toList()).build()));
+    }
+}
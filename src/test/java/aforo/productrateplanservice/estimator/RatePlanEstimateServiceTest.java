@@ -0,0 +1,83 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.tenant.TenantContext;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RatePlanEstimateServiceTest {
+
+    private final RatePlanRepository ratePlanRepository = mock(RatePlanRepository.class);
+    private final RatePlanPricingAggregationService aggregationService = mock(RatePlanPricingAggregationService.class);
+    private final RatePlanProgramCache cache = new RatePlanProgramCache(16);
+    private final RatePlanEstimateService service = new RatePlanEstimateService(ratePlanRepository, aggregationService, cache);
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.set(1L);
+        when(ratePlanRepository.existsByRatePlanIdAndOrganizationId(7L, 1L)).thenReturn(true);
+        when(aggregationService.toPricingDTO(7L)).thenReturn(usageBased("0.25"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void compilesOnceAndRecompilesAfterEviction() {
+        RatePlanEstimateRequest request = RatePlanEstimateRequest.builder().usage(100L).build();
+
+        assertEquals(new BigDecimal("25.00"), service.estimate(7L, request).getTotal());
+        assertEquals(new BigDecimal("25.00"), service.estimate(7L, request).getTotal());
+        verify(aggregationService, times(1)).toPricingDTO(7L);
+
+        when(aggregationService.toPricingDTO(7L)).thenReturn(usageBased("0.50"));
+        cache.evict(1L, 7L); // what a pricing write does through CacheInvalidationService
+        assertEquals(new BigDecimal("50.00"), service.estimate(7L, request).getTotal());
+        verify(aggregationService, times(2)).toPricingDTO(7L);
+    }
+
+    @Test
+    void cacheIsPartitionedByTenant() {
+        service.estimate(7L, RatePlanEstimateRequest.builder().usage(1L).build());
+
+        TenantContext.set(2L);
+        assertThrows(NotFoundException.class,
+                () -> service.estimate(7L, RatePlanEstimateRequest.builder().usage(1L).build()));
+        assertEquals(1, cache.size(1L));
+        assertEquals(0, cache.size(2L));
+
+        cache.evictTenant(1L);
+        assertEquals(0, cache.size(1L));
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+        CompiledPricingProgram program = cache.getOrLoad(1L, 9L, () -> {
+            cache.evict(1L, 9L); // a write lands while the plan is being loaded
+            return CompiledPricingProgram.compile(usageBased("0.25"));
+        });
+
+        assertNotNull(program);
+        assertEquals(0, cache.size(1L));
+    }
+
+    private static RatePlanDTO usageBased(String perUnit) {
+        return RatePlanDTO.builder()
+                .ratePlanId(7L)
+                .usageBasedPricings(List.of(UsageBasedPricingDTO.builder().perUnitAmount(new BigDecimal(perUnit)).build()))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.enums.RatePlanType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueEstimatorServiceImplTest {
+
+    private final RevenueEstimatorServiceImpl service =
+            new RevenueEstimatorServiceImpl(new CompiledPricingProgramCache(16));
+
+    private static EstimateRequest tiered() {
+        return EstimateRequest.builder()
+                .pricingModel(RatePlanType.TIERED)
+                .tiers(List.of(new EstimateRequest.Tier(1L, 100L, new BigDecimal("0.10")),
+                        new EstimateRequest.Tier(101L, null, new BigDecimal("0.05"))))
+                .build();
+    }
+
+    @Test
+    void batchRangeMatchesSingleEstimates() {
+        BatchEstimateRequest request = BatchEstimateRequest.builder()
+                .pricing(tiered())
+                .range(new BatchEstimateRequest.UsageRange(0L, 5000L, 1L))
+                .build();
+
+        BatchEstimateResponse response = service.estimateBatch(request);
+
+        assertEquals(5001, response.getUsages().length);
+        assertNull(response.getBreakdowns());
+        for (int i = 0; i < response.getUsages().length; i += 499) {
+            EstimateRequest single = tiered();
+            single.setUsage(response.getUsages()[i]);
+            assertEquals(service.estimate(single).getTotal(), response.getTotals()[i]);
+        }
+    }
+
+    @Test
+    void batchUsagesWithBreakdown() {
+        BatchEstimateRequest request = BatchEstimateRequest.builder()
+                .pricing(tiered())
+                .usages(List.of(50L, 150L))
+                .includeBreakdown(true)
+                .build();
+
+        BatchEstimateResponse response = service.estimateBatch(request);
+
+        assertArrayEquals(new BigDecimal[]{new BigDecimal("5.00"), new BigDecimal("12.50")}, response.getTotals());
+        assertEquals(2, response.getBreakdowns().get(1).size());
+    }
+
+    @Test
+    void batchWithoutUsagePointsIsRejected() {
+        BatchEstimateRequest request = BatchEstimateRequest.builder().pricing(tiered()).build();
+
+        assertThrows(IllegalArgumentException.class, () -> service.estimateBatch(request));
+    }
+}
@@ -0,0 +1,100 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.enums.RatePlanType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueSimulationServiceTest {
+
+    private final RevenueSimulationService service = new RevenueSimulationService(
+            new CompiledPricingProgramCache(16), 4, 2, 100_000, 1_000_000, 5_000, 10_000, 20);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void normalUsageGivesNormalRevenueQuantiles() {
+        SimulationRequest request = SimulationRequest.builder()
+                .pricing(EstimateRequest.builder()
+                        .pricingModel(RatePlanType.USAGE_BASED).perUnitAmount(new BigDecimal("0.01")).build())
+                .distribution(UsageDistribution.builder()
+                        .type(UsageDistribution.Type.NORMAL).mean(10_000.0).stdDev(1_000.0).build())
+                .samples(200_000L)
+                .seed(7L)
+                .build();
+
+        SimulationResponse response = service.simulate(request);
+
+        assertEquals(200_000, response.getEvaluatedSamples());
+        assertFalse(response.isTruncated());
+        // revenue ~ N(100.00, 10.00): p90 = mean + 1.2816 sd, p99 = mean + 2.3263 sd
+        assertEquals(100.00, response.getP50().doubleValue(), 0.5);
+        assertEquals(112.82, response.getP90().doubleValue(), 0.5);
+        assertEquals(123.26, response.getP99().doubleValue(), 0.8);
+        assertEquals(20, response.getHistogram().size());
+        assertEquals(200_000, response.getHistogram().stream().mapToLong(SimulationResponse.Bin::getCount).sum());
+
+        SimulationResponse again = service.simulate(request); // same seed, same samples
+        assertEquals(response.getP99(), again.getP99());
+        assertEquals(response.getHistogram(), again.getHistogram());
+    }
+
+    @Test
+    void empiricalCsvHistogramDrivesStairStepRevenue() throws Exception {
+        List<UsageDistribution.Bucket> buckets = UsageDistribution.parseCsv(new StringReader("""
+                usage,weight
+                50,90
+                500,9
+                5000,1
+                """));
+        SimulationRequest request = SimulationRequest.builder()
+                .pricing(EstimateRequest.builder()
+                        .pricingModel(RatePlanType.STAIRSTEP)
+                        .steps(List.of(new EstimateRequest.Step(0L, 100L, new BigDecimal("10")),
+                                new EstimateRequest.Step(101L, 1000L, new BigDecimal("50")),
+                                new EstimateRequest.Step(1001L, null, new BigDecimal("200"))))
+                        .build())
+                .distribution(UsageDistribution.builder().type(UsageDistribution.Type.EMPIRICAL).buckets(buckets).build())
+                .samples(50_000L)
+                .seed(11L)
+                .build();
+
+        SimulationResponse response = service.simulate(request);
+
+        assertEquals(new BigDecimal("10.00"), response.getP50());
+        assertEquals(new BigDecimal("200.00"), response.getMax());
+        assertEquals(new BigDecimal("10.00"), response.getMin());
+        assertEquals(0.90 * 10 + 0.09 * 50 + 0.01 * 200, response.getMean().doubleValue(), 0.5);
+    }
+
+    @Test
+    void invalidDistributionIsRejected() {
+        SimulationRequest request = SimulationRequest.builder()
+                .pricing(EstimateRequest.builder().pricingModel(RatePlanType.USAGE_BASED).build())
+                .distribution(UsageDistribution.builder().type(UsageDistribution.Type.LOG_NORMAL).mu(1.0).sigma(-1.0).build())
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(request));
+    }
+
+    @Test
+    void outOfRangeHistogramBinsAreRejected() {
+        for (int bins : new int[]{0, -1, RevenueSimulationService.MAX_HISTOGRAM_BINS + 1}) {
+            SimulationRequest request = SimulationRequest.builder()
+                    .pricing(EstimateRequest.builder().pricingModel(RatePlanType.USAGE_BASED).build())
+                    .distribution(UsageDistribution.builder().type(UsageDistribution.Type.NORMAL).mean(100.0).stdDev(10.0).build())
+                    .histogramBins(bins)
+                    .build();
+
+            assertThrows(IllegalArgumentException.class, () -> service.simulate(request), "bins=" + bins);
+        }
+    }
+}
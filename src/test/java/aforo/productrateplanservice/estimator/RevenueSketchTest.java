@@ -0,0 +1,46 @@
+package aforo.productrateplanservice.estimator;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueSketchTest {
+
+    @Test
+    void mergedSketchesMatchExactQuantilesWithinTheRelativeAccuracy() {
+        SplittableRandom random = new SplittableRandom(3);
+        long[] exact = new long[300_000];
+        RevenueSketch[] parts = {new RevenueSketch(), new RevenueSketch(), new RevenueSketch()};
+        for (int i = 0; i < exact.length; i++) {
+            exact[i] = (long) Math.exp(random.nextGaussian() * 1.5 + 9) - 2_000; // log-normal, some below zero
+            parts[i % parts.length].add(exact[i]);
+        }
+        RevenueSketch merged = new RevenueSketch();
+        for (RevenueSketch part : parts) merged.merge(part);
+        Arrays.sort(exact);
+
+        assertEquals(exact.length, merged.count());
+        assertEquals(exact[0], merged.min());
+        assertEquals(exact[exact.length - 1], merged.max());
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.9, 0.99, 0.999}) {
+            long expected = exact[(int) Math.ceil(q * exact.length) - 1];
+            assertEquals(expected, merged.quantile(q), Math.abs(expected) * RevenueSketch.RELATIVE_ACCURACY + 1, "q=" + q);
+        }
+        assertEquals(exact.length, merged.histogram(40).stream().mapToLong(SimulationResponse.Bin::getCount).sum());
+    }
+
+    @Test
+    void bucketsThatSawOneValueReportItExactly() {
+        RevenueSketch sketch = new RevenueSketch();
+        for (int i = 0; i < 90; i++) sketch.add(1_000);
+        for (int i = 0; i < 10; i++) sketch.add(20_000);
+
+        assertEquals(1_000, sketch.quantile(0.5));
+        assertEquals(20_000, sketch.quantile(0.95));
+        assertEquals(0, new BigDecimal("29.00").compareTo(sketch.mean()));
+    }
+}
@@ -0,0 +1,83 @@
+package aforo.productrateplanservice.estimator;
+
+import aforo.productrateplanservice.enums.RatePlanType;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.LongRange;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Indexed lookups must resolve exactly like the linear first-match scan they replace.
+ */
+class TierIndexTest {
+
+    @Property(tries = 2000)
+    void findMatchesLinearScan(@ForAll("bands") List<long[]> bands, @ForAll @LongRange(max = 2_000) long usage) {
+        long[] starts = bands.stream().mapToLong(b -> b[0]).toArray();
+        long[] ends = bands.stream().mapToLong(b -> b[1]).toArray();
+
+        assertEquals(linearScan(starts, ends, usage), TierIndex.of(starts, ends).find(usage));
+    }
+
+    @Property(tries = 1000)
+    void graduatedTotalMatchesLinearWalk(@ForAll("bands") List<long[]> bands,
+                                         @ForAll @LongRange(max = 2_000) long usage) {
+        List<EstimateRequest.Tier> tiers = new ArrayList<>();
+        for (int i = 0; i < bands.size(); i++) {
+            long[] band = bands.get(i);
+            tiers.add(new EstimateRequest.Tier(band[0], band[1] == Long.MAX_VALUE ? null : band[1],
+                    BigDecimal.valueOf(i + 1, 2)));
+        }
+        EstimateRequest request = EstimateRequest.builder().pricingModel(RatePlanType.TIERED).tiers(tiers).build();
+        CompiledPricingProgram program = CompiledPricingProgram.compile(request);
+
+        BigDecimal expected = linearGraduated(bands, usage);
+        assertEquals(expected, program.evaluate(usage, true).getTotal());
+        assertEquals(expected, program.exactTotal(usage));
+        assertEquals(expected, program.total(usage));
+    }
+
+    @Example
+    void emptyIndexResolvesNothing() {
+        assertEquals(-1, TierIndex.of(new long[0], new long[0]).find(42));
+    }
+
+    /** Bands sorted by start; they may overlap, leave gaps or be open-ended. */
+    @Provide
+    Arbitrary<List<long[]>> bands() {
+        Arbitrary<long[]> band = Combinators.combine(
+                Arbitraries.longs().between(0, 1_500),
+                Arbitraries.longs().between(0, 400),
+                Arbitraries.integers().between(0, 9)
+        ).as((start, width, open) -> new long[]{start, open == 0 ? Long.MAX_VALUE : start + width});
+        return band.list().ofMinSize(1).ofMaxSize(40)
+                .map(list -> list.stream().sorted(Comparator.comparingLong(b -> b[0])).toList());
+    }
+
+    private static int linearScan(long[] starts, long[] ends, long usage) {
+        for (int i = 0; i < starts.length; i++) {
+            if (usage >= starts[i] && usage <= ends[i]) return i;
+        }
+        return starts.length - 1;
+    }
+
+    private static BigDecimal linearGraduated(List<long[]> bands, long usage) {
+        BigDecimal total = BigDecimal.ZERO;
+        long offset = 0;
+        for (int i = 0; i < bands.size(); i++) {
+            long start = bands.get(i)[0], end = bands.get(i)[1];
+            long remaining = usage - offset;
+            if (remaining <= 0 || usage < start) break;
+            long width = end == Long.MAX_VALUE ? Long.MAX_VALUE : end - start + 1;
+            total = total.add(BigDecimal.valueOf(i + 1, 2).multiply(BigDecimal.valueOf(Math.min(remaining, width))));
+            offset = width == Long.MAX_VALUE ? Long.MAX_VALUE : offset + width;
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+}
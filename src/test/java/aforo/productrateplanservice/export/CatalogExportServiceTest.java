@@ -0,0 +1,174 @@
+package aforo.productrateplanservice.export;
+
+import aforo.productrateplanservice.discount.DiscountMapper;
+import aforo.productrateplanservice.flatfee.FlatFeeMapper;
+import aforo.productrateplanservice.freemium.FreemiumMapper;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentMapper;
+import aforo.productrateplanservice.product.assembler.ProductAssembler;
+import aforo.productrateplanservice.product.entity.Product;
+import aforo.productrateplanservice.product.entity.ProductAPI;
+import aforo.productrateplanservice.product.enums.AuthType;
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import aforo.productrateplanservice.product.mapper.ProductAPIMapperImpl;
+import aforo.productrateplanservice.product.mapper.ProductFlatFileMapperImpl;
+import aforo.productrateplanservice.product.mapper.ProductLLMTokenMapperImpl;
+import aforo.productrateplanservice.product.mapper.ProductSQLResultMapperImpl;
+import aforo.productrateplanservice.product.mapper.ProductStorageMapperImpl;
+import aforo.productrateplanservice.product.service.ProductTypeBackfillService;
+import aforo.productrateplanservice.product.service.ProductTypeResolver;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.service.ParallelPricingLoader;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.setupfee.SetupFee;
+import aforo.productrateplanservice.setupfee.SetupFeeMapper;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricingMapper;
+import aforo.productrateplanservice.tenant.TenantContext;
+import aforo.productrateplanservice.tieredpricing.TieredPricingMapper;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingMapper;
+import aforo.productrateplanservice.volumepricing.VolumePricingMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The export must visit the whole tenant chunk by chunk, with a constant number of statements per chunk.
+ */
+@DataJpaTest
+@Import({CatalogExportService.class, ProductAssembler.class, ProductTypeResolver.class, ProductTypeBackfillService.class,
+        RatePlanPricingAggregationService.class, ParallelPricingLoader.class,
+        ProductAPIMapperImpl.class, ProductFlatFileMapperImpl.class, ProductSQLResultMapperImpl.class,
+        ProductLLMTokenMapperImpl.class, ProductStorageMapperImpl.class,
+        FlatFeeMapper.class, TieredPricingMapper.class, VolumePricingMapper.class, UsageBasedPricingMapper.class,
+        StairStepPricingMapper.class, SetupFeeMapper.class, DiscountMapper.class, FreemiumMapper.class,
+        MinimumCommitmentMapper.class, CatalogExportServiceTest.NoBackfillConfig.class})
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.docker.compose.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "aforo.export.fetch-size=3"
+})
+class CatalogExportServiceTest {
+
+    private static final long ORG_ID = 42L;
+    private static final int RATE_PLANS = 7;
+
+    @TestConfiguration
+    static class NoBackfillConfig {
+        @Bean("taskExecutor")
+        Executor taskExecutor() {
+            return task -> { }; // the test transaction is never committed, so there is nothing to backfill
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private CatalogExportService exportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.set(ORG_ID);
+        Product product = Product.builder()
+                .productName("Gateway, \"Pro\"")
+                .organizationId(ORG_ID)
+                .createdOn(LocalDateTime.now())
+                .lastUpdated(LocalDateTime.now())
+                .build();
+        entityManager.persist(product);
+        entityManager.persist(ProductAPI.builder()
+                .product(product)
+                .endpointUrl("https://api.example.com")
+                .authType(AuthType.API_KEY)
+                .build());
+
+        for (int i = 0; i < RATE_PLANS; i++) {
+            RatePlan ratePlan = RatePlan.builder()
+                    .ratePlanCode("RP-" + i)
+                    .ratePlanName("Plan " + i)
+                    .organizationId(ORG_ID)
+                    .product(product)
+                    .status(RatePlanStatus.DRAFT)
+                    .createdOn(LocalDateTime.now())
+                    .lastUpdated(LocalDateTime.now())
+                    .build();
+            entityManager.persist(ratePlan);
+            SetupFee setupFee = new SetupFee();
+            setupFee.setRatePlan(ratePlan);
+            setupFee.setSetupFee(new BigDecimal("10.25"));
+            entityManager.persist(setupFee);
+        }
+        entityManager.persist(RatePlan.builder()
+                .ratePlanCode("RP-OTHER")
+                .ratePlanName("Other tenant")
+                .organizationId(ORG_ID + 1)
+                .status(RatePlanStatus.DRAFT)
+                .createdOn(LocalDateTime.now())
+                .lastUpdated(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void ratePlansAreStreamedChunkByChunkWithTheirPricing() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.exportRatePlans(ExportFormat.NDJSON, out);
+
+        // one cursor, then one IN-list query per pricing/extras table for each of the 3 chunks
+        assertEquals(1 + 3 * 9, statistics.getPrepareStatementCount());
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(RATE_PLANS, written);
+        assertEquals(RATE_PLANS, lines.size());
+        for (int i = 0; i < RATE_PLANS; i++) {
+            JsonNode row = objectMapper.readTree(lines.get(i));
+            assertEquals("RP-" + i, row.get("ratePlanCode").asText());
+            assertEquals("10.25", row.get("setupFees").get(0).get("setupFee").asText());
+        }
+    }
+
+    @Test
+    void productsCarryTheirConfigurationAsCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, exportService.exportProducts(ExportFormat.CSV, out));
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(String.join(",", CatalogExportService.PRODUCT_COLUMNS), lines.get(0));
+        String row = lines.get(1);
+        assertTrue(row.contains(",\"Gateway, \"\"Pro\"\"\","), row);
+        assertTrue(row.contains(",API,"), row);
+        assertTrue(row.endsWith("\"{\"\"productId\"\":" + row.substring(0, row.indexOf(',')) + ",\"\"endpointUrl\"\":"
+                + "\"\"https://api.example.com\"\",\"\"authType\"\":\"\"API_KEY\"\"}\""), row);
+    }
+}
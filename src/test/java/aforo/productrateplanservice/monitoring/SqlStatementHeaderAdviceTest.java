@@ -0,0 +1,66 @@
+package aforo.productrateplanservice.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The SQL headers must only be written when {@code aforo.sql-metrics.response-headers} is turned on.
+ */
+class SqlStatementHeaderAdviceTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(SqlStatementHeaderAdvice.class);
+
+    @Test
+    void headersAreWrittenWhenEnabled() {
+        contextRunner.withPropertyValues("aforo.sql-metrics.response-headers=true").run(context -> {
+            assertThat(context).hasSingleBean(SqlStatementHeaderAdvice.class);
+            mockMvc(context).perform(get("/ping"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(SqlStatementHeaderAdvice.STATEMENTS_HEADER, "0"))
+                    .andExpect(header().exists(SqlStatementHeaderAdvice.TIME_HEADER));
+        });
+    }
+
+    @Test
+    void headersAreAbsentByDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(SqlStatementHeaderAdvice.class);
+            mockMvc(context).perform(get("/ping"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(SqlStatementHeaderAdvice.STATEMENTS_HEADER))
+                    .andExpect(header().doesNotExist(SqlStatementHeaderAdvice.TIME_HEADER));
+        });
+        contextRunner.withPropertyValues("aforo.sql-metrics.response-headers=false")
+                .run(context -> assertThat(context).doesNotHaveBean(SqlStatementHeaderAdvice.class));
+    }
+
+    private static MockMvc mockMvc(ApplicationContext context) {
+        return MockMvcBuilders.standaloneSetup(new PingController())
+                .setControllerAdvice(context.getBeansWithAnnotation(RestControllerAdvice.class).values().toArray())
+                .addFilters(new SqlStatementMetricsFilter(new SimpleMeterRegistry(), new SqlMetricsProperties()))
+                .build();
+    }
+
+    @RestController
+    static class PingController {
+        @GetMapping("/ping")
+        Map<String, String> ping() {
+            return Map.of("status", "ok");
+        }
+    }
+}
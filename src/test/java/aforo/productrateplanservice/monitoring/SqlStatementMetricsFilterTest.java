@@ -0,0 +1,95 @@
+package aforo.productrateplanservice.monitoring;
+
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every statement a request runs must be counted against its endpoint, and budgets must be enforced.
+ */
+@DataJpaTest
+@Import(SqlMetricsConfig.class)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.docker.compose.enabled=false")
+class SqlStatementMetricsFilterTest {
+
+    private static final String PATTERN = "/api/rateplans/{ratePlanId}";
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private RatePlanRepository ratePlanRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlMetricsProperties properties = new SqlMetricsProperties();
+    private Long ratePlanId;
+
+    @BeforeEach
+    void setUp() {
+        ratePlanId = ratePlanRepository.save(RatePlan.builder()
+                .ratePlanCode("RP-SQL")
+                .ratePlanName("Counted plan")
+                .organizationId(42L)
+                .status(RatePlanStatus.DRAFT)
+                .createdOn(LocalDateTime.now())
+                .lastUpdated(LocalDateTime.now())
+                .build()).getRatePlanId();
+        entityManager.flush();
+    }
+
+    @Test
+    void statementsArePublishedPerEndpoint() throws Exception {
+        get(threeQueries());
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.sql.statements")
+                .tag("method", "GET").tag("uri", PATTERN).summary();
+        assertEquals(1, statements.count());
+        assertEquals(3, statements.totalAmount());
+        assertEquals(1, meterRegistry.get("http.server.requests.sql.time").tag("uri", PATTERN).timer().count());
+        assertNull(SqlStatementStats.current());
+    }
+
+    @Test
+    void exceededBudgetFailsWhenConfigured() throws Exception {
+        properties.getBudgets().put("GET " + PATTERN, 3);
+        properties.setOnExceeded(SqlMetricsProperties.OnExceeded.FAIL);
+        get(threeQueries()); // within budget
+
+        properties.getBudgets().put("GET " + PATTERN, 2);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> get(threeQueries()));
+        assertTrue(e.getMessage().contains("GET " + PATTERN + " ran 3 SQL statements (budget 2"), e.getMessage());
+    }
+
+    private FilterChain threeQueries() {
+        return (request, response) -> {
+            for (int i = 0; i < 3; i++) {
+                entityManager.clear();
+                assertNotNull(ratePlanRepository.findById(ratePlanId).orElseThrow());
+            }
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PATTERN);
+        };
+    }
+
+    private void get(FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rateplans/" + ratePlanId);
+        new SqlStatementMetricsFilter(meterRegistry, properties).doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
@@ -0,0 +1,112 @@
+package aforo.productrateplanservice.product;
+
+import aforo.productrateplanservice.client.BillableMetricClient;
+import aforo.productrateplanservice.client.BillableMetricResponse;
+import aforo.productrateplanservice.product.assembler.ProductAssembler;
+import aforo.productrateplanservice.product.dto.ProductDTO;
+import aforo.productrateplanservice.product.entity.Product;
+import aforo.productrateplanservice.product.repository.ProductRepository;
+import aforo.productrateplanservice.product.resource.ProductResource;
+import aforo.productrateplanservice.product.service.ProductProjectionService;
+import aforo.productrateplanservice.product.service.ProductServiceImpl;
+import aforo.productrateplanservice.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * A full product GET must answer 304 before assembling the product, and a 200 must call the metrics
+ * service once.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductETagTest {
+
+    private static final long ORG_ID = 42L;
+    private static final long PRODUCT_ID = 7L;
+    private static final LocalDateTime LAST_UPDATED = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductAssembler productAssembler;
+    @Mock
+    private BillableMetricClient billableMetricClient;
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    private ProductResource resource;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.set(ORG_ID);
+        resource = new ProductResource(productService, mock(ProductProjectionService.class), new ObjectMapper());
+        request = new MockHttpServletRequest("GET", "/api/products/" + PRODUCT_ID);
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        when(productRepository.findLastUpdated(PRODUCT_ID, ORG_ID)).thenReturn(Optional.of(LAST_UPDATED));
+        BillableMetricResponse metric = new BillableMetricResponse();
+        metric.setStatus("ACTIVE");
+        when(billableMetricClient.getMetricsByProductId(PRODUCT_ID)).thenReturn(List.of(metric));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        TenantContext.clear();
+    }
+
+    @Test
+    void currentTagIsAnsweredWithoutAssemblingTheProduct() {
+        RequestContextHolder.resetRequestAttributes();
+        String eTag = productService.getProductETag(PRODUCT_ID); // tagged by an earlier response
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+
+        ResponseEntity<?> result = resource.getProductById(PRODUCT_ID, null, new ServletWebRequest(request, response));
+
+        assertNull(result);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+        verify(productRepository, never()).findByProductIdAndOrganizationId(any(), any());
+        verify(productAssembler, never()).toDTO(any());
+    }
+
+    @Test
+    void missAssemblesTheProductWithOneMetricsCall() {
+        when(productRepository.findByProductIdAndOrganizationId(PRODUCT_ID, ORG_ID))
+                .thenReturn(Optional.of(Product.builder().productId(PRODUCT_ID).organizationId(ORG_ID).build()));
+        when(productAssembler.toDTO(any())).thenReturn(ProductDTO.builder()
+                .productId(PRODUCT_ID).lastUpdated(LAST_UPDATED).build());
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"stale\"");
+
+        ResponseEntity<?> result = resource.getProductById(PRODUCT_ID, null, new ServletWebRequest(request, response));
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        ProductDTO body = (ProductDTO) result.getBody();
+        assertEquals(1, body.getBillableMetrics().size());
+        assertEquals(productService.getProductETag(body), result.getHeaders().getETag());
+        verify(billableMetricClient, times(1)).getMetricsByProductId(PRODUCT_ID);
+    }
+}
@@ -0,0 +1,201 @@
+package aforo.productrateplanservice.product;
+
+import aforo.productrateplanservice.product.entity.Product;
+import aforo.productrateplanservice.product.entity.ProductAPI;
+import aforo.productrateplanservice.product.entity.ProductStorage;
+import aforo.productrateplanservice.product.enums.AuthType;
+import aforo.productrateplanservice.product.enums.ProductType;
+import aforo.productrateplanservice.product.service.ProductTypeBackfillService;
+import aforo.productrateplanservice.product.service.ProductTypeResolver;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Products without a stored type are resolved in one query per list, then backfilled.
+ */
+@DataJpaTest
+@Import({ProductTypeResolver.class, ProductTypeBackfillService.class, ProductTypeResolverTest.CapturingExecutorConfig.class})
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.docker.compose.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the backfill runs in its own transaction
+class ProductTypeResolverTest {
+
+    private static final List<Runnable> TASKS = new ArrayList<>();
+    private static boolean rejecting;
+
+    @TestConfiguration
+    static class CapturingExecutorConfig {
+        @Bean("taskExecutor")
+        Executor taskExecutor() {
+            // like AsyncConfig's rejection handler: a rejected task is dropped and its future cancelled
+            return task -> {
+                if (rejecting) {
+                    ((Future<?>) task).cancel(false);
+                } else {
+                    TASKS.add(task);
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ProductTypeResolver resolver;
+
+    private TransactionTemplate transaction;
+    private Long apiProduct;
+    private Long storageProduct;
+    private Long untypedProduct;
+
+    @BeforeEach
+    void setUp() {
+        TASKS.clear();
+        rejecting = false;
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            apiProduct = persistProduct("Gateway");
+            entityManager.persist(ProductAPI.builder()
+                    .product(entityManager.find(Product.class, apiProduct))
+                    .endpointUrl("https://api.example.com")
+                    .authType(AuthType.API_KEY)
+                    .build());
+            storageProduct = persistProduct("Bucket");
+            entityManager.persist(ProductStorage.builder()
+                    .product(entityManager.find(Product.class, storageProduct))
+                    .storageLocation("s3://bucket")
+                    .authType(AuthType.API_KEY)
+                    .build());
+            untypedProduct = persistProduct("Draft");
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from ProductAPI").executeUpdate();
+            entityManager.createQuery("delete from ProductStorage").executeUpdate();
+            entityManager.createQuery("delete from Product").executeUpdate();
+        });
+    }
+
+    @Test
+    void typesAreResolvedInOneQueryAndBackfilled() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<Long, ProductType> types = resolver.resolve(List.of(apiProduct, storageProduct, untypedProduct));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(Map.of(apiProduct, ProductType.API, storageProduct, ProductType.Storage), types);
+
+        // a product whose backfill is still pending is not queued again
+        resolver.resolve(List.of(apiProduct));
+        assertEquals(1, TASKS.size());
+
+        TASKS.get(0).run();
+        assertEquals(ProductType.API, storedType(apiProduct));
+        assertEquals(ProductType.Storage, storedType(storageProduct));
+        assertNull(storedType(untypedProduct));
+    }
+
+    @Test
+    void productsOfARejectedBackfillAreQueuedAgain() {
+        rejecting = true;
+        resolver.resolve(List.of(apiProduct));
+        assertTrue(TASKS.isEmpty());
+
+        rejecting = false;
+        resolver.resolve(List.of(apiProduct));
+        assertEquals(1, TASKS.size());
+    }
+
+    @Test
+    void productWhoseTypeIsClearedWhileQueuedIsNotBackfilled() {
+        resolver.resolve(List.of(apiProduct, storageProduct));
+        assertEquals(1, TASKS.size());
+
+        // clearProductTypeConfiguration commits before the backfill runs
+        transaction.executeWithoutResult(status -> entityManager
+                .createQuery("delete from ProductAPI a where a.productId = :id")
+                .setParameter("id", apiProduct)
+                .executeUpdate());
+        TASKS.get(0).run();
+
+        assertNull(storedType(apiProduct));
+        assertEquals(ProductType.Storage, storedType(storageProduct));
+        // released: once configured again, the next read queues it again
+        transaction.executeWithoutResult(status -> entityManager.persist(ProductStorage.builder()
+                .product(entityManager.find(Product.class, apiProduct))
+                .storageLocation("s3://switched")
+                .authType(AuthType.API_KEY)
+                .build()));
+        resolver.resolve(List.of(apiProduct));
+        assertEquals(2, TASKS.size());
+        TASKS.get(1).run();
+        assertEquals(ProductType.Storage, storedType(apiProduct));
+    }
+
+    @Test
+    void resolutionFromARolledBackConfigurationIsNotBackfilled() {
+        transaction.executeWithoutResult(status -> {
+            entityManager.persist(ProductStorage.builder()
+                    .product(entityManager.find(Product.class, untypedProduct))
+                    .storageLocation("s3://draft")
+                    .authType(AuthType.API_KEY)
+                    .build());
+            entityManager.flush();
+            assertEquals(Map.of(untypedProduct, ProductType.Storage), resolver.resolve(List.of(untypedProduct)));
+            status.setRollbackOnly();
+        });
+        assertEquals(1, TASKS.size());
+
+        TASKS.get(0).run();
+
+        assertNull(storedType(untypedProduct));
+    }
+
+    private Long persistProduct(String name) {
+        Product product = Product.builder()
+                .productName(name)
+                .organizationId(1L)
+                .createdOn(LocalDateTime.now())
+                .lastUpdated(LocalDateTime.now())
+                .build();
+        entityManager.persist(product);
+        return product.getProductId();
+    }
+
+    private ProductType storedType(Long productId) {
+        return transaction.execute(status -> entityManager.find(Product.class, productId).getProductType());
+    }
+}
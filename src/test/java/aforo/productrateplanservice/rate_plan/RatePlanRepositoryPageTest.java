@@ -0,0 +1,98 @@
+package aforo.productrateplanservice.rate_plan;
+
+import aforo.productrateplanservice.exception.ValidationException;
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walking the keyset pages must visit every matching plan of the tenant exactly once, in ID order.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.docker.compose.enabled=false")
+class RatePlanRepositoryPageTest {
+
+    private static final long ORG_ID = 42L;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private RatePlanRepository ratePlanRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 25; i++) {
+            persist(ORG_ID, i, i % 3 == 0 ? RatePlanStatus.ACTIVE : RatePlanStatus.DRAFT);
+            persist(ORG_ID + 1, i, RatePlanStatus.ACTIVE);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesCoverTheTenantInIdOrder() {
+        List<Long> expected = ratePlanRepository.findAllByOrganizationId(ORG_ID).stream()
+                .map(RatePlan::getRatePlanId).sorted().toList();
+
+        List<Long> seen = walk(null, 10);
+
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void filtersApplyToEveryPage() {
+        List<Long> seen = walk(RatePlanListFilter.builder().status(RatePlanStatus.ACTIVE).build(), 4);
+
+        assertEquals(9, seen.size());
+        for (Long id : seen) {
+            RatePlan ratePlan = ratePlanRepository.findById(id).orElseThrow();
+            assertEquals(RatePlanStatus.ACTIVE, ratePlan.getStatus());
+            assertEquals(ORG_ID, ratePlan.getOrganizationId());
+        }
+    }
+
+    @Test
+    void pageSizeIsBounded() {
+        assertEquals(RatePlanPage.DEFAULT_SIZE, RatePlanPage.resolveSize(null, RatePlanPage.DEFAULT_SIZE, RatePlanPage.MAX_SIZE));
+        assertEquals(RatePlanPage.MAX_SIZE, RatePlanPage.resolveSize(10_000, RatePlanPage.DEFAULT_SIZE, RatePlanPage.MAX_SIZE));
+        assertThrows(ValidationException.class, () -> RatePlanPage.resolveSize(0, RatePlanPage.DEFAULT_SIZE, RatePlanPage.MAX_SIZE));
+    }
+
+    private List<Long> walk(RatePlanListFilter filter, int size) {
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        do {
+            List<RatePlan> rows = ratePlanRepository.findPage(ORG_ID, filter, cursor, size + 1);
+            RatePlanPage page = RatePlanPage.of(rows, size, plans -> plans.stream()
+                    .map(p -> RatePlanDTO.builder().ratePlanId(p.getRatePlanId()).build())
+                    .toList());
+            assertTrue(page.getItems().size() <= size);
+            page.getItems().forEach(dto -> seen.add(dto.getRatePlanId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private void persist(long orgId, int i, RatePlanStatus status) {
+        entityManager.persist(RatePlan.builder()
+                .ratePlanCode("RP-" + orgId + "-" + i)
+                .ratePlanName("Plan " + i)
+                .organizationId(orgId)
+                .status(status)
+                .createdOn(LocalDateTime.now())
+                .lastUpdated(LocalDateTime.now())
+                .build());
+    }
+}
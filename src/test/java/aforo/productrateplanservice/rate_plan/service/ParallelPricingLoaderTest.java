@@ -0,0 +1,131 @@
+package aforo.productrateplanservice.rate_plan.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ParallelPricingLoaderTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ParallelPricingLoader loader = new ParallelPricingLoader(transactionManager, true, 3, 0, 10);
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void runsLoadsConcurrentlyWithinTheCapEachInItsOwnReadOnlyTransaction() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            TransactionDefinition definition = invocation.getArgument(0);
+            assertTrue(definition.isReadOnly());
+            assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getPropagationBehavior());
+            return new SimpleTransactionStatus();
+        });
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<Runnable> loads = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            loads.add(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                threads.add(Thread.currentThread());
+                sleep(30);
+                running.decrementAndGet();
+            });
+        }
+
+        loader.runAll(loads);
+
+        assertEquals(0, running.get());
+        assertTrue(peak.get() > 1, "loads should overlap");
+        assertTrue(peak.get() <= 3, "at most three loads at a time, saw " + peak.get());
+        assertTrue(threads.stream().allMatch(Thread::isVirtual));
+        verify(transactionManager, times(9)).getTransaction(any());
+        verify(transactionManager, times(9)).commit(any());
+    }
+
+    @Test
+    void firstFailureIsRethrown() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> loader.runAll(List.of(
+                () -> { },
+                () -> { throw new IllegalArgumentException("boom"); })));
+        assertEquals("boom", error.getMessage());
+    }
+
+    @Test
+    void runsOnCallerThreadInsideReadWriteTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        Thread caller = Thread.currentThread();
+        List<Thread> seen = new ArrayList<>();
+
+        loader.runAll(List.of(() -> seen.add(Thread.currentThread()), () -> seen.add(Thread.currentThread())));
+
+        assertEquals(List.of(caller, caller), seen);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void runsOnCallerThreadInsideReadOnlyTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Thread caller = Thread.currentThread();
+        List<Thread> seen = new ArrayList<>();
+
+        loader.runAll(List.of(() -> seen.add(Thread.currentThread()), () -> seen.add(Thread.currentThread())));
+
+        assertEquals(List.of(caller, caller), seen);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void concurrentRequestsShareOneConnectionBudget() throws Exception {
+        ParallelPricingLoader shared = new ParallelPricingLoader(transactionManager, true, 3, 0, 4);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Runnable> loads = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            loads.add(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(30);
+                running.decrementAndGet();
+            });
+        }
+        try {
+            Thread first = Thread.ofVirtual().start(() -> shared.runAll(loads));
+            Thread second = Thread.ofVirtual().start(() -> shared.runAll(loads));
+            first.join();
+            second.join();
+        } finally {
+            shared.shutdown();
+        }
+
+        assertTrue(peak.get() <= 2, "half of a four-connection pool across both requests, saw " + peak.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package aforo.productrateplanservice.rate_plan.service;
+
+import aforo.productrateplanservice.discount.DiscountMapper;
+import aforo.productrateplanservice.flatfee.FlatFee;
+import aforo.productrateplanservice.flatfee.FlatFeeMapper;
+import aforo.productrateplanservice.freemium.FreemiumMapper;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentMapper;
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.setupfee.SetupFeeMapper;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricingMapper;
+import aforo.productrateplanservice.tieredpricing.TieredPricingMapper;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingMapper;
+import aforo.productrateplanservice.volumepricing.VolumePricingMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A single-plan detail read outside a transaction must fan its pricing loads out; inside one it must stay
+ * on the caller's connection.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // toDetailedDTO only fans out with no outer transaction
+@Import({RatePlanPricingAggregationService.class, ParallelPricingLoader.class, FlatFeeMapper.class, TieredPricingMapper.class,
+        VolumePricingMapper.class, UsageBasedPricingMapper.class, StairStepPricingMapper.class,
+        SetupFeeMapper.class, DiscountMapper.class, FreemiumMapper.class, MinimumCommitmentMapper.class})
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.docker.compose.enabled=false",
+        "aforo.rateplan.detail.parallel-loads.enabled=true",
+        "aforo.rateplan.detail.parallel-loads.max-concurrency=3",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "aforo.productrateplanservice.rate_plan.service.RatePlanDetailParallelLoadTest$SlowStatements"
+})
+class RatePlanDetailParallelLoadTest {
+
+    private static final long ORG_ID = 42L;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RatePlanRepository ratePlanRepository;
+    @Autowired
+    private RatePlanPricingAggregationService aggregationService;
+
+    private RatePlan ratePlan;
+
+    @BeforeEach
+    void setUp() {
+        Long ratePlanId = new TransactionTemplate(transactionManager).execute(status -> {
+            RatePlan plan = ratePlanRepository.save(RatePlan.builder()
+                    .ratePlanCode("RP-PAR")
+                    .ratePlanName("Parallel plan")
+                    .organizationId(ORG_ID)
+                    .status(RatePlanStatus.DRAFT)
+                    .createdOn(LocalDateTime.now())
+                    .lastUpdated(LocalDateTime.now())
+                    .build());
+            FlatFee flatFee = new FlatFee();
+            flatFee.setRatePlanId(plan.getRatePlanId());
+            flatFee.setFlatFeeAmount(50);
+            flatFee.setNumberOfApiCalls(1_000L);
+            entityManager.persist(flatFee);
+            return plan.getRatePlanId();
+        });
+        ratePlan = ratePlanRepository.findByRatePlanIdAndOrganizationId(ratePlanId, ORG_ID).orElseThrow();
+        SlowStatements.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SlowStatements.reset();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM FlatFee").executeUpdate();
+            entityManager.createQuery("DELETE FROM RatePlan").executeUpdate();
+        });
+    }
+
+    @Test
+    void pricingLoadsOverlapWhenCalledOutsideATransaction() {
+        SlowStatements.enabled = true;
+        RatePlanDTO dto = aggregationService.toDetailedDTO(ratePlan);
+        SlowStatements.enabled = false;
+
+        assertEquals(9, SlowStatements.statements.get());
+        assertTrue(SlowStatements.peak.get() > 1, "loads should overlap");
+        assertTrue(SlowStatements.peak.get() <= 3, "at most three loads at a time, saw " + SlowStatements.peak.get());
+        assertFalse(SlowStatements.threads.contains(Thread.currentThread()));
+        assertEquals(50, dto.getFlatFee().getFlatFeeAmount());
+        assertTrue(dto.getTieredPricings().isEmpty());
+    }
+
+    @Test
+    void pricingLoadsStayOnTheCallersConnectionInsideATransaction() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        SlowStatements.enabled = true;
+        RatePlanDTO dto = readOnly.execute(status -> aggregationService.toDetailedDTO(ratePlan));
+        SlowStatements.enabled = false;
+
+        assertEquals(9, SlowStatements.statements.get());
+        assertEquals(1, SlowStatements.peak.get());
+        assertEquals(Set.of(Thread.currentThread()), SlowStatements.threads);
+        assertEquals(50, dto.getFlatFee().getFlatFeeAmount());
+    }
+
+    /** Holds every statement prepared while enabled long enough for concurrent ones to be seen together. */
+    public static class SlowStatements implements StatementInspector {
+
+        static volatile boolean enabled;
+        static final AtomicInteger statements = new AtomicInteger();
+        static final AtomicInteger running = new AtomicInteger();
+        static final AtomicInteger peak = new AtomicInteger();
+        static final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        static void reset() {
+            enabled = false;
+            statements.set(0);
+            running.set(0);
+            peak.set(0);
+            threads.clear();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (!enabled) return sql;
+            statements.incrementAndGet();
+            threads.add(Thread.currentThread());
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
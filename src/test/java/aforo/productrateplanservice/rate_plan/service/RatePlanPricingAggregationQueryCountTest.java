@@ -0,0 +1,251 @@
+package aforo.productrateplanservice.rate_plan.service;
+
+import aforo.productrateplanservice.discount.Discount;
+import aforo.productrateplanservice.discount.DiscountMapper;
+import aforo.productrateplanservice.discount.DiscountType;
+import aforo.productrateplanservice.flatfee.FlatFee;
+import aforo.productrateplanservice.flatfee.FlatFeeMapper;
+import aforo.productrateplanservice.freemium.Freemium;
+import aforo.productrateplanservice.freemium.FreemiumMapper;
+import aforo.productrateplanservice.freemium.FreemiumType;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitment;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentMapper;
+import aforo.productrateplanservice.product.entity.Product;
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.setupfee.SetupFee;
+import aforo.productrateplanservice.setupfee.SetupFeeMapper;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricing;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricingMapper;
+import aforo.productrateplanservice.stairsteppricing.StairStepTier;
+import aforo.productrateplanservice.tieredpricing.TieredPricing;
+import aforo.productrateplanservice.tieredpricing.TieredPricingMapper;
+import aforo.productrateplanservice.tieredpricing.TieredPricingRepository;
+import aforo.productrateplanservice.tieredpricing.TieredTier;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricing;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingMapper;
+import aforo.productrateplanservice.volumepricing.VolumePricing;
+import aforo.productrateplanservice.volumepricing.VolumePricingMapper;
+import aforo.productrateplanservice.volumepricing.VolumeTier;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Detailed listings must cost a fixed number of statements however many rate plans a tenant has,
+ * and tiers and products must never be loaded one row at a time.
+ */
+@DataJpaTest
+@Import({RatePlanPricingAggregationService.class, ParallelPricingLoader.class, FlatFeeMapper.class, TieredPricingMapper.class,
+        VolumePricingMapper.class, UsageBasedPricingMapper.class, StairStepPricingMapper.class,
+        SetupFeeMapper.class, DiscountMapper.class, FreemiumMapper.class, MinimumCommitmentMapper.class})
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.docker.compose.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RatePlanPricingAggregationQueryCountTest {
+
+    private static final long ORG_ID = 42L;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private RatePlanRepository ratePlanRepository;
+    @Autowired
+    private RatePlanPricingAggregationService aggregationService;
+    @Autowired
+    private TieredPricingRepository tieredPricingRepository;
+
+    @Test
+    void detailedListingUsesNineQueriesRegardlessOfPlanCount() {
+        persistPlans(5);
+        assertEquals(9, statementsForDetailedListing(5));
+
+        persistPlans(60);
+        assertEquals(9, statementsForDetailedListing(65));
+    }
+
+    @Test
+    void largeIdSetsAreSplitIntoChunks() {
+        ReflectionTestUtils.setField(aggregationService, "inListChunkSize", 10);
+        persistPlans(25);
+
+        assertEquals(9 * 3, statementsForDetailedListing(25));
+    }
+
+    @Test
+    void singlePlanLoadFetchesTiersWithTheirPricing() {
+        persistPlans(1);
+        entityManager.flush();
+        entityManager.clear();
+        RatePlan ratePlan = ratePlanRepository.findAllByOrganizationId(ORG_ID).get(0);
+
+        Statistics statistics = statistics();
+        RatePlanDTO dto = aggregationService.toDetailedDTO(ratePlan);
+
+        assertEquals(9, statistics.getPrepareStatementCount());
+        assertEquals(3, dto.getTieredPricings().get(0).getTiers().size());
+        assertEquals(3, dto.getVolumePricings().get(0).getTiers().size());
+        assertEquals(3, dto.getStairStepPricings().get(0).getTiers().size());
+    }
+
+    @Test
+    void lazyProductsAndTiersAreBatchFetched() {
+        for (int i = 0; i < 5; i++) {
+            Product product = Product.builder()
+                    .productName("Product " + i)
+                    .organizationId(ORG_ID)
+                    .createdOn(LocalDateTime.now())
+                    .lastUpdated(LocalDateTime.now())
+                    .build();
+            entityManager.persist(product);
+            persistPlans(1);
+            ratePlanRepository.findAllByOrganizationId(ORG_ID).stream()
+                    .filter(rp -> rp.getProduct() == null)
+                    .forEach(rp -> rp.setProduct(product));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // fetched with the listing query
+        Statistics statistics = statistics();
+        ratePlanRepository.findAllByOrganizationId(ORG_ID).forEach(rp -> assertNotNull(rp.getProduct().getProductName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        entityManager.clear();
+
+        // lazy proxies: one batch for all five products, one for all five pricings' tiers
+        statistics.clear();
+        ratePlanRepository.findAll().forEach(rp -> assertNotNull(rp.getProduct().getProductName()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        statistics.clear();
+        tieredPricingRepository.findAll().forEach(tp -> assertEquals(3, tp.getTiers().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private long statementsForDetailedListing(int expectedPlans) {
+        entityManager.flush();
+        entityManager.clear();
+        List<RatePlan> ratePlans = ratePlanRepository.findAllByOrganizationId(ORG_ID);
+
+        Statistics statistics = statistics();
+        List<RatePlanDTO> detailed = aggregationService.toDetailedDTOsBatch(ratePlans);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedPlans, detailed.size());
+        for (RatePlanDTO dto : detailed) {
+            assertEquals(3, dto.getTieredPricings().get(0).getTiers().size());
+            assertEquals(3, dto.getVolumePricings().get(0).getTiers().size());
+            assertEquals(3, dto.getStairStepPricings().get(0).getTiers().size());
+            assertEquals(1, dto.getUsageBasedPricings().size());
+            assertEquals(1, dto.getSetupFees().size());
+            assertEquals(1, dto.getDiscounts().size());
+            assertEquals(1, dto.getFreemiums().size());
+            assertEquals(1, dto.getMinimumCommitments().size());
+            assertEquals(50, dto.getFlatFee().getFlatFeeAmount());
+        }
+        return statements;
+    }
+
+    private void persistPlans(int count) {
+        long existing = ratePlanRepository.count();
+        for (int i = 0; i < count; i++) {
+            RatePlan ratePlan = RatePlan.builder()
+                    .ratePlanCode("RP-" + (existing + i))
+                    .ratePlanName("Plan " + (existing + i))
+                    .organizationId(ORG_ID)
+                    .status(RatePlanStatus.DRAFT)
+                    .createdOn(LocalDateTime.now())
+                    .lastUpdated(LocalDateTime.now())
+                    .build();
+            entityManager.persist(ratePlan);
+            persistPricing(ratePlan);
+        }
+    }
+
+    private void persistPricing(RatePlan ratePlan) {
+        FlatFee flatFee = new FlatFee();
+        flatFee.setRatePlanId(ratePlan.getRatePlanId());
+        flatFee.setFlatFeeAmount(50);
+        flatFee.setNumberOfApiCalls(1_000L);
+        entityManager.persist(flatFee);
+
+        TieredPricing tiered = new TieredPricing();
+        tiered.setRatePlan(ratePlan);
+        VolumePricing volume = new VolumePricing();
+        volume.setRatePlan(ratePlan);
+        volume.setTiers(new ArrayList<>());
+        StairStepPricing stairStep = new StairStepPricing();
+        stairStep.setRatePlan(ratePlan);
+        stairStep.setTiers(new ArrayList<>());
+        for (long t = 0; t < 3; t++) {
+            Long end = t == 2 ? null : (t + 1) * 100;
+            tiered.getTiers().add(TieredTier.builder().startRange(t * 100 + 1).endRange(end)
+                    .unitPrice(BigDecimal.ONE).tieredPricing(tiered).build());
+            volume.getTiers().add(VolumeTier.builder().usageStart(t * 100 + 1).usageEnd(end)
+                    .unitPrice(BigDecimal.ONE).volumePricing(volume).build());
+            stairStep.getTiers().add(StairStepTier.builder().usageStart(t * 100 + 1).usageEnd(end)
+                    .flatCost(BigDecimal.TEN).stairStepPricing(stairStep).build());
+        }
+        entityManager.persist(tiered);
+        entityManager.persist(volume);
+        entityManager.persist(stairStep);
+
+        UsageBasedPricing usageBased = new UsageBasedPricing();
+        usageBased.setRatePlan(ratePlan);
+        usageBased.setPerUnitAmount(new BigDecimal("0.01"));
+        entityManager.persist(usageBased);
+
+        SetupFee setupFee = new SetupFee();
+        setupFee.setRatePlan(ratePlan);
+        setupFee.setSetupFee(BigDecimal.TEN);
+        entityManager.persist(setupFee);
+
+        Discount discount = new Discount();
+        discount.setRatePlan(ratePlan);
+        discount.setDiscountType(DiscountType.PERCENTAGE);
+        discount.setPercentageDiscount(10.0);
+        discount.setEligibility("ALL");
+        discount.setStartDate(LocalDate.of(2025, 1, 1));
+        discount.setEndDate(LocalDate.of(2025, 12, 31));
+        entityManager.persist(discount);
+
+        Freemium freemium = new Freemium();
+        freemium.setRatePlan(ratePlan);
+        freemium.setFreemiumType(FreemiumType.FREE_UNITS);
+        freemium.setFreeUnits(100);
+        freemium.setStartDate(LocalDate.of(2025, 1, 1));
+        freemium.setEndDate(LocalDate.of(2025, 12, 31));
+        entityManager.persist(freemium);
+
+        MinimumCommitment commitment = new MinimumCommitment();
+        commitment.setRatePlan(ratePlan);
+        commitment.setMinimumUsage(10);
+        commitment.setMinimumCharge(5);
+        entityManager.persist(commitment);
+    }
+}
@@ -0,0 +1,129 @@
+package aforo.productrateplanservice.rate_plan.service;
+
+import aforo.productrateplanservice.discount.DiscountMapper;
+import aforo.productrateplanservice.exception.NotFoundException;
+import aforo.productrateplanservice.exception.ValidationException;
+import aforo.productrateplanservice.flatfee.FlatFeeMapper;
+import aforo.productrateplanservice.freemium.FreemiumMapper;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentMapper;
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanFields;
+import aforo.productrateplanservice.setupfee.SetupFee;
+import aforo.productrateplanservice.setupfee.SetupFeeDTO;
+import aforo.productrateplanservice.setupfee.SetupFeeMapper;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricingMapper;
+import aforo.productrateplanservice.tenant.TenantContext;
+import aforo.productrateplanservice.tieredpricing.TieredPricingMapper;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingMapper;
+import aforo.productrateplanservice.volumepricing.VolumePricingMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A sparse fieldset must select only its columns and load only the pricing sections it names.
+ */
+@DataJpaTest
+@Import({RatePlanProjectionService.class, RatePlanPricingAggregationService.class, ParallelPricingLoader.class,
+        FlatFeeMapper.class, TieredPricingMapper.class, VolumePricingMapper.class, UsageBasedPricingMapper.class,
+        StairStepPricingMapper.class, SetupFeeMapper.class, DiscountMapper.class, FreemiumMapper.class,
+        MinimumCommitmentMapper.class})
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.docker.compose.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RatePlanProjectionServiceTest {
+
+    private static final long ORG_ID = 42L;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private RatePlanProjectionService projectionService;
+
+    private Long ratePlanId;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.set(ORG_ID);
+        for (int i = 0; i < 3; i++) {
+            RatePlan ratePlan = RatePlan.builder()
+                    .ratePlanCode("RP-" + i)
+                    .ratePlanName("Plan " + i)
+                    .organizationId(ORG_ID)
+                    .status(RatePlanStatus.DRAFT)
+                    .createdOn(LocalDateTime.now())
+                    .lastUpdated(LocalDateTime.now())
+                    .build();
+            entityManager.persist(ratePlan);
+            SetupFee setupFee = new SetupFee();
+            setupFee.setRatePlan(ratePlan);
+            setupFee.setSetupFee(BigDecimal.valueOf(10 + i));
+            entityManager.persist(setupFee);
+            ratePlanId = ratePlan.getRatePlanId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void columnOnlyFieldsAreOneStatement() {
+        Statistics statistics = statistics();
+        List<Map<String, Object>> rows = projectionService.getAllRatePlans(RatePlanFields.parse("ratePlanName,status"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3, rows.size());
+        assertEquals(List.of("ratePlanId", "ratePlanName", "status"), List.copyOf(rows.get(0).keySet()));
+        assertEquals(RatePlanStatus.DRAFT, rows.get(0).get("status"));
+    }
+
+    @Test
+    void onlyRequestedSectionsAreLoaded() {
+        Statistics statistics = statistics();
+        Map<String, Object> row = projectionService.getRatePlanById(ratePlanId, RatePlanFields.parse("productName,setupFees"));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertNull(row.get("productName"));
+        @SuppressWarnings("unchecked")
+        List<SetupFeeDTO> setupFees = (List<SetupFeeDTO>) row.get("setupFees");
+        assertEquals(0, BigDecimal.valueOf(12).compareTo(setupFees.get(0).getSetupFee()));
+    }
+
+    @Test
+    void unknownFieldsAndOtherTenantsAreRejected() {
+        assertThrows(ValidationException.class, () -> RatePlanFields.parse("ratePlanName,secret"));
+        assertNull(RatePlanFields.parse(" "));
+
+        TenantContext.set(ORG_ID + 1);
+        assertThrows(NotFoundException.class,
+                () -> projectionService.getRatePlanById(ratePlanId, RatePlanFields.parse("ratePlanName")));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
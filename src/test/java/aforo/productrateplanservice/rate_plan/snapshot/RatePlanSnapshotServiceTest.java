@@ -0,0 +1,206 @@
+package aforo.productrateplanservice.rate_plan.snapshot;
+
+import aforo.productrateplanservice.cache.CacheInvalidationBus;
+import aforo.productrateplanservice.cache.CacheInvalidationService;
+import aforo.productrateplanservice.cache.CacheWarmUpService;
+import aforo.productrateplanservice.cache.TenantCacheGenerations;
+import aforo.productrateplanservice.config.CacheInvalidationBusConfig;
+import aforo.productrateplanservice.config.SimpleCacheConfig;
+import aforo.productrateplanservice.discount.DiscountMapper;
+import aforo.productrateplanservice.estimator.RatePlanProgramCache;
+import aforo.productrateplanservice.flatfee.FlatFeeMapper;
+import aforo.productrateplanservice.freemium.FreemiumMapper;
+import aforo.productrateplanservice.minimumcommitment.MinimumCommitmentMapper;
+import aforo.productrateplanservice.product.enums.RatePlanStatus;
+import aforo.productrateplanservice.rate_plan.RatePlan;
+import aforo.productrateplanservice.rate_plan.RatePlanDTO;
+import aforo.productrateplanservice.rate_plan.RatePlanRepository;
+import aforo.productrateplanservice.model.ETags;
+import aforo.productrateplanservice.rate_plan.service.ParallelPricingLoader;
+import aforo.productrateplanservice.rate_plan.service.RatePlanETagService;
+import aforo.productrateplanservice.rate_plan.service.RatePlanPricingAggregationService;
+import aforo.productrateplanservice.setupfee.SetupFeeCreateUpdateDTO;
+import aforo.productrateplanservice.setupfee.SetupFeeDTO;
+import aforo.productrateplanservice.setupfee.SetupFeeMapper;
+import aforo.productrateplanservice.setupfee.SetupFeeRepository;
+import aforo.productrateplanservice.setupfee.SetupFeeServiceImpl;
+import aforo.productrateplanservice.stairsteppricing.StairStepPricingMapper;
+import aforo.productrateplanservice.tenant.TenantContext;
+import aforo.productrateplanservice.tieredpricing.TieredPricingMapper;
+import aforo.productrateplanservice.usagebasedpricing.UsageBasedPricingMapper;
+import aforo.productrateplanservice.volumepricing.VolumePricingMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pricing writes must refresh the snapshot with their own commit, and reads must be one statement.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the refresh runs just before a real commit
+@Import({RatePlanSnapshotService.class, RatePlanETagService.class, CacheInvalidationService.class, TenantCacheGenerations.class,
+        CacheInvalidationBus.class, CacheInvalidationBusConfig.class, RatePlanProgramCache.class, SimpleCacheConfig.class,
+        SetupFeeServiceImpl.class, RatePlanPricingAggregationService.class, ParallelPricingLoader.class,
+        FlatFeeMapper.class, TieredPricingMapper.class, VolumePricingMapper.class, UsageBasedPricingMapper.class,
+        StairStepPricingMapper.class, SetupFeeMapper.class, DiscountMapper.class, FreemiumMapper.class,
+        MinimumCommitmentMapper.class})
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.docker.compose.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RatePlanSnapshotServiceTest {
+
+    private static final long ORG_ID = 42L;
+
+    @MockBean
+    private CacheWarmUpService cacheWarmUpService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RatePlanRepository ratePlanRepository;
+    @Autowired
+    private SetupFeeRepository setupFeeRepository;
+    @Autowired
+    private RatePlanSnapshotRepository snapshotRepository;
+    @Autowired
+    private RatePlanSnapshotService snapshotService;
+    @Autowired
+    private SetupFeeServiceImpl setupFeeService;
+    @Autowired
+    private RatePlanETagService eTagService;
+
+    private Long ratePlanId;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.set(ORG_ID);
+        ratePlanId = ratePlanRepository.save(RatePlan.builder()
+                .ratePlanCode("RP-SNAP")
+                .ratePlanName("Snapshot plan")
+                .organizationId(ORG_ID)
+                .status(RatePlanStatus.DRAFT)
+                .createdOn(LocalDateTime.now())
+                .lastUpdated(LocalDateTime.now())
+                .build()).getRatePlanId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshotRepository.deleteAll();
+        setupFeeRepository.deleteAll();
+        ratePlanRepository.deleteAll();
+        TenantContext.clear();
+    }
+
+    @Test
+    void pricingWritesRefreshTheSnapshotWithTheirCommit() {
+        SetupFeeDTO created = setupFeeService.create(ratePlanId, new SetupFeeCreateUpdateDTO(new BigDecimal("10.00"), 1, "Setup"));
+        assertEquals(1, snapshotRepository.findById(ratePlanId).orElseThrow().getVersion());
+        assertEquals(0, new BigDecimal("10.00").compareTo(current().getSetupFees().get(0).getSetupFee()));
+
+        setupFeeService.update(ratePlanId, created.getId(), new SetupFeeCreateUpdateDTO(new BigDecimal("25.00"), 1, "Setup"));
+        assertEquals(2, snapshotRepository.findById(ratePlanId).orElseThrow().getVersion());
+        assertEquals(0, new BigDecimal("25.00").compareTo(current().getSetupFees().get(0).getSetupFee()));
+
+        TransactionTemplate rolledBack = new TransactionTemplate(transactionManager);
+        rolledBack.executeWithoutResult(status -> {
+            setupFeeService.update(ratePlanId, created.getId(), new SetupFeeCreateUpdateDTO(new BigDecimal("99.00"), 1, "Setup"));
+            status.setRollbackOnly();
+        });
+        assertEquals(2, snapshotRepository.findById(ratePlanId).orElseThrow().getVersion());
+        assertEquals(0, new BigDecimal("25.00").compareTo(current().getSetupFees().get(0).getSetupFee()));
+    }
+
+    @Test
+    void currentSnapshotIsReadWithOneStatement() {
+        snapshotService.rebuild(ratePlanId, ORG_ID);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        RatePlanDTO dto = current();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Snapshot plan", dto.getRatePlanName());
+        assertTrue(snapshotService.findCurrent(ratePlanId, ORG_ID + 1).isEmpty());
+    }
+
+    @Test
+    void staleSnapshotsAreRebuiltOnRead() {
+        snapshotService.rebuild(ratePlanId, ORG_ID);
+        snapshotService.markTenantStale(ORG_ID);
+        assertTrue(snapshotService.findCurrent(ratePlanId, ORG_ID).isEmpty());
+
+        snapshotService.rebuild(ratePlanId, ORG_ID);
+        RatePlanSnapshot snapshot = snapshotRepository.findById(ratePlanId).orElseThrow();
+        assertFalse(snapshot.isStale());
+        assertEquals(3, snapshot.getVersion()); // built, marked stale, rebuilt
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteANewerSnapshot() {
+        snapshotService.rebuild(ratePlanId, ORG_ID);
+        snapshotService.markTenantStale(ORG_ID);
+
+        // a rebuild that started from version 1 lost the race against the stale mark (version 2)
+        Integer replaced = new TransactionTemplate(transactionManager).execute(status ->
+                snapshotRepository.replaceIfVersion(ratePlanId, 1L, "{}", LocalDateTime.now()));
+        assertEquals(0, replaced);
+        assertTrue(snapshotRepository.findById(ratePlanId).orElseThrow().isStale());
+    }
+
+    @Test
+    void eTagFollowsPricingWritesWithoutAssemblingTheDTO() {
+        String initial = eTagService.getRatePlanETag(ratePlanId); // builds the missing snapshot
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(initial, eTagService.getRatePlanETag(ratePlanId));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        MockHttpServletRequest poll = new MockHttpServletRequest("GET", "/api/rateplans/" + ratePlanId);
+        poll.addHeader(HttpHeaders.IF_NONE_MATCH, initial);
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        assertTrue(new ServletWebRequest(poll, notModified).checkNotModified(initial));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), notModified.getStatus());
+
+        setupFeeService.create(ratePlanId, new SetupFeeCreateUpdateDTO(new BigDecimal("10.00"), 1, "Setup"));
+        String changed = eTagService.getRatePlanETag(ratePlanId);
+        assertNotEquals(initial, changed);
+
+        MockHttpServletRequest put = new MockHttpServletRequest("PUT", "/api/rateplans/" + ratePlanId);
+        put.addHeader(HttpHeaders.IF_MATCH, initial);
+        MockHttpServletResponse preconditionFailed = new MockHttpServletResponse();
+        assertTrue(ETags.ifMatchFailed(new ServletWebRequest(put, preconditionFailed), () -> changed));
+        assertEquals(HttpStatus.PRECONDITION_FAILED.value(), preconditionFailed.getStatus());
+    }
+
+    private RatePlanDTO current() {
+        return snapshotService.findCurrent(ratePlanId, ORG_ID).orElseThrow();
+    }
+}